@@ -0,0 +1,26 @@
+package com.leathric.config;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+/**
+ * Bounded executor that runs catalog queries for the asynchronous read endpoints, off the Tomcat workers.
+ */
+@Configuration
+@EnableConfigurationProperties(AsyncCatalogProperties.class)
+public class AsyncCatalogConfig {
+
+    @Bean
+    public ThreadPoolTaskExecutor catalogReadExecutor(AsyncCatalogProperties properties) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(properties.getPoolSize());
+        executor.setMaxPoolSize(properties.getPoolSize());
+        executor.setQueueCapacity(properties.getQueueCapacity());
+        executor.setThreadNamePrefix("catalog-read-");
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(10);
+        return executor;
+    }
+}
@@ -0,0 +1,36 @@
+package com.leathric.config;
+
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.validation.annotation.Validated;
+
+import java.time.Duration;
+
+/**
+ * Externalized settings for the asynchronous catalog read endpoints under {@code /api/catalog/async}.
+ */
+@Getter
+@Setter
+@Validated
+@ConfigurationProperties(prefix = "app.catalog.async")
+public class AsyncCatalogProperties {
+
+    /**
+     * Threads running catalog queries. Keep below the connection pool size so the blocking
+     * write path always has connections left.
+     */
+    @Min(1)
+    private int poolSize = 8;
+
+    /**
+     * Reads waiting for a thread; beyond this requests are rejected with 503 instead of queueing.
+     */
+    @Min(0)
+    private int queueCapacity = 1000;
+
+    @NotNull
+    private Duration timeout = Duration.ofSeconds(10);
+}
@@ -0,0 +1,12 @@
+package com.leathric.config;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Registers catalog feed, catalog read model and similarity engine properties.
+ */
+@Configuration
+@EnableConfigurationProperties({CatalogFeedProperties.class, CatalogReadModelProperties.class, SimilarityProperties.class})
+public class CatalogFeedConfig {
+}
@@ -0,0 +1,43 @@
+package com.leathric.config;
+
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.validation.annotation.Validated;
+
+/**
+ * Externalized merchant feed and sitemap generation settings.
+ */
+@Getter
+@Setter
+@Validated
+@ConfigurationProperties(prefix = "app.feed")
+public class CatalogFeedProperties {
+
+    private boolean enabled = true;
+
+    @NotBlank
+    private String cron = "0 15 */6 * * *";
+
+    @NotBlank
+    private String outputDir = "feeds";
+
+    @NotBlank
+    private String storefrontBaseUrl = "http://localhost:3000";
+
+    @NotBlank
+    private String publicBaseUrl = "http://localhost:8080";
+
+    @NotBlank
+    private String brand = "Leathric";
+
+    @NotBlank
+    private String currency = "INR";
+
+    @Min(1)
+    @Max(50_000)
+    private int urlsPerSitemap = 50_000;
+}
@@ -0,0 +1,26 @@
+package com.leathric.config;
+
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.validation.annotation.Validated;
+
+/**
+ * Externalized settings for the memory-mapped catalog read model.
+ */
+@Getter
+@Setter
+@Validated
+@ConfigurationProperties(prefix = "app.catalog.read-model")
+public class CatalogReadModelProperties {
+
+    private boolean enabled = false;
+
+    @NotBlank
+    private String directory = "data/catalog";
+
+    @Min(1000)
+    private long refreshIntervalMs = 60_000;
+}
@@ -0,0 +1,56 @@
+package com.leathric.config;
+
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.validation.annotation.Validated;
+
+/**
+ * Externalized settings for "customers also bought" recommendations.
+ */
+@Getter
+@Setter
+@Validated
+@ConfigurationProperties(prefix = "app.recommendations.co-purchase")
+public class CoPurchaseProperties {
+
+    private boolean enabled = true;
+
+    /**
+     * Co-purchased products kept per product.
+     */
+    @Min(1)
+    @Max(100)
+    private int topN = 20;
+
+    /**
+     * Orders a pair must appear in together before it is recommended.
+     */
+    @Min(1)
+    private int minSupport = 2;
+
+    /**
+     * Larger baskets (bulk or wholesale orders) only count their first items, bounding the quadratic pair count.
+     */
+    @Min(2)
+    private int maxBasketSize = 50;
+
+    @NotBlank
+    private String snapshotPath = "data/recommendations/co-purchase.bin";
+
+    @Min(1000)
+    private long snapshotIntervalMs = 300_000;
+
+    @Min(1)
+    private int backfillBatchSize = 1000;
+
+    /**
+     * Orders younger than this are left to the live order events during backfill, since their
+     * transactions may not have committed yet.
+     */
+    @Min(0)
+    private int backfillSettleSeconds = 30;
+}
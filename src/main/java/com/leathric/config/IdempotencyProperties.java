@@ -0,0 +1,41 @@
+package com.leathric.config;
+
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.validation.annotation.Validated;
+
+import java.time.Duration;
+
+/**
+ * Externalized settings for {@code Idempotency-Key} handling.
+ */
+@Getter
+@Setter
+@Validated
+@ConfigurationProperties(prefix = "app.idempotency")
+public class IdempotencyProperties {
+
+    /**
+     * How long a stored outcome is replayed for retries of the same key.
+     */
+    @NotNull
+    private Duration ttl = Duration.ofHours(24);
+
+    /**
+     * Outcomes kept in memory on this instance; older ones are read back from the table.
+     */
+    @Min(0)
+    private int maxCachedEntries = 10_000;
+
+    /**
+     * How long a duplicate waits for the in-flight first request before giving up with 409.
+     */
+    @NotNull
+    private Duration waitTimeout = Duration.ofSeconds(30);
+
+    @Min(1)
+    private int cleanupBatchSize = 1000;
+}
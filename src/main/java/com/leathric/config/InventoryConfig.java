@@ -0,0 +1,12 @@
+package com.leathric.config;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Registers inventory reservation properties.
+ */
+@Configuration
+@EnableConfigurationProperties(InventoryReservationProperties.class)
+public class InventoryConfig {
+}
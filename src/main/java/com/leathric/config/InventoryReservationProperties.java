@@ -0,0 +1,49 @@
+package com.leathric.config;
+
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.validation.annotation.Validated;
+
+import java.time.Duration;
+
+/**
+ * Externalized settings for checkout stock reservations.
+ */
+@Getter
+@Setter
+@Validated
+@ConfigurationProperties(prefix = "app.inventory.reservations")
+public class InventoryReservationProperties {
+
+    private boolean enabled = true;
+
+    /**
+     * How long units stay held between checkout start and order placement.
+     */
+    @NotNull
+    private Duration ttl = Duration.ofMinutes(10);
+
+    /**
+     * Counter shards per product; rounded up to a power of two.
+     */
+    @Min(1)
+    @Max(256)
+    private int shards = 8;
+
+    @Min(100)
+    private long expiryIntervalMs = 1000;
+
+    /**
+     * How often held counters are re-based on {@code products.stock_quantity}, picking up admin edits and
+     * changes made by other instances.
+     */
+    @Min(1000)
+    private long reconcileIntervalMs = 30_000;
+
+    @Min(1)
+    private int reconcileBatchSize = 500;
+}
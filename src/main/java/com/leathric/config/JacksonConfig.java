@@ -0,0 +1,19 @@
+package com.leathric.config;
+
+import com.leathric.util.SparseFieldset;
+import org.springframework.boot.autoconfigure.jackson.Jackson2ObjectMapperBuilderCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class JacksonConfig {
+
+    /**
+     * Response DTOs carry {@code @JsonFilter} ids for {@code ?fields=} support; without a request-specific
+     * filter they must still serialize in full.
+     */
+    @Bean
+    public Jackson2ObjectMapperBuilderCustomizer sparseFieldsetFilterCustomizer() {
+        return builder -> builder.filters(SparseFieldset.defaultFilterProvider());
+    }
+}
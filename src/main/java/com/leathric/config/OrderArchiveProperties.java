@@ -0,0 +1,42 @@
+package com.leathric.config;
+
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.validation.annotation.Validated;
+
+/**
+ * Externalized settings for archiving closed orders out of the live order tables.
+ */
+@Getter
+@Setter
+@Validated
+@ConfigurationProperties(prefix = "app.orders.archive")
+public class OrderArchiveProperties {
+
+    private boolean enabled = false;
+
+    /**
+     * Days a DELIVERED, CANCELLED or REFUNDED order stays untouched before it is archived. Delivered orders
+     * can still be returned, so this should be well past the return window.
+     */
+    @Min(30)
+    private int retentionDays = 365;
+
+    /**
+     * Orders moved per transaction.
+     */
+    @Min(1)
+    private int batchSize = 200;
+
+    /**
+     * Pause between batches so archiving does not compete with checkout for I/O and locks.
+     */
+    @Min(0)
+    private long pauseMs = 200;
+
+    @NotBlank
+    private String cron = "0 30 3 * * *";
+}
@@ -0,0 +1,24 @@
+package com.leathric.config;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+/**
+ * Small executor that drains per-connection event buffers for the order tracking streams.
+ */
+@Configuration
+@EnableConfigurationProperties(OrderEventStreamProperties.class)
+public class OrderEventStreamConfig {
+
+    @Bean
+    public ThreadPoolTaskExecutor orderEventStreamExecutor(OrderEventStreamProperties properties) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(properties.getSenderThreads());
+        executor.setMaxPoolSize(properties.getSenderThreads());
+        executor.setQueueCapacity(properties.getMaxSubscriptions());
+        executor.setThreadNamePrefix("order-events-");
+        return executor;
+    }
+}
@@ -0,0 +1,49 @@
+package com.leathric.config;
+
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.validation.annotation.Validated;
+
+import java.time.Duration;
+
+/**
+ * Externalized settings for the order tracking event streams.
+ */
+@Getter
+@Setter
+@Validated
+@ConfigurationProperties(prefix = "app.orders.event-stream")
+public class OrderEventStreamProperties {
+
+    private boolean enabled = true;
+
+    /**
+     * Lifetime of one stream; clients reconnect and receive a fresh snapshot.
+     */
+    @NotNull
+    private Duration timeout = Duration.ofMinutes(30);
+
+    /**
+     * Interval of heartbeat comments, which also checks subscribed orders for changes made on other instances.
+     */
+    @Min(1000)
+    private long heartbeatIntervalMs = 15_000;
+
+    /**
+     * Events buffered per connection; a client that falls this far behind is disconnected.
+     */
+    @Min(1)
+    private int bufferSize = 16;
+
+    @Min(1)
+    private int maxSubscriptions = 10_000;
+
+    /**
+     * Threads writing buffered events to connections; open streams hold no thread while idle.
+     */
+    @Min(1)
+    private int senderThreads = 4;
+}
@@ -0,0 +1,12 @@
+package com.leathric.config;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Registers unpaid order expiry properties.
+ */
+@Configuration
+@EnableConfigurationProperties(OrderExpiryProperties.class)
+public class OrderExpiryConfig {
+}
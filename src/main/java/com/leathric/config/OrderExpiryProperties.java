@@ -0,0 +1,37 @@
+package com.leathric.config;
+
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.validation.annotation.Validated;
+
+import java.time.Duration;
+
+/**
+ * Externalized settings for expiring orders that were never paid.
+ */
+@Getter
+@Setter
+@Validated
+@ConfigurationProperties(prefix = "app.orders.expiry")
+public class OrderExpiryProperties {
+
+    private boolean enabled = true;
+
+    /**
+     * How long a CREATED order may wait for payment before it is cancelled and its stock returned.
+     */
+    @NotNull
+    private Duration ttl = Duration.ofMinutes(30);
+
+    /**
+     * Orders claimed and cancelled per transaction.
+     */
+    @Min(1)
+    private int batchSize = 200;
+
+    @Min(1000)
+    private long intervalMs = 60_000;
+}
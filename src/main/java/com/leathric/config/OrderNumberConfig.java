@@ -0,0 +1,20 @@
+package com.leathric.config;
+
+import com.leathric.services.ids.OrderNumberGenerator;
+import com.leathric.services.ids.SnowflakeIdGenerator;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Node-aware order number generator shared by all checkouts on this instance.
+ */
+@Configuration
+@EnableConfigurationProperties(OrderNumberProperties.class)
+public class OrderNumberConfig {
+
+    @Bean
+    public OrderNumberGenerator orderNumberGenerator(OrderNumberProperties properties) {
+        return new OrderNumberGenerator(new SnowflakeIdGenerator(properties.getNodeId()));
+    }
+}
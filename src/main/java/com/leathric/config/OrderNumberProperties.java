@@ -0,0 +1,26 @@
+package com.leathric.config;
+
+import com.leathric.services.ids.SnowflakeIdGenerator;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.validation.annotation.Validated;
+
+/**
+ * Externalized settings for order number generation.
+ */
+@Getter
+@Setter
+@Validated
+@ConfigurationProperties(prefix = "app.orders.numbers")
+public class OrderNumberProperties {
+
+    /**
+     * Must differ between instances writing to the same database.
+     */
+    @Min(0)
+    @Max(SnowflakeIdGenerator.MAX_NODE_ID)
+    private long nodeId = 0;
+}
@@ -0,0 +1,31 @@
+package com.leathric.config;
+
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.validation.annotation.Validated;
+
+import java.time.Duration;
+
+/**
+ * Externalized settings for the order tracking cache.
+ */
+@Getter
+@Setter
+@Validated
+@ConfigurationProperties(prefix = "app.orders.tracking-cache")
+public class OrderTrackingProperties {
+
+    private boolean enabled = true;
+
+    @Min(1)
+    private int maxEntries = 10_000;
+
+    /**
+     * Upper bound on staleness for changes made by other instances; local changes invalidate immediately.
+     */
+    @NotNull
+    private Duration ttl = Duration.ofSeconds(30);
+}
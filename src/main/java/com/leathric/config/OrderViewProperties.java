@@ -0,0 +1,29 @@
+package com.leathric.config;
+
+import jakarta.validation.constraints.Min;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.validation.annotation.Validated;
+
+/**
+ * Externalized settings for the denormalized order read model.
+ */
+@Getter
+@Setter
+@Validated
+@ConfigurationProperties(prefix = "app.orders.views")
+public class OrderViewProperties {
+
+    /**
+     * Serve order history, detail and tracking from {@code order_views}. Turn on once a rebuild has covered
+     * the orders placed before the views existed; single-order reads fall back to the order tables either way.
+     */
+    private boolean serveReads = false;
+
+    /**
+     * Orders rebuilt per transaction.
+     */
+    @Min(1)
+    private int rebuildBatchSize = 500;
+}
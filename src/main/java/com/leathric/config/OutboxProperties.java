@@ -0,0 +1,55 @@
+package com.leathric.config;
+
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.validation.annotation.Validated;
+
+import java.time.Duration;
+
+/**
+ * Externalized settings for the order event outbox dispatcher.
+ */
+@Getter
+@Setter
+@Validated
+@ConfigurationProperties(prefix = "app.outbox")
+public class OutboxProperties {
+
+    private boolean enabled = true;
+
+    /**
+     * Events claimed per dispatcher transaction.
+     */
+    @Min(1)
+    private int batchSize = 100;
+
+    @Min(50)
+    private long pollIntervalMs = 500;
+
+    /**
+     * Deliveries attempted before an event is parked as {@code FAILED}.
+     */
+    @Min(1)
+    private int maxAttempts = 10;
+
+    /**
+     * Delay before the first retry; doubled on every further failure up to {@link #maxBackoff}.
+     */
+    @NotNull
+    private Duration initialBackoff = Duration.ofSeconds(1);
+
+    @NotNull
+    private Duration maxBackoff = Duration.ofMinutes(10);
+
+    /**
+     * How long delivered events are kept before the cleanup job deletes them.
+     */
+    @NotNull
+    private Duration retention = Duration.ofDays(7);
+
+    @Min(1)
+    private int cleanupBatchSize = 1000;
+}
@@ -0,0 +1,19 @@
+package com.leathric.config;
+
+import com.leathric.services.cache.SingleFlight;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Shared single-flight registry for read-only catalog service calls.
+ */
+@Configuration
+@EnableConfigurationProperties(ReadCoalescingProperties.class)
+public class ReadCoalescingConfig {
+
+    @Bean
+    public SingleFlight catalogReadFlight() {
+        return new SingleFlight();
+    }
+}
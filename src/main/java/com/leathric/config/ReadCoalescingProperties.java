@@ -0,0 +1,33 @@
+package com.leathric.config;
+
+import jakarta.validation.constraints.NotNull;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.validation.annotation.Validated;
+
+import java.time.Duration;
+
+/**
+ * Externalized settings for coalescing concurrent identical catalog reads.
+ */
+@Getter
+@Setter
+@Validated
+@ConfigurationProperties(prefix = "app.catalog.coalescing")
+public class ReadCoalescingProperties {
+
+    private boolean enabled = true;
+
+    /**
+     * How long a caller waits on an in-flight product detail read.
+     */
+    @NotNull
+    private Duration detailTimeout = Duration.ofSeconds(2);
+
+    /**
+     * How long a caller waits on an in-flight listing page read.
+     */
+    @NotNull
+    private Duration listingTimeout = Duration.ofSeconds(5);
+}
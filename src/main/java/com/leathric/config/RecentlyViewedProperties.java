@@ -0,0 +1,48 @@
+package com.leathric.config;
+
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.validation.annotation.Validated;
+
+import java.time.Duration;
+
+/**
+ * Externalized settings for the per-user "recently viewed" strip.
+ */
+@Getter
+@Setter
+@Validated
+@ConfigurationProperties(prefix = "app.recently-viewed")
+public class RecentlyViewedProperties {
+
+    private boolean enabled = true;
+
+    /**
+     * Products remembered per user; also bounds the persisted column (8 bytes per id).
+     */
+    @Min(1)
+    @Max(50)
+    private int capacity = 20;
+
+    @Min(100)
+    private long flushIntervalMs = 5000;
+
+    @Min(1)
+    private int flushBatchSize = 500;
+
+    /**
+     * Buffers not read or written for this long are dropped from memory once flushed.
+     */
+    @NotNull
+    private Duration idleTtl = Duration.ofMinutes(30);
+
+    /**
+     * Upper bound on buffers held in memory; the least recently used clean buffers go first.
+     */
+    @Min(1)
+    private int maxUsers = 100_000;
+}
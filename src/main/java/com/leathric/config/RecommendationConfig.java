@@ -0,0 +1,12 @@
+package com.leathric.config;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Registers recommendation properties.
+ */
+@Configuration
+@EnableConfigurationProperties(CoPurchaseProperties.class)
+public class RecommendationConfig {
+}
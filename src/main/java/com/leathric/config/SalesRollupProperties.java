@@ -0,0 +1,36 @@
+package com.leathric.config;
+
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.validation.annotation.Validated;
+
+/**
+ * Externalized settings for the sales rollup tables.
+ */
+@Getter
+@Setter
+@Validated
+@ConfigurationProperties(prefix = "app.sales.rollups")
+public class SalesRollupProperties {
+
+    /**
+     * Apply order events to the rollups as they are delivered by the outbox.
+     */
+    private boolean enabled = true;
+
+    /**
+     * Days rebuilt concurrently, each in its own transaction.
+     */
+    @Min(1)
+    @Max(32)
+    private int rebuildParallelism = 4;
+
+    /**
+     * Widest date range accepted by dashboard reads and rebuilds.
+     */
+    @Min(1)
+    private int maxRangeDays = 366;
+}
@@ -1,6 +1,7 @@
 package com.leathric.config;
 
 import com.leathric.security.JwtAuthenticationFilter;
+import jakarta.servlet.DispatcherType;
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
@@ -47,9 +48,13 @@ public class SecurityConfig {
                 // JWT-based APIs must remain stateless; no server-side HTTP session is created.
                 .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
                 .authorizeHttpRequests(auth -> auth
+                        // Async dispatches only complete responses (e.g. event streams) already authorized.
+                        .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
                         .requestMatchers("/api/auth/**").permitAll()
-                        .requestMatchers("/api/products/**", "/api/categories/**").permitAll()
+                        .requestMatchers("/api/products/recent").authenticated()
+                        .requestMatchers("/api/products/**", "/api/categories/**", "/api/catalog/**").permitAll()
                         .requestMatchers("/uploads/**").permitAll()
+                        .requestMatchers("/feeds/**", "/sitemap.xml").permitAll()
                         .requestMatchers("/api/admin/**").hasRole("ADMIN")
                         .anyRequest().authenticated())
                 .authenticationProvider(authenticationProvider())
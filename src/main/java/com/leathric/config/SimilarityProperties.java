@@ -0,0 +1,67 @@
+package com.leathric.config;
+
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.validation.annotation.Validated;
+
+/**
+ * Externalized settings for the "more like this" similar-product engine.
+ */
+@Getter
+@Setter
+@Validated
+@ConfigurationProperties(prefix = "app.catalog.similarity")
+public class SimilarityProperties {
+
+    private boolean enabled = true;
+
+    /**
+     * Neighbours precomputed and stored per product.
+     */
+    @Min(1)
+    @Max(50)
+    private int neighbours = 10;
+
+    /**
+     * Highest-weighted terms kept in each product vector.
+     */
+    @Min(1)
+    private int termsPerProduct = 32;
+
+    /**
+     * Highest-weighted terms of a product used to look up candidates.
+     */
+    @Min(1)
+    private int maxQueryTerms = 16;
+
+    /**
+     * Terms appearing in more products than this are too common to find candidates with; they still
+     * count towards vector length.
+     */
+    @Min(2)
+    private int maxPostings = 5000;
+
+    /**
+     * Added to the cosine score of candidates in the same category.
+     */
+    @DecimalMin("0.0")
+    private float categoryBoost = 0.1f;
+
+    /**
+     * Fork/join parallelism for the full batch; {@code 0} uses every available processor.
+     */
+    @Min(0)
+    private int parallelism = 0;
+
+    @Min(1)
+    private int writeBatchSize = 1000;
+
+    private String rebuildCron = "0 30 3 * * *";
+
+    @Min(1000)
+    private long incrementalIntervalMs = 60_000;
+}
@@ -1,15 +1,21 @@
 package com.leathric.config;
 
+import lombok.RequiredArgsConstructor;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.CacheControl;
 import org.springframework.web.servlet.config.annotation.ResourceHandlerRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.concurrent.TimeUnit;
 
 @Configuration
+@RequiredArgsConstructor
 public class StaticResourceConfig implements WebMvcConfigurer {
 
+    private final CatalogFeedProperties catalogFeedProperties;
+
     @Override
     public void addResourceHandlers(ResourceHandlerRegistry registry) {
         Path uploadPath = Paths.get("uploads").toAbsolutePath().normalize();
@@ -17,5 +23,12 @@ public class StaticResourceConfig implements WebMvcConfigurer {
         // Expose local uploads folder so stored product images are reachable over HTTP.
         registry.addResourceHandler("/uploads/**")
                 .addResourceLocations("file:" + uploadPath + "/");
+
+        // Generated merchant feeds and sitemaps are plain files; the resource handler serves them with
+        // Last-Modified/ETag and HTTP Range support so crawlers can resume large downloads.
+        Path feedPath = Paths.get(catalogFeedProperties.getOutputDir()).toAbsolutePath().normalize();
+        registry.addResourceHandler("/feeds/**", "/sitemap.xml")
+                .addResourceLocations("file:" + feedPath + "/")
+                .setCacheControl(CacheControl.maxAge(1, TimeUnit.HOURS).cachePublic());
     }
 }
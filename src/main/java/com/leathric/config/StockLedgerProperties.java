@@ -0,0 +1,52 @@
+package com.leathric.config;
+
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.validation.annotation.Validated;
+
+/**
+ * Externalized settings for the stock movement ledger.
+ */
+@Getter
+@Setter
+@Validated
+@ConfigurationProperties(prefix = "app.inventory.ledger")
+public class StockLedgerProperties {
+
+    private boolean enabled = true;
+
+    /**
+     * When opening balances, snapshots and reconciliation run.
+     */
+    @NotBlank
+    private String cron = "0 15 * * * *";
+
+    /**
+     * Product id ranges reconciled concurrently.
+     */
+    @Min(1)
+    @Max(32)
+    private int reconcileParallelism = 4;
+
+    /**
+     * Width of the product id range reconciled per query; also the batch size for opening balances.
+     */
+    @Min(1)
+    private int reconcileBatchSize = 1000;
+
+    /**
+     * Movements folded into snapshots per transaction.
+     */
+    @Min(1)
+    private int foldBatchSize = 5000;
+
+    /**
+     * Drifted products listed in a reconciliation report; all of them are counted and logged.
+     */
+    @Min(1)
+    private int maxReportedDrifts = 100;
+}
@@ -0,0 +1,123 @@
+package com.leathric.controller;
+
+import com.leathric.config.AsyncCatalogProperties;
+import com.leathric.services.catalog.CatalogJsonReader;
+import com.leathric.services.catalog.JsonByteWriter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Arrays;
+
+/**
+ * Anonymous catalog reads that do not hold a servlet thread while the database works.
+ * <p>
+ * Each request is handed to the bounded {@code catalogReadExecutor} and the Tomcat worker returns
+ * immediately; the query result is streamed to the client as JSON in buffer-sized chunks. A slow
+ * database therefore fills the executor queue (and then fails fast with 503) instead of pinning every
+ * worker. Responses match the blocking {@code /api/products} and {@code /api/categories} endpoints,
+ * except that listings are ordered by id.
+ */
+@RestController
+@RequestMapping("/api/catalog/async")
+@RequiredArgsConstructor
+public class AsyncCatalogController {
+
+    private static final int MAX_PAGE_SIZE = 100;
+    private static final int WRITE_BUFFER_SIZE = 8 * 1024;
+
+    private final CatalogJsonReader catalogJsonReader;
+    private final ThreadPoolTaskExecutor catalogReadExecutor;
+    private final AsyncCatalogProperties properties;
+
+    /**
+     * GET /api/catalog/async/products?page=0&size=20&direction=desc
+     */
+    @GetMapping("/products")
+    public ResponseEntity<ResponseBodyEmitter> getProducts(@RequestParam(defaultValue = "0") int page,
+                                                           @RequestParam(defaultValue = "20") int size,
+                                                           @RequestParam(defaultValue = "desc") String direction) {
+        int pageNumber = Math.max(page, 0);
+        int pageSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        boolean descending = !"asc".equalsIgnoreCase(direction);
+        return stream("Products fetched", writer -> catalogJsonReader.writeProductPage(writer, pageNumber, pageSize, descending));
+    }
+
+    @GetMapping("/products/{id}")
+    public ResponseEntity<ResponseBodyEmitter> getProduct(@PathVariable Long id) {
+        return stream("Product fetched", writer -> catalogJsonReader.writeProduct(writer, id));
+    }
+
+    @GetMapping("/products/{id}/images")
+    public ResponseEntity<ResponseBodyEmitter> getProductImages(@PathVariable Long id) {
+        return stream("Images fetched", writer -> catalogJsonReader.writeImages(writer, id));
+    }
+
+    /**
+     * GET /api/catalog/async/categories?page=0&size=20
+     */
+    @GetMapping("/categories")
+    public ResponseEntity<ResponseBodyEmitter> getCategories(@RequestParam(defaultValue = "0") int page,
+                                                             @RequestParam(defaultValue = "20") int size) {
+        int pageNumber = Math.max(page, 0);
+        int pageSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        return stream("Categories fetched", writer -> catalogJsonReader.writeCategoryPage(writer, pageNumber, pageSize));
+    }
+
+    /**
+     * Runs {@code body} on the catalog executor inside the usual {@code ApiResponse} envelope. The envelope
+     * prefix stays in the write buffer until the body has started, so an exception thrown before any data
+     * (e.g. not found) is still rendered by the exception handlers with its own status.
+     */
+    private ResponseEntity<ResponseBodyEmitter> stream(String message, JsonBody body) {
+        ResponseBodyEmitter emitter = new ResponseBodyEmitter(properties.getTimeout().toMillis());
+        // Throws TaskRejectedException (503) on this thread when the queue is full.
+        catalogReadExecutor.execute(() -> {
+            try {
+                JsonByteWriter writer = new JsonByteWriter(new EmitterOutputStream(emitter), new byte[WRITE_BUFFER_SIZE]);
+                writer.writeAscii("{\"success\":true,\"message\":").writeString(message).writeAscii(",\"data\":");
+                body.write(writer);
+                writer.write('}');
+                writer.flush();
+                emitter.complete();
+            } catch (Exception e) {
+                emitter.completeWithError(e);
+            }
+        });
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(emitter);
+    }
+
+    @FunctionalInterface
+    private interface JsonBody {
+        void write(JsonByteWriter writer) throws IOException;
+    }
+
+    /**
+     * Sends each flushed buffer as one chunk; the writer reuses its buffer, so chunks are copied.
+     */
+    private static final class EmitterOutputStream extends OutputStream {
+
+        private final ResponseBodyEmitter emitter;
+
+        private EmitterOutputStream(ResponseBodyEmitter emitter) {
+            this.emitter = emitter;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            write(new byte[]{(byte) b}, 0, 1);
+        }
+
+        @Override
+        public void write(byte[] bytes, int offset, int length) throws IOException {
+            if (length > 0) {
+                emitter.send(Arrays.copyOfRange(bytes, offset, offset + length), MediaType.APPLICATION_JSON);
+            }
+        }
+    }
+}
@@ -2,17 +2,22 @@ package com.leathric.controller;
 
 import com.leathric.dto.ApiResponse;
 import com.leathric.dto.CartDtos;
+import com.leathric.dto.ProductResponseDto;
 import com.leathric.service.CartService;
+import com.leathric.service.RecommendationService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.List;
+
 @RestController
 @RequestMapping("/api/cart")
 @RequiredArgsConstructor
 public class CartController {
 
     private final CartService cartService;
+    private final RecommendationService recommendationService;
 
     @GetMapping
     public ApiResponse<CartDtos.CartResponse> getCart() {
@@ -20,6 +25,12 @@ public class CartController {
                 .data(cartService.getCurrentUserCart()).build();
     }
 
+    @GetMapping("/recommendations")
+    public ApiResponse<List<ProductResponseDto>> getRecommendations(@RequestParam(defaultValue = "10") int limit) {
+        return ApiResponse.<List<ProductResponseDto>>builder().success(true).message("Cart recommendations fetched")
+                .data(recommendationService.getForCurrentCart(limit)).build();
+    }
+
     @PostMapping("/items")
     public ApiResponse<CartDtos.CartResponse> addItem(@Valid @RequestBody CartDtos.AddCartItemRequest request) {
         return ApiResponse.<CartDtos.CartResponse>builder().success(true).message("Item added")
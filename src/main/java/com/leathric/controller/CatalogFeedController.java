@@ -0,0 +1,32 @@
+package com.leathric.controller;
+
+import com.leathric.dto.ApiResponse;
+import com.leathric.services.catalog.CatalogFeedGenerator;
+import lombok.RequiredArgsConstructor;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/api/admin/feeds")
+@RequiredArgsConstructor
+public class CatalogFeedController {
+
+    private final CatalogFeedGenerator catalogFeedGenerator;
+
+    /**
+     * Regenerate merchant feed and sitemap outside the schedule (admin only)
+     * POST /api/admin/feeds/regenerate
+     */
+    @PostMapping("/regenerate")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ApiResponse<Long> regenerate() {
+        long written = catalogFeedGenerator.generate();
+        return ApiResponse.<Long>builder()
+                .success(written >= 0)
+                .message(written >= 0 ? "Catalog feeds regenerated" : "Catalog feed generation already in progress")
+                .data(written)
+                .build();
+    }
+}
@@ -0,0 +1,101 @@
+package com.leathric.controller;
+
+import com.leathric.exception.ResourceNotFoundException;
+import com.leathric.services.catalog.CatalogReadModel;
+import com.leathric.services.catalog.JsonByteWriter;
+import com.leathric.services.catalog.ProductView;
+import com.leathric.services.catalog.ReadModelFile;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+
+/**
+ * Listing and detail reads served from the memory-mapped catalog read model when it is enabled,
+ * falling back to the database otherwise (or for products newer than the current generation). Both
+ * sources render the same record fields and page envelope; {@code generation} is {@code null} when a
+ * listing page came from the database.
+ */
+@RestController
+@RequestMapping("/api/catalog/products")
+@RequiredArgsConstructor
+public class CatalogReadModelController {
+
+    private static final int MAX_PAGE_SIZE = 100;
+    private static final int WRITE_BUFFER_SIZE = 8 * 1024;
+
+    private final CatalogReadModel catalogReadModel;
+
+    /**
+     * Product listing, newest first by default
+     * GET /api/catalog/products?page=0&size=20&direction=desc
+     */
+    @GetMapping
+    public void getAll(@RequestParam(defaultValue = "0") int page,
+                       @RequestParam(defaultValue = "20") int size,
+                       @RequestParam(defaultValue = "desc") String direction,
+                       HttpServletResponse response) throws IOException {
+        int pageSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        int pageNumber = Math.max(page, 0);
+        boolean descending = !"asc".equalsIgnoreCase(direction);
+        ReadModelFile model = catalogReadModel.current();
+        JsonByteWriter writer = startJson(response, "Products fetched");
+        writer.writeAscii("{\"content\":[");
+        long total;
+        if (model == null) {
+            total = catalogReadModel.writeDatabasePage(writer, pageNumber, pageSize, descending);
+        } else {
+            total = model.size();
+            long first = (long) pageNumber * pageSize;
+            int end = (int) Math.min(total, first + pageSize);
+            ProductView view = new ProductView();
+            for (long i = first; i < end; i++) {
+                int position = descending ? (int) total - 1 - (int) i : (int) i;
+                if (i > first) {
+                    writer.write(',');
+                }
+                model.view(position, view).writeJson(writer);
+            }
+        }
+        writer.writeAscii("],\"number\":").writeLong(pageNumber)
+                .writeAscii(",\"size\":").writeLong(pageSize)
+                .writeAscii(",\"totalElements\":").writeLong(total)
+                .writeAscii(",\"totalPages\":").writeLong((total + pageSize - 1) / pageSize)
+                .writeAscii(",\"generation\":");
+        if (model == null) {
+            writer.writeAscii("null");
+        } else {
+            writer.writeLong(model.generation());
+        }
+        writer.writeAscii("}}");
+        writer.flush();
+    }
+
+    /**
+     * Product listing fields for one product
+     * GET /api/catalog/products/{id}
+     */
+    @GetMapping("/{id}")
+    public void getById(@PathVariable Long id, HttpServletResponse response) throws IOException {
+        ReadModelFile model = catalogReadModel.current();
+        int position = model != null ? model.indexOf(id) : -1;
+        // The envelope prefix stays in the write buffer, so a missing product is still rendered as a 404.
+        JsonByteWriter writer = startJson(response, "Product fetched");
+        if (position >= 0) {
+            model.view(position, new ProductView()).writeJson(writer);
+        } else if (!catalogReadModel.writeDatabaseProduct(writer, id)) {
+            throw new ResourceNotFoundException("Product not found");
+        }
+        writer.write('}');
+        writer.flush();
+    }
+
+    private JsonByteWriter startJson(HttpServletResponse response, String message) throws IOException {
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        JsonByteWriter writer = new JsonByteWriter(response.getOutputStream(), new byte[WRITE_BUFFER_SIZE]);
+        writer.writeAscii("{\"success\":true,\"message\":").writeString(message).writeAscii(",\"data\":");
+        return writer;
+    }
+}
@@ -0,0 +1,48 @@
+package com.leathric.controller;
+
+import com.leathric.dto.ApiResponse;
+import com.leathric.dto.CatalogSyncDtos;
+import com.leathric.service.CatalogSyncService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/api/products")
+@RequiredArgsConstructor
+public class CatalogSyncController {
+
+    private final CatalogSyncService catalogSyncService;
+
+    /**
+     * Full catalog snapshot, keyset-paged by product id
+     * GET /api/products/snapshot?pageToken=<nextPageToken>&limit=1000
+     */
+    @GetMapping("/snapshot")
+    public ApiResponse<CatalogSyncDtos.SnapshotResponse> getSnapshot(
+            @RequestParam(required = false) String pageToken,
+            @RequestParam(defaultValue = "1000") int limit) {
+        return ApiResponse.<CatalogSyncDtos.SnapshotResponse>builder()
+                .success(true)
+                .message("Catalog snapshot fetched")
+                .data(catalogSyncService.getSnapshot(pageToken, limit))
+                .build();
+    }
+
+    /**
+     * Catalog changes after a cursor
+     * GET /api/products/changes?since=<cursor>&limit=500
+     */
+    @GetMapping("/changes")
+    public ApiResponse<CatalogSyncDtos.ChangesResponse> getChanges(
+            @RequestParam(defaultValue = "0") Long since,
+            @RequestParam(defaultValue = "500") int limit) {
+        return ApiResponse.<CatalogSyncDtos.ChangesResponse>builder()
+                .success(true)
+                .message("Catalog changes fetched")
+                .data(catalogSyncService.getChanges(since, limit))
+                .build();
+    }
+}
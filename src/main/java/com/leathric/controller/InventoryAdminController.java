@@ -0,0 +1,59 @@
+package com.leathric.controller;
+
+import com.leathric.dto.ApiResponse;
+import com.leathric.dto.InventoryDtos;
+import com.leathric.service.InventoryService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/admin/inventory")
+@RequiredArgsConstructor
+public class InventoryAdminController {
+
+    private final InventoryService inventoryService;
+
+    /**
+     * Compare stock with the movement ledger now (admin only)
+     * POST /api/admin/inventory/reconcile
+     */
+    @PostMapping("/reconcile")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ApiResponse<InventoryDtos.ReconciliationReport> reconcile() {
+        return ApiResponse.<InventoryDtos.ReconciliationReport>builder()
+                .success(true)
+                .message("Stock reconciliation completed")
+                .data(inventoryService.reconcile())
+                .build();
+    }
+
+    /**
+     * Report of the last reconciliation (admin only)
+     * GET /api/admin/inventory/reconcile
+     */
+    @GetMapping("/reconcile")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ApiResponse<InventoryDtos.ReconciliationReport> getLastReconciliation() {
+        return ApiResponse.<InventoryDtos.ReconciliationReport>builder()
+                .success(true)
+                .message("Last stock reconciliation retrieved")
+                .data(inventoryService.getLastReconciliation())
+                .build();
+    }
+
+    /**
+     * Stock movements of a product with its ledger total (admin only)
+     * GET /api/admin/inventory/products/{productId}/ledger?limit=50
+     */
+    @GetMapping("/products/{productId}/ledger")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ApiResponse<InventoryDtos.ProductLedger> getProductLedger(@PathVariable Long productId,
+                                                                    @RequestParam(defaultValue = "50") int limit) {
+        return ApiResponse.<InventoryDtos.ProductLedger>builder()
+                .success(true)
+                .message("Product stock ledger retrieved")
+                .data(inventoryService.getProductLedger(productId, limit))
+                .build();
+    }
+}
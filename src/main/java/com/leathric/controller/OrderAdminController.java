@@ -0,0 +1,89 @@
+package com.leathric.controller;
+
+import com.leathric.dto.ApiResponse;
+import com.leathric.dto.OrderDtos;
+import com.leathric.service.OrderService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/admin/orders")
+@RequiredArgsConstructor
+public class OrderAdminController {
+
+    private final OrderService orderService;
+
+    /**
+     * Search all orders, newest first (admin only)
+     * GET /api/admin/orders?status=PACKED&paymentStatus=COMPLETED&createdFrom=2026-01-01T00:00:00&size=50&cursor=...
+     */
+    @GetMapping
+    @PreAuthorize("hasRole('ADMIN')")
+    public ApiResponse<OrderDtos.AdminOrderSearchWindow> searchOrders(
+            @ModelAttribute OrderDtos.AdminOrderSearchRequest request) {
+        return ApiResponse.<OrderDtos.AdminOrderSearchWindow>builder()
+                .success(true)
+                .message("Orders retrieved")
+                .data(orderService.searchOrders(request))
+                .build();
+    }
+
+    /**
+     * Unpaid order expiry counters for this instance (admin only)
+     * GET /api/admin/orders/expiry
+     */
+    @GetMapping("/expiry")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ApiResponse<OrderDtos.OrderExpiryStats> getExpiryStats() {
+        return ApiResponse.<OrderDtos.OrderExpiryStats>builder()
+                .success(true)
+                .message("Unpaid order expiry stats retrieved")
+                .data(orderService.getUnpaidOrderExpiryStats())
+                .build();
+    }
+
+    /**
+     * Expire unpaid orders now (admin only)
+     * POST /api/admin/orders/expiry/sweep
+     */
+    @PostMapping("/expiry/sweep")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ApiResponse<OrderDtos.OrderExpiryStats> expireUnpaidOrders() {
+        return ApiResponse.<OrderDtos.OrderExpiryStats>builder()
+                .success(true)
+                .message("Unpaid orders expired")
+                .data(orderService.expireUnpaidOrders())
+                .build();
+    }
+
+    /**
+     * Archive closed orders past the retention period now (admin only)
+     * POST /api/admin/orders/archive
+     */
+    @PostMapping("/archive")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ApiResponse<Long> archiveClosedOrders() {
+        long archived = orderService.archiveClosedOrders();
+        return ApiResponse.<Long>builder()
+                .success(archived >= 0)
+                .message(archived >= 0 ? "Closed orders archived" : "Order archiving already in progress")
+                .data(archived)
+                .build();
+    }
+
+    /**
+     * Regenerate the order read model (admin only)
+     * POST /api/admin/orders/views/rebuild?reset=false
+     */
+    @PostMapping("/views/rebuild")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ApiResponse<Long> rebuildOrderViews(@RequestParam(defaultValue = "false") boolean reset) {
+        long rebuilt = orderService.rebuildOrderViews(reset);
+        return ApiResponse.<Long>builder()
+                .success(rebuilt >= 0)
+                .message(rebuilt >= 0 ? "Order views rebuilt" : "Order view rebuild already in progress")
+                .data(rebuilt)
+                .build();
+    }
+}
@@ -3,13 +3,20 @@ package com.leathric.controller;
 import com.leathric.dto.ApiResponse;
 import com.leathric.dto.OrderDtos;
 import com.leathric.service.OrderService;
+import com.leathric.services.idempotency.IdempotencyGuard;
+import com.leathric.util.SparseFieldset;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.web.PageableDefault;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.MappingJacksonValue;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.Map;
 
 @RestController
 @RequestMapping("/api/orders")
@@ -17,64 +24,113 @@ import org.springframework.web.bind.annotation.*;
 public class OrderController {
 
     private final OrderService orderService;
+    private final IdempotencyGuard idempotencyGuard;
+
+    private static final Map<String, String> NESTED_FILTERS = Map.of("items", SparseFieldset.ORDER_ITEM);
 
     /**
-     * Place order from cart
+     * Place order from cart; retries with the same Idempotency-Key return the first order
      * POST /api/orders
      */
     @PostMapping
     public ApiResponse<OrderDtos.OrderResponse> placeOrder(
+            @RequestHeader(value = IdempotencyGuard.HEADER, required = false) String idempotencyKey,
             @Valid @RequestBody(required = false) OrderDtos.PlaceOrderRequest request) {
-        if (request == null) {
-            request = new OrderDtos.PlaceOrderRequest();
-        }
+        OrderDtos.PlaceOrderRequest body = request != null ? request : new OrderDtos.PlaceOrderRequest();
         return ApiResponse.<OrderDtos.OrderResponse>builder()
                 .success(true)
                 .message("Order placed successfully")
-                .data(orderService.placeOrder(request))
+                .data(idempotencyGuard.execute(idempotencyKey, "place-order", body,
+                        OrderDtos.OrderResponse.class, () -> orderService.placeOrder(body)))
+                .build();
+    }
+
+    /**
+     * Hold stock for the current cart while the user checks out
+     * POST /api/orders/reservations
+     */
+    @PostMapping("/reservations")
+    public ApiResponse<OrderDtos.ReservationResponse> reserveCart() {
+        return ApiResponse.<OrderDtos.ReservationResponse>builder()
+                .success(true)
+                .message("Stock reserved")
+                .data(orderService.reserveCart())
                 .build();
     }
 
     /**
-     * Confirm payment for order
+     * Release a reservation early
+     * DELETE /api/orders/reservations/{reservationId}
+     */
+    @DeleteMapping("/reservations/{reservationId}")
+    public ApiResponse<Void> releaseReservation(@PathVariable String reservationId) {
+        orderService.releaseReservation(reservationId);
+        return ApiResponse.<Void>builder().success(true).message("Reservation released").build();
+    }
+
+    /**
+     * Confirm payment for order; retries with the same Idempotency-Key return the first outcome
      * POST /api/orders/{orderId}/confirm-payment
      */
     @PostMapping("/{orderId}/confirm-payment")
     public ApiResponse<OrderDtos.OrderResponse> confirmPayment(
+            @RequestHeader(value = IdempotencyGuard.HEADER, required = false) String idempotencyKey,
             @PathVariable Long orderId,
             @Valid @RequestBody OrderDtos.ConfirmPaymentRequest request) {
         return ApiResponse.<OrderDtos.OrderResponse>builder()
                 .success(true)
                 .message("Payment confirmed successfully")
-                .data(orderService.confirmPayment(orderId, request))
+                .data(idempotencyGuard.execute(idempotencyKey, "confirm-payment:" + orderId, request,
+                        OrderDtos.OrderResponse.class, () -> orderService.confirmPayment(orderId, request)))
                 .build();
     }
 
     /**
      * Get user's order history
-     * GET /api/orders
+     * GET /api/orders?fields=orderId,status,totalAmount
      */
     @GetMapping
-    public ApiResponse<Page<OrderDtos.OrderResponse>> getMyOrders(
-            @PageableDefault(size = 20, sort = "createdAt") Pageable pageable) {
-        return ApiResponse.<Page<OrderDtos.OrderResponse>>builder()
+    public MappingJacksonValue getMyOrders(
+            @PageableDefault(size = 20, sort = "createdAt") Pageable pageable,
+            @RequestParam(required = false) String fields) {
+        SparseFieldset fieldset = SparseFieldset.parse(fields);
+        return fieldset.apply(ApiResponse.<Page<OrderDtos.OrderResponse>>builder()
                 .success(true)
                 .message("Order history retrieved")
-                .data(orderService.getMyOrders(pageable))
-                .build();
+                .data(orderService.getMyOrders(pageable, fieldset))
+                .build(), SparseFieldset.ORDER, NESTED_FILTERS);
+    }
+
+    /**
+     * Get user's order history by keyset, newest first
+     * GET /api/orders/history?before=1234&size=20&fields=orderId,status
+     */
+    @GetMapping("/history")
+    public MappingJacksonValue getMyOrderHistory(
+            @RequestParam(required = false) Long before,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(required = false) String fields) {
+        SparseFieldset fieldset = SparseFieldset.parse(fields);
+        return fieldset.apply(ApiResponse.<OrderDtos.OrderHistoryWindow>builder()
+                .success(true)
+                .message("Order history retrieved")
+                .data(orderService.getMyOrderHistory(before, size, fieldset))
+                .build(), SparseFieldset.ORDER, NESTED_FILTERS);
     }
 
     /**
      * Get single order details
-     * GET /api/orders/{orderId}
+     * GET /api/orders/{orderId}?fields=status,items.productName
      */
     @GetMapping("/{orderId}")
-    public ApiResponse<OrderDtos.OrderResponse> getOrderById(@PathVariable Long orderId) {
-        return ApiResponse.<OrderDtos.OrderResponse>builder()
+    public MappingJacksonValue getOrderById(@PathVariable Long orderId,
+                                            @RequestParam(required = false) String fields) {
+        SparseFieldset fieldset = SparseFieldset.parse(fields);
+        return fieldset.apply(ApiResponse.<OrderDtos.OrderResponse>builder()
                 .success(true)
                 .message("Order details retrieved")
-                .data(orderService.getOrderById(orderId))
-                .build();
+                .data(orderService.getOrderById(orderId, fieldset))
+                .build(), SparseFieldset.ORDER, NESTED_FILTERS);
     }
 
     /**
@@ -90,6 +146,15 @@ public class OrderController {
                 .build();
     }
 
+    /**
+     * Stream of order status changes, pushed as they commit
+     * GET /api/orders/{orderId}/events
+     */
+    @GetMapping(value = "/{orderId}/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamOrderEvents(@PathVariable Long orderId) {
+        return orderService.subscribeToOrderEvents(orderId);
+    }
+
     /**
      * Cancel order (user)
      * PATCH /api/orders/{orderId}/cancel
@@ -119,4 +184,20 @@ public class OrderController {
                 .data(orderService.updateOrderStatus(orderId, request.getStatus(), note))
                 .build();
     }
+
+    /**
+     * Move many orders to one status (admin only)
+     * PATCH /api/orders/bulk/status
+     */
+    @PatchMapping("/bulk/status")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ApiResponse<OrderDtos.BulkUpdateOrderStatusResponse> bulkUpdateOrderStatus(
+            @Valid @RequestBody OrderDtos.BulkUpdateOrderStatusRequest request) {
+        OrderDtos.BulkUpdateOrderStatusResponse result = orderService.bulkUpdateOrderStatus(request);
+        return ApiResponse.<OrderDtos.BulkUpdateOrderStatusResponse>builder()
+                .success(true)
+                .message(String.format("%d of %d orders updated", result.getUpdated().size(), result.getRequested()))
+                .data(result)
+                .build();
+    }
 }
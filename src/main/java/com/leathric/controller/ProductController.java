@@ -4,17 +4,23 @@ import com.leathric.dto.ApiResponse;
 import com.leathric.dto.ProductDto;
 import com.leathric.dto.ProductResponseDto;
 import com.leathric.service.ProductService;
+import com.leathric.service.RecentlyViewedService;
+import com.leathric.service.RecommendationService;
+import com.leathric.service.SimilarProductService;
+import com.leathric.util.SparseFieldset;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.web.PageableDefault;
 import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.MappingJacksonValue;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/api/products")
@@ -22,11 +28,17 @@ import java.util.List;
 public class ProductController {
 
     private final ProductService productService;
+    private final SimilarProductService similarProductService;
+    private final RecommendationService recommendationService;
+    private final RecentlyViewedService recentlyViewedService;
+
+    private static final Map<String, String> NESTED_FILTERS = Map.of("images", SparseFieldset.PRODUCT_IMAGE);
 
     @GetMapping
-    public ApiResponse<Page<ProductResponseDto>> getAll(@PageableDefault(size = 20, sort = "createdAt") Pageable pageable) {
-        return ApiResponse.<Page<ProductResponseDto>>builder().success(true).message("Products fetched")
-                .data(productService.getAll(pageable)).build();
+    public MappingJacksonValue getAll(@PageableDefault(size = 20, sort = "createdAt") Pageable pageable,
+                                      @RequestParam(required = false) String fields) {
+        return SparseFieldset.parse(fields).apply(ApiResponse.<Page<ProductResponseDto>>builder().success(true).message("Products fetched")
+                .data(productService.getAll(pageable)).build(), SparseFieldset.PRODUCT, NESTED_FILTERS);
     }
 
     @GetMapping("/trending")
@@ -38,10 +50,29 @@ public class ProductController {
                 .build();
     }
 
+    @GetMapping("/recent")
+    public ApiResponse<List<ProductResponseDto>> getRecentlyViewed(@RequestParam(defaultValue = "20") int limit) {
+        return ApiResponse.<List<ProductResponseDto>>builder().success(true).message("Recently viewed products fetched")
+                .data(recentlyViewedService.getRecentlyViewed(limit)).build();
+    }
+
     @GetMapping("/{id}")
-    public ApiResponse<ProductResponseDto> getById(@PathVariable Long id) {
-        return ApiResponse.<ProductResponseDto>builder().success(true).message("Product fetched")
-                .data(productService.getById(id)).build();
+    public MappingJacksonValue getById(@PathVariable Long id, @RequestParam(required = false) String fields) {
+        SparseFieldset fieldset = SparseFieldset.parse(fields);
+        return fieldset.apply(ApiResponse.<ProductResponseDto>builder().success(true).message("Product fetched")
+                .data(productService.getById(id, fieldset)).build(), SparseFieldset.PRODUCT, NESTED_FILTERS);
+    }
+
+    @GetMapping("/{id}/similar")
+    public ApiResponse<List<ProductResponseDto>> getSimilar(@PathVariable Long id, @RequestParam(defaultValue = "10") int limit) {
+        return ApiResponse.<List<ProductResponseDto>>builder().success(true).message("Similar products fetched")
+                .data(similarProductService.getSimilar(id, limit)).build();
+    }
+
+    @GetMapping("/{id}/also-bought")
+    public ApiResponse<List<ProductResponseDto>> getAlsoBought(@PathVariable Long id, @RequestParam(defaultValue = "10") int limit) {
+        return ApiResponse.<List<ProductResponseDto>>builder().success(true).message("Frequently bought together fetched")
+                .data(recommendationService.getAlsoBought(id, limit)).build();
     }
 
     @PostMapping
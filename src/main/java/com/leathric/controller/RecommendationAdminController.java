@@ -0,0 +1,30 @@
+package com.leathric.controller;
+
+import com.leathric.dto.ApiResponse;
+import com.leathric.service.RecommendationService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/admin/recommendations")
+@RequiredArgsConstructor
+public class RecommendationAdminController {
+
+    private final RecommendationService recommendationService;
+
+    /**
+     * Count historical orders into the co-purchase matrix (admin only)
+     * POST /api/admin/recommendations/backfill?reset=false
+     */
+    @PostMapping("/backfill")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ApiResponse<Long> backfill(@RequestParam(defaultValue = "false") boolean reset) {
+        long counted = recommendationService.backfill(reset);
+        return ApiResponse.<Long>builder()
+                .success(counted >= 0)
+                .message(counted >= 0 ? "Co-purchase backfill completed" : "Co-purchase backfill already in progress")
+                .data(counted)
+                .build();
+    }
+}
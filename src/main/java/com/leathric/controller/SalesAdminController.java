@@ -0,0 +1,52 @@
+package com.leathric.controller;
+
+import com.leathric.dto.ApiResponse;
+import com.leathric.dto.SalesDtos;
+import com.leathric.service.SalesReportService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+
+@RestController
+@RequestMapping("/api/admin/sales")
+@RequiredArgsConstructor
+public class SalesAdminController {
+
+    private final SalesReportService salesReportService;
+
+    /**
+     * Sales dashboard for a date range, from the rollup tables (admin only)
+     * GET /api/admin/sales/dashboard?from=2026-01-01&to=2026-01-31&top=10
+     */
+    @GetMapping("/dashboard")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ApiResponse<SalesDtos.SalesDashboard> getDashboard(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(defaultValue = "10") int top) {
+        return ApiResponse.<SalesDtos.SalesDashboard>builder()
+                .success(true)
+                .message("Sales dashboard retrieved")
+                .data(salesReportService.getDashboard(from, to, top))
+                .build();
+    }
+
+    /**
+     * Recompute rollups for a date range from the order tables (admin only)
+     * POST /api/admin/sales/rebuild?from=2026-01-01&to=2026-01-31
+     */
+    @PostMapping("/rebuild")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ApiResponse<SalesDtos.RebuildResult> rebuild(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        return ApiResponse.<SalesDtos.RebuildResult>builder()
+                .success(true)
+                .message("Sales rollups rebuilt")
+                .data(salesReportService.rebuild(from, to))
+                .build();
+    }
+}
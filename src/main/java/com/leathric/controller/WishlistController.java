@@ -3,10 +3,14 @@ package com.leathric.controller;
 import com.leathric.dto.ApiResponse;
 import com.leathric.dto.WishlistDtos;
 import com.leathric.service.WishlistService;
+import com.leathric.util.SparseFieldset;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.converter.json.MappingJacksonValue;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.Map;
+
 @RestController
 @RequestMapping("/api/wishlist")
 @RequiredArgsConstructor
@@ -14,17 +18,20 @@ public class WishlistController {
 
     private final WishlistService wishlistService;
 
+    private static final Map<String, String> NESTED_FILTERS = Map.of("items", SparseFieldset.WISHLIST_ITEM);
+
     /**
      * Get user's wishlist
-     * GET /api/wishlist
+     * GET /api/wishlist?fields=itemCount,items.productId,items.price
      */
     @GetMapping
-    public ApiResponse<WishlistDtos.WishlistResponse> getWishlist() {
-        return ApiResponse.<WishlistDtos.WishlistResponse>builder()
+    public MappingJacksonValue getWishlist(@RequestParam(required = false) String fields) {
+        SparseFieldset fieldset = SparseFieldset.parse(fields);
+        return fieldset.apply(ApiResponse.<WishlistDtos.WishlistResponse>builder()
                 .success(true)
                 .message("Wishlist retrieved successfully")
-                .data(wishlistService.getMyWishlist())
-                .build();
+                .data(wishlistService.getMyWishlist(fieldset))
+                .build(), SparseFieldset.WISHLIST, NESTED_FILTERS);
     }
 
     /**
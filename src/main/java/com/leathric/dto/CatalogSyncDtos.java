@@ -0,0 +1,36 @@
+package com.leathric.dto;
+
+import lombok.*;
+
+import java.util.List;
+
+public class CatalogSyncDtos {
+
+    @Getter
+    @Builder
+    @AllArgsConstructor
+    public static class SnapshotResponse {
+        /**
+         * Change-feed cursor to pass as {@code since} once every snapshot page has been read; pinned on the first
+         * page, so it is the same on every page of one snapshot.
+         */
+        private Long cursor;
+        /** Opaque token for the next page, {@code null} on the last one. */
+        private String nextPageToken;
+        private boolean hasMore;
+        private List<ProductResponseDto> products;
+        private List<CategoryDto> categories;
+    }
+
+    @Getter
+    @Builder
+    @AllArgsConstructor
+    public static class ChangesResponse {
+        private Long cursor;
+        private boolean hasMore;
+        private List<ProductResponseDto> upserts;
+        private List<Long> deletedProductIds;
+        private List<CategoryDto> categoryUpserts;
+        private List<Long> deletedCategoryIds;
+    }
+}
@@ -0,0 +1,57 @@
+package com.leathric.dto;
+
+import com.leathric.entity.StockMovementReason;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public class InventoryDtos {
+
+    @Getter
+    @Builder
+    @AllArgsConstructor
+    public static class StockMovementItem {
+        private Long movementId;
+        private Long orderId;
+        private int quantity;
+        private StockMovementReason reason;
+        private String note;
+        private LocalDateTime createdAt;
+    }
+
+    @Getter
+    @Builder
+    @AllArgsConstructor
+    public static class ProductLedger {
+        private Long productId;
+        private int stockQuantity;
+        private long ledgerQuantity;
+        private long snapshotQuantity;
+        private long snapshotMovementId;
+        private List<StockMovementItem> recentMovements;
+    }
+
+    @Getter
+    @Builder
+    @AllArgsConstructor
+    public static class StockDrift {
+        private Long productId;
+        private int stockQuantity;
+        private long ledgerQuantity;
+        private long drift;
+    }
+
+    @Getter
+    @Builder
+    @AllArgsConstructor
+    public static class ReconciliationReport {
+        private LocalDateTime startedAt;
+        private long elapsedMs;
+        private long productsChecked;
+        private long productsDrifted;
+        private List<StockDrift> drifts;
+    }
+}
@@ -1,9 +1,13 @@
 package com.leathric.dto;
 
+import com.fasterxml.jackson.annotation.JsonFilter;
 import com.leathric.entity.OrderStatus;
 import com.leathric.entity.PaymentStatus;
+import com.leathric.util.SparseFieldset;
 import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
 import lombok.*;
+import org.springframework.format.annotation.DateTimeFormat;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
@@ -17,6 +21,8 @@ public class OrderDtos {
     @AllArgsConstructor
     public static class PlaceOrderRequest {
         private String note;
+        /** Hold from {@code POST /api/orders/reservations}; optional. */
+        private String reservationId;
     }
 
     @Getter
@@ -29,6 +35,43 @@ public class OrderDtos {
         private String note;
     }
 
+    /**
+     * Either explicit {@code orderIds} or every order currently in {@code currentStatus}.
+     */
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class BulkUpdateOrderStatusRequest {
+        @Size(max = 10000)
+        private List<Long> orderIds;
+        private OrderStatus currentStatus;
+        @NotNull
+        private OrderStatus status;
+        @Size(max = 500)
+        private String note;
+    }
+
+    /**
+     * Admin search filters, all optional; {@code createdTo} is exclusive and {@code cursor} is the
+     * {@code nextCursor} of the previous window.
+     */
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class AdminOrderSearchRequest {
+        private OrderStatus status;
+        private PaymentStatus paymentStatus;
+        @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+        private LocalDateTime createdFrom;
+        @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+        private LocalDateTime createdTo;
+        private String orderNumber;
+        private String cursor;
+        private Integer size;
+    }
+
     @Getter
     @Setter
     @NoArgsConstructor
@@ -40,7 +83,9 @@ public class OrderDtos {
 
     @Getter
     @Builder
+    @NoArgsConstructor
     @AllArgsConstructor
+    @JsonFilter(SparseFieldset.ORDER_ITEM)
     public static class OrderItemResponse {
         private Long productId;
         private String productName;
@@ -51,7 +96,9 @@ public class OrderDtos {
 
     @Getter
     @Builder
+    @NoArgsConstructor
     @AllArgsConstructor
+    @JsonFilter(SparseFieldset.ORDER)
     public static class OrderResponse {
         private Long orderId;
         private String orderNumber;
@@ -64,6 +111,17 @@ public class OrderDtos {
         private List<OrderItemResponse> items;
     }
 
+    /**
+     * Keyset page of order history; pass {@code nextBefore} as {@code before} for the next page.
+     */
+    @Getter
+    @Builder
+    @AllArgsConstructor
+    public static class OrderHistoryWindow {
+        private List<OrderResponse> orders;
+        private Long nextBefore;
+    }
+
     @Getter
     @Builder
     @AllArgsConstructor
@@ -77,12 +135,101 @@ public class OrderDtos {
         private List<StatusHistoryItem> timeline;
     }
 
+    /**
+     * Pushed on an order's event stream when its status changes.
+     */
     @Getter
     @Builder
     @AllArgsConstructor
+    public static class OrderStatusEvent {
+        private Long orderId;
+        private OrderStatus status;
+        private PaymentStatus paymentStatus;
+        private String note;
+        private LocalDateTime timestamp;
+    }
+
+    @Getter
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
     public static class StatusHistoryItem {
         private OrderStatus status;
         private LocalDateTime timestamp;
         private String note;
     }
+
+    @Getter
+    @Builder
+    @AllArgsConstructor
+    public static class ReservationResponse {
+        private String reservationId;
+        private LocalDateTime expiresAt;
+        private List<ReservedItem> items;
+    }
+
+    @Getter
+    @Builder
+    @AllArgsConstructor
+    public static class ReservedItem {
+        private Long productId;
+        private Integer quantity;
+    }
+
+    /**
+     * Outcome of a bulk transition, as order ids grouped by result.
+     */
+    @Getter
+    @Builder
+    @AllArgsConstructor
+    public static class BulkUpdateOrderStatusResponse {
+        private OrderStatus status;
+        @Setter
+        private int requested;
+        private List<Long> updated;
+        private List<Long> alreadyInStatus;
+        private List<Long> invalidTransition;
+        private List<Long> notFound;
+    }
+
+    @Getter
+    @Builder
+    @AllArgsConstructor
+    public static class AdminOrderSummary {
+        private Long orderId;
+        private String orderNumber;
+        private String userEmail;
+        private OrderStatus status;
+        private PaymentStatus paymentStatus;
+        private BigDecimal totalAmount;
+        private LocalDateTime createdAt;
+    }
+
+    /**
+     * One window of admin search results; {@code nextCursor} is null on the last window.
+     */
+    @Getter
+    @Builder
+    @AllArgsConstructor
+    public static class AdminOrderSearchWindow {
+        private List<AdminOrderSummary> orders;
+        private String nextCursor;
+    }
+
+    /**
+     * Counters of the unpaid order sweeper on this instance since startup.
+     */
+    @Getter
+    @Builder
+    @AllArgsConstructor
+    public static class OrderExpiryStats {
+        private boolean enabled;
+        private long ttlMinutes;
+        private long runs;
+        private long expiredTotal;
+        private long unitsRestoredTotal;
+        private LocalDateTime lastRunAt;
+        private int lastRunExpired;
+        private long lastRunMillis;
+    }
 }
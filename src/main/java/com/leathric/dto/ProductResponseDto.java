@@ -1,5 +1,7 @@
 package com.leathric.dto;
 
+import com.fasterxml.jackson.annotation.JsonFilter;
+import com.leathric.util.SparseFieldset;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Getter;
@@ -14,6 +16,7 @@ import java.util.List;
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
+@JsonFilter(SparseFieldset.PRODUCT)
 public class ProductResponseDto {
     private Long id;
     private String name;
@@ -22,11 +25,19 @@ public class ProductResponseDto {
     private String categoryName;
     private List<ProductImageResponse> images;
 
+    /**
+     * Listing projection used by JPQL constructor expressions; images are loaded separately.
+     */
+    public ProductResponseDto(Long id, String name, BigDecimal price, String imageUrl, String categoryName) {
+        this(id, name, price, imageUrl, categoryName, null);
+    }
+
     @Getter
     @Setter
     @Builder
     @NoArgsConstructor
     @AllArgsConstructor
+    @JsonFilter(SparseFieldset.PRODUCT_IMAGE)
     public static class ProductImageResponse {
         private Long imageId;
         private String imageUrl;
@@ -0,0 +1,68 @@
+package com.leathric.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+public class SalesDtos {
+
+    @Getter
+    @Builder
+    @AllArgsConstructor
+    public static class DailySales {
+        private LocalDate date;
+        private long orderCount;
+        private long units;
+        private BigDecimal revenue;
+    }
+
+    @Getter
+    @Builder
+    @AllArgsConstructor
+    public static class ProductSales {
+        private Long productId;
+        private String productName;
+        private long orderCount;
+        private long units;
+        private BigDecimal revenue;
+    }
+
+    @Getter
+    @Builder
+    @AllArgsConstructor
+    public static class CategorySales {
+        private Long categoryId;
+        private String categoryName;
+        private long orderCount;
+        private long units;
+        private BigDecimal revenue;
+    }
+
+    @Getter
+    @Builder
+    @AllArgsConstructor
+    public static class SalesDashboard {
+        private LocalDate from;
+        private LocalDate to;
+        private long orderCount;
+        private long units;
+        private BigDecimal revenue;
+        private List<DailySales> days;
+        private List<ProductSales> topProducts;
+        private List<CategorySales> categories;
+    }
+
+    @Getter
+    @Builder
+    @AllArgsConstructor
+    public static class RebuildResult {
+        private LocalDate from;
+        private LocalDate to;
+        private int days;
+        private long elapsedMs;
+    }
+}
@@ -1,5 +1,7 @@
 package com.leathric.dto;
 
+import com.fasterxml.jackson.annotation.JsonFilter;
+import com.leathric.util.SparseFieldset;
 import jakarta.validation.constraints.NotNull;
 import lombok.*;
 
@@ -20,6 +22,7 @@ public class WishlistDtos {
     @Getter
     @Builder
     @AllArgsConstructor
+    @JsonFilter(SparseFieldset.WISHLIST_ITEM)
     public static class WishlistItemResponse {
         private Long wishlistItemId;
         private Long productId;
@@ -30,11 +33,30 @@ public class WishlistDtos {
         private Integer stockQuantity;
         private String categoryName;
         private Boolean inStock;
+
+        /**
+         * Compact projection for sparse requests that need neither description nor category.
+         */
+        public WishlistItemResponse(Long wishlistItemId, Long productId, String productName,
+                                    BigDecimal price, String imageUrl, Integer stockQuantity) {
+            this(wishlistItemId, productId, productName, null, price, imageUrl, stockQuantity, null,
+                    stockQuantity != null && stockQuantity > 0);
+        }
+
+        /**
+         * Full projection used by the item listing query.
+         */
+        public WishlistItemResponse(Long wishlistItemId, Long productId, String productName, String productDescription,
+                                    BigDecimal price, String imageUrl, Integer stockQuantity, String categoryName) {
+            this(wishlistItemId, productId, productName, productDescription, price, imageUrl, stockQuantity, categoryName,
+                    stockQuantity != null && stockQuantity > 0);
+        }
     }
 
     @Getter
     @Builder
     @AllArgsConstructor
+    @JsonFilter(SparseFieldset.WISHLIST)
     public static class WishlistResponse {
         private Long wishlistId;
         private Integer itemCount;
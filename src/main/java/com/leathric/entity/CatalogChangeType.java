@@ -0,0 +1,6 @@
+package com.leathric.entity;
+
+public enum CatalogChangeType {
+    UPSERT,
+    DELETE
+}
@@ -0,0 +1,49 @@
+package com.leathric.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Stored outcome of a request sent with an {@code Idempotency-Key} header, scoped to the caller. Written over
+ * JDBC by the idempotency guard in the same transaction as the request's own changes; mapped here so the
+ * schema is managed with the rest.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Entity
+@Table(name = "idempotency_keys",
+        uniqueConstraints = @UniqueConstraint(name = "uk_idempotency_owner_key", columnNames = {"owner", "request_key"}),
+        indexes = @Index(name = "idx_idempotency_expires_at", columnList = "expires_at"))
+public class IdempotencyKey {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private String owner;
+
+    @Column(name = "request_key", nullable = false, length = 100)
+    private String requestKey;
+
+    /**
+     * Hash of the operation and request body; a key reused for a different request is rejected.
+     */
+    @Column(nullable = false, length = 64)
+    private String fingerprint;
+
+    @Lob
+    @Column(columnDefinition = "TEXT")
+    private String response;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "expires_at", nullable = false)
+    private LocalDateTime expiresAt;
+}
@@ -0,0 +1,29 @@
+package com.leathric.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Resume position of a long-running batch job, committed with each batch it covers.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Entity
+@Table(name = "job_checkpoints")
+public class JobCheckpoint {
+
+    @Id
+    @Column(length = 100)
+    private String name;
+
+    @Column(nullable = false)
+    private long position;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+}
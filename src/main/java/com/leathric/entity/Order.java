@@ -15,7 +15,9 @@ import java.util.List;
 @Entity
 @Table(name = "orders", indexes = {
         @Index(name = "idx_order_user_id", columnList = "user_id"),
-        @Index(name = "idx_order_status", columnList = "status"),
+        @Index(name = "idx_order_status_created_at", columnList = "status, created_at"),
+        @Index(name = "idx_order_payment_status_created_at", columnList = "payment_status, created_at"),
+        @Index(name = "idx_order_status_payment_created_at", columnList = "status, payment_status, created_at"),
         @Index(name = "idx_order_created_at", columnList = "created_at"),
         @Index(name = "idx_order_number", columnList = "order_number")
 })
@@ -68,11 +70,10 @@ public class Order extends BaseEntity {
     }
 
     @PrePersist
-    protected void generateOrderNumber() {
+    protected void requireOrderNumber() {
+        // Assigned by OrderNumberGenerator when the order is built; a random fallback could collide.
         if (orderNumber == null) {
-            // Generate order number: ORD-{timestamp}-{random}
-            orderNumber = "ORD-" + System.currentTimeMillis() + "-" + 
-                         String.format("%04d", (int)(Math.random() * 10000));
+            throw new IllegalStateException("Order number must be assigned before the order is saved");
         }
     }
 }
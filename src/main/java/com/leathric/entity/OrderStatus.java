@@ -24,6 +24,14 @@ public enum OrderStatus {
         };
     }
 
+    /**
+     * Paid and not undone: counted as revenue in sales reporting. Confirming an order does not imply payment,
+     * so the payment status decides.
+     */
+    public boolean countsAsSale(PaymentStatus paymentStatus) {
+        return paymentStatus == PaymentStatus.COMPLETED && this != CANCELLED && this != REFUNDED;
+    }
+
     public boolean isCancellable() {
         return this == CREATED || this == CONFIRMED || this == PACKED;
     }
@@ -0,0 +1,78 @@
+package com.leathric.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Denormalized read model of one order: the summary columns order reads filter and sort on, plus the
+ * prebuilt line items and status timeline as JSON. Maintained over JDBC by the order view store in the same
+ * transaction as every order write.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Entity
+@Table(name = "order_views", indexes = {
+        @Index(name = "idx_order_views_user_order", columnList = "user_id, order_id"),
+        @Index(name = "idx_order_views_user_created_at", columnList = "user_id, created_at")
+})
+public class OrderView {
+
+    @Id
+    @Column(name = "order_id")
+    private Long orderId;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    /**
+     * Owner's email for the access check, so detail and tracking reads need no user lookup.
+     */
+    @Column(name = "owner_email", nullable = false)
+    private String ownerEmail;
+
+    @Column(name = "order_number", nullable = false, length = 50)
+    private String orderNumber;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 30)
+    private OrderStatus status;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "payment_status", nullable = false, length = 20)
+    private PaymentStatus paymentStatus;
+
+    @Column(name = "total_amount", nullable = false, precision = 12, scale = 2)
+    private BigDecimal totalAmount;
+
+    @Column(length = 1000)
+    private String note;
+
+    /**
+     * Units across all lines.
+     */
+    @Column(name = "item_count", nullable = false)
+    private int itemCount;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    /**
+     * Line items with product names and line totals as rendered when the order was placed.
+     */
+    @Lob
+    @Column(nullable = false, columnDefinition = "TEXT")
+    private String items;
+
+    @Lob
+    @Column(nullable = false, columnDefinition = "TEXT")
+    private String timeline;
+}
@@ -0,0 +1,8 @@
+package com.leathric.entity;
+
+public enum OutboxStatus {
+    PENDING,
+    DELIVERED,
+    /** Gave up after the configured number of attempts; no longer blocks later events of the same order. */
+    FAILED
+}
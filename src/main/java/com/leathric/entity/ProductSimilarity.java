@@ -0,0 +1,30 @@
+package com.leathric.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Precomputed "more like this" neighbours of one product, packed as (product id, score) pairs best first.
+ * Written in bulk over JDBC by the similarity batch; mapped here so the schema is managed with the rest.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Entity
+@Table(name = "product_similarities")
+public class ProductSimilarity {
+
+    @Id
+    @Column(name = "product_id")
+    private Long productId;
+
+    @Column(name = "neighbours", nullable = false, length = 600)
+    private byte[] neighbours;
+
+    @Column(name = "computed_at", nullable = false)
+    private LocalDateTime computedAt;
+}
@@ -0,0 +1,30 @@
+package com.leathric.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * A user's recently viewed product ids, packed as big-endian longs newest first.
+ * Written in batches over JDBC by the recently viewed store; mapped here so the schema is managed with the rest.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Entity
+@Table(name = "recently_viewed")
+public class RecentlyViewed {
+
+    @Id
+    @Column(name = "user_id")
+    private Long userId;
+
+    @Column(name = "product_ids", nullable = false, length = 400)
+    private byte[] productIds;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+}
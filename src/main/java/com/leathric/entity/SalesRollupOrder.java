@@ -0,0 +1,32 @@
+package com.leathric.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDate;
+
+/**
+ * Whether an order is currently counted in the sales rollups, so re-delivered or out-of-date order events
+ * never count an order twice or subtract it when it was never added.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Entity
+@Table(name = "sales_rollup_orders", indexes = {
+        @Index(name = "idx_sales_rollup_orders_date", columnList = "sale_date")
+})
+public class SalesRollupOrder {
+
+    @Id
+    @Column(name = "order_id")
+    private Long orderId;
+
+    @Column(name = "sale_date", nullable = false)
+    private LocalDate saleDate;
+
+    @Column(nullable = false)
+    private boolean counted;
+}
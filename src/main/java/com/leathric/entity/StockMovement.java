@@ -0,0 +1,54 @@
+package com.leathric.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * One signed change to a product's {@code stock_quantity}, written over JDBC by the stock ledger in the same
+ * transaction as the change itself. Rows are only ever inserted, apart from the snapshot job stamping
+ * {@code foldRun} once it has added them to a snapshot; mapped here so the schema is managed with the rest.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Entity
+@Table(name = "stock_movements", indexes = {
+        @Index(name = "idx_stock_movements_product", columnList = "product_id, id"),
+        @Index(name = "idx_stock_movements_product_fold", columnList = "product_id, fold_run"),
+        @Index(name = "idx_stock_movements_fold", columnList = "fold_run")
+})
+public class StockMovement {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "product_id", nullable = false)
+    private Long productId;
+
+    @Column(name = "order_id")
+    private Long orderId;
+
+    @Column(nullable = false)
+    private int quantity;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private StockMovementReason reason;
+
+    @Column(length = 255)
+    private String note;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    /**
+     * Snapshot pass that folded this movement, {@code null} until one has.
+     */
+    @Column(name = "fold_run")
+    private Long foldRun;
+}
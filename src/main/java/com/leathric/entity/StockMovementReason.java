@@ -0,0 +1,16 @@
+package com.leathric.entity;
+
+public enum StockMovementReason {
+    ORDER,
+    CANCEL,
+    REFUND,
+    ADJUST,
+    IMPORT;
+
+    /**
+     * Reason for units given back when an order moves to {@code status}.
+     */
+    public static StockMovementReason restoredBy(OrderStatus status) {
+        return status == OrderStatus.REFUNDED ? REFUND : CANCEL;
+    }
+}
@@ -0,0 +1,34 @@
+package com.leathric.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Ledger total of one product's folded movements, so its current stock is the snapshot plus the few movements
+ * not folded yet. {@code lastMovementId} is the highest folded id, kept for display only: a lower id can
+ * still commit, and be folded, after it.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Entity
+@Table(name = "stock_snapshots")
+public class StockSnapshot {
+
+    @Id
+    @Column(name = "product_id")
+    private Long productId;
+
+    @Column(nullable = false)
+    private long quantity;
+
+    @Column(name = "last_movement_id", nullable = false)
+    private long lastMovementId;
+
+    @Column(name = "taken_at", nullable = false)
+    private LocalDateTime takenAt;
+}
@@ -0,0 +1,18 @@
+package com.leathric.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+/**
+ * Published inside the order transaction once an order and its items are saved. Listeners that must only
+ * see committed orders use {@code @TransactionalEventListener}.
+ */
+@Getter
+@AllArgsConstructor
+public class OrderPlacedEvent {
+    private final Long orderId;
+    private final Long userId;
+    private final List<Long> productIds;
+}
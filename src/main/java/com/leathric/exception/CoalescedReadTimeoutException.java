@@ -0,0 +1,10 @@
+package com.leathric.exception;
+
+/**
+ * Thrown when a caller waiting on a shared in-flight read gives up.
+ */
+public class CoalescedReadTimeoutException extends RuntimeException {
+    public CoalescedReadTimeoutException(String message) {
+        super(message);
+    }
+}
@@ -2,6 +2,7 @@ package com.leathric.exception;
 
 import com.leathric.dto.ApiResponse;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.task.TaskRejectedException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.FieldError;
@@ -37,6 +38,15 @@ public class GlobalExceptionHandler {
                 .body(ApiResponse.<Void>builder().success(false).message(ex.getMessage()).build());
     }
 
+    /**
+     * Handles idempotency keys reused for another request or still in flight.
+     */
+    @ExceptionHandler(IdempotencyConflictException.class)
+    public ResponseEntity<ApiResponse<Void>> handleIdempotencyConflict(IdempotencyConflictException ex) {
+        return ResponseEntity.status(HttpStatus.CONFLICT)
+                .body(ApiResponse.<Void>builder().success(false).message(ex.getMessage()).build());
+    }
+
     /**
      * Handles storage provider failures.
      */
@@ -47,6 +57,25 @@ public class GlobalExceptionHandler {
                 .body(ApiResponse.<Void>builder().success(false).message(ex.getMessage()).build());
     }
 
+    /**
+     * Handles reads that timed out waiting on an identical in-flight read.
+     */
+    @ExceptionHandler(CoalescedReadTimeoutException.class)
+    public ResponseEntity<ApiResponse<Void>> handleCoalescedReadTimeout(CoalescedReadTimeoutException ex) {
+        log.warn(ex.getMessage());
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header("Retry-After", "1")
+                .body(ApiResponse.<Void>builder().success(false).message("Service busy, please retry").build());
+    }
+
+    @ExceptionHandler(TaskRejectedException.class)
+    public ResponseEntity<ApiResponse<Void>> handleTaskRejected(TaskRejectedException ex) {
+        log.warn("Rejected catalog read: {}", ex.getMessage());
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header("Retry-After", "1")
+                .body(ApiResponse.<Void>builder().success(false).message("Service busy, please retry").build());
+    }
+
     /**
      * Handles bean validation failures.
      */
@@ -0,0 +1,11 @@
+package com.leathric.exception;
+
+/**
+ * Thrown when an {@code Idempotency-Key} is reused for a different request, or its first request is still
+ * running after the caller has waited for it.
+ */
+public class IdempotencyConflictException extends RuntimeException {
+    public IdempotencyConflictException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,17 @@
+package com.leathric.exception;
+
+import lombok.Getter;
+
+/**
+ * Thrown when a product cannot supply the requested quantity.
+ */
+@Getter
+public class InsufficientStockException extends BadRequestException {
+
+    private final Long productId;
+
+    public InsufficientStockException(Long productId, String message) {
+        super(message);
+        this.productId = productId;
+    }
+}
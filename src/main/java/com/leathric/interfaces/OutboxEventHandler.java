@@ -0,0 +1,21 @@
+package com.leathric.interfaces;
+
+import com.leathric.entity.OutboxEvent;
+
+/**
+ * In-process consumer of outbox events (notifications, analytics, cache or search updates). Every bean
+ * implementing this is called for the event types it supports, outside the transaction that recorded
+ * the event. Delivery is at least once, so handlers must be idempotent.
+ */
+public interface OutboxEventHandler {
+
+    /**
+     * @param eventType e.g. {@code ORDER_PLACED}
+     */
+    boolean supports(String eventType);
+
+    /**
+     * Handles one event; throwing schedules a retry with backoff.
+     */
+    void handle(OutboxEvent event) throws Exception;
+}
@@ -0,0 +1,27 @@
+package com.leathric.repository;
+
+import com.leathric.entity.ArchivedOrder;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+
+public interface ArchivedOrderRepository extends JpaRepository<ArchivedOrder, Long> {
+
+    long countByUserId(Long userId);
+
+    /**
+     * Keyset window of a customer's archived orders below {@code before}, newest first.
+     */
+    List<ArchivedOrder> findByUserIdAndOrderIdLessThanOrderByOrderIdDesc(Long userId, Long before, Limit limit);
+
+    /**
+     * Offset window of a customer's archived orders, newest first. The offset is not a multiple of the
+     * page size when the window continues a page that started in the live tables.
+     */
+    @Query(value = "SELECT * FROM archived_orders WHERE user_id = :userId ORDER BY order_id DESC LIMIT :limit OFFSET :offset",
+            nativeQuery = true)
+    List<ArchivedOrder> findWindowByUserId(@Param("userId") Long userId, @Param("offset") long offset, @Param("limit") int limit);
+}
@@ -3,11 +3,17 @@ package com.leathric.repository;
 import com.leathric.entity.Cart;
 import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.util.List;
 import java.util.Optional;
 
 public interface CartRepository extends JpaRepository<Cart, Long> {
 
     @EntityGraph(attributePaths = {"items", "items.product"})
     Optional<Cart> findByUserId(Long userId);
+
+    @Query("SELECT i.product.id FROM CartItem i WHERE i.cart.user.id = :userId")
+    List<Long> findProductIdsByUserId(@Param("userId") Long userId);
 }
@@ -0,0 +1,28 @@
+package com.leathric.repository;
+
+import com.leathric.entity.CatalogChange;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+public interface CatalogChangeRepository extends JpaRepository<CatalogChange, Long> {
+
+    @Query("SELECT c FROM CatalogChange c WHERE c.sequence > :since AND c.sequence < :until ORDER BY c.sequence ASC")
+    List<CatalogChange> findChangesBetween(@Param("since") Long since, @Param("until") Long until, Pageable pageable);
+
+    @Query("SELECT MIN(c.sequence) FROM CatalogChange c WHERE c.sequence > :since AND c.changedAt > :settledBefore")
+    Optional<Long> findFirstUnsettledSequenceAfter(@Param("since") Long since,
+                                                   @Param("settledBefore") LocalDateTime settledBefore);
+
+    @Query(value = "SELECT LOCALTIMESTAMP(3)", nativeQuery = true)
+    Timestamp currentDatabaseTime();
+
+    @Query("SELECT MAX(c.sequence) FROM CatalogChange c")
+    Optional<Long> findLatestSequence();
+}
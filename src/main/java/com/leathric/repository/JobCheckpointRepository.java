@@ -0,0 +1,7 @@
+package com.leathric.repository;
+
+import com.leathric.entity.JobCheckpoint;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface JobCheckpointRepository extends JpaRepository<JobCheckpoint, String> {
+}
@@ -1,7 +1,10 @@
 package com.leathric.repository;
 
 import com.leathric.entity.Order;
+import com.leathric.entity.OrderStatus;
+import com.leathric.entity.PaymentStatus;
 import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.EntityGraph;
@@ -10,22 +13,95 @@ import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
-public interface OrderRepository extends JpaRepository<Order, Long> {
+public interface OrderRepository extends JpaRepository<Order, Long>, OrderStatusBulkRepository,
+        OrderSearchRepository {
 
+    /**
+     * First phase of order history paging: only ids, so LIMIT/OFFSET and sorting run in SQL.
+     */
+    @Query(value = "SELECT o.id FROM Order o WHERE o.user.id = :userId",
+            countQuery = "SELECT COUNT(o) FROM Order o WHERE o.user.id = :userId")
+    Page<Long> findIdsByUserId(@Param("userId") Long userId, Pageable pageable);
+
+    /**
+     * Keyset variant: the next {@code limit} order ids below {@code beforeId}, newest first; no count query.
+     */
+    @Query("SELECT o.id FROM Order o WHERE o.user.id = :userId AND o.id < :beforeId ORDER BY o.id DESC")
+    List<Long> findIdsByUserIdBefore(@Param("userId") Long userId, @Param("beforeId") Long beforeId, Limit limit);
+
+    @Query("SELECT o FROM Order o WHERE o.user.id = :userId AND o.id < :beforeId ORDER BY o.id DESC")
+    List<Order> findHeadersByUserIdBefore(@Param("userId") Long userId, @Param("beforeId") Long beforeId, Limit limit);
+
+    /**
+     * Second phase: one query for a page of orders with their items and products, in no particular order.
+     */
     @EntityGraph(attributePaths = {"items", "items.product"})
-    Page<Order> findByUserId(Long userId, Pageable pageable);
+    @Query("SELECT DISTINCT o FROM Order o WHERE o.id IN :ids")
+    List<Order> findWithItemsByIdIn(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Orders with items and products in the order of {@code ids}.
+     */
+    default List<Order> findWithItemsInOrder(List<Long> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, Order> byId = new HashMap<>();
+        findWithItemsByIdIn(ids).forEach(order -> byId.put(order.getId(), order));
+        List<Order> ordered = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            Order order = byId.get(id);
+            if (order != null) {
+                ordered.add(order);
+            }
+        }
+        return ordered;
+    }
+
+    @Query(value = "SELECT o FROM Order o WHERE o.user.id = :userId",
+            countQuery = "SELECT COUNT(o) FROM Order o WHERE o.user.id = :userId")
+    Page<Order> findHeadersByUserId(@Param("userId") Long userId, Pageable pageable);
+
+    @EntityGraph(attributePaths = {"user"})
+    @Query("SELECT o FROM Order o WHERE o.id = :id")
+    Optional<Order> findByIdWithUser(@Param("id") Long id);
 
     @Lock(LockModeType.PESSIMISTIC_WRITE)
     @Query("SELECT o FROM Order o WHERE o.id = :id")
     Optional<Order> findByIdForUpdate(@Param("id") Long id);
 
+    /**
+     * Locks the order row only, then loads its user, items and products with one more query, so status
+     * changes touch a constant number of statements however many lines the order has.
+     */
+    default Optional<Order> findByIdForUpdateWithDetails(Long id) {
+        Optional<Order> order = findByIdForUpdate(id);
+        order.ifPresent(locked -> findByIdWithDetails(id));
+        return order;
+    }
+
     @EntityGraph(attributePaths = {"items", "items.product", "user"})
     @Query("SELECT o FROM Order o WHERE o.id = :id")
     Optional<Order> findByIdWithDetails(@Param("id") Long id);
 
-    @EntityGraph(attributePaths = {"items", "items.product", "statusHistory"})
-    @Query("SELECT o FROM Order o WHERE o.id = :id")
-    Optional<Order> findByIdWithTracking(@Param("id") Long id);
+    /**
+     * Header columns for the tracking view plus the owner's email; no collections, so exactly one row.
+     */
+    @Query("SELECT new com.leathric.repository.OrderRepository$TrackingHeader(" +
+            "o.id, o.orderNumber, u.email, o.status, o.paymentStatus, o.totalAmount, o.createdAt) " +
+            "FROM Order o JOIN o.user u WHERE o.id = :id")
+    Optional<TrackingHeader> findTrackingHeaderById(@Param("id") Long id);
+
+    record TrackingHeader(Long id, String orderNumber, String ownerEmail, OrderStatus status,
+                          PaymentStatus paymentStatus, BigDecimal totalAmount, LocalDateTime createdAt) {
+    }
 }
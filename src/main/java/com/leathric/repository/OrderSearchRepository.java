@@ -0,0 +1,35 @@
+package com.leathric.repository;
+
+import com.leathric.dto.OrderDtos;
+import com.leathric.entity.OrderStatus;
+import com.leathric.entity.PaymentStatus;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Admin order search with optional filters, built with the Criteria API so each request only carries the
+ * predicates it uses. Mixed into {@link OrderRepository}.
+ */
+public interface OrderSearchRepository {
+
+    /**
+     * Newest first by {@code (createdAt, id)}, strictly after {@code after} when given. Every filter
+     * combination is served by one of the {@code (…, created_at)} indexes on {@code orders}, so the cost
+     * is the window size rather than the table size.
+     */
+    List<OrderDtos.AdminOrderSummary> searchOrders(Filter filter, Keyset after, int limit);
+
+    /**
+     * All fields optional; {@code createdTo} is exclusive.
+     */
+    record Filter(OrderStatus status, PaymentStatus paymentStatus, LocalDateTime createdFrom,
+                  LocalDateTime createdTo, String orderNumber) {
+    }
+
+    /**
+     * Position of the last row of the previous window.
+     */
+    record Keyset(LocalDateTime createdAt, Long id) {
+    }
+}
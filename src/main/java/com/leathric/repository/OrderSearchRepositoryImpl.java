@@ -0,0 +1,65 @@
+package com.leathric.repository;
+
+import com.leathric.dto.OrderDtos;
+import com.leathric.entity.Order;
+import com.leathric.entity.User;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Criteria implementation of {@link OrderSearchRepository}.
+ */
+public class OrderSearchRepositoryImpl implements OrderSearchRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<OrderDtos.AdminOrderSummary> searchOrders(Filter filter, Keyset after, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<OrderDtos.AdminOrderSummary> query = cb.createQuery(OrderDtos.AdminOrderSummary.class);
+        Root<Order> order = query.from(Order.class);
+        Join<Order, User> user = order.join("user");
+        Path<LocalDateTime> createdAt = order.get("createdAt");
+        Path<Long> id = order.get("id");
+
+        List<Predicate> predicates = new ArrayList<>();
+        if (filter.orderNumber() != null) {
+            predicates.add(cb.equal(order.get("orderNumber"), filter.orderNumber()));
+        }
+        if (filter.status() != null) {
+            predicates.add(cb.equal(order.get("status"), filter.status()));
+        }
+        if (filter.paymentStatus() != null) {
+            predicates.add(cb.equal(order.get("paymentStatus"), filter.paymentStatus()));
+        }
+        if (filter.createdFrom() != null) {
+            predicates.add(cb.greaterThanOrEqualTo(createdAt, filter.createdFrom()));
+        }
+        if (filter.createdTo() != null) {
+            predicates.add(cb.lessThan(createdAt, filter.createdTo()));
+        }
+        if (after != null) {
+            // created_at <= c AND (created_at < c OR id < i): the leading range keeps it an index range scan.
+            predicates.add(cb.lessThanOrEqualTo(createdAt, after.createdAt()));
+            predicates.add(cb.or(cb.lessThan(createdAt, after.createdAt()), cb.lessThan(id, after.id())));
+        }
+
+        query.select(cb.construct(OrderDtos.AdminOrderSummary.class,
+                        id, order.get("orderNumber"), user.get("email"), order.get("status"),
+                        order.get("paymentStatus"), order.get("totalAmount"), createdAt))
+                .where(predicates.toArray(Predicate[]::new))
+                .orderBy(cb.desc(createdAt), cb.desc(id));
+        return entityManager.createQuery(query).setMaxResults(limit).getResultList();
+    }
+}
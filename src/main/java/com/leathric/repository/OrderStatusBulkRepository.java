@@ -0,0 +1,50 @@
+package com.leathric.repository;
+
+import com.leathric.entity.OrderStatus;
+import com.leathric.entity.PaymentStatus;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Set-based order status changes for bulk admin transitions, issued as plain SQL so thousands of orders
+ * never become managed entities. Mixed into {@link OrderRepository}.
+ */
+public interface OrderStatusBulkRepository {
+
+    /**
+     * Locks the given orders in ascending id order and returns their current header columns; ids that do
+     * not exist are absent from the result.
+     */
+    List<OrderStatusRow> lockStatusRows(Collection<Long> orderIds);
+
+    /**
+     * Locks up to {@code limit} orders still {@code CREATED} with payment {@code PENDING} that were placed
+     * before {@code createdBefore}, oldest first, skipping rows another node or request holds. Served by the
+     * {@code (status, payment_status, created_at)} index.
+     */
+    List<OrderStatusRow> claimUnpaidCreatedBefore(LocalDateTime createdBefore, int limit);
+
+    /**
+     * Next {@code limit} ids of orders in {@code status} above {@code afterId}, ascending; not locked.
+     */
+    List<Long> findIdsByStatusAfter(OrderStatus status, long afterId, int limit);
+
+    /**
+     * Moves the orders to {@code status} with one UPDATE and appends their history rows with one
+     * multi-row INSERT. Callers lock and validate the orders first.
+     */
+    void applyStatusChange(List<Long> orderIds, OrderStatus status, String note, LocalDateTime changedAt);
+
+    /**
+     * Units per product across the given orders' items, for restoring stock in one batch.
+     */
+    Map<Long, Integer> sumItemQuantitiesByProduct(Collection<Long> orderIds);
+
+    record OrderStatusRow(Long id, String orderNumber, Long userId, OrderStatus status,
+                          PaymentStatus paymentStatus, BigDecimal totalAmount) {
+    }
+}
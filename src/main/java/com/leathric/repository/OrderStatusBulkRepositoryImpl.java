@@ -0,0 +1,111 @@
+package com.leathric.repository;
+
+import com.leathric.entity.OrderStatus;
+import com.leathric.entity.PaymentStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+
+import javax.sql.DataSource;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * JDBC implementation of {@link OrderStatusBulkRepository}; runs on the connection of the surrounding transaction.
+ */
+public class OrderStatusBulkRepositoryImpl implements OrderStatusBulkRepository {
+
+    private static final String LOCK_SQL =
+            "SELECT id, order_number, user_id, status, payment_status, total_amount FROM orders "
+                    + "WHERE id IN (%s) ORDER BY id FOR UPDATE";
+    private static final String CLAIM_UNPAID_SQL =
+            "SELECT id, order_number, user_id, status, payment_status, total_amount FROM orders "
+                    + "WHERE status = 'CREATED' AND payment_status = 'PENDING' AND created_at < ? "
+                    + "ORDER BY created_at, id LIMIT ? FOR UPDATE SKIP LOCKED";
+    private static final String IDS_BY_STATUS_SQL =
+            "SELECT id FROM orders WHERE status = ? AND id > ? ORDER BY id LIMIT ?";
+    private static final String UPDATE_SQL =
+            "UPDATE orders SET status = ?, updated_at = ?, version = version + 1 WHERE id IN (%s)";
+    private static final String HISTORY_SQL =
+            "INSERT INTO order_status_history (order_id, status, timestamp, note) VALUES %s";
+
+    private static final String ITEM_QUANTITIES_SQL =
+            "SELECT product_id, SUM(quantity) FROM order_items WHERE order_id IN (%s) GROUP BY product_id";
+
+    private static final RowMapper<OrderStatusRow> STATUS_ROW = (rs, rowNum) -> new OrderStatusRow(
+            rs.getLong("id"),
+            rs.getString("order_number"),
+            rs.getLong("user_id"),
+            OrderStatus.valueOf(rs.getString("status")),
+            PaymentStatus.valueOf(rs.getString("payment_status")),
+            rs.getBigDecimal("total_amount"));
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public OrderStatusBulkRepositoryImpl(DataSource dataSource) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+    }
+
+    @Override
+    public List<OrderStatusRow> lockStatusRows(Collection<Long> orderIds) {
+        if (orderIds.isEmpty()) {
+            return List.of();
+        }
+        return jdbcTemplate.query(String.format(LOCK_SQL, placeholders(orderIds.size())), STATUS_ROW, orderIds.toArray());
+    }
+
+    @Override
+    public List<OrderStatusRow> claimUnpaidCreatedBefore(LocalDateTime createdBefore, int limit) {
+        return jdbcTemplate.query(CLAIM_UNPAID_SQL, STATUS_ROW, Timestamp.valueOf(createdBefore), limit);
+    }
+
+    @Override
+    public List<Long> findIdsByStatusAfter(OrderStatus status, long afterId, int limit) {
+        return jdbcTemplate.queryForList(IDS_BY_STATUS_SQL, Long.class, status.name(), afterId, limit);
+    }
+
+    @Override
+    public void applyStatusChange(List<Long> orderIds, OrderStatus status, String note, LocalDateTime changedAt) {
+        if (orderIds.isEmpty()) {
+            return;
+        }
+        Timestamp at = Timestamp.valueOf(changedAt);
+        List<Object> updateArgs = new ArrayList<>(orderIds.size() + 2);
+        updateArgs.add(status.name());
+        updateArgs.add(at);
+        updateArgs.addAll(orderIds);
+        jdbcTemplate.update(String.format(UPDATE_SQL, placeholders(orderIds.size())), updateArgs.toArray());
+
+        List<Object> historyArgs = new ArrayList<>(orderIds.size() * 4);
+        for (Long orderId : orderIds) {
+            historyArgs.add(orderId);
+            historyArgs.add(status.name());
+            historyArgs.add(at);
+            historyArgs.add(note);
+        }
+        jdbcTemplate.update(String.format(HISTORY_SQL, String.join(",", Collections.nCopies(orderIds.size(), "(?, ?, ?, ?)"))),
+                historyArgs.toArray());
+    }
+
+    @Override
+    public Map<Long, Integer> sumItemQuantitiesByProduct(Collection<Long> orderIds) {
+        Map<Long, Integer> quantities = new HashMap<>();
+        if (orderIds.isEmpty()) {
+            return quantities;
+        }
+        jdbcTemplate.query(String.format(ITEM_QUANTITIES_SQL, placeholders(orderIds.size())),
+                rs -> {
+                    quantities.put(rs.getLong(1), rs.getInt(2));
+                }, orderIds.toArray());
+        return quantities;
+    }
+
+    private static String placeholders(int count) {
+        return String.join(",", Collections.nCopies(count, "?"));
+    }
+}
@@ -1,5 +1,6 @@
 package com.leathric.repository;
 
+import com.leathric.dto.OrderDtos;
 import com.leathric.entity.OrderStatusHistory;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
@@ -11,4 +12,11 @@ public interface OrderStatusHistoryRepository extends JpaRepository<OrderStatusH
 
     @Query("SELECT h FROM OrderStatusHistory h WHERE h.order.id = :orderId ORDER BY h.timestamp ASC")
     List<OrderStatusHistory> findByOrderIdOrderByTimestampAsc(@Param("orderId") Long orderId);
+
+    /**
+     * Timeline of an order as narrow rows, oldest first; ties on timestamp keep insertion order.
+     */
+    @Query("SELECT new com.leathric.dto.OrderDtos$StatusHistoryItem(h.status, h.timestamp, h.note) " +
+            "FROM OrderStatusHistory h WHERE h.order.id = :orderId ORDER BY h.timestamp ASC, h.id ASC")
+    List<OrderDtos.StatusHistoryItem> findTimelineByOrderId(@Param("orderId") Long orderId);
 }
@@ -0,0 +1,19 @@
+package com.leathric.repository;
+
+import com.leathric.entity.OrderView;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.util.List;
+
+public interface OrderViewRepository extends JpaRepository<OrderView, Long> {
+
+    Page<OrderView> findByUserId(Long userId, Pageable pageable);
+
+    /**
+     * Keyset window of a customer's orders below {@code before}, newest first.
+     */
+    List<OrderView> findByUserIdAndOrderIdLessThanOrderByOrderIdDesc(Long userId, Long before, Limit limit);
+}
@@ -0,0 +1,29 @@
+package com.leathric.repository;
+
+import com.leathric.entity.OutboxEvent;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+
+    /**
+     * Locks up to {@code limit} due events, skipping rows another dispatcher already holds. Only the oldest
+     * pending event of each order qualifies, so an order's events are delivered one at a time in id order;
+     * a later event waits while an earlier one is backing off.
+     */
+    @Query(value = "SELECT * FROM outbox_events e WHERE e.status = 'PENDING' AND e.next_attempt_at <= :now "
+            + "AND NOT EXISTS (SELECT 1 FROM outbox_events p WHERE p.aggregate_id = e.aggregate_id "
+            + "AND p.status = 'PENDING' AND p.id < e.id) "
+            + "ORDER BY e.id LIMIT :limit FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    List<OutboxEvent> claimDue(@Param("now") LocalDateTime now, @Param("limit") int limit);
+
+    @Modifying
+    @Query(value = "DELETE FROM outbox_events WHERE status = 'DELIVERED' AND delivered_at < :before LIMIT :limit",
+            nativeQuery = true)
+    int deleteDeliveredBefore(@Param("before") LocalDateTime before, @Param("limit") int limit);
+}
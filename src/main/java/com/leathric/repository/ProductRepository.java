@@ -8,14 +8,24 @@ import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
-public interface ProductRepository extends JpaRepository<Product, Long> {
+public interface ProductRepository extends JpaRepository<Product, Long>, ProductStockRepository {
 
     @Query("SELECT p FROM Product p LEFT JOIN FETCH p.category WHERE p.id = :id")
     Optional<Product> findByIdWithCategory(@Param("id") Long id);
 
+    /**
+     * Current stock read from the database, ignoring any (possibly stale) managed entity.
+     */
+    @Query("SELECT p.stockQuantity FROM Product p WHERE p.id = :id")
+    Optional<Integer> findStockQuantity(@Param("id") Long id);
+
     @Query(
             value = "SELECT new com.leathric.dto.ProductResponseDto(p.id, p.name, p.price, p.imageUrl, c.name) " +
                     "FROM Product p LEFT JOIN p.category c",
@@ -26,4 +36,33 @@ public interface ProductRepository extends JpaRepository<Product, Long> {
     @Query("SELECT new com.leathric.dto.ProductResponseDto(p.id, p.name, p.price, p.imageUrl, c.name) " +
             "FROM Product p LEFT JOIN p.category c WHERE p.imageUrl IS NOT NULL")
     List<ProductResponseDto> findProductsWithImages();
+
+    @Query("SELECT new com.leathric.dto.ProductResponseDto(p.id, p.name, p.price, p.imageUrl, c.name) " +
+            "FROM Product p LEFT JOIN p.category c WHERE p.id IN :ids")
+    List<ProductResponseDto> findProductResponsesByIds(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Listing projections in the order of {@code ids}; ids without a product are skipped.
+     */
+    default List<ProductResponseDto> findProductResponsesInOrder(List<Long> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, ProductResponseDto> byId = new HashMap<>();
+        for (ProductResponseDto product : findProductResponsesByIds(ids)) {
+            byId.put(product.getId(), product);
+        }
+        List<ProductResponseDto> ordered = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            ProductResponseDto product = byId.get(id);
+            if (product != null) {
+                ordered.add(product);
+            }
+        }
+        return ordered;
+    }
+
+    @Query("SELECT new com.leathric.dto.ProductResponseDto(p.id, p.name, p.price, p.imageUrl, c.name) " +
+            "FROM Product p LEFT JOIN p.category c WHERE p.id > :afterId ORDER BY p.id ASC")
+    List<ProductResponseDto> findProductResponsesAfterId(@Param("afterId") Long afterId, Pageable pageable);
 }
@@ -0,0 +1,41 @@
+package com.leathric.repository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Atomic stock mutations issued as plain SQL, bypassing entity state so concurrent orders cannot
+ * read-modify-write over each other. Mixed into {@link ProductRepository}.
+ */
+public interface ProductStockRepository {
+
+    /**
+     * Takes the given quantities in one JDBC batch of conditional updates, in ascending product id order
+     * so concurrent multi-product orders always lock rows in the same order and cannot deadlock.
+     * Products without enough stock are left untouched; the caller decides whether to roll back the rest.
+     *
+     * @param quantitiesByProductId units to take per product
+     * @return ids of products that did not have enough stock, ascending
+     */
+    List<Long> decrementStock(Map<Long, Integer> quantitiesByProductId);
+
+    /**
+     * Gives units back (cancellations, refunds) in one JDBC batch of additive updates, in ascending product
+     * id order for the same reason as {@link #decrementStock(Map)}.
+     */
+    void incrementStock(Map<Long, Integer> quantitiesByProductId);
+
+    /**
+     * Reads a product's stock with {@code SELECT ... FOR UPDATE}, so no checkout moves it before the caller's
+     * transaction ends.
+     */
+    Optional<Integer> lockStockQuantity(Long productId);
+
+    /**
+     * Current stock of the given products on the caller's connection. Rows the caller has just updated stay
+     * locked, so their values cannot move before its transaction ends.
+     */
+    Map<Long, Integer> findStockQuantities(Collection<Long> productIds);
+}
@@ -0,0 +1,84 @@
+package com.leathric.repository;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+
+/**
+ * JDBC implementation of {@link ProductStockRepository}; runs on the connection of the surrounding JPA transaction.
+ */
+public class ProductStockRepositoryImpl implements ProductStockRepository {
+
+    private static final String DECREMENT_SQL =
+            "UPDATE products SET stock_quantity = stock_quantity - ? WHERE id = ? AND stock_quantity >= ?";
+
+    private static final String INCREMENT_SQL =
+            "UPDATE products SET stock_quantity = stock_quantity + ? WHERE id = ?";
+
+    private static final String STOCK_SQL = "SELECT id, stock_quantity FROM products WHERE id IN (%s)";
+
+    private static final String LOCK_SQL = "SELECT stock_quantity FROM products WHERE id = ? FOR UPDATE";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public ProductStockRepositoryImpl(DataSource dataSource) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+    }
+
+    @Override
+    public List<Long> decrementStock(Map<Long, Integer> quantitiesByProductId) {
+        if (quantitiesByProductId.isEmpty()) {
+            return List.of();
+        }
+        List<Long> productIds = new ArrayList<>(new TreeMap<>(quantitiesByProductId).keySet());
+        List<Object[]> batch = new ArrayList<>(productIds.size());
+        for (Long productId : productIds) {
+            int quantity = quantitiesByProductId.get(productId);
+            batch.add(new Object[]{quantity, productId, quantity});
+        }
+        int[] updated = jdbcTemplate.batchUpdate(DECREMENT_SQL, batch);
+        List<Long> insufficient = new ArrayList<>();
+        for (int i = 0; i < updated.length; i++) {
+            if (updated[i] == 0) {
+                insufficient.add(productIds.get(i));
+            }
+        }
+        return insufficient;
+    }
+
+    @Override
+    public void incrementStock(Map<Long, Integer> quantitiesByProductId) {
+        if (quantitiesByProductId.isEmpty()) {
+            return;
+        }
+        List<Object[]> batch = new ArrayList<>(quantitiesByProductId.size());
+        new TreeMap<>(quantitiesByProductId).forEach((productId, quantity) -> batch.add(new Object[]{quantity, productId}));
+        jdbcTemplate.batchUpdate(INCREMENT_SQL, batch);
+    }
+
+    @Override
+    public Optional<Integer> lockStockQuantity(Long productId) {
+        return jdbcTemplate.queryForList(LOCK_SQL, Integer.class, productId).stream().findFirst();
+    }
+
+    @Override
+    public Map<Long, Integer> findStockQuantities(Collection<Long> productIds) {
+        Map<Long, Integer> stock = new HashMap<>();
+        if (productIds.isEmpty()) {
+            return stock;
+        }
+        String sql = String.format(STOCK_SQL, String.join(",", Collections.nCopies(productIds.size(), "?")));
+        jdbcTemplate.query(sql, rs -> {
+            stock.put(rs.getLong("id"), rs.getInt("stock_quantity"));
+        }, productIds.toArray());
+        return stock;
+    }
+}
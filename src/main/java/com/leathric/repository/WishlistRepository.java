@@ -1,11 +1,13 @@
 package com.leathric.repository;
 
+import com.leathric.dto.WishlistDtos;
 import com.leathric.entity.Wishlist;
 import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
+import java.util.List;
 import java.util.Optional;
 
 public interface WishlistRepository extends JpaRepository<Wishlist, Long> {
@@ -15,4 +17,19 @@ public interface WishlistRepository extends JpaRepository<Wishlist, Long> {
     Optional<Wishlist> findByUserIdWithItems(@Param("userId") Long userId);
 
     Optional<Wishlist> findByUserId(Long userId);
+
+    @Query("SELECT COUNT(i) FROM WishlistItem i WHERE i.wishlist.id = :wishlistId")
+    long countItems(@Param("wishlistId") Long wishlistId);
+
+    @Query("SELECT new com.leathric.dto.WishlistDtos$WishlistItemResponse(" +
+            "i.id, p.id, p.name, p.description, p.price, p.imageUrl, p.stockQuantity, c.name) " +
+            "FROM WishlistItem i JOIN i.product p LEFT JOIN p.category c " +
+            "WHERE i.wishlist.id = :wishlistId ORDER BY i.id")
+    List<WishlistDtos.WishlistItemResponse> findItemResponses(@Param("wishlistId") Long wishlistId);
+
+    @Query("SELECT new com.leathric.dto.WishlistDtos$WishlistItemResponse(" +
+            "i.id, p.id, p.name, p.price, p.imageUrl, p.stockQuantity) " +
+            "FROM WishlistItem i JOIN i.product p " +
+            "WHERE i.wishlist.id = :wishlistId ORDER BY i.id")
+    List<WishlistDtos.WishlistItemResponse> findCompactItemResponses(@Param("wishlistId") Long wishlistId);
 }
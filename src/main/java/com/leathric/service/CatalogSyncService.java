@@ -0,0 +1,36 @@
+package com.leathric.service;
+
+import com.leathric.dto.CatalogSyncDtos;
+
+public interface CatalogSyncService {
+
+    /**
+     * Record that a product (or one of its images) was created or modified
+     */
+    void recordProductUpsert(Long productId);
+
+    /**
+     * Record that a product was removed
+     */
+    void recordProductDelete(Long productId);
+
+    /**
+     * Record that a category was created or modified
+     */
+    void recordCategoryUpsert(Long categoryId);
+
+    /**
+     * Record that a category was removed
+     */
+    void recordCategoryDelete(Long categoryId);
+
+    /**
+     * Full catalog snapshot page, keyset-paged by product id; {@code pageToken} is {@code null} for the first page
+     */
+    CatalogSyncDtos.SnapshotResponse getSnapshot(String pageToken, int limit);
+
+    /**
+     * Upserts and tombstones recorded after the given cursor, in sequence order
+     */
+    CatalogSyncDtos.ChangesResponse getChanges(Long since, int limit);
+}
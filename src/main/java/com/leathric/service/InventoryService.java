@@ -0,0 +1,21 @@
+package com.leathric.service;
+
+import com.leathric.dto.InventoryDtos;
+
+public interface InventoryService {
+
+    /**
+     * Open missing balances, refresh snapshots and compare every product's stock with its ledger total
+     */
+    InventoryDtos.ReconciliationReport reconcile();
+
+    /**
+     * Report of the most recent reconciliation on this node
+     */
+    InventoryDtos.ReconciliationReport getLastReconciliation();
+
+    /**
+     * Stock, ledger total and recent movements of one product
+     */
+    InventoryDtos.ProductLedger getProductLedger(Long productId, int recentMovements);
+}
@@ -2,8 +2,10 @@ package com.leathric.service;
 
 import com.leathric.dto.OrderDtos;
 import com.leathric.entity.OrderStatus;
+import com.leathric.util.SparseFieldset;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 public interface OrderService {
     
@@ -13,6 +15,16 @@ public interface OrderService {
      */
     OrderDtos.OrderResponse placeOrder(OrderDtos.PlaceOrderRequest request);
 
+    /**
+     * Hold stock for the current cart for a limited time ahead of placing the order
+     */
+    OrderDtos.ReservationResponse reserveCart();
+
+    /**
+     * Give back a hold that will not be converted into an order
+     */
+    void releaseReservation(String reservationId);
+
     /**
      * Confirm payment and move order to CONFIRMED status
      */
@@ -23,20 +35,65 @@ public interface OrderService {
      */
     OrderDtos.OrderResponse updateOrderStatus(Long orderId, OrderStatus newStatus, String note);
 
+    /**
+     * Move many orders to one status in chunked transactions; each order is validated like a single update
+     */
+    OrderDtos.BulkUpdateOrderStatusResponse bulkUpdateOrderStatus(OrderDtos.BulkUpdateOrderStatusRequest request);
+
+    /**
+     * Admin search over all orders, newest first, one keyset window at a time
+     */
+    OrderDtos.AdminOrderSearchWindow searchOrders(OrderDtos.AdminOrderSearchRequest request);
+
+    /**
+     * Cancel unpaid orders older than the configured TTL now instead of waiting for the next sweep
+     */
+    OrderDtos.OrderExpiryStats expireUnpaidOrders();
+
+    /**
+     * Counters of the unpaid order sweeper on this instance
+     */
+    OrderDtos.OrderExpiryStats getUnpaidOrderExpiryStats();
+
+    /**
+     * Archive closed orders past the retention period now
+     *
+     * @return orders archived, or {@code -1} if archiving was already running
+     */
+    long archiveClosedOrders();
+
+    /**
+     * Stream of the order's status changes, starting with its current tracking state
+     */
+    SseEmitter subscribeToOrderEvents(Long orderId);
+
+    /**
+     * Regenerate the order read model from the order tables
+     *
+     * @param reset start from the first order instead of resuming an interrupted rebuild
+     * @return orders rebuilt, or {@code -1} if a rebuild was already running
+     */
+    long rebuildOrderViews(boolean reset);
+
     /**
      * Cancel order (only allowed before SHIPPED)
      */
     OrderDtos.OrderResponse cancelOrder(Long orderId);
 
     /**
-     * Get user's order history
+     * Get user's order history; item lines are only loaded when the fieldset renders them
+     */
+    Page<OrderDtos.OrderResponse> getMyOrders(Pageable pageable, SparseFieldset fields);
+
+    /**
+     * Keyset variant of the order history, newest first, for orders with ids below {@code before}
      */
-    Page<OrderDtos.OrderResponse> getMyOrders(Pageable pageable);
+    OrderDtos.OrderHistoryWindow getMyOrderHistory(Long before, int size, SparseFieldset fields);
 
     /**
-     * Get single order details
+     * Get single order details; item lines are only loaded when the fieldset renders them
      */
-    OrderDtos.OrderResponse getOrderById(Long orderId);
+    OrderDtos.OrderResponse getOrderById(Long orderId, SparseFieldset fields);
 
     /**
      * Get order tracking timeline
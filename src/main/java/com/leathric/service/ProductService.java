@@ -6,6 +6,7 @@ import com.leathric.dto.request.ProductImageReorderRequest;
 import com.leathric.dto.request.ProductImageUploadRequest;
 import com.leathric.dto.response.ProductImageResponse;
 import com.leathric.dto.response.PresignedUploadUrlResponse;
+import com.leathric.util.SparseFieldset;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.web.multipart.MultipartFile;
@@ -15,6 +16,7 @@ import java.util.List;
 public interface ProductService {
     Page<ProductResponseDto> getAll(Pageable pageable);
     ProductResponseDto getById(Long id);
+    ProductResponseDto getById(Long id, SparseFieldset fields);
     ProductResponseDto create(ProductDto dto);
     ProductResponseDto create(ProductDto dto, MultipartFile file);
     ProductResponseDto update(Long id, ProductDto dto);
@@ -0,0 +1,18 @@
+package com.leathric.service;
+
+import com.leathric.dto.ProductResponseDto;
+
+import java.util.List;
+
+public interface RecentlyViewedService {
+
+    /**
+     * Remember a product detail view for the signed-in user; a no-op for anonymous requests
+     */
+    void recordView(Long productId);
+
+    /**
+     * The current user's recently viewed products, newest first
+     */
+    List<ProductResponseDto> getRecentlyViewed(int limit);
+}
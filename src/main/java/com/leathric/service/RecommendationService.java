@@ -0,0 +1,23 @@
+package com.leathric.service;
+
+import com.leathric.dto.ProductResponseDto;
+
+import java.util.List;
+
+public interface RecommendationService {
+
+    /**
+     * Products most often bought together with the given product
+     */
+    List<ProductResponseDto> getAlsoBought(Long productId, int limit);
+
+    /**
+     * Products most often bought together with the current user's cart contents
+     */
+    List<ProductResponseDto> getForCurrentCart(int limit);
+
+    /**
+     * Count historical orders into the co-purchase matrix, optionally from scratch
+     */
+    long backfill(boolean reset);
+}
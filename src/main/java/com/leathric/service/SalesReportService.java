@@ -0,0 +1,18 @@
+package com.leathric.service;
+
+import com.leathric.dto.SalesDtos;
+
+import java.time.LocalDate;
+
+public interface SalesReportService {
+
+    /**
+     * Daily totals, top products and category split for {@code [from, to]}, read from the rollup tables
+     */
+    SalesDtos.SalesDashboard getDashboard(LocalDate from, LocalDate to, int topProducts);
+
+    /**
+     * Recompute the rollups for {@code [from, to]} from the order tables
+     */
+    SalesDtos.RebuildResult rebuild(LocalDate from, LocalDate to);
+}
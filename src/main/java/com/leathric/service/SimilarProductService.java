@@ -0,0 +1,13 @@
+package com.leathric.service;
+
+import com.leathric.dto.ProductResponseDto;
+
+import java.util.List;
+
+public interface SimilarProductService {
+
+    /**
+     * Precomputed "more like this" products, most similar first
+     */
+    List<ProductResponseDto> getSimilar(Long productId, int limit);
+}
@@ -1,13 +1,14 @@
 package com.leathric.service;
 
 import com.leathric.dto.WishlistDtos;
+import com.leathric.util.SparseFieldset;
 
 public interface WishlistService {
     
     /**
-     * Get current user's wishlist
+     * Get current user's wishlist; sparse fieldsets read item rows through narrow projections
      */
-    WishlistDtos.WishlistResponse getMyWishlist();
+    WishlistDtos.WishlistResponse getMyWishlist(SparseFieldset fields);
 
     /**
      * Add product to wishlist
@@ -0,0 +1,231 @@
+package com.leathric.service.impl;
+
+import com.leathric.dto.CatalogSyncDtos;
+import com.leathric.dto.CategoryDto;
+import com.leathric.dto.ProductResponseDto;
+import com.leathric.entity.CatalogChange;
+import com.leathric.entity.CatalogChangeType;
+import com.leathric.entity.CatalogEntityType;
+import com.leathric.entity.Category;
+import com.leathric.exception.BadRequestException;
+import com.leathric.repository.CatalogChangeRepository;
+import com.leathric.repository.CategoryRepository;
+import com.leathric.repository.ProductRepository;
+import com.leathric.service.CatalogSyncService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.*;
+
+/**
+ * Catalog change feed backed by the append-only {@code catalog_changes} table.
+ * <p>
+ * Sequences are allocated at insert time but become visible at commit time, so a page never reaches past
+ * the first change younger than the settle window, and neither does a snapshot cursor; this keeps a slow
+ * transaction from committing a sequence below a cursor a client has already moved past. Rows are inserted
+ * after the rest of the recording transaction has been flushed, just before it commits, and both their
+ * {@code changedAt} and the window's cutoff come from the database clock, so the window only has to cover
+ * the commit itself, on any instance.
+ */
+@Service
+@RequiredArgsConstructor
+public class CatalogSyncServiceImpl implements CatalogSyncService {
+
+    private static final int MAX_PAGE_SIZE = 5000;
+
+    private final CatalogChangeRepository catalogChangeRepository;
+    private final ProductRepository productRepository;
+    private final CategoryRepository categoryRepository;
+
+    @Value("${app.catalog.sync.settle-millis:2000}")
+    private long settleMillis;
+
+    @Override
+    @Transactional
+    public void recordProductUpsert(Long productId) {
+        record(CatalogEntityType.PRODUCT, productId, CatalogChangeType.UPSERT);
+    }
+
+    @Override
+    @Transactional
+    public void recordProductDelete(Long productId) {
+        record(CatalogEntityType.PRODUCT, productId, CatalogChangeType.DELETE);
+    }
+
+    @Override
+    @Transactional
+    public void recordCategoryUpsert(Long categoryId) {
+        record(CatalogEntityType.CATEGORY, categoryId, CatalogChangeType.UPSERT);
+    }
+
+    @Override
+    @Transactional
+    public void recordCategoryDelete(Long categoryId) {
+        record(CatalogEntityType.CATEGORY, categoryId, CatalogChangeType.DELETE);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public CatalogSyncDtos.SnapshotResponse getSnapshot(String pageToken, int limit) {
+        // The cursor is read once, before the first page, and carried in the page token; anything committed
+        // while the client pages through is then above it and replayed as a delta.
+        long[] position = decodePageToken(pageToken);
+        long from = position[0];
+        long cursor = position[1];
+        int size = clamp(limit);
+
+        List<ProductResponseDto> products = productRepository.findProductResponsesAfterId(from, PageRequest.of(0, size + 1));
+        boolean hasMore = products.size() > size;
+        if (hasMore) {
+            products = products.subList(0, size);
+        }
+        String nextPageToken = hasMore ? encodePageToken(products.get(products.size() - 1).getId(), cursor) : null;
+
+        // Categories are small enough to ship whole with the first page only.
+        List<CategoryDto> categories = from == 0L
+                ? categoryRepository.findAll(Sort.by("id")).stream().map(this::toCategoryDto).toList()
+                : List.of();
+
+        return CatalogSyncDtos.SnapshotResponse.builder()
+                .cursor(cursor)
+                .nextPageToken(nextPageToken)
+                .hasMore(hasMore)
+                .products(products)
+                .categories(categories)
+                .build();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public CatalogSyncDtos.ChangesResponse getChanges(Long since, int limit) {
+        int size = clamp(limit);
+        long from = since != null ? since : 0L;
+
+        long until = catalogChangeRepository.findFirstUnsettledSequenceAfter(from, settledBefore()).orElse(Long.MAX_VALUE);
+        List<CatalogChange> changes = catalogChangeRepository.findChangesBetween(from, until, PageRequest.of(0, size + 1));
+        boolean hasMore = changes.size() > size;
+        if (hasMore) {
+            changes = changes.subList(0, size);
+        }
+        long cursor = changes.isEmpty() ? from : changes.get(changes.size() - 1).getSequence();
+
+        // Collapse to the latest change per entity; the log is read in sequence order so later entries win.
+        Map<Long, CatalogChangeType> productChanges = new LinkedHashMap<>();
+        Map<Long, CatalogChangeType> categoryChanges = new LinkedHashMap<>();
+        for (CatalogChange change : changes) {
+            Map<Long, CatalogChangeType> target = change.getEntityType() == CatalogEntityType.PRODUCT ? productChanges : categoryChanges;
+            target.remove(change.getEntityId());
+            target.put(change.getEntityId(), change.getChangeType());
+        }
+
+        Set<Long> productUpsertIds = idsWith(productChanges, CatalogChangeType.UPSERT);
+        List<ProductResponseDto> upserts = productUpsertIds.isEmpty()
+                ? List.of()
+                : productRepository.findProductResponsesByIds(productUpsertIds);
+        List<Long> deletedProductIds = new ArrayList<>(idsWith(productChanges, CatalogChangeType.DELETE));
+        // An upsert whose row is already gone was deleted by a change beyond this page; tombstone it now.
+        Set<Long> found = new HashSet<>();
+        upserts.forEach(p -> found.add(p.getId()));
+        productUpsertIds.stream().filter(id -> !found.contains(id)).forEach(deletedProductIds::add);
+
+        Set<Long> categoryUpsertIds = idsWith(categoryChanges, CatalogChangeType.UPSERT);
+        List<CategoryDto> categoryUpserts = categoryUpsertIds.isEmpty()
+                ? List.of()
+                : categoryRepository.findAllById(categoryUpsertIds).stream().map(this::toCategoryDto).toList();
+        List<Long> deletedCategoryIds = new ArrayList<>(idsWith(categoryChanges, CatalogChangeType.DELETE));
+        Set<Long> foundCategories = new HashSet<>();
+        categoryUpserts.forEach(c -> foundCategories.add(c.getId()));
+        categoryUpsertIds.stream().filter(id -> !foundCategories.contains(id)).forEach(deletedCategoryIds::add);
+
+        return CatalogSyncDtos.ChangesResponse.builder()
+                .cursor(cursor)
+                .hasMore(hasMore)
+                .upserts(upserts)
+                .deletedProductIds(deletedProductIds)
+                .categoryUpserts(categoryUpserts)
+                .deletedCategoryIds(deletedCategoryIds)
+                .build();
+    }
+
+    // ==================== Private Helper Methods ====================
+
+    private void record(CatalogEntityType entityType, Long entityId, CatalogChangeType changeType) {
+        CatalogChange change = CatalogChange.builder()
+                .entityType(entityType)
+                .entityId(entityId)
+                .changeType(changeType)
+                .build();
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            save(change);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void beforeCommit(boolean readOnly) {
+                save(change);
+            }
+        });
+    }
+
+    private void save(CatalogChange change) {
+        // Flush the transaction's other writes first, so no lock wait falls between this insert and the commit.
+        catalogChangeRepository.flush();
+        change.setChangedAt(catalogChangeRepository.currentDatabaseTime().toLocalDateTime());
+        catalogChangeRepository.saveAndFlush(change);
+    }
+
+    private long[] decodePageToken(String pageToken) {
+        if (pageToken == null || pageToken.isBlank()) {
+            long cursor = catalogChangeRepository.findFirstUnsettledSequenceAfter(0L, settledBefore())
+                    .map(sequence -> sequence - 1)
+                    .orElseGet(() -> catalogChangeRepository.findLatestSequence().orElse(0L));
+            return new long[]{0L, cursor};
+        }
+        try {
+            String[] parts = new String(Base64.getUrlDecoder().decode(pageToken), StandardCharsets.UTF_8).split("\\|");
+            return new long[]{Long.parseLong(parts[0]), Long.parseLong(parts[1])};
+        } catch (IllegalArgumentException | ArrayIndexOutOfBoundsException e) {
+            throw new BadRequestException("Invalid snapshot page token");
+        }
+    }
+
+    private String encodePageToken(Long afterId, long cursor) {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString((afterId + "|" + cursor).getBytes(StandardCharsets.UTF_8));
+    }
+
+    private LocalDateTime settledBefore() {
+        return catalogChangeRepository.currentDatabaseTime().toLocalDateTime().minus(settleMillis, ChronoUnit.MILLIS);
+    }
+
+    private int clamp(int limit) {
+        return Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+    }
+
+    private Set<Long> idsWith(Map<Long, CatalogChangeType> changes, CatalogChangeType type) {
+        Set<Long> ids = new LinkedHashSet<>();
+        changes.forEach((id, changeType) -> {
+            if (changeType == type) {
+                ids.add(id);
+            }
+        });
+        return ids;
+    }
+
+    private CategoryDto toCategoryDto(Category category) {
+        return CategoryDto.builder()
+                .id(category.getId())
+                .name(category.getName())
+                .description(category.getDescription())
+                .build();
+    }
+}
@@ -4,6 +4,7 @@ import com.leathric.dto.CategoryDto;
 import com.leathric.entity.Category;
 import com.leathric.exception.ResourceNotFoundException;
 import com.leathric.repository.CategoryRepository;
+import com.leathric.service.CatalogSyncService;
 import com.leathric.service.CategoryService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
@@ -16,6 +17,7 @@ import org.springframework.transaction.annotation.Transactional;
 public class CategoryServiceImpl implements CategoryService {
 
     private final CategoryRepository categoryRepository;
+    private final CatalogSyncService catalogSyncService;
 
     @Override
     public Page<CategoryDto> getAll(Pageable pageable) {
@@ -35,7 +37,9 @@ public class CategoryServiceImpl implements CategoryService {
                 .name(dto.getName())
                 .description(dto.getDescription())
                 .build();
-        return toDto(categoryRepository.save(category));
+        Category saved = categoryRepository.save(category);
+        catalogSyncService.recordCategoryUpsert(saved.getId());
+        return toDto(saved);
     }
 
     @Override
@@ -44,6 +48,7 @@ public class CategoryServiceImpl implements CategoryService {
         Category category = findCategory(id);
         category.setName(dto.getName());
         category.setDescription(dto.getDescription());
+        catalogSyncService.recordCategoryUpsert(id);
         return toDto(category);
     }
 
@@ -52,6 +57,7 @@ public class CategoryServiceImpl implements CategoryService {
     public void delete(Long id) {
         Category category = findCategory(id);
         categoryRepository.delete(category);
+        catalogSyncService.recordCategoryDelete(id);
     }
 
     private Category findCategory(Long id) {
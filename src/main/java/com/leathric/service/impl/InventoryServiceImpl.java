@@ -0,0 +1,44 @@
+package com.leathric.service.impl;
+
+import com.leathric.dto.InventoryDtos;
+import com.leathric.exception.BadRequestException;
+import com.leathric.exception.ResourceNotFoundException;
+import com.leathric.service.InventoryService;
+import com.leathric.services.inventory.StockLedger;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+@Service
+@RequiredArgsConstructor
+public class InventoryServiceImpl implements InventoryService {
+
+    private static final int MAX_RECENT_MOVEMENTS = 500;
+
+    private final StockLedger stockLedger;
+
+    @Override
+    public InventoryDtos.ReconciliationReport reconcile() {
+        InventoryDtos.ReconciliationReport report = stockLedger.reconcile();
+        if (report == null) {
+            throw new BadRequestException("A stock reconciliation is already running");
+        }
+        return report;
+    }
+
+    @Override
+    public InventoryDtos.ReconciliationReport getLastReconciliation() {
+        InventoryDtos.ReconciliationReport report = stockLedger.lastReport();
+        if (report == null) {
+            throw new ResourceNotFoundException("No stock reconciliation has run yet");
+        }
+        return report;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public InventoryDtos.ProductLedger getProductLedger(Long productId, int recentMovements) {
+        return stockLedger.productLedger(productId, Math.max(1, Math.min(recentMovements, MAX_RECENT_MOVEMENTS)))
+                .orElseThrow(() -> new ResourceNotFoundException("Product not found for id: " + productId));
+    }
+}
@@ -2,34 +2,91 @@ package com.leathric.service.impl;
 
 import com.leathric.dto.OrderDtos;
 import com.leathric.entity.*;
+import com.leathric.event.OrderPlacedEvent;
 import com.leathric.exception.BadRequestException;
+import com.leathric.exception.InsufficientStockException;
 import com.leathric.exception.ResourceNotFoundException;
 import com.leathric.repository.CartRepository;
 import com.leathric.repository.OrderRepository;
+import com.leathric.repository.OrderSearchRepository;
+import com.leathric.repository.OrderStatusBulkRepository.OrderStatusRow;
 import com.leathric.repository.OrderStatusHistoryRepository;
+import com.leathric.repository.ProductRepository;
 import com.leathric.repository.UserRepository;
+import com.leathric.service.CatalogSyncService;
 import com.leathric.service.OrderService;
+import com.leathric.services.archive.OrderArchive;
+import com.leathric.services.archive.OrderArchiver;
+import com.leathric.services.ids.OrderNumberGenerator;
+import com.leathric.services.inventory.InventoryReservationEngine;
+import com.leathric.services.inventory.Reservation;
+import com.leathric.services.inventory.StockLedger;
+import com.leathric.services.orders.OrderEventStream;
+import com.leathric.services.orders.OrderStatusWriter;
+import com.leathric.services.orders.OrderTrackingCache;
+import com.leathric.services.orders.OrderViewStore;
+import com.leathric.services.orders.UnpaidOrderSweeper;
+import com.leathric.services.outbox.OrderEventOutbox;
 import com.leathric.util.SecurityUtils;
+import com.leathric.util.SparseFieldset;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeParseException;
 import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.Optional;
+import java.util.TreeSet;
 
 @Slf4j
 @Service
 @RequiredArgsConstructor
 public class OrderServiceImpl implements OrderService {
 
+    private static final int MAX_HISTORY_SIZE = 100;
+    private static final int MAX_BULK_ORDERS = 10_000;
+    private static final int BULK_CHUNK_SIZE = 500;
+    private static final int DEFAULT_SEARCH_SIZE = 50;
+    private static final int MAX_SEARCH_SIZE = 200;
+
     private final OrderRepository orderRepository;
     private final CartRepository cartRepository;
+    private final ProductRepository productRepository;
     private final UserRepository userRepository;
     private final OrderStatusHistoryRepository statusHistoryRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final InventoryReservationEngine reservationEngine;
+    private final OrderNumberGenerator orderNumberGenerator;
+    private final OrderEventOutbox orderEventOutbox;
+    private final PlatformTransactionManager transactionManager;
+    private final OrderTrackingCache orderTrackingCache;
+    private final OrderStatusWriter orderStatusWriter;
+    private final UnpaidOrderSweeper unpaidOrderSweeper;
+    private final OrderArchive orderArchive;
+    private final OrderArchiver orderArchiver;
+    private final OrderEventStream orderEventStream;
+    private final OrderViewStore orderViewStore;
+    private final StockLedger stockLedger;
+    private final CatalogSyncService catalogSyncService;
 
     @Override
     @Transactional
@@ -43,22 +100,17 @@ public class OrderServiceImpl implements OrderService {
             throw new BadRequestException("Cart is empty");
         }
 
-        // Validate stock availability and calculate total
+        // Take stock atomically and calculate total
+        Map<Long, Integer> taken = takeStock(cart.getItems(), request.getReservationId(), user.getId());
         BigDecimal totalAmount = BigDecimal.ZERO;
         for (CartItem cartItem : cart.getItems()) {
-            Product product = cartItem.getProduct();
-            if (product.getStockQuantity() < cartItem.getQuantity()) {
-                throw new BadRequestException(
-                    String.format("Insufficient stock for product '%s'. Available: %d, Requested: %d",
-                        product.getName(), product.getStockQuantity(), cartItem.getQuantity())
-                );
-            }
-            BigDecimal lineTotal = product.getPrice().multiply(BigDecimal.valueOf(cartItem.getQuantity()));
+            BigDecimal lineTotal = cartItem.getProduct().getPrice().multiply(BigDecimal.valueOf(cartItem.getQuantity()));
             totalAmount = totalAmount.add(lineTotal);
         }
 
         // Create order with CREATED status
         Order order = Order.builder()
+                .orderNumber(orderNumberGenerator.next())
                 .user(user)
                 .status(OrderStatus.CREATED)
                 .paymentStatus(PaymentStatus.PENDING)
@@ -71,7 +123,7 @@ public class OrderServiceImpl implements OrderService {
         // Add initial status history
         order.addStatusHistory(OrderStatus.CREATED, "Order created from cart");
 
-        // Create order items and deduct stock
+        // Create order items
         for (CartItem cartItem : cart.getItems()) {
             Product product = cartItem.getProduct();
             
@@ -83,20 +135,62 @@ public class OrderServiceImpl implements OrderService {
                     .build();
             
             order.getItems().add(orderItem);
-            
-            // Deduct stock (pessimistic lock already acquired via cart fetch)
-            product.setStockQuantity(product.getStockQuantity() - cartItem.getQuantity());
         }
 
         // Save order (cascades to items and history)
         Order savedOrder = orderRepository.save(order);
+        stockLedger.record(StockMovementReason.ORDER, savedOrder.getId(), negate(taken), null);
+        eventPublisher.publishEvent(new OrderPlacedEvent(savedOrder.getId(), user.getId(),
+                savedOrder.getItems().stream().map(item -> item.getProduct().getId()).toList()));
+        orderEventOutbox.record(OrderEventOutbox.ORDER_PLACED, savedOrder, request.getNote());
+        OrderDtos.OrderResponse response = toOrderResponse(savedOrder);
+        orderViewStore.record(user.getId(), user.getEmail(), response, savedOrder.getStatusHistory().stream()
+                .map(history -> new OrderDtos.StatusHistoryItem(history.getStatus(), history.getTimestamp(), history.getNote()))
+                .toList());
 
         // Clear cart after successful order creation
         cart.getItems().clear();
         cartRepository.save(cart);
 
         log.info("Order {} created successfully for user {}", savedOrder.getId(), user.getEmail());
-        return toOrderResponse(savedOrder);
+        return response;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public OrderDtos.ReservationResponse reserveCart() {
+        if (!reservationEngine.isEnabled()) {
+            throw new BadRequestException("Checkout reservations are not available");
+        }
+        User user = getCurrentUser();
+        Cart cart = getCartWithItems(user.getId());
+        if (cart.getItems().isEmpty()) {
+            throw new BadRequestException("Cart is empty");
+        }
+
+        Reservation reservation;
+        try {
+            reservation = reservationEngine.reserve(user.getId(), quantitiesByProduct(cart.getItems()));
+        } catch (InsufficientStockException e) {
+            throw new BadRequestException(String.format("Insufficient stock for product '%s'",
+                    productName(cart.getItems(), e.getProductId())));
+        }
+        log.info("Reservation {} created for user {}", reservation.getId(), user.getEmail());
+        return OrderDtos.ReservationResponse.builder()
+                .reservationId(reservation.getId())
+                .expiresAt(LocalDateTime.ofInstant(reservation.getExpiresAt(), ZoneId.systemDefault()))
+                .items(reservation.getQuantities().entrySet().stream()
+                        .map(line -> OrderDtos.ReservedItem.builder().productId(line.getKey()).quantity(line.getValue()).build())
+                        .toList())
+                .build();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void releaseReservation(String reservationId) {
+        if (!reservationEngine.release(reservationId, getCurrentUser().getId())) {
+            throw new ResourceNotFoundException("Reservation not found");
+        }
     }
 
     @Override
@@ -104,7 +198,7 @@ public class OrderServiceImpl implements OrderService {
     public OrderDtos.OrderResponse confirmPayment(Long orderId, OrderDtos.ConfirmPaymentRequest request) {
         log.info("Confirming payment for order: {}", orderId);
         
-        Order order = getOrderForUpdate(orderId);
+        Order order = getOrderForUpdateWithDetails(orderId);
         validateOrderOwnership(order);
 
         if (order.getStatus() != OrderStatus.CREATED) {
@@ -122,6 +216,7 @@ public class OrderServiceImpl implements OrderService {
         updateStatus(order, OrderStatus.CONFIRMED, "Payment confirmed: " + request.getPaymentReference());
 
         Order savedOrder = orderRepository.save(order);
+        orderEventOutbox.record(OrderEventOutbox.PAYMENT_CONFIRMED, savedOrder, request.getPaymentReference());
         log.info("Payment confirmed for order {}", orderId);
         
         return toOrderResponse(savedOrder);
@@ -132,7 +227,7 @@ public class OrderServiceImpl implements OrderService {
     public OrderDtos.OrderResponse updateOrderStatus(Long orderId, OrderStatus newStatus, String note) {
         log.info("Updating order {} status to {}", orderId, newStatus);
         
-        Order order = getOrderForUpdate(orderId);
+        Order order = getOrderForUpdateWithDetails(orderId);
         
         if (order.getStatus() == newStatus) {
             throw new BadRequestException("Order is already in " + newStatus + " status");
@@ -144,19 +239,117 @@ public class OrderServiceImpl implements OrderService {
             );
         }
 
+        if (OrderStatusWriter.restoresStock(newStatus)) {
+            orderStatusWriter.restoreStock(order.getId(), newStatus, orderQuantitiesByProduct(order.getItems()));
+        }
         updateStatus(order, newStatus, note);
         Order savedOrder = orderRepository.save(order);
+        orderEventOutbox.record(newStatus == OrderStatus.CANCELLED ? OrderEventOutbox.ORDER_CANCELLED
+                : OrderEventOutbox.ORDER_STATUS_CHANGED, savedOrder, note);
         
         log.info("Order {} status updated to {}", orderId, newStatus);
         return toOrderResponse(savedOrder);
     }
 
+    /**
+     * Not transactional itself: every chunk of {@link #BULK_CHUNK_SIZE} orders is locked, validated and moved
+     * in its own short transaction with one UPDATE and one history INSERT, so row locks are never held for
+     * the whole request. A failure leaves earlier chunks applied.
+     */
+    @Override
+    public OrderDtos.BulkUpdateOrderStatusResponse bulkUpdateOrderStatus(OrderDtos.BulkUpdateOrderStatusRequest request) {
+        boolean byIds = request.getOrderIds() != null && !request.getOrderIds().isEmpty();
+        if (byIds == (request.getCurrentStatus() != null)) {
+            throw new BadRequestException("Provide either orderIds or currentStatus");
+        }
+        OrderStatus newStatus = request.getStatus();
+        String note = request.getNote() != null ? request.getNote() : "Status updated by admin (bulk)";
+        log.info("Bulk updating orders to {} ({})", newStatus,
+                byIds ? request.getOrderIds().size() + " ids" : "all " + request.getCurrentStatus());
+
+        OrderDtos.BulkUpdateOrderStatusResponse result = OrderDtos.BulkUpdateOrderStatusResponse.builder()
+                .status(newStatus)
+                .updated(new ArrayList<>())
+                .alreadyInStatus(new ArrayList<>())
+                .invalidTransition(new ArrayList<>())
+                .notFound(new ArrayList<>())
+                .build();
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        int requested = 0;
+        if (byIds) {
+            List<Long> ids = new ArrayList<>(new TreeSet<>(request.getOrderIds()));
+            requested = ids.size();
+            for (int from = 0; from < ids.size(); from += BULK_CHUNK_SIZE) {
+                List<Long> chunk = ids.subList(from, Math.min(from + BULK_CHUNK_SIZE, ids.size()));
+                transaction.executeWithoutResult(status -> transitionChunk(chunk, newStatus, note, result));
+            }
+        } else {
+            long afterId = 0;
+            while (requested < MAX_BULK_ORDERS) {
+                List<Long> chunk = orderRepository.findIdsByStatusAfter(request.getCurrentStatus(), afterId,
+                        Math.min(BULK_CHUNK_SIZE, MAX_BULK_ORDERS - requested));
+                if (chunk.isEmpty()) {
+                    break;
+                }
+                requested += chunk.size();
+                afterId = chunk.get(chunk.size() - 1);
+                transaction.executeWithoutResult(status -> transitionChunk(chunk, newStatus, note, result));
+            }
+        }
+        result.setRequested(requested);
+        log.info("Bulk update to {}: {} updated, {} already, {} invalid, {} not found", newStatus,
+                result.getUpdated().size(), result.getAlreadyInStatus().size(),
+                result.getInvalidTransition().size(), result.getNotFound().size());
+        return result;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public OrderDtos.AdminOrderSearchWindow searchOrders(OrderDtos.AdminOrderSearchRequest request) {
+        int size = request.getSize() == null ? DEFAULT_SEARCH_SIZE : Math.max(1, Math.min(request.getSize(), MAX_SEARCH_SIZE));
+        String orderNumber = request.getOrderNumber() == null || request.getOrderNumber().isBlank()
+                ? null : request.getOrderNumber().trim().toUpperCase();
+        OrderSearchRepository.Filter filter = new OrderSearchRepository.Filter(request.getStatus(),
+                request.getPaymentStatus(), request.getCreatedFrom(), request.getCreatedTo(), orderNumber);
+
+        List<OrderDtos.AdminOrderSummary> orders = orderRepository.searchOrders(filter,
+                decodeSearchCursor(request.getCursor()), size);
+        OrderDtos.AdminOrderSummary last = orders.size() == size ? orders.get(size - 1) : null;
+        return OrderDtos.AdminOrderSearchWindow.builder()
+                .orders(orders)
+                .nextCursor(last == null ? null : encodeSearchCursor(last.getCreatedAt(), last.getOrderId()))
+                .build();
+    }
+
+    @Override
+    public OrderDtos.OrderExpiryStats expireUnpaidOrders() {
+        if (unpaidOrderSweeper.sweep() < 0) {
+            throw new BadRequestException("An unpaid order sweep is already running");
+        }
+        return unpaidOrderSweeper.stats();
+    }
+
+    @Override
+    public OrderDtos.OrderExpiryStats getUnpaidOrderExpiryStats() {
+        return unpaidOrderSweeper.stats();
+    }
+
+    @Override
+    public long archiveClosedOrders() {
+        return orderArchiver.archive();
+    }
+
+    @Override
+    public long rebuildOrderViews(boolean reset) {
+        return orderViewStore.rebuild(reset);
+    }
+
     @Override
     @Transactional
     public OrderDtos.OrderResponse cancelOrder(Long orderId) {
         log.info("Cancelling order: {}", orderId);
         
-        Order order = getOrderForUpdate(orderId);
+        Order order = getOrderForUpdateWithDetails(orderId);
         validateOrderOwnership(order);
 
         if (!order.getStatus().isCancellable()) {
@@ -166,14 +359,11 @@ public class OrderServiceImpl implements OrderService {
             );
         }
 
-        // Restore stock
-        for (OrderItem item : order.getItems()) {
-            Product product = item.getProduct();
-            product.setStockQuantity(product.getStockQuantity() + item.getQuantity());
-        }
+        orderStatusWriter.restoreStock(order.getId(), OrderStatus.CANCELLED, orderQuantitiesByProduct(order.getItems()));
 
         updateStatus(order, OrderStatus.CANCELLED, "Order cancelled by user");
         Order savedOrder = orderRepository.save(order);
+        orderEventOutbox.record(OrderEventOutbox.ORDER_CANCELLED, savedOrder, "Order cancelled by user");
         
         log.info("Order {} cancelled successfully", orderId);
         return toOrderResponse(savedOrder);
@@ -181,54 +371,194 @@ public class OrderServiceImpl implements OrderService {
 
     @Override
     @Transactional(readOnly = true)
-    public Page<OrderDtos.OrderResponse> getMyOrders(Pageable pageable) {
+    public Page<OrderDtos.OrderResponse> getMyOrders(Pageable pageable, SparseFieldset fields) {
         User user = getCurrentUser();
-        return orderRepository.findByUserId(user.getId(), pageable)
-                .map(this::toOrderResponse);
+        // Reject sorts the view cannot serve on both paths, so a sort works the same whether or not the view is on.
+        OrderViewStore.toViewSort(pageable.getSort());
+        if (orderViewStore.servesReads()) {
+            // One user_id index range over the read model; lines come prebuilt.
+            boolean includeItems = fields.includes("items");
+            return appendArchived(orderViewStore.findByUser(user.getId(), pageable, includeItems), user.getId(), pageable, includeItems);
+        }
+        if (!fields.includes("items")) {
+            // Header-only page: no collection fetch, so the limit is applied in SQL and no item rows are read.
+            return appendArchived(orderRepository.findHeadersByUserId(user.getId(), pageable)
+                    .map(order -> toOrderResponse(order, false)), user.getId(), pageable, false);
+        }
+        // Two phases: page the ids in SQL, then fetch only those orders with items and products in one query.
+        Page<Long> ids = orderRepository.findIdsByUserId(user.getId(), pageable);
+        List<OrderDtos.OrderResponse> orders = orderRepository.findWithItemsInOrder(ids.getContent()).stream()
+                .map(this::toOrderResponse)
+                .toList();
+        return appendArchived(new PageImpl<>(orders, ids.getPageable(), ids.getTotalElements()), user.getId(), pageable, true);
     }
 
     @Override
     @Transactional(readOnly = true)
-    public OrderDtos.OrderResponse getOrderById(Long orderId) {
-        Order order = orderRepository.findByIdWithDetails(orderId)
-                .orElseThrow(() -> new ResourceNotFoundException("Order not found"));
-        
+    public OrderDtos.OrderHistoryWindow getMyOrderHistory(Long before, int size, SparseFieldset fields) {
+        User user = getCurrentUser();
+        Long beforeId = before != null ? before : Long.MAX_VALUE;
+        Limit limit = Limit.of(Math.max(1, Math.min(size, MAX_HISTORY_SIZE)));
+        boolean includeItems = fields.includes("items");
+        List<OrderDtos.OrderResponse> orders = new ArrayList<>();
+        if (orderViewStore.servesReads()) {
+            orders.addAll(orderViewStore.findByUserBefore(user.getId(), beforeId, limit.max(), includeItems));
+        } else {
+            List<Order> live = includeItems
+                    ? orderRepository.findWithItemsInOrder(orderRepository.findIdsByUserIdBefore(user.getId(), beforeId, limit))
+                    : orderRepository.findHeadersByUserIdBefore(user.getId(), beforeId, limit);
+            live.forEach(order -> orders.add(toOrderResponse(order, includeItems)));
+        }
+
+        // Archived ids interleave with orders that stayed open, so merge both windows by id.
+        orderArchive.findByUserBefore(user.getId(), beforeId, limit.max())
+                .forEach(archived -> orders.add(fromArchive(archived, includeItems)));
+        orders.sort(Comparator.comparing(OrderDtos.OrderResponse::getOrderId).reversed());
+        List<OrderDtos.OrderResponse> window = orders.subList(0, Math.min(orders.size(), limit.max()));
+
+        boolean full = window.size() == limit.max();
+        return OrderDtos.OrderHistoryWindow.builder()
+                .orders(new ArrayList<>(window))
+                .nextBefore(full ? window.get(window.size() - 1).getOrderId() : null)
+                .build();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public OrderDtos.OrderResponse getOrderById(Long orderId, SparseFieldset fields) {
+        boolean includeItems = fields.includes("items");
+        // Orders placed before the read model existed have no view until a rebuild reaches them.
+        Optional<OrderView> view = orderViewStore.servesReads() ? orderViewStore.find(orderId) : Optional.empty();
+        if (view.isPresent()) {
+            if (!view.get().getOwnerEmail().equals(SecurityUtils.currentUserEmail())) {
+                throw new BadRequestException("Access denied to this order");
+            }
+            return orderViewStore.toOrderResponse(view.get(), includeItems);
+        }
+        Order order = (includeItems ? orderRepository.findByIdWithDetails(orderId) : orderRepository.findByIdWithUser(orderId))
+                .orElse(null);
+        if (order == null) {
+            return getArchivedOrder(orderId, includeItems);
+        }
+
         validateOrderOwnership(order);
-        return toOrderResponse(order);
+        return toOrderResponse(order, includeItems);
     }
 
     @Override
     @Transactional(readOnly = true)
     public OrderDtos.OrderTrackingResponse getOrderTracking(Long orderId) {
-        Order order = orderRepository.findByIdWithTracking(orderId)
+        // Read model row when served, else the live tables, else the archive.
+        OrderTrackingCache.Entry tracking = orderTrackingCache.get(orderId, () -> getViewTracking(orderId)
+                .or(() -> getLiveTracking(orderId))
+                .orElseGet(() -> getArchivedTracking(orderId)));
+
+        if (!tracking.getOwnerEmail().equals(SecurityUtils.currentUserEmail())) {
+            throw new BadRequestException("Access denied to this order");
+        }
+        return tracking.getResponse();
+    }
+
+    @Override
+    public SseEmitter subscribeToOrderEvents(Long orderId) {
+        if (!orderEventStream.isEnabled()) {
+            throw new BadRequestException("Order event streams are disabled");
+        }
+        // Same access check and cached snapshot as a tracking poll; the stream then carries the changes.
+        return orderEventStream.subscribe(getOrderTracking(orderId));
+    }
+
+    // ==================== Private Helper Methods ====================
+
+    private User getCurrentUser() {
+        return userRepository.findByEmail(SecurityUtils.currentUserEmail())
+                .orElseThrow(() -> new ResourceNotFoundException("User not found"));
+    }
+
+    private OrderDtos.OrderResponse getArchivedOrder(Long orderId, boolean includeItems) {
+        OrderArchive.Document archived = orderArchive.find(orderId)
                 .orElseThrow(() -> new ResourceNotFoundException("Order not found"));
-        
-        validateOrderOwnership(order);
+        if (!archived.getUserId().equals(getCurrentUser().getId())) {
+            throw new BadRequestException("Access denied to this order");
+        }
+        return fromArchive(archived, includeItems);
+    }
 
-        var timeline = order.getStatusHistory().stream()
-                .map(history -> OrderDtos.StatusHistoryItem.builder()
-                        .status(history.getStatus())
-                        .timestamp(history.getTimestamp())
-                        .note(history.getNote())
-                        .build())
-                .toList();
+    private Optional<OrderTrackingCache.Entry> getViewTracking(Long orderId) {
+        if (!orderViewStore.servesReads()) {
+            return Optional.empty();
+        }
+        return orderViewStore.find(orderId)
+                .map(view -> new OrderTrackingCache.Entry(view.getOwnerEmail(), orderViewStore.toTrackingResponse(view)));
+    }
 
-        return OrderDtos.OrderTrackingResponse.builder()
-                .orderId(order.getId())
+    /**
+     * Header and timeline as two narrow projections; items are not part of the tracking view.
+     */
+    private Optional<OrderTrackingCache.Entry> getLiveTracking(Long orderId) {
+        return orderRepository.findTrackingHeaderById(orderId)
+                .map(header -> new OrderTrackingCache.Entry(header.ownerEmail(), OrderDtos.OrderTrackingResponse.builder()
+                        .orderId(header.id())
+                        .orderNumber(header.orderNumber())
+                        .currentStatus(header.status())
+                        .paymentStatus(header.paymentStatus())
+                        .totalAmount(header.totalAmount())
+                        .createdAt(header.createdAt())
+                        .timeline(statusHistoryRepository.findTimelineByOrderId(orderId))
+                        .build()));
+    }
+
+    private OrderTrackingCache.Entry getArchivedTracking(Long orderId) {
+        OrderArchive.Document archived = orderArchive.find(orderId)
+                .orElseThrow(() -> new ResourceNotFoundException("Order not found"));
+        User owner = userRepository.findById(archived.getUserId())
+                .orElseThrow(() -> new ResourceNotFoundException("Order not found"));
+        OrderDtos.OrderResponse order = archived.getOrder();
+        return new OrderTrackingCache.Entry(owner.getEmail(), OrderDtos.OrderTrackingResponse.builder()
+                .orderId(order.getOrderId())
                 .orderNumber(order.getOrderNumber())
                 .currentStatus(order.getStatus())
                 .paymentStatus(order.getPaymentStatus())
                 .totalAmount(order.getTotalAmount())
                 .createdAt(order.getCreatedAt())
-                .timeline(timeline)
-                .build();
+                .timeline(archived.getTimeline())
+                .build());
     }
 
-    // ==================== Private Helper Methods ====================
+    /**
+     * Continues a page of live orders with archived ones once the live orders run out; archived orders are
+     * closed and old, so they follow the live ones newest first whatever the requested sort.
+     */
+    private Page<OrderDtos.OrderResponse> appendArchived(Page<OrderDtos.OrderResponse> live, Long userId,
+                                                         Pageable pageable, boolean includeItems) {
+        long archivedTotal = orderArchive.countByUser(userId);
+        if (archivedTotal == 0 || pageable.isUnpaged()) {
+            return live;
+        }
+        List<OrderDtos.OrderResponse> orders = new ArrayList<>(live.getContent());
+        if (orders.size() < pageable.getPageSize()) {
+            long offset = Math.max(0, pageable.getOffset() - live.getTotalElements());
+            orderArchive.findByUser(userId, offset, pageable.getPageSize() - orders.size())
+                    .forEach(archived -> orders.add(fromArchive(archived, includeItems)));
+        }
+        return new PageImpl<>(orders, pageable, live.getTotalElements() + archivedTotal);
+    }
 
-    private User getCurrentUser() {
-        return userRepository.findByEmail(SecurityUtils.currentUserEmail())
-                .orElseThrow(() -> new ResourceNotFoundException("User not found"));
+    private OrderDtos.OrderResponse fromArchive(OrderArchive.Document archived, boolean includeItems) {
+        OrderDtos.OrderResponse order = archived.getOrder();
+        if (includeItems) {
+            return order;
+        }
+        return OrderDtos.OrderResponse.builder()
+                .orderId(order.getOrderId())
+                .orderNumber(order.getOrderNumber())
+                .status(order.getStatus())
+                .paymentStatus(order.getPaymentStatus())
+                .totalAmount(order.getTotalAmount())
+                .note(order.getNote())
+                .createdAt(order.getCreatedAt())
+                .updatedAt(order.getUpdatedAt())
+                .build();
     }
 
     private Cart getCartWithItems(Long userId) {
@@ -236,8 +566,8 @@ public class OrderServiceImpl implements OrderService {
                 .orElseThrow(() -> new BadRequestException("Cart not found"));
     }
 
-    private Order getOrderForUpdate(Long orderId) {
-        return orderRepository.findByIdForUpdate(orderId)
+    private Order getOrderForUpdateWithDetails(Long orderId) {
+        return orderRepository.findByIdForUpdateWithDetails(orderId)
                 .orElseThrow(() -> new ResourceNotFoundException("Order not found"));
     }
 
@@ -248,13 +578,127 @@ public class OrderServiceImpl implements OrderService {
         }
     }
 
+    /**
+     * Takes stock with conditional updates instead of checking cached entity state, so two checkouts
+     * cannot both pass the check for the last units. Any shortfall rolls the whole order back. A checkout
+     * reservation, when given, is claimed first and settles with the transaction.
+     *
+     * @return units taken per product
+     */
+    private Map<Long, Integer> takeStock(List<CartItem> items, String reservationId, Long userId) {
+        Map<Long, Integer> quantities = quantitiesByProduct(items);
+        if (reservationEngine.isEnabled()) {
+            if (reservationId != null) {
+                reservationEngine.convert(reservationId, userId, quantities);
+            } else {
+                try {
+                    reservationEngine.claim(quantities);
+                } catch (InsufficientStockException e) {
+                    throw new InsufficientStockException(e.getProductId(), String.format(
+                            "Insufficient stock for product '%s'", productName(items, e.getProductId())));
+                }
+            }
+        }
+        List<Long> insufficient = productRepository.decrementStock(quantities);
+        if (!insufficient.isEmpty()) {
+            Long productId = insufficient.get(0);
+            throw new BadRequestException(
+                String.format("Insufficient stock for product '%s'. Available: %d, Requested: %d",
+                    productName(items, productId),
+                    productRepository.findStockQuantity(productId).orElse(0), quantities.get(productId))
+            );
+        }
+        // Products that just sold out flip their in-stock flag for the catalog read model and sync clients.
+        productRepository.findStockQuantities(quantities.keySet()).forEach((productId, stock) -> {
+            if (stock == 0) {
+                catalogSyncService.recordProductUpsert(productId);
+            }
+        });
+        return quantities;
+    }
+
+    private Map<Long, Integer> quantitiesByProduct(List<CartItem> items) {
+        Map<Long, Integer> quantities = new HashMap<>();
+        for (CartItem cartItem : items) {
+            quantities.merge(cartItem.getProduct().getId(), cartItem.getQuantity(), Integer::sum);
+        }
+        return quantities;
+    }
+
+    private Map<Long, Integer> orderQuantitiesByProduct(List<OrderItem> items) {
+        Map<Long, Integer> quantities = new HashMap<>();
+        for (OrderItem item : items) {
+            quantities.merge(item.getProduct().getId(), item.getQuantity(), Integer::sum);
+        }
+        return quantities;
+    }
+
+    private Map<Long, Integer> negate(Map<Long, Integer> quantities) {
+        Map<Long, Integer> negated = new HashMap<>();
+        quantities.forEach((productId, quantity) -> negated.put(productId, -quantity));
+        return negated;
+    }
+
+    private String productName(List<CartItem> items, Long productId) {
+        return items.stream().map(CartItem::getProduct).filter(product -> product.getId().equals(productId))
+                .map(Product::getName).findFirst().orElse(String.valueOf(productId));
+    }
+
+    private void transitionChunk(List<Long> orderIds, OrderStatus newStatus, String note,
+                                 OrderDtos.BulkUpdateOrderStatusResponse result) {
+        Map<Long, OrderStatusRow> rows = new HashMap<>();
+        orderRepository.lockStatusRows(orderIds).forEach(row -> rows.put(row.id(), row));
+
+        List<OrderStatusRow> eligible = new ArrayList<>();
+        for (Long orderId : orderIds) {
+            OrderStatusRow row = rows.get(orderId);
+            if (row == null) {
+                result.getNotFound().add(orderId);
+            } else if (row.status() == newStatus) {
+                result.getAlreadyInStatus().add(orderId);
+            } else if (!row.status().canTransitionTo(newStatus)) {
+                result.getInvalidTransition().add(orderId);
+            } else {
+                eligible.add(row);
+            }
+        }
+        orderStatusWriter.applyBulk(eligible, newStatus, note);
+        eligible.forEach(row -> result.getUpdated().add(row.id()));
+    }
+
+    private String encodeSearchCursor(LocalDateTime createdAt, Long orderId) {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString((createdAt + "|" + orderId).getBytes(StandardCharsets.UTF_8));
+    }
+
+    private OrderSearchRepository.Keyset decodeSearchCursor(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+        try {
+            String[] parts = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split("\\|");
+            return new OrderSearchRepository.Keyset(LocalDateTime.parse(parts[0]), Long.parseLong(parts[1]));
+        } catch (IllegalArgumentException | DateTimeParseException | ArrayIndexOutOfBoundsException e) {
+            throw new BadRequestException("Invalid search cursor");
+        }
+    }
+
     private void updateStatus(Order order, OrderStatus newStatus, String note) {
         order.setStatus(newStatus);
         order.addStatusHistory(newStatus, note);
+        LocalDateTime now = LocalDateTime.now();
+        orderViewStore.applyStatusChange(List.of(order.getId()), newStatus, order.getPaymentStatus(), note, now);
+        orderTrackingCache.invalidateAfterCommit(List.of(order.getId()));
+        orderEventStream.publishAfterCommit(List.of(new OrderDtos.OrderStatusEvent(order.getId(), newStatus,
+                order.getPaymentStatus(), note, now)));
     }
 
     private OrderDtos.OrderResponse toOrderResponse(Order order) {
-        var items = order.getItems().stream()
+        return toOrderResponse(order, true);
+    }
+
+    private OrderDtos.OrderResponse toOrderResponse(Order order, boolean includeItems) {
+        var items = !includeItems ? null : order.getItems().stream()
                 .map(item -> {
                     BigDecimal lineTotal = item.getPrice().multiply(BigDecimal.valueOf(item.getQuantity()));
                     return OrderDtos.OrderItemResponse.builder()
@@ -1,6 +1,7 @@
 package com.leathric.service.impl;
 
 import com.leathric.config.AwsS3Properties;
+import com.leathric.config.ReadCoalescingProperties;
 import com.leathric.dto.ProductDto;
 import com.leathric.dto.ProductResponseDto;
 import com.leathric.dto.request.ProductImageReorderRequest;
@@ -12,21 +13,31 @@ import com.leathric.entity.Category;
 import com.leathric.entity.ImageType;
 import com.leathric.entity.Product;
 import com.leathric.entity.ProductImage;
+import com.leathric.entity.StockMovementReason;
 import com.leathric.exception.ResourceNotFoundException;
 import com.leathric.interfaces.StorageService;
 import com.leathric.mapper.ProductMapper;
 import com.leathric.repository.CategoryRepository;
 import com.leathric.repository.ProductImageRepository;
 import com.leathric.repository.ProductRepository;
+import com.leathric.service.CatalogSyncService;
 import com.leathric.service.ProductService;
+import com.leathric.service.RecentlyViewedService;
+import com.leathric.services.cache.SingleFlight;
+import com.leathric.services.inventory.StockLedger;
+import com.leathric.util.SparseFieldset;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.*;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.time.Duration;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
 
 @Service
 @RequiredArgsConstructor
@@ -37,15 +48,24 @@ public class ProductServiceImpl implements ProductService {
     private final StorageService storageService;
     private final AwsS3Properties awsS3Properties;
     private final ProductImageRepository productImageRepository;
+    private final CatalogSyncService catalogSyncService;
+    private final SingleFlight catalogReadFlight;
+    private final ReadCoalescingProperties coalescingProperties;
+    private final PlatformTransactionManager transactionManager;
+    private final RecentlyViewedService recentlyViewedService;
+    private final StockLedger stockLedger;
 
-    @Transactional(readOnly = true) public Page<ProductResponseDto> getAll(Pageable pageable){return productRepository.findAllProductResponses(pageable);}    
-    @Transactional(readOnly = true) public ProductResponseDto getById(Long id){Product p=findProductWithCategory(id);return productMapper.toResponseDto(p,activeImages(id));}
+    // Coalesced reads open their read-only transaction inside the leader only, so waiting callers hold no connection.
+    public Page<ProductResponseDto> getAll(Pageable pageable){return coalesce("products:"+pageable,coalescingProperties.getListingTimeout(),()->productRepository.findAllProductResponses(pageable));}
+    public ProductResponseDto getById(Long id){return getById(id,SparseFieldset.ALL);}
+    public ProductResponseDto getById(Long id, SparseFieldset fields){boolean images=fields.includes("images");ProductResponseDto product=coalesce("product:"+id+(images?"":":noimages"),coalescingProperties.getDetailTimeout(),()->loadById(id,images));recentlyViewedService.recordView(id);return product;}
     @Transactional public ProductResponseDto create(ProductDto dto){return create(dto,null);}    
-    @Transactional public ProductResponseDto create(ProductDto dto, MultipartFile file){Product p=productRepository.save(productMapper.toEntity(dto,findCategory(dto.getCategoryId())));if(hasFile(file)){uploadProductImage(p.getId(),file,defaultRequest());}return getById(p.getId());}
+    @Transactional public ProductResponseDto create(ProductDto dto, MultipartFile file){Product p=productRepository.save(productMapper.toEntity(dto,findCategory(dto.getCategoryId())));stockLedger.record(StockMovementReason.IMPORT,null,Map.of(p.getId(),p.getStockQuantity()),"Initial stock");catalogSyncService.recordProductUpsert(p.getId());if(hasFile(file)){uploadProductImage(p.getId(),file,defaultRequest());}return loadById(p.getId(),true);}
     @Transactional public ProductResponseDto update(Long id, ProductDto dto){return update(id,dto,null);}    
-    @Transactional public ProductResponseDto update(Long id, ProductDto dto, MultipartFile file){Product p=findProductWithCategory(id);productMapper.updateEntity(p,dto,findCategory(dto.getCategoryId()));if(hasFile(file)){uploadProductImage(id,file,defaultRequest());}return getById(id);}    
-    @Transactional public void delete(Long id){productRepository.delete(findProductWithCategory(id));}
-    @Transactional(readOnly = true) public List<ProductResponseDto> getTrending(int limit){Page<ProductResponseDto> page=productRepository.findAllProductResponses(PageRequest.of(0,limit,Sort.by(Sort.Direction.DESC,"createdAt")));return page.getContent();}
+    // Stock is set absolutely here, so it is read under the row lock first and the ledger records the difference.
+    @Transactional public ProductResponseDto update(Long id, ProductDto dto, MultipartFile file){int stockBefore=productRepository.lockStockQuantity(id).orElseThrow(() -> new ResourceNotFoundException("Product not found for id: " + id));Product p=findProductWithCategory(id);productMapper.updateEntity(p,dto,findCategory(dto.getCategoryId()));stockLedger.record(StockMovementReason.ADJUST,null,Map.of(id,p.getStockQuantity()-stockBefore),"Stock updated by admin");catalogSyncService.recordProductUpsert(id);if(hasFile(file)){uploadProductImage(id,file,defaultRequest());}return loadById(id,true);}    
+    @Transactional public void delete(Long id){productRepository.delete(findProductWithCategory(id));catalogSyncService.recordProductDelete(id);}
+    public List<ProductResponseDto> getTrending(int limit){return coalesce("trending:"+limit,coalescingProperties.getListingTimeout(),()->productRepository.findAllProductResponses(PageRequest.of(0,limit,Sort.by(Sort.Direction.DESC,"createdAt"))).getContent());}
 
     @Transactional
     public ProductImageResponse uploadProductImage(Long productId, MultipartFile file, ProductImageUploadRequest request) {
@@ -56,6 +76,7 @@ public class ProductServiceImpl implements ProductService {
                 .contentType(file.getContentType()).fileSizeBytes(file.getSize()).active(true).imageType(request.getImageType())
                 .altText(request.getAltText()).displayOrder(request.getDisplayOrder()).primary(request.isPrimary()).build());
         if (saved.isPrimary() || product.getImageUrl() == null) { product.setImageUrl(saved.getImageUrl()); }
+        catalogSyncService.recordProductUpsert(productId);
         return toResponse(saved, "Product image uploaded successfully");
     }
 
@@ -66,17 +87,20 @@ public class ProductServiceImpl implements ProductService {
     public ProductImageResponse setPrimaryImage(Long productId, Long imageId) {
         findProductWithCategory(productId); ProductImage image = productImageRepository.findByIdAndProductIdAndActiveTrue(imageId, productId).orElseThrow(() -> new ResourceNotFoundException("Image not found for product"));
         productImageRepository.clearPrimaryForProduct(productId); image.setPrimary(true); findProductWithCategory(productId).setImageUrl(image.getImageUrl());
+        catalogSyncService.recordProductUpsert(productId);
         return toResponse(productImageRepository.save(image), "Primary image updated");
     }
 
-    @Transactional public void reorderImages(Long productId, ProductImageReorderRequest request){findProductWithCategory(productId);for (var item:request.getItems()){ProductImage img=productImageRepository.findByIdAndProductIdAndActiveTrue(item.getImageId(),productId).orElseThrow(()->new ResourceNotFoundException("Image not found for product"));img.setDisplayOrder(item.getDisplayOrder());productImageRepository.save(img);}}
+    @Transactional public void reorderImages(Long productId, ProductImageReorderRequest request){findProductWithCategory(productId);for (var item:request.getItems()){ProductImage img=productImageRepository.findByIdAndProductIdAndActiveTrue(item.getImageId(),productId).orElseThrow(()->new ResourceNotFoundException("Image not found for product"));img.setDisplayOrder(item.getDisplayOrder());productImageRepository.save(img);}catalogSyncService.recordProductUpsert(productId);}
 
-    @Transactional public void deleteProductImage(Long productId, Long imageId){ProductImage image=productImageRepository.findByIdAndProductIdAndActiveTrue(imageId,productId).orElseThrow(()->new ResourceNotFoundException("Image not found for product"));storageService.deleteByUrl(image.getImageUrl());image.setActive(false);image.setDeletedReason("DELETED");image.setPrimary(false);productImageRepository.save(image);}
+    @Transactional public void deleteProductImage(Long productId, Long imageId){ProductImage image=productImageRepository.findByIdAndProductIdAndActiveTrue(imageId,productId).orElseThrow(()->new ResourceNotFoundException("Image not found for product"));storageService.deleteByUrl(image.getImageUrl());image.setActive(false);image.setDeletedReason("DELETED");image.setPrimary(false);productImageRepository.save(image);catalogSyncService.recordProductUpsert(productId);}
 
     @Transactional(readOnly = true) public PresignedUploadUrlResponse generatePresignedUploadUrl(String fileName, String contentType){return storageService.generatePresignedUploadUrl(awsS3Properties.getProductImagePrefix(),fileName,contentType,Duration.ofSeconds(awsS3Properties.getPresignedUrlExpirationSeconds()));}
     @Transactional(readOnly = true) public List<ProductResponseDto> listProductsWithImages(){return productRepository.findProductsWithImages();}
 
     private Product findProductWithCategory(Long id){return productRepository.findByIdWithCategory(id).orElseThrow(() -> new ResourceNotFoundException("Product not found for id: " + id));}
+    private ProductResponseDto loadById(Long id, boolean images){Product p=findProductWithCategory(id);return productMapper.toResponseDto(p,images?activeImages(id):List.of());}
+    private <T> T coalesce(String key, Duration timeout, Supplier<T> loader){Supplier<T> read=()->{TransactionTemplate tx=new TransactionTemplate(transactionManager);tx.setReadOnly(true);return tx.execute(status->loader.get());};return coalescingProperties.isEnabled()?catalogReadFlight.execute(key,timeout,read):read.get();}
     private Category findCategory(Long id){return categoryRepository.findById(id).orElseThrow(() -> new ResourceNotFoundException("Category not found for id: " + id));}
     private boolean hasFile(MultipartFile file){return file != null && !file.isEmpty();}
     private ProductImageUploadRequest defaultRequest(){ProductImageUploadRequest r=new ProductImageUploadRequest();r.setImageType(ImageType.OTHER);r.setDisplayOrder(0);r.setPrimary(true);return r;}
@@ -0,0 +1,42 @@
+package com.leathric.service.impl;
+
+import com.leathric.dto.ProductResponseDto;
+import com.leathric.repository.ProductRepository;
+import com.leathric.service.RecentlyViewedService;
+import com.leathric.services.recent.RecentlyViewedStore;
+import com.leathric.util.SecurityUtils;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Resolves the in-memory recently viewed strip to listing fields with one primary-key lookup.
+ * Products deleted since they were viewed simply drop out.
+ */
+@Service
+@RequiredArgsConstructor
+public class RecentlyViewedServiceImpl implements RecentlyViewedService {
+
+    private final RecentlyViewedStore recentlyViewedStore;
+    private final ProductRepository productRepository;
+
+    @Override
+    public void recordView(Long productId) {
+        SecurityUtils.authenticatedUserEmail().ifPresent(email -> recentlyViewedStore.record(email, productId));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<ProductResponseDto> getRecentlyViewed(int limit) {
+        long[] recent = recentlyViewedStore.recent(SecurityUtils.currentUserEmail());
+        int count = Math.min(Math.max(limit, 0), recent.length);
+        List<Long> ids = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            ids.add(recent[i]);
+        }
+        return productRepository.findProductResponsesInOrder(ids);
+    }
+}
@@ -0,0 +1,70 @@
+package com.leathric.service.impl;
+
+import com.leathric.dto.ProductResponseDto;
+import com.leathric.entity.User;
+import com.leathric.exception.ResourceNotFoundException;
+import com.leathric.repository.CartRepository;
+import com.leathric.repository.ProductRepository;
+import com.leathric.repository.UserRepository;
+import com.leathric.service.RecommendationService;
+import com.leathric.services.recommendation.CoPurchaseRecommender;
+import com.leathric.services.recommendation.TopList;
+import com.leathric.util.SecurityUtils;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Resolves in-memory co-purchase lists to listing fields. The recommendation itself never queries the
+ * database; only the final primary-key lookup of the recommended products does.
+ */
+@Service
+@RequiredArgsConstructor
+public class RecommendationServiceImpl implements RecommendationService {
+
+    private final CoPurchaseRecommender coPurchaseRecommender;
+    private final ProductRepository productRepository;
+    private final CartRepository cartRepository;
+    private final UserRepository userRepository;
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<ProductResponseDto> getAlsoBought(Long productId, int limit) {
+        TopList list = coPurchaseRecommender.alsoBought(productId);
+        int count = Math.min(Math.max(limit, 0), list.size());
+        List<Long> ids = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            ids.add(list.id(i));
+        }
+        return productRepository.findProductResponsesInOrder(ids);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<ProductResponseDto> getForCurrentCart(int limit) {
+        List<Long> basket = cartRepository.findProductIdsByUserId(getCurrentUser().getId());
+        if (basket.isEmpty()) {
+            return List.of();
+        }
+        List<Long> ids = new ArrayList<>();
+        for (long id : coPurchaseRecommender.forBasket(basket, limit)) {
+            ids.add(id);
+        }
+        return productRepository.findProductResponsesInOrder(ids);
+    }
+
+    @Override
+    public long backfill(boolean reset) {
+        return coPurchaseRecommender.backfill(reset);
+    }
+
+    // ==================== Private Helper Methods ====================
+
+    private User getCurrentUser() {
+        return userRepository.findByEmail(SecurityUtils.currentUserEmail())
+                .orElseThrow(() -> new ResourceNotFoundException("User not found"));
+    }
+}
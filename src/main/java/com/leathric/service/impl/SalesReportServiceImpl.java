@@ -0,0 +1,69 @@
+package com.leathric.service.impl;
+
+import com.leathric.config.SalesRollupProperties;
+import com.leathric.dto.SalesDtos;
+import com.leathric.exception.BadRequestException;
+import com.leathric.service.SalesReportService;
+import com.leathric.services.sales.SalesRollupStore;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class SalesReportServiceImpl implements SalesReportService {
+
+    private static final int MAX_TOP_PRODUCTS = 100;
+
+    private final SalesRollupStore salesRollupStore;
+    private final SalesRollupProperties properties;
+
+    @Override
+    @Transactional(readOnly = true)
+    public SalesDtos.SalesDashboard getDashboard(LocalDate from, LocalDate to, int topProducts) {
+        validateRange(from, to);
+        List<SalesDtos.DailySales> days = salesRollupStore.daily(from, to);
+        return SalesDtos.SalesDashboard.builder()
+                .from(from)
+                .to(to)
+                .orderCount(days.stream().mapToLong(SalesDtos.DailySales::getOrderCount).sum())
+                .units(days.stream().mapToLong(SalesDtos.DailySales::getUnits).sum())
+                .revenue(days.stream().map(SalesDtos.DailySales::getRevenue).reduce(BigDecimal.ZERO, BigDecimal::add))
+                .days(days)
+                .topProducts(salesRollupStore.topProducts(from, to, Math.max(1, Math.min(topProducts, MAX_TOP_PRODUCTS))))
+                .categories(salesRollupStore.categories(from, to))
+                .build();
+    }
+
+    @Override
+    public SalesDtos.RebuildResult rebuild(LocalDate from, LocalDate to) {
+        validateRange(from, to);
+        long started = System.currentTimeMillis();
+        int days = salesRollupStore.rebuild(from, to);
+        if (days < 0) {
+            throw new BadRequestException("A sales rollup rebuild is already running");
+        }
+        return SalesDtos.RebuildResult.builder()
+                .from(from)
+                .to(to)
+                .days(days)
+                .elapsedMs(System.currentTimeMillis() - started)
+                .build();
+    }
+
+    private void validateRange(LocalDate from, LocalDate to) {
+        if (from.isAfter(to)) {
+            throw new BadRequestException("'from' must not be after 'to'");
+        }
+        if (ChronoUnit.DAYS.between(from, to) >= properties.getMaxRangeDays()) {
+            throw new BadRequestException("Date range cannot exceed " + properties.getMaxRangeDays() + " days");
+        }
+    }
+}
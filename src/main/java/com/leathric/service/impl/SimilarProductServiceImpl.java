@@ -0,0 +1,39 @@
+package com.leathric.service.impl;
+
+import com.leathric.dto.ProductResponseDto;
+import com.leathric.repository.ProductRepository;
+import com.leathric.service.SimilarProductService;
+import com.leathric.services.similarity.SimilarProductEngine;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Resolves neighbour ids from the in-memory similarity table to listing fields with one primary-key lookup.
+ * Products deleted since the neighbours were computed simply drop out.
+ */
+@Service
+@RequiredArgsConstructor
+public class SimilarProductServiceImpl implements SimilarProductService {
+
+    private final SimilarProductEngine similarProductEngine;
+    private final ProductRepository productRepository;
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<ProductResponseDto> getSimilar(Long productId, int limit) {
+        long[] neighbours = similarProductEngine.neighbours(productId);
+        int count = Math.min(Math.max(limit, 0), neighbours.length);
+        if (count == 0) {
+            return List.of();
+        }
+        List<Long> ids = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            ids.add(neighbours[i]);
+        }
+        return productRepository.findProductResponsesInOrder(ids);
+    }
+}
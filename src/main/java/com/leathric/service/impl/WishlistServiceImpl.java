@@ -9,6 +9,7 @@ import com.leathric.repository.UserRepository;
 import com.leathric.repository.WishlistRepository;
 import com.leathric.service.WishlistService;
 import com.leathric.util.SecurityUtils;
+import com.leathric.util.SparseFieldset;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.dao.DataIntegrityViolationException;
@@ -29,10 +30,31 @@ public class WishlistServiceImpl implements WishlistService {
 
     @Override
     @Transactional
-    public WishlistDtos.WishlistResponse getMyWishlist() {
+    public WishlistDtos.WishlistResponse getMyWishlist(SparseFieldset fields) {
         log.debug("Fetching wishlist for user: {}", SecurityUtils.currentUserEmail());
-        Wishlist wishlist = getOrCreateWishlist();
-        return toWishlistResponse(wishlist);
+        if (fields.isAll()) {
+            return toWishlistResponse(getOrCreateWishlist());
+        }
+
+        Wishlist wishlist = getOrCreateWishlist(false);
+        List<WishlistDtos.WishlistItemResponse> items = null;
+        if (fields.includes("items")) {
+            // Skip the description column and the category join unless the client renders them.
+            SparseFieldset itemFields = fields.nested("items");
+            items = itemFields.includes("productDescription") || itemFields.includes("categoryName")
+                    ? wishlistRepository.findItemResponses(wishlist.getId())
+                    : wishlistRepository.findCompactItemResponses(wishlist.getId());
+        }
+        Integer itemCount = null;
+        if (fields.includes("itemCount")) {
+            itemCount = items != null ? items.size() : (int) wishlistRepository.countItems(wishlist.getId());
+        }
+
+        return WishlistDtos.WishlistResponse.builder()
+                .wishlistId(wishlist.getId())
+                .itemCount(itemCount)
+                .items(items)
+                .build();
     }
 
     @Override
@@ -116,10 +138,16 @@ public class WishlistServiceImpl implements WishlistService {
     }
 
     private Wishlist getOrCreateWishlist() {
+        return getOrCreateWishlist(true);
+    }
+
+    private Wishlist getOrCreateWishlist(boolean withItems) {
         User user = getCurrentUser();
         
         // Try to find existing wishlist
-        Optional<Wishlist> existing = wishlistRepository.findByUserIdWithItems(user.getId());
+        Optional<Wishlist> existing = withItems
+                ? wishlistRepository.findByUserIdWithItems(user.getId())
+                : wishlistRepository.findByUserId(user.getId());
         if (existing.isPresent()) {
             return existing.get();
         }
@@ -133,7 +161,7 @@ public class WishlistServiceImpl implements WishlistService {
         } catch (DataIntegrityViolationException e) {
             // Another thread created it, fetch again
             log.debug("Wishlist already created by another thread, fetching...");
-            return wishlistRepository.findByUserIdWithItems(user.getId())
+            return (withItems ? wishlistRepository.findByUserIdWithItems(user.getId()) : wishlistRepository.findByUserId(user.getId()))
                     .orElseThrow(() -> new ResourceNotFoundException("Wishlist not found after creation"));
         }
     }
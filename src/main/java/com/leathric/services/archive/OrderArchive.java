@@ -0,0 +1,90 @@
+package com.leathric.services.archive;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.leathric.dto.OrderDtos;
+import com.leathric.entity.ArchivedOrder;
+import com.leathric.repository.ArchivedOrderRepository;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Read side of archived orders: each one is a self-contained gzipped JSON {@link Document}, so serving an old
+ * order is one primary-key or {@code (user_id, order_id)} index read and no joins.
+ */
+@Component
+@RequiredArgsConstructor
+public class OrderArchive {
+
+    private final ArchivedOrderRepository archivedOrderRepository;
+    private final ObjectMapper objectMapper;
+
+    public Optional<Document> find(Long orderId) {
+        return archivedOrderRepository.findById(orderId).map(archived -> decode(archived.getPayload()));
+    }
+
+    public List<Document> findAll(Collection<Long> orderIds) {
+        return decodeAll(archivedOrderRepository.findAllById(orderIds));
+    }
+
+    public long countByUser(Long userId) {
+        return archivedOrderRepository.countByUserId(userId);
+    }
+
+    public List<Document> findByUser(Long userId, long offset, int limit) {
+        return decodeAll(archivedOrderRepository.findWindowByUserId(userId, offset, limit));
+    }
+
+    public List<Document> findByUserBefore(Long userId, Long before, int limit) {
+        return decodeAll(archivedOrderRepository.findByUserIdAndOrderIdLessThanOrderByOrderIdDesc(userId, before, Limit.of(limit)));
+    }
+
+    byte[] encode(Document document) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(1024);
+        try (OutputStream out = new GZIPOutputStream(bytes)) {
+            objectMapper.writeValue(out, document);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not encode archived order " + document.getOrder().getOrderId(), e);
+        }
+        return bytes.toByteArray();
+    }
+
+    private Document decode(byte[] payload) {
+        try (InputStream in = new GZIPInputStream(new ByteArrayInputStream(payload))) {
+            return objectMapper.readValue(in, Document.class);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not decode archived order", e);
+        }
+    }
+
+    private List<Document> decodeAll(List<ArchivedOrder> archived) {
+        return archived.stream().map(order -> decode(order.getPayload())).toList();
+    }
+
+    /**
+     * An order as it was when archived, with its lines and status timeline.
+     */
+    @Getter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Document {
+        private Long userId;
+        private OrderDtos.OrderResponse order;
+        private List<OrderDtos.StatusHistoryItem> timeline;
+    }
+}
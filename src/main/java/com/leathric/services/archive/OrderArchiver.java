@@ -0,0 +1,199 @@
+package com.leathric.services.archive;
+
+import com.leathric.config.OrderArchiveProperties;
+import com.leathric.dto.OrderDtos;
+import com.leathric.entity.JobCheckpoint;
+import com.leathric.entity.OrderStatus;
+import com.leathric.entity.PaymentStatus;
+import com.leathric.repository.JobCheckpointRepository;
+import com.leathric.services.orders.OrderViewStore;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Moves closed orders past the retention period from the live order tables into {@code archived_orders}.
+ * <p>
+ * Each batch claims orders in id order with {@code FOR UPDATE SKIP LOCKED}, writes their archive documents,
+ * deletes their history, lines, headers and read model rows, and advances the checkpoint, all in one
+ * transaction; a crash loses at most the batch in flight, and the next run resumes after the last committed
+ * one. Orders with an undelivered outbox event are left for a later pass so event handlers still find them.
+ */
+@Slf4j
+@Component
+public class OrderArchiver {
+
+    static final String CHECKPOINT = "order-archive";
+
+    private static final String CLAIM_SQL =
+            "SELECT id, order_number, user_id, status, payment_status, total_amount, note, created_at, updated_at "
+                    + "FROM orders o WHERE o.id > ? AND o.status IN ('DELIVERED', 'CANCELLED', 'REFUNDED') "
+                    + "AND COALESCE(o.updated_at, o.created_at) < ? "
+                    + "AND NOT EXISTS (SELECT 1 FROM outbox_events e WHERE e.aggregate_id = o.id AND e.status = 'PENDING') "
+                    + "ORDER BY o.id LIMIT ? FOR UPDATE SKIP LOCKED";
+    private static final String ITEMS_SQL =
+            "SELECT i.order_id, i.product_id, p.name, i.quantity, i.price FROM order_items i "
+                    + "JOIN products p ON p.id = i.product_id WHERE i.order_id IN (%s) ORDER BY i.order_id, i.id";
+    private static final String HISTORY_SQL =
+            "SELECT order_id, status, timestamp, note FROM order_status_history WHERE order_id IN (%s) "
+                    + "ORDER BY order_id, timestamp, id";
+    private static final String INSERT_SQL =
+            "INSERT INTO archived_orders (order_id, user_id, order_number, status, created_at, archived_at, payload) "
+                    + "VALUES (?, ?, ?, ?, ?, ?, ?)";
+    private static final String DELETE_HISTORY_SQL = "DELETE FROM order_status_history WHERE order_id IN (%s)";
+    private static final String DELETE_ITEMS_SQL = "DELETE FROM order_items WHERE order_id IN (%s)";
+    private static final String DELETE_ORDERS_SQL = "DELETE FROM orders WHERE id IN (%s)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final JobCheckpointRepository checkpointRepository;
+    private final OrderArchive orderArchive;
+    private final OrderViewStore orderViewStore;
+    private final OrderArchiveProperties properties;
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    public OrderArchiver(DataSource dataSource, PlatformTransactionManager transactionManager,
+                         JobCheckpointRepository checkpointRepository, OrderArchive orderArchive,
+                         OrderViewStore orderViewStore, OrderArchiveProperties properties) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.checkpointRepository = checkpointRepository;
+        this.orderArchive = orderArchive;
+        this.orderViewStore = orderViewStore;
+        this.properties = properties;
+    }
+
+    @Scheduled(cron = "${app.orders.archive.cron:0 30 3 * * *}")
+    public void scheduledArchive() {
+        if (properties.isEnabled()) {
+            archive();
+        }
+    }
+
+    /**
+     * Archives eligible orders batch by batch until none are left.
+     *
+     * @return orders archived, or {@code -1} if a run was already in progress on this node
+     */
+    public long archive() {
+        if (!running.compareAndSet(false, true)) {
+            log.info("Order archiving already in progress, skipping");
+            return -1;
+        }
+        long started = System.currentTimeMillis();
+        try {
+            LocalDateTime cutoff = LocalDateTime.now().minusDays(properties.getRetentionDays());
+            long archived = 0;
+            int batch;
+            do {
+                batch = transactionTemplate.execute(status -> archiveBatch(cutoff));
+                archived += batch;
+                if (batch == properties.getBatchSize()) {
+                    pause();
+                }
+            } while (batch == properties.getBatchSize());
+            log.info("Archived {} orders closed before {} in {} ms", archived, cutoff, System.currentTimeMillis() - started);
+            return archived;
+        } finally {
+            running.set(false);
+        }
+    }
+
+    private int archiveBatch(LocalDateTime cutoff) {
+        JobCheckpoint checkpoint = checkpointRepository.findById(CHECKPOINT)
+                .orElseGet(() -> JobCheckpoint.builder().name(CHECKPOINT).build());
+        LocalDateTime now = LocalDateTime.now();
+
+        Map<Long, OrderArchive.Document> documents = new LinkedHashMap<>();
+        jdbcTemplate.query(CLAIM_SQL, rs -> {
+            OrderDtos.OrderResponse order = OrderDtos.OrderResponse.builder()
+                    .orderId(rs.getLong("id"))
+                    .orderNumber(rs.getString("order_number"))
+                    .status(OrderStatus.valueOf(rs.getString("status")))
+                    .paymentStatus(PaymentStatus.valueOf(rs.getString("payment_status")))
+                    .totalAmount(rs.getBigDecimal("total_amount"))
+                    .note(rs.getString("note"))
+                    .createdAt(toLocalDateTime(rs.getTimestamp("created_at")))
+                    .updatedAt(toLocalDateTime(rs.getTimestamp("updated_at")))
+                    .items(new ArrayList<>())
+                    .build();
+            documents.put(order.getOrderId(), new OrderArchive.Document(rs.getLong("user_id"), order, new ArrayList<>()));
+        }, checkpoint.getPosition(), Timestamp.valueOf(cutoff), properties.getBatchSize());
+
+        long lastId = 0;
+        if (!documents.isEmpty()) {
+            List<Long> ids = new ArrayList<>(documents.keySet());
+            lastId = ids.get(ids.size() - 1);
+            Object[] args = ids.toArray();
+            String in = placeholders(ids.size());
+            jdbcTemplate.query(String.format(ITEMS_SQL, in), rs -> {
+                BigDecimal price = rs.getBigDecimal("price");
+                int quantity = rs.getInt("quantity");
+                documents.get(rs.getLong("order_id")).getOrder().getItems().add(OrderDtos.OrderItemResponse.builder()
+                        .productId(rs.getLong("product_id"))
+                        .productName(rs.getString("name"))
+                        .quantity(quantity)
+                        .price(price)
+                        .lineTotal(price.multiply(BigDecimal.valueOf(quantity)))
+                        .build());
+            }, args);
+            jdbcTemplate.query(String.format(HISTORY_SQL, in), rs -> {
+                documents.get(rs.getLong("order_id")).getTimeline().add(new OrderDtos.StatusHistoryItem(
+                        OrderStatus.valueOf(rs.getString("status")),
+                        toLocalDateTime(rs.getTimestamp("timestamp")),
+                        rs.getString("note")));
+            }, args);
+
+            List<Object[]> rows = new ArrayList<>(ids.size());
+            for (OrderArchive.Document document : documents.values()) {
+                OrderDtos.OrderResponse order = document.getOrder();
+                rows.add(new Object[]{order.getOrderId(), document.getUserId(), order.getOrderNumber(),
+                        order.getStatus().name(), Timestamp.valueOf(order.getCreatedAt()), Timestamp.valueOf(now),
+                        orderArchive.encode(document)});
+            }
+            jdbcTemplate.batchUpdate(INSERT_SQL, rows);
+            jdbcTemplate.update(String.format(DELETE_HISTORY_SQL, in), args);
+            jdbcTemplate.update(String.format(DELETE_ITEMS_SQL, in), args);
+            jdbcTemplate.update(String.format(DELETE_ORDERS_SQL, in), args);
+            orderViewStore.delete(ids);
+        }
+        // A short batch ends the pass; orders skipped as locked or still open are revisited from the start next run.
+        checkpoint.setPosition(documents.size() < properties.getBatchSize() ? 0 : lastId);
+        checkpoint.setUpdatedAt(now);
+        checkpointRepository.save(checkpoint);
+        return documents.size();
+    }
+
+    private void pause() {
+        if (properties.getPauseMs() <= 0) {
+            return;
+        }
+        try {
+            Thread.sleep(properties.getPauseMs());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static LocalDateTime toLocalDateTime(Timestamp timestamp) {
+        return timestamp != null ? timestamp.toLocalDateTime() : null;
+    }
+
+    private static String placeholders(int count) {
+        return String.join(",", Collections.nCopies(count, "?"));
+    }
+}
@@ -0,0 +1,102 @@
+package com.leathric.services.cache;
+
+import com.leathric.exception.CoalescedReadTimeoutException;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Coalesces concurrent identical read-only computations.
+ * <p>
+ * The first caller for a key (the leader) runs the loader on its own thread; callers arriving while it is
+ * in flight wait for the same result instead of running the loader again. Failures are rethrown to every
+ * waiter as the original exception. A waiter gives up after its timeout and drops the flight, so the next
+ * caller starts a fresh one rather than queueing behind a stuck load.
+ * <p>
+ * Waiting uses {@link CompletableFuture} parking only (no monitors), so it behaves the same on platform and
+ * virtual threads. Results are shared by reference and must not be mutated by callers.
+ */
+public class SingleFlight {
+
+    private final ConcurrentHashMap<String, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+    private final LongAdder executions = new LongAdder();
+    private final LongAdder coalesced = new LongAdder();
+    private final LongAdder timeouts = new LongAdder();
+
+    /**
+     * Runs {@code loader} or joins the in-flight run for {@code key}.
+     *
+     * @param timeout how long a joining caller waits for the leader
+     */
+    public <T> T execute(String key, Duration timeout, Supplier<T> loader) {
+        CompletableFuture<Object> flight = new CompletableFuture<>();
+        CompletableFuture<Object> existing = inFlight.putIfAbsent(key, flight);
+        if (existing == null) {
+            return lead(key, flight, loader);
+        }
+        coalesced.increment();
+        return await(key, existing, timeout);
+    }
+
+    /**
+     * Number of keys currently being loaded.
+     */
+    public int inFlightCount() {
+        return inFlight.size();
+    }
+
+    public long getExecutions() {
+        return executions.sum();
+    }
+
+    public long getCoalesced() {
+        return coalesced.sum();
+    }
+
+    public long getTimeouts() {
+        return timeouts.sum();
+    }
+
+    private <T> T lead(String key, CompletableFuture<Object> flight, Supplier<T> loader) {
+        executions.increment();
+        try {
+            T value = loader.get();
+            flight.complete(value);
+            return value;
+        } catch (RuntimeException | Error e) {
+            flight.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, flight);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> T await(String key, CompletableFuture<Object> flight, Duration timeout) {
+        try {
+            return (T) flight.get(timeout.toNanos(), TimeUnit.NANOSECONDS);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            if (cause instanceof Error error) {
+                throw error;
+            }
+            throw new IllegalStateException("Coalesced read failed for key " + key, cause);
+        } catch (TimeoutException e) {
+            timeouts.increment();
+            inFlight.remove(key, flight);
+            throw new CoalescedReadTimeoutException("Timed out waiting for in-flight read of " + key);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted waiting for in-flight read of " + key, e);
+        }
+    }
+}
@@ -0,0 +1,133 @@
+package com.leathric.services.catalog;
+
+import com.leathric.config.CatalogFeedProperties;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.sql.Timestamp;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Generates the merchant product feed and the sitemap index from a forward-only JDBC scan.
+ * <p>
+ * Rows are streamed from MySQL (fetch size {@link Integer#MIN_VALUE}) straight into gzip writers,
+ * so memory stays bounded regardless of catalog size. Crawlers only ever read the published files;
+ * they never reach the catalog tables.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class CatalogFeedGenerator {
+
+    private static final String PRODUCT_SCAN_SQL =
+            "SELECT p.id, p.name, p.description, p.price, p.stock_quantity, p.updated_at, c.name AS category_name, " +
+            "COALESCE(pi.image_url, p.image_url) AS image_url " +
+            "FROM products p " +
+            "JOIN categories c ON c.id = p.category_id " +
+            "LEFT JOIN product_images pi ON pi.product_id = p.id AND pi.is_primary = TRUE AND pi.is_active = TRUE " +
+            "ORDER BY p.id";
+
+    private static final String CATEGORY_SCAN_SQL = "SELECT id, updated_at FROM categories ORDER BY id";
+
+    private final DataSource dataSource;
+    private final CatalogFeedProperties properties;
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    @Scheduled(cron = "${app.feed.cron:0 15 */6 * * *}")
+    public void scheduledGenerate() {
+        if (properties.isEnabled()) {
+            generate();
+        }
+    }
+
+    /**
+     * Regenerates all feed files; concurrent invocations are skipped rather than queued.
+     *
+     * @return number of products written, or {@code -1} if a generation was already running
+     */
+    public long generate() {
+        if (!running.compareAndSet(false, true)) {
+            log.info("Catalog feed generation already in progress, skipping");
+            return -1;
+        }
+        long started = System.currentTimeMillis();
+        try {
+            Path outputDir = Paths.get(properties.getOutputDir()).toAbsolutePath().normalize();
+            Files.createDirectories(outputDir);
+            String storefront = MerchantFeedWriter.stripTrailingSlash(properties.getStorefrontBaseUrl());
+
+            long written;
+            try (MerchantFeedWriter feed = new MerchantFeedWriter(outputDir, storefront, properties.getBrand(), properties.getCurrency());
+                 SitemapWriter sitemap = new SitemapWriter(outputDir, properties.getPublicBaseUrl(), properties.getUrlsPerSitemap())) {
+                scanProducts(feed, sitemap, storefront);
+                scanCategories(sitemap, storefront);
+                feed.commit();
+                sitemap.commit();
+                written = feed.getWritten();
+            }
+            log.info("Catalog feed generated: {} products in {} ms", written, System.currentTimeMillis() - started);
+            return written;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Catalog feed generation failed", e);
+        } finally {
+            running.set(false);
+        }
+    }
+
+    private void scanProducts(MerchantFeedWriter feed, SitemapWriter sitemap, String storefront) {
+        FeedRow row = new FeedRow();
+        long[] lastId = {-1L};
+        streamingTemplate().query(PRODUCT_SCAN_SQL, rs -> {
+            long id = rs.getLong("id");
+            // Several active primary images would repeat a product; the scan is id-ordered so skip repeats.
+            if (id == lastId[0]) {
+                return;
+            }
+            lastId[0] = id;
+            row.setId(id);
+            row.setName(rs.getString("name"));
+            row.setDescription(rs.getString("description"));
+            row.setPrice(rs.getBigDecimal("price"));
+            row.setStockQuantity(rs.getInt("stock_quantity"));
+            row.setCategoryName(rs.getString("category_name"));
+            row.setImageUrl(rs.getString("image_url"));
+            Timestamp updatedAt = rs.getTimestamp("updated_at");
+            row.setUpdatedAt(updatedAt != null ? updatedAt.toLocalDateTime() : null);
+            try {
+                feed.write(row);
+                sitemap.add("products", storefront + "/products/" + id,
+                        row.getUpdatedAt() != null ? row.getUpdatedAt().toLocalDate() : null);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    private void scanCategories(SitemapWriter sitemap, String storefront) {
+        streamingTemplate().query(CATEGORY_SCAN_SQL, rs -> {
+            Timestamp updatedAt = rs.getTimestamp("updated_at");
+            try {
+                sitemap.add("categories", storefront + "/categories/" + rs.getLong("id"),
+                        updatedAt != null ? updatedAt.toLocalDateTime().toLocalDate() : null);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    private JdbcTemplate streamingTemplate() {
+        JdbcTemplate template = new JdbcTemplate(dataSource);
+        // MySQL Connector/J only streams row-by-row for forward-only, read-only statements with this fetch size.
+        template.setFetchSize(Integer.MIN_VALUE);
+        return template;
+    }
+}
@@ -0,0 +1,179 @@
+package com.leathric.services.catalog;
+
+import com.leathric.exception.ResourceNotFoundException;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * Catalog reads rendered straight from JDBC result sets into a {@link JsonByteWriter}, with no entities,
+ * DTOs or persistence context. The JSON matches what the {@code /api/products} and {@code /api/categories}
+ * endpoints produce. Nothing is written before a not-found check, so callers can still turn a
+ * {@link ResourceNotFoundException} into a 404.
+ */
+@Component
+@RequiredArgsConstructor
+public class CatalogJsonReader {
+
+    private static final String PRODUCT_COLUMNS =
+            "SELECT p.id, p.name, p.price, p.image_url, c.name AS category_name "
+                    + "FROM products p LEFT JOIN categories c ON c.id = p.category_id ";
+    private static final String PRODUCT_PAGE_ASC_SQL = PRODUCT_COLUMNS + "ORDER BY p.id LIMIT ? OFFSET ?";
+    private static final String PRODUCT_PAGE_DESC_SQL = PRODUCT_COLUMNS + "ORDER BY p.id DESC LIMIT ? OFFSET ?";
+    private static final String PRODUCT_SQL = PRODUCT_COLUMNS + "WHERE p.id = ?";
+    private static final String PRODUCT_EXISTS_SQL = "SELECT COUNT(*) FROM products WHERE id = ?";
+    private static final String PRODUCT_COUNT_SQL = "SELECT COUNT(*) FROM products";
+    private static final String IMAGES_SQL =
+            "SELECT id, image_url, image_type, alt_text, display_order, is_primary FROM product_images "
+                    + "WHERE product_id = ? AND is_active = TRUE ORDER BY display_order, created_at";
+    private static final String CATEGORY_PAGE_SQL = "SELECT id, name, description FROM categories ORDER BY name LIMIT ? OFFSET ?";
+    private static final String CATEGORY_COUNT_SQL = "SELECT COUNT(*) FROM categories";
+
+    private final DataSource dataSource;
+
+    /**
+     * Writes a page of listing fields in the shape of a Spring Data page.
+     */
+    public void writeProductPage(JsonByteWriter writer, int page, int size, boolean descending) throws IOException {
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        long total = count(jdbcTemplate, PRODUCT_COUNT_SQL);
+        writer.writeAscii("{\"content\":[");
+        boolean[] first = {true};
+        jdbcTemplate.query(descending ? PRODUCT_PAGE_DESC_SQL : PRODUCT_PAGE_ASC_SQL, rs -> {
+            separate(writer, first);
+            writeProduct(writer, rs);
+            writeUnchecked(() -> writer.write('}'));
+        }, size, (long) page * size);
+        writePageFooter(writer, page, size, total);
+    }
+
+    /**
+     * Writes one product with its active images.
+     *
+     * @throws ResourceNotFoundException before writing anything if the product does not exist
+     */
+    public void writeProduct(JsonByteWriter writer, long productId) throws IOException {
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        Boolean found = jdbcTemplate.query(PRODUCT_SQL, rs -> {
+            if (!rs.next()) {
+                return false;
+            }
+            writeProduct(writer, rs);
+            return true;
+        }, productId);
+        if (!Boolean.TRUE.equals(found)) {
+            throw new ResourceNotFoundException("Product not found");
+        }
+        writer.writeAscii(",\"images\":");
+        writeImageArray(jdbcTemplate, writer, productId);
+        writer.write('}');
+    }
+
+    /**
+     * Writes the active images of a product in display order.
+     *
+     * @throws ResourceNotFoundException before writing anything if the product does not exist
+     */
+    public void writeImages(JsonByteWriter writer, long productId) throws IOException {
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        if (count(jdbcTemplate, PRODUCT_EXISTS_SQL, productId) == 0) {
+            throw new ResourceNotFoundException("Product not found");
+        }
+        writeImageArray(jdbcTemplate, writer, productId);
+    }
+
+    public void writeCategoryPage(JsonByteWriter writer, int page, int size) throws IOException {
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        long total = count(jdbcTemplate, CATEGORY_COUNT_SQL);
+        writer.writeAscii("{\"content\":[");
+        boolean[] first = {true};
+        jdbcTemplate.query(CATEGORY_PAGE_SQL, rs -> {
+            separate(writer, first);
+            writeUnchecked(() -> writer.writeAscii("{\"id\":").writeLong(rs.getLong("id"))
+                    .writeAscii(",\"name\":").writeString(rs.getString("name"))
+                    .writeAscii(",\"description\":").writeString(rs.getString("description"))
+                    .write('}'));
+        }, size, (long) page * size);
+        writePageFooter(writer, page, size, total);
+    }
+
+    private void writeImageArray(JdbcTemplate jdbcTemplate, JsonByteWriter writer, long productId) throws IOException {
+        writer.write('[');
+        boolean[] first = {true};
+        jdbcTemplate.query(IMAGES_SQL, rs -> {
+            separate(writer, first);
+            writeUnchecked(() -> writer.writeAscii("{\"imageId\":").writeLong(rs.getLong("id"))
+                    .writeAscii(",\"imageUrl\":").writeString(rs.getString("image_url"))
+                    .writeAscii(",\"imageType\":").writeString(rs.getString("image_type"))
+                    .writeAscii(",\"altText\":").writeString(rs.getString("alt_text"))
+                    .writeAscii(",\"displayOrder\":").writeLong(rs.getInt("display_order"))
+                    .writeAscii(",\"primary\":").writeBoolean(rs.getBoolean("is_primary"))
+                    .write('}'));
+        }, productId);
+        writer.write(']');
+    }
+
+    /**
+     * Writes the listing fields of the current row, leaving the object open.
+     */
+    private static void writeProduct(JsonByteWriter writer, ResultSet rs) throws SQLException {
+        BigDecimal price = rs.getBigDecimal("price");
+        writeUnchecked(() -> {
+            writer.writeAscii("{\"id\":").writeLong(rs.getLong("id"))
+                    .writeAscii(",\"name\":").writeString(rs.getString("name"))
+                    .writeAscii(",\"price\":");
+            if (price == null) {
+                writer.writeAscii("null");
+            } else {
+                writer.writeDecimal(price.unscaledValue().longValueExact(), price.scale());
+            }
+            writer.writeAscii(",\"imageUrl\":").writeString(rs.getString("image_url"))
+                    .writeAscii(",\"categoryName\":").writeString(rs.getString("category_name"));
+        });
+    }
+
+    private static void writePageFooter(JsonByteWriter writer, int page, int size, long total) throws IOException {
+        writer.writeAscii("],\"number\":").writeLong(page)
+                .writeAscii(",\"size\":").writeLong(size)
+                .writeAscii(",\"totalElements\":").writeLong(total)
+                .writeAscii(",\"totalPages\":").writeLong((total + size - 1) / size)
+                .write('}');
+    }
+
+    private static long count(JdbcTemplate jdbcTemplate, String sql, Object... args) {
+        Long count = jdbcTemplate.queryForObject(sql, Long.class, args);
+        return count != null ? count : 0;
+    }
+
+    private static void separate(JsonByteWriter writer, boolean[] first) throws SQLException {
+        if (first[0]) {
+            first[0] = false;
+        } else {
+            writeUnchecked(() -> writer.write(','));
+        }
+    }
+
+    /**
+     * Row callbacks may only throw {@link SQLException}; write failures (usually a disconnected client)
+     * are tunnelled out unchecked.
+     */
+    private static void writeUnchecked(JsonWrite write) throws SQLException {
+        try {
+            write.run();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @FunctionalInterface
+    private interface JsonWrite {
+        void run() throws IOException, SQLException;
+    }
+}
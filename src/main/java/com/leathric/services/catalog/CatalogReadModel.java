@@ -0,0 +1,194 @@
+package com.leathric.services.catalog;
+
+import com.leathric.config.CatalogReadModelProperties;
+import com.leathric.repository.CatalogChangeRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Optional off-heap read model for product listing fields.
+ * <p>
+ * Each rebuild streams the catalog into a new {@code catalog-<generation>.bin} file, maps it and swaps
+ * it in atomically; in-flight readers keep the previous mapping until they finish. A rebuild only runs
+ * when the catalog change feed has advanced past the sequence the current generation was built from;
+ * checkouts and stock give-backs record a change whenever a product sells out or comes back into stock,
+ * so the in-stock flag follows them.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class CatalogReadModel {
+
+    private static final String LISTING_COLUMNS =
+            "SELECT p.id, p.name, p.price, p.stock_quantity, c.name AS category_name, " +
+            "COALESCE((SELECT MIN(pi.image_url) FROM product_images pi WHERE pi.product_id = p.id " +
+            "AND pi.is_primary = TRUE AND pi.is_active = TRUE), p.image_url) AS image_url " +
+            "FROM products p " +
+            "LEFT JOIN categories c ON c.id = p.category_id ";
+    private static final String SCAN_SQL = LISTING_COLUMNS + "ORDER BY p.id";
+    private static final String PAGE_ASC_SQL = LISTING_COLUMNS + "ORDER BY p.id LIMIT ? OFFSET ?";
+    private static final String PAGE_DESC_SQL = LISTING_COLUMNS + "ORDER BY p.id DESC LIMIT ? OFFSET ?";
+    private static final String PRODUCT_SQL = LISTING_COLUMNS + "WHERE p.id = ?";
+    private static final String COUNT_SQL = "SELECT COUNT(*) FROM products";
+
+    private final DataSource dataSource;
+    private final CatalogChangeRepository catalogChangeRepository;
+    private final CatalogReadModelProperties properties;
+    private final AtomicReference<ReadModelFile> current = new AtomicReference<>();
+    private final AtomicBoolean rebuilding = new AtomicBoolean();
+
+    /**
+     * Current generation, or {@code null} when the read model is disabled or not built yet.
+     */
+    public ReadModelFile current() {
+        return properties.isEnabled() ? current.get() : null;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onStartup() {
+        if (properties.isEnabled()) {
+            refresh();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.catalog.read-model.refresh-interval-ms:60000}",
+            initialDelayString = "${app.catalog.read-model.refresh-interval-ms:60000}")
+    public void scheduledRefresh() {
+        if (properties.isEnabled()) {
+            refresh();
+        }
+    }
+
+    /**
+     * Rebuilds the model if the catalog changed since the current generation was built.
+     */
+    public void refresh() {
+        long latest = catalogChangeRepository.findLatestSequence().orElse(0L);
+        ReadModelFile active = current.get();
+        if (active != null && active.changeSequence() >= latest) {
+            return;
+        }
+        rebuild(latest);
+    }
+
+    private void rebuild(long changeSequence) {
+        if (!rebuilding.compareAndSet(false, true)) {
+            return;
+        }
+        long started = System.currentTimeMillis();
+        try {
+            Path directory = Paths.get(properties.getDirectory()).toAbsolutePath().normalize();
+            Files.createDirectories(directory);
+            ReadModelFile previous = current.get();
+            long generation = previous != null ? previous.generation() + 1 : System.currentTimeMillis();
+            Path target = directory.resolve("catalog-" + generation + ".bin");
+
+            try (ReadModelFileWriter writer = new ReadModelFileWriter(target, generation, changeSequence)) {
+                scan(writer);
+                writer.finish();
+                current.set(ReadModelFile.open(target));
+                log.info("Catalog read model generation {} built: {} products in {} ms",
+                        generation, writer.count(), System.currentTimeMillis() - started);
+            }
+            deleteOtherGenerations(directory, target);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Catalog read model rebuild failed", e);
+        } finally {
+            rebuilding.set(false);
+        }
+    }
+
+    /**
+     * Writes one page of listing records straight from the database, comma-separated and in the shape of
+     * {@link ProductView#writeJson(JsonByteWriter)}, for when no generation is mapped.
+     *
+     * @return products in the catalog
+     */
+    public long writeDatabasePage(JsonByteWriter writer, int page, int size, boolean descending) {
+        JdbcTemplate template = new JdbcTemplate(dataSource);
+        Long total = template.queryForObject(COUNT_SQL, Long.class);
+        boolean[] first = {true};
+        template.query(descending ? PAGE_DESC_SQL : PAGE_ASC_SQL, rs -> {
+            try {
+                if (!first[0]) {
+                    writer.write(',');
+                }
+                first[0] = false;
+                writeListing(writer, rs);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }, size, (long) page * size);
+        return total != null ? total : 0;
+    }
+
+    /**
+     * Writes one product's listing record straight from the database, for products newer than the mapped
+     * generation.
+     *
+     * @return {@code false}, having written nothing, if the product does not exist
+     */
+    public boolean writeDatabaseProduct(JsonByteWriter writer, long productId) {
+        return Boolean.TRUE.equals(new JdbcTemplate(dataSource).query(PRODUCT_SQL, rs -> {
+            if (!rs.next()) {
+                return false;
+            }
+            try {
+                writeListing(writer, rs);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            return true;
+        }, productId));
+    }
+
+    private void scan(ReadModelFileWriter writer) {
+        JdbcTemplate template = new JdbcTemplate(dataSource);
+        template.setFetchSize(Integer.MIN_VALUE);
+        template.query(SCAN_SQL, rs -> {
+            try {
+                writer.append(rs.getLong("id"), rs.getString("name"), rs.getBigDecimal("price"), rs.getString("image_url"),
+                        rs.getString("category_name"), rs.getInt("stock_quantity") > 0);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    private static void writeListing(JsonByteWriter writer, ResultSet rs) throws SQLException, IOException {
+        ProductView.writeJson(writer, rs.getLong("id"), rs.getString("name"), rs.getBigDecimal("price"),
+                rs.getString("image_url"), rs.getString("category_name"), rs.getInt("stock_quantity") > 0);
+    }
+
+    private void deleteOtherGenerations(Path directory, Path keep) throws IOException {
+        // Readers still holding an older mapping are unaffected: the mapping outlives the directory entry.
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, "catalog-*.bin")) {
+            for (Path path : stream) {
+                if (!path.equals(keep)) {
+                    try {
+                        Files.deleteIfExists(path);
+                    } catch (IOException e) {
+                        log.warn("Could not delete stale catalog read model {}", path, e);
+                    }
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package com.leathric.services.catalog;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Mutable product row reused across a forward-only feed scan to keep allocation flat.
+ */
+@Getter
+@Setter
+public class FeedRow {
+    private long id;
+    private String name;
+    private String description;
+    private BigDecimal price;
+    private int stockQuantity;
+    private String categoryName;
+    private String imageUrl;
+    private LocalDateTime updatedAt;
+}
@@ -0,0 +1,191 @@
+package com.leathric.services.catalog;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Minimal buffered JSON byte writer used to stream read-model records without building strings or DTOs.
+ * Callers are responsible for structural correctness; string payloads copied from the read model are
+ * already JSON-escaped UTF-8.
+ */
+public final class JsonByteWriter {
+
+    private final OutputStream out;
+    private final byte[] buffer;
+    private int position;
+
+    public JsonByteWriter(OutputStream out, byte[] buffer) {
+        this.out = out;
+        this.buffer = buffer;
+    }
+
+    public JsonByteWriter write(char asciiChar) throws IOException {
+        ensure(1);
+        buffer[position++] = (byte) asciiChar;
+        return this;
+    }
+
+    /**
+     * Writes an ASCII literal (keys, punctuation); non-ASCII text must go through {@link #writeString(String)}.
+     */
+    public JsonByteWriter writeAscii(String ascii) throws IOException {
+        int length = ascii.length();
+        for (int i = 0; i < length; i++) {
+            ensure(1);
+            buffer[position++] = (byte) ascii.charAt(i);
+        }
+        return this;
+    }
+
+    public JsonByteWriter writeString(String value) throws IOException {
+        if (value == null) {
+            return writeAscii("null");
+        }
+        write('"');
+        writeEscaped(JsonEscaper.escape(value));
+        return write('"');
+    }
+
+    public JsonByteWriter writeLong(long value) throws IOException {
+        if (value == Long.MIN_VALUE) {
+            return writeAscii(Long.toString(value));
+        }
+        ensure(20);
+        if (value < 0) {
+            buffer[position++] = '-';
+            value = -value;
+        }
+        int start = position;
+        do {
+            buffer[position++] = (byte) ('0' + (value % 10));
+            value /= 10;
+        } while (value != 0);
+        reverse(start, position - 1);
+        return this;
+    }
+
+    /**
+     * Writes {@code unscaled * 10^-scale} as a plain JSON number, e.g. (21999, 2) to {@code 219.99}.
+     */
+    public JsonByteWriter writeDecimal(long unscaled, int scale) throws IOException {
+        if (scale <= 0) {
+            writeLong(unscaled);
+            for (int i = 0; i < -scale; i++) {
+                write('0');
+            }
+            return this;
+        }
+        ensure(22 + scale);
+        if (unscaled < 0) {
+            buffer[position++] = '-';
+            unscaled = -unscaled;
+        }
+        int start = position;
+        int digits = 0;
+        do {
+            buffer[position++] = (byte) ('0' + (unscaled % 10));
+            unscaled /= 10;
+            digits++;
+            if (digits == scale) {
+                buffer[position++] = '.';
+                if (unscaled == 0) {
+                    buffer[position++] = '0';
+                }
+            }
+        } while (unscaled != 0 || digits < scale);
+        reverse(start, position - 1);
+        return this;
+    }
+
+    public JsonByteWriter writeBoolean(boolean value) throws IOException {
+        return writeAscii(value ? "true" : "false");
+    }
+
+    /**
+     * Copies {@code length} pre-escaped UTF-8 bytes from a (possibly memory-mapped) buffer using absolute reads.
+     */
+    public JsonByteWriter copy(ByteBuffer source, int index, int length) throws IOException {
+        while (length > 0) {
+            if (position == buffer.length) {
+                flushBuffer();
+            }
+            int chunk = Math.min(length, buffer.length - position);
+            source.get(index, buffer, position, chunk);
+            position += chunk;
+            index += chunk;
+            length -= chunk;
+        }
+        return this;
+    }
+
+    public void flush() throws IOException {
+        flushBuffer();
+        out.flush();
+    }
+
+    private void writeEscaped(byte[] bytes) throws IOException {
+        copy(ByteBuffer.wrap(bytes), 0, bytes.length);
+    }
+
+    private void ensure(int bytes) throws IOException {
+        if (buffer.length - position < bytes) {
+            flushBuffer();
+        }
+    }
+
+    private void flushBuffer() throws IOException {
+        if (position > 0) {
+            out.write(buffer, 0, position);
+            position = 0;
+        }
+    }
+
+    private void reverse(int from, int to) {
+        while (from < to) {
+            byte tmp = buffer[from];
+            buffer[from++] = buffer[to];
+            buffer[to--] = tmp;
+        }
+    }
+
+    /**
+     * JSON string escaping to UTF-8 bytes, applied once when records are encoded.
+     */
+    static final class JsonEscaper {
+
+        private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+        private JsonEscaper() {}
+
+        static byte[] escape(String value) {
+            StringBuilder sb = null;
+            for (int i = 0; i < value.length(); i++) {
+                char c = value.charAt(i);
+                String replacement = null;
+                if (c == '"') {
+                    replacement = "\\\"";
+                } else if (c == '\\') {
+                    replacement = "\\\\";
+                } else if (c < 0x20) {
+                    replacement = switch (c) {
+                        case '\n' -> "\\n";
+                        case '\r' -> "\\r";
+                        case '\t' -> "\\t";
+                        default -> "\\u00" + HEX[c >> 4] + HEX[c & 0xF];
+                    };
+                }
+                if (replacement != null) {
+                    if (sb == null) {
+                        sb = new StringBuilder(value.length() + 8).append(value, 0, i);
+                    }
+                    sb.append(replacement);
+                } else if (sb != null) {
+                    sb.append(c);
+                }
+            }
+            return (sb == null ? value : sb.toString()).getBytes(StandardCharsets.UTF_8);
+        }
+    }
+}
@@ -0,0 +1,123 @@
+package com.leathric.services.catalog;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Streams a Google-Merchant-style product feed as gzipped RSS XML and TSV in a single pass.
+ * Output goes to temporary siblings and only replaces the published files on {@link #commit()}.
+ */
+public class MerchantFeedWriter implements Closeable {
+
+    public static final String XML_FILE = "products.xml.gz";
+    public static final String TSV_FILE = "products.tsv.gz";
+
+    private static final String TSV_HEADER =
+            "id\ttitle\tdescription\tlink\timage_link\tavailability\tprice\tbrand\tproduct_type\tcondition\n";
+
+    private final Path xmlTarget;
+    private final Path tsvTarget;
+    private final Writer xml;
+    private final Writer tsv;
+    private final String storefrontBaseUrl;
+    private final String brand;
+    private final String currency;
+    private long written;
+    private boolean committed;
+
+    public MerchantFeedWriter(Path outputDir, String storefrontBaseUrl, String brand, String currency) throws IOException {
+        this.xmlTarget = outputDir.resolve(XML_FILE);
+        this.tsvTarget = outputDir.resolve(TSV_FILE);
+        this.storefrontBaseUrl = stripTrailingSlash(storefrontBaseUrl);
+        this.brand = brand;
+        this.currency = currency;
+        this.xml = GzipFiles.openGzipWriter(GzipFiles.tempSibling(xmlTarget));
+        this.tsv = GzipFiles.openGzipWriter(GzipFiles.tempSibling(tsvTarget));
+
+        xml.write("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n");
+        xml.write("<rss version=\"2.0\" xmlns:g=\"http://base.google.com/ns/1.0\">\n<channel>\n");
+        xml.write("<title>" + GzipFiles.escapeXml(brand) + "</title>\n");
+        xml.write("<link>" + GzipFiles.escapeXml(this.storefrontBaseUrl) + "</link>\n");
+        xml.write("<description>" + GzipFiles.escapeXml(brand) + " product feed</description>\n");
+        tsv.write(TSV_HEADER);
+    }
+
+    public void write(FeedRow row) throws IOException {
+        String link = storefrontBaseUrl + "/products/" + row.getId();
+        String availability = row.getStockQuantity() > 0 ? "in_stock" : "out_of_stock";
+        String price = row.getPrice().toPlainString() + " " + currency;
+
+        xml.write("<item>");
+        element("g:id", Long.toString(row.getId()));
+        element("g:title", row.getName());
+        element("g:description", row.getDescription());
+        element("g:link", link);
+        if (row.getImageUrl() != null) {
+            element("g:image_link", row.getImageUrl());
+        }
+        element("g:availability", availability);
+        element("g:price", price);
+        element("g:brand", brand);
+        element("g:product_type", row.getCategoryName());
+        element("g:condition", "new");
+        xml.write("</item>\n");
+
+        tsv.write(Long.toString(row.getId()));
+        tsvField(row.getName());
+        tsvField(row.getDescription());
+        tsvField(link);
+        tsvField(row.getImageUrl());
+        tsvField(availability);
+        tsvField(price);
+        tsvField(brand);
+        tsvField(row.getCategoryName());
+        tsvField("new");
+        tsv.write('\n');
+        written++;
+    }
+
+    public long getWritten() {
+        return written;
+    }
+
+    public void commit() throws IOException {
+        xml.write("</channel>\n</rss>\n");
+        xml.close();
+        tsv.close();
+        GzipFiles.publish(GzipFiles.tempSibling(xmlTarget), xmlTarget);
+        GzipFiles.publish(GzipFiles.tempSibling(tsvTarget), tsvTarget);
+        committed = true;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (!committed) {
+            xml.close();
+            tsv.close();
+            Files.deleteIfExists(GzipFiles.tempSibling(xmlTarget));
+            Files.deleteIfExists(GzipFiles.tempSibling(tsvTarget));
+        }
+    }
+
+    private void element(String name, String value) throws IOException {
+        xml.write('<');
+        xml.write(name);
+        xml.write('>');
+        xml.write(GzipFiles.escapeXml(value));
+        xml.write("</");
+        xml.write(name);
+        xml.write('>');
+    }
+
+    private void tsvField(String value) throws IOException {
+        tsv.write('\t');
+        tsv.write(GzipFiles.escapeTsv(value));
+    }
+
+    static String stripTrailingSlash(String url) {
+        return url.endsWith("/") ? url.substring(0, url.length() - 1) : url;
+    }
+}
@@ -0,0 +1,116 @@
+package com.leathric.services.catalog;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Reusable flyweight over one product record of a {@link ReadModelFile}. Accessors read straight
+ * from the mapped buffer; only the convenience {@link #price()} and {@link #name()} allocate.
+ */
+public final class ProductView {
+
+    static final int FLAG_IN_STOCK = 1;
+
+    private ByteBuffer buffer;
+    private long id;
+    private int offset;
+
+    ProductView wrap(ByteBuffer buffer, long id, int offset) {
+        this.buffer = buffer;
+        this.id = id;
+        this.offset = offset;
+        return this;
+    }
+
+    public long id() {
+        return id;
+    }
+
+    public long priceUnscaled() {
+        return buffer.getLong(offset);
+    }
+
+    public int priceScale() {
+        return buffer.get(offset + 8);
+    }
+
+    public boolean inStock() {
+        return (buffer.get(offset + 9) & FLAG_IN_STOCK) != 0;
+    }
+
+    public BigDecimal price() {
+        return BigDecimal.valueOf(priceUnscaled(), priceScale());
+    }
+
+    /**
+     * Product name as stored (JSON-escaped); intended for diagnostics rather than the hot path.
+     */
+    public String name() {
+        return string(nameOffset());
+    }
+
+    /**
+     * Writes the record as a JSON object without materializing any intermediate objects.
+     */
+    public void writeJson(JsonByteWriter writer) throws IOException {
+        int nameOffset = nameOffset();
+        int imageOffset = next(nameOffset);
+        int categoryOffset = next(imageOffset);
+
+        writer.writeAscii("{\"id\":").writeLong(id);
+        writer.writeAscii(",\"name\":");
+        field(writer, nameOffset);
+        writer.writeAscii(",\"price\":").writeDecimal(priceUnscaled(), priceScale());
+        writer.writeAscii(",\"imageUrl\":");
+        field(writer, imageOffset);
+        writer.writeAscii(",\"categoryName\":");
+        field(writer, categoryOffset);
+        writer.writeAscii(",\"inStock\":").writeBoolean(inStock());
+        writer.write('}');
+    }
+
+    /**
+     * Writes a product that is not in a mapped file in exactly the shape of {@link #writeJson(JsonByteWriter)}.
+     */
+    public static void writeJson(JsonByteWriter writer, long id, String name, BigDecimal price, String imageUrl,
+                                 String categoryName, boolean inStock) throws IOException {
+        BigDecimal normalized = ReadModelFileWriter.normalize(price);
+        writer.writeAscii("{\"id\":").writeLong(id);
+        writer.writeAscii(",\"name\":").writeString(name);
+        writer.writeAscii(",\"price\":").writeDecimal(normalized.unscaledValue().longValueExact(), normalized.scale());
+        writer.writeAscii(",\"imageUrl\":").writeString(imageUrl);
+        writer.writeAscii(",\"categoryName\":").writeString(categoryName);
+        writer.writeAscii(",\"inStock\":").writeBoolean(inStock);
+        writer.write('}');
+    }
+
+    private int nameOffset() {
+        return offset + 10;
+    }
+
+    private int next(int stringOffset) {
+        short length = buffer.getShort(stringOffset);
+        return stringOffset + 2 + Math.max(length, 0);
+    }
+
+    private void field(JsonByteWriter writer, int stringOffset) throws IOException {
+        short length = buffer.getShort(stringOffset);
+        if (length < 0) {
+            writer.writeAscii("null");
+            return;
+        }
+        writer.write('"').copy(buffer, stringOffset + 2, length).write('"');
+    }
+
+    private String string(int stringOffset) {
+        short length = buffer.getShort(stringOffset);
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        buffer.get(stringOffset + 2, bytes, 0, length);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
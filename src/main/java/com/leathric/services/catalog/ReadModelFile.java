@@ -0,0 +1,104 @@
+package com.leathric.services.catalog;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * One immutable, memory-mapped generation of the catalog read model.
+ * <p>
+ * Layout (little endian):
+ * <pre>
+ * header  : int magic | int version | long generation | long changeSequence | int count | int reserved
+ * index   : count x (long productId | int recordOffset), sorted by productId
+ * records : long priceUnscaled | byte priceScale | byte flags | name | imageUrl | categoryName
+ *           where each string is short length (-1 = null) followed by JSON-escaped UTF-8 bytes
+ * </pre>
+ * Only absolute reads are used, so one instance is safely shared by all request threads.
+ */
+public final class ReadModelFile {
+
+    static final int MAGIC = 0x4C43524D;
+    static final int VERSION = 1;
+    static final int HEADER_SIZE = 32;
+    static final int INDEX_ENTRY_SIZE = 12;
+
+    private final Path path;
+    private final ByteBuffer buffer;
+    private final long generation;
+    private final long changeSequence;
+    private final int size;
+
+    private ReadModelFile(Path path, ByteBuffer buffer) {
+        this.path = path;
+        this.buffer = buffer;
+        if (buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION) {
+            throw new IllegalStateException("Not a catalog read model file: " + path);
+        }
+        this.generation = buffer.getLong(8);
+        this.changeSequence = buffer.getLong(16);
+        this.size = buffer.getInt(24);
+    }
+
+    public static ReadModelFile open(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            mapped.order(ByteOrder.LITTLE_ENDIAN);
+            return new ReadModelFile(path, mapped);
+        }
+    }
+
+    public Path path() {
+        return path;
+    }
+
+    public long generation() {
+        return generation;
+    }
+
+    public long changeSequence() {
+        return changeSequence;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public long idAt(int position) {
+        return buffer.getLong(HEADER_SIZE + position * INDEX_ENTRY_SIZE);
+    }
+
+    /**
+     * Binary search over the sorted id index.
+     *
+     * @return index position, or {@code -1} if the product is not in this generation
+     */
+    public int indexOf(long productId) {
+        int low = 0;
+        int high = size - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            long id = idAt(mid);
+            if (id < productId) {
+                low = mid + 1;
+            } else if (id > productId) {
+                high = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Points the flyweight at the record in the given index position and returns it.
+     */
+    public ProductView view(int position, ProductView flyweight) {
+        int offset = buffer.getInt(HEADER_SIZE + position * INDEX_ENTRY_SIZE + 8);
+        return flyweight.wrap(buffer, idAt(position), offset);
+    }
+}
@@ -0,0 +1,149 @@
+package com.leathric.services.catalog;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * Encodes products, appended in ascending id order, into the {@link ReadModelFile} layout.
+ * Record bodies are spooled to a side file while the id index is collected in primitive arrays,
+ * then both are stitched into the final file on {@link #finish()}.
+ */
+public class ReadModelFileWriter implements Closeable {
+
+    private final Path target;
+    private final Path spool;
+    private final DataOutputStream records;
+    private final long generation;
+    private final long changeSequence;
+    private long[] ids = new long[1024];
+    private int[] offsets = new int[1024];
+    private int count;
+    private long recordBytes;
+    private boolean finished;
+
+    public ReadModelFileWriter(Path target, long generation, long changeSequence) throws IOException {
+        this.target = target;
+        this.spool = target.resolveSibling(target.getFileName() + ".records");
+        this.records = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(spool), 64 * 1024));
+        this.generation = generation;
+        this.changeSequence = changeSequence;
+    }
+
+    public void append(long id, String name, BigDecimal price, String imageUrl, String categoryName, boolean inStock)
+            throws IOException {
+        if (count > 0 && id <= ids[count - 1]) {
+            throw new IllegalArgumentException("Products must be appended in ascending id order");
+        }
+        if (count == ids.length) {
+            ids = Arrays.copyOf(ids, count * 2);
+            offsets = Arrays.copyOf(offsets, count * 2);
+        }
+        if (recordBytes > Integer.MAX_VALUE / 2) {
+            throw new IllegalStateException("Catalog read model exceeds a single mapping");
+        }
+        ids[count] = id;
+        offsets[count] = (int) recordBytes;
+        count++;
+
+        BigDecimal normalized = normalize(price);
+        writeLongLe(normalized.unscaledValue().longValueExact());
+        records.writeByte(normalized.scale());
+        records.writeByte(inStock ? ProductView.FLAG_IN_STOCK : 0);
+        recordBytes += 10;
+        writeString(name);
+        writeString(imageUrl);
+        writeString(categoryName);
+    }
+
+    /**
+     * Price as stored: trailing zeros stripped, but never a negative scale.
+     */
+    static BigDecimal normalize(BigDecimal price) {
+        BigDecimal normalized = price.stripTrailingZeros();
+        return normalized.scale() < 0 ? normalized.setScale(0) : normalized;
+    }
+
+    public int count() {
+        return count;
+    }
+
+    /**
+     * Writes header and index followed by the spooled records, then fsyncs the file.
+     */
+    public Path finish() throws IOException {
+        records.close();
+        long dataStart = ReadModelFile.HEADER_SIZE + (long) count * ReadModelFile.INDEX_ENTRY_SIZE;
+        if (dataStart + recordBytes > Integer.MAX_VALUE) {
+            throw new IllegalStateException("Catalog read model exceeds a single mapping");
+        }
+        ByteBuffer head = ByteBuffer.allocate((int) dataStart).order(ByteOrder.LITTLE_ENDIAN);
+        head.putInt(ReadModelFile.MAGIC)
+                .putInt(ReadModelFile.VERSION)
+                .putLong(generation)
+                .putLong(changeSequence)
+                .putInt(count)
+                .putInt(0);
+        for (int i = 0; i < count; i++) {
+            head.putLong(ids[i]).putInt((int) (dataStart + offsets[i]));
+        }
+        head.flip();
+
+        try (FileChannel out = FileChannel.open(target, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                StandardOpenOption.WRITE);
+             FileChannel in = FileChannel.open(spool, StandardOpenOption.READ)) {
+            while (head.hasRemaining()) {
+                out.write(head);
+            }
+            long transferred = 0;
+            while (transferred < recordBytes) {
+                transferred += in.transferTo(transferred, recordBytes - transferred, out);
+            }
+            out.force(true);
+        }
+        Files.deleteIfExists(spool);
+        finished = true;
+        return target;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (!finished) {
+            records.close();
+            Files.deleteIfExists(spool);
+            Files.deleteIfExists(target);
+        }
+    }
+
+    private void writeString(String value) throws IOException {
+        if (value == null) {
+            writeShortLe(-1);
+            recordBytes += 2;
+            return;
+        }
+        byte[] bytes = JsonByteWriter.JsonEscaper.escape(value);
+        if (bytes.length > Short.MAX_VALUE) {
+            throw new IllegalArgumentException("Read model string field too long");
+        }
+        writeShortLe(bytes.length);
+        records.write(bytes);
+        recordBytes += 2 + bytes.length;
+    }
+
+    private void writeLongLe(long value) throws IOException {
+        records.writeLong(Long.reverseBytes(value));
+    }
+
+    private void writeShortLe(int value) throws IOException {
+        records.writeShort(Short.reverseBytes((short) value));
+    }
+}
@@ -0,0 +1,125 @@
+package com.leathric.services.catalog;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Streams storefront URLs into gzipped sitemap chunks of bounded size and writes a
+ * {@code sitemap.xml} index over them. Chunks are written to temporary names and published,
+ * together with the index, on {@link #commit()}.
+ */
+public class SitemapWriter implements Closeable {
+
+    public static final String INDEX_FILE = "sitemap.xml";
+    private static final String CHUNK_PREFIX = "sitemap-";
+    private static final String CHUNK_SUFFIX = ".xml.gz";
+
+    private final Path outputDir;
+    private final String publicBaseUrl;
+    private final int urlsPerSitemap;
+    private final List<Path> chunks = new ArrayList<>();
+    private Writer current;
+    private String currentSection;
+    private int urlsInCurrent;
+    private boolean committed;
+
+    public SitemapWriter(Path outputDir, String publicBaseUrl, int urlsPerSitemap) {
+        this.outputDir = outputDir;
+        this.publicBaseUrl = MerchantFeedWriter.stripTrailingSlash(publicBaseUrl);
+        this.urlsPerSitemap = urlsPerSitemap;
+    }
+
+    /**
+     * Adds a URL to the named section ({@code products}, {@code categories}); switching section starts a new chunk.
+     */
+    public void add(String section, String location, LocalDate lastModified) throws IOException {
+        if (current == null || !section.equals(currentSection) || urlsInCurrent >= urlsPerSitemap) {
+            rotate(section);
+        }
+        current.write("<url><loc>");
+        current.write(GzipFiles.escapeXml(location));
+        current.write("</loc>");
+        if (lastModified != null) {
+            current.write("<lastmod>");
+            current.write(lastModified.toString());
+            current.write("</lastmod>");
+        }
+        current.write("</url>\n");
+        urlsInCurrent++;
+    }
+
+    public void commit() throws IOException {
+        closeCurrent();
+        Path indexTarget = outputDir.resolve(INDEX_FILE);
+        Path indexTemp = GzipFiles.tempSibling(indexTarget);
+        List<String> published = new ArrayList<>();
+        for (Path temp : chunks) {
+            String name = temp.getFileName().toString().replace(".tmp", "");
+            GzipFiles.publish(temp, outputDir.resolve(name));
+            published.add(name);
+        }
+        try (Writer index = GzipFiles.openPlainWriter(indexTemp)) {
+            index.write("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n");
+            index.write("<sitemapindex xmlns=\"http://www.sitemaps.org/schemas/sitemap/0.9\">\n");
+            String today = LocalDate.now().toString();
+            for (String name : published) {
+                index.write("<sitemap><loc>" + GzipFiles.escapeXml(publicBaseUrl + "/feeds/" + name)
+                        + "</loc><lastmod>" + today + "</lastmod></sitemap>\n");
+            }
+            index.write("</sitemapindex>\n");
+        }
+        GzipFiles.publish(indexTemp, indexTarget);
+        committed = true;
+        deleteStaleChunks(published);
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (!committed) {
+            closeCurrent();
+            for (Path temp : chunks) {
+                Files.deleteIfExists(temp);
+            }
+        }
+    }
+
+    private void rotate(String section) throws IOException {
+        closeCurrent();
+        long sectionIndex = chunks.stream()
+                .filter(p -> p.getFileName().toString().startsWith(CHUNK_PREFIX + section + "-"))
+                .count() + 1;
+        Path temp = outputDir.resolve(CHUNK_PREFIX + section + "-" + sectionIndex + CHUNK_SUFFIX + ".tmp");
+        chunks.add(temp);
+        current = GzipFiles.openGzipWriter(temp);
+        current.write("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n");
+        current.write("<urlset xmlns=\"http://www.sitemaps.org/schemas/sitemap/0.9\">\n");
+        currentSection = section;
+        urlsInCurrent = 0;
+    }
+
+    private void closeCurrent() throws IOException {
+        if (current != null) {
+            current.write("</urlset>\n");
+            current.close();
+            current = null;
+        }
+    }
+
+    private void deleteStaleChunks(List<String> published) throws IOException {
+        // A smaller catalog produces fewer chunks; drop the leftovers so crawlers never see stale URLs.
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(outputDir, CHUNK_PREFIX + "*" + CHUNK_SUFFIX)) {
+            for (Path path : stream) {
+                if (!published.contains(path.getFileName().toString())) {
+                    Files.deleteIfExists(path);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,234 @@
+package com.leathric.services.idempotency;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.leathric.config.IdempotencyProperties;
+import com.leathric.exception.BadRequestException;
+import com.leathric.exception.IdempotencyConflictException;
+import com.leathric.util.SecurityUtils;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Runs a request at most once per {@code Idempotency-Key} and caller, replaying the stored response for retries.
+ * <p>
+ * The key row is inserted in the same transaction as the request's own changes and completed with the
+ * serialized response before commit, so an outcome is stored exactly when its order changes are. A duplicate
+ * on another instance blocks on the row's unique key until the first transaction ends and then reads the
+ * stored response. Duplicates on this instance wait on the in-flight execution instead, without holding a
+ * connection. A first request that fails stores nothing, so its retry runs again.
+ */
+@Slf4j
+@Component
+public class IdempotencyGuard {
+
+    public static final String HEADER = "Idempotency-Key";
+
+    private static final int MAX_KEY_LENGTH = 100;
+
+    private static final String DELETE_EXPIRED_KEY_SQL =
+            "DELETE FROM idempotency_keys WHERE owner = ? AND request_key = ? AND expires_at < ?";
+    private static final String INSERT_SQL = "INSERT INTO idempotency_keys "
+            + "(owner, request_key, fingerprint, response, created_at, expires_at) VALUES (?, ?, ?, NULL, ?, ?)";
+    private static final String COMPLETE_SQL = "UPDATE idempotency_keys SET response = ? WHERE owner = ? AND request_key = ?";
+    private static final String SELECT_SQL =
+            "SELECT fingerprint, response, expires_at FROM idempotency_keys WHERE owner = ? AND request_key = ?";
+    private static final String PURGE_SQL = "DELETE FROM idempotency_keys WHERE expires_at < ? LIMIT ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final PlatformTransactionManager transactionManager;
+    private final ObjectMapper objectMapper;
+    private final IdempotencyProperties properties;
+
+    private final Map<String, Outcome> completed = new ConcurrentHashMap<>();
+    private final Map<String, CompletableFuture<Outcome>> inFlight = new ConcurrentHashMap<>();
+
+    public IdempotencyGuard(DataSource dataSource, PlatformTransactionManager transactionManager,
+                            ObjectMapper objectMapper, IdempotencyProperties properties) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.transactionManager = transactionManager;
+        this.objectMapper = objectMapper;
+        this.properties = properties;
+    }
+
+    /**
+     * Runs {@code action} unless the current user already completed a request with this key, in which case
+     * the stored response is returned. Without a key the action simply runs.
+     *
+     * @param operation identifies the endpoint and target, e.g. {@code confirm-payment:42}
+     * @param request   request body, hashed with {@code operation} to detect key reuse
+     */
+    public <T> T execute(String key, String operation, Object request, Class<T> responseType, Supplier<T> action) {
+        if (key == null) {
+            return action.get();
+        }
+        if (key.isBlank() || key.length() > MAX_KEY_LENGTH) {
+            throw new BadRequestException(HEADER + " must be 1-" + MAX_KEY_LENGTH + " characters");
+        }
+        String owner = SecurityUtils.currentUserEmail();
+        String cacheKey = owner + '\n' + key;
+        String fingerprint = fingerprint(operation, request);
+
+        while (true) {
+            Outcome cached = completed.get(cacheKey);
+            if (cached != null && cached.expiresAt.isAfter(LocalDateTime.now())) {
+                return replay(cached, fingerprint, responseType);
+            }
+            CompletableFuture<Outcome> mine = new CompletableFuture<>();
+            CompletableFuture<Outcome> running = inFlight.putIfAbsent(cacheKey, mine);
+            if (running != null) {
+                Outcome outcome = await(running);
+                if (outcome != null) {
+                    return replay(outcome, fingerprint, responseType);
+                }
+                continue; // the first attempt failed and stored nothing; try again ourselves
+            }
+            try {
+                Outcome outcome = runOnce(owner, key, fingerprint, action);
+                remember(cacheKey, outcome);
+                mine.complete(outcome);
+                return replay(outcome, fingerprint, responseType);
+            } catch (RuntimeException | Error e) {
+                mine.complete(null);
+                throw e;
+            } finally {
+                inFlight.remove(cacheKey, mine);
+            }
+        }
+    }
+
+    @Scheduled(cron = "${app.idempotency.cleanup-cron:0 */15 * * * *}")
+    public void purgeExpired() {
+        LocalDateTime now = LocalDateTime.now();
+        completed.values().removeIf(outcome -> !outcome.expiresAt.isAfter(now));
+        int limit = properties.getCleanupBatchSize();
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        long purged = 0;
+        int deleted;
+        do {
+            deleted = transaction.execute(status -> jdbcTemplate.update(PURGE_SQL, Timestamp.valueOf(now), limit));
+            purged += deleted;
+        } while (deleted == limit);
+        if (purged > 0) {
+            log.info("Purged {} expired idempotency keys", purged);
+        }
+    }
+
+    private Outcome runOnce(String owner, String key, String fingerprint, Supplier<?> action) {
+        return new TransactionTemplate(transactionManager).execute(status -> {
+            LocalDateTime now = LocalDateTime.now();
+            LocalDateTime expiresAt = now.plus(properties.getTtl());
+            Outcome stored = claim(owner, key, fingerprint, now, expiresAt);
+            if (stored != null) {
+                return stored;
+            }
+            String response = toJson(action.get());
+            jdbcTemplate.update(COMPLETE_SQL, response, owner, key);
+            return new Outcome(fingerprint, response, expiresAt);
+        });
+    }
+
+    /**
+     * Inserts the key row, replacing an expired one.
+     *
+     * @return the outcome already stored under the key, or {@code null} if this request now owns it
+     */
+    private Outcome claim(String owner, String key, String fingerprint, LocalDateTime now, LocalDateTime expiresAt) {
+        for (int attempt = 0; ; attempt++) {
+            try {
+                // Blocks while another transaction holds the same key, then fails once it has committed.
+                jdbcTemplate.update(INSERT_SQL, owner, key, fingerprint, Timestamp.valueOf(now), Timestamp.valueOf(expiresAt));
+                return null;
+            } catch (DuplicateKeyException e) {
+                List<Outcome> stored = jdbcTemplate.query(SELECT_SQL, (rs, row) -> new Outcome(rs.getString("fingerprint"),
+                        rs.getString("response"), rs.getTimestamp("expires_at").toLocalDateTime()), owner, key);
+                if (stored.isEmpty() || stored.get(0).response == null) {
+                    throw new IdempotencyConflictException("Request with this " + HEADER + " is still in progress");
+                }
+                if (stored.get(0).expiresAt.isAfter(now) || attempt > 0) {
+                    return stored.get(0);
+                }
+                jdbcTemplate.update(DELETE_EXPIRED_KEY_SQL, owner, key, Timestamp.valueOf(now));
+            }
+        }
+    }
+
+    private Outcome await(CompletableFuture<Outcome> running) {
+        try {
+            return running.get(properties.getWaitTimeout().toMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            throw new IdempotencyConflictException("Request with this " + HEADER + " is still in progress");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IdempotencyConflictException("Interrupted waiting for request with this " + HEADER);
+        } catch (ExecutionException e) {
+            return null;
+        }
+    }
+
+    private <T> T replay(Outcome outcome, String fingerprint, Class<T> responseType) {
+        if (!outcome.fingerprint.equals(fingerprint)) {
+            throw new IdempotencyConflictException(HEADER + " was already used for a different request");
+        }
+        try {
+            return objectMapper.readValue(outcome.response, responseType);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not read stored idempotent response", e);
+        }
+    }
+
+    private void remember(String cacheKey, Outcome outcome) {
+        if (completed.size() >= properties.getMaxCachedEntries()) {
+            LocalDateTime now = LocalDateTime.now();
+            completed.values().removeIf(entry -> !entry.expiresAt.isAfter(now));
+            if (completed.size() >= properties.getMaxCachedEntries()) {
+                return;
+            }
+        }
+        completed.put(cacheKey, outcome);
+    }
+
+    private String fingerprint(String operation, Object request) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update(operation.getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) 0);
+            digest.update(toJson(request).getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private String toJson(Object value) {
+        try {
+            return objectMapper.writeValueAsString(value);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize idempotent request or response", e);
+        }
+    }
+
+    private record Outcome(String fingerprint, String response, LocalDateTime expiresAt) {
+    }
+}
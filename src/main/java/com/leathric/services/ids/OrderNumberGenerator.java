@@ -0,0 +1,34 @@
+package com.leathric.services.ids;
+
+/**
+ * Renders {@link SnowflakeIdGenerator} ids as order numbers such as {@code ORD-01J8Z6QK4M2XA}: thirteen
+ * Crockford base32 characters (no I, L, O or U, so they read back unambiguously over the phone), fixed
+ * width so order numbers sort in the order they were issued.
+ */
+public final class OrderNumberGenerator {
+
+    public static final String PREFIX = "ORD-";
+
+    private static final char[] ALPHABET = "0123456789ABCDEFGHJKMNPQRSTVWXYZ".toCharArray();
+    private static final int WIDTH = 13;
+
+    private final SnowflakeIdGenerator ids;
+
+    public OrderNumberGenerator(SnowflakeIdGenerator ids) {
+        this.ids = ids;
+    }
+
+    public String next() {
+        return format(ids.nextId());
+    }
+
+    static String format(long id) {
+        char[] chars = new char[PREFIX.length() + WIDTH];
+        PREFIX.getChars(0, PREFIX.length(), chars, 0);
+        for (int i = chars.length - 1; i >= PREFIX.length(); i--) {
+            chars[i] = ALPHABET[(int) (id & 31)];
+            id >>>= 5;
+        }
+        return new String(chars);
+    }
+}
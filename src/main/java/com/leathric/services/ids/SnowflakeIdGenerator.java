@@ -0,0 +1,72 @@
+package com.leathric.services.ids;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Lock-free, node-aware 63-bit id generator: 41 bits of milliseconds since {@link #EPOCH_MILLIS},
+ * 10 bits of node id and a 12-bit per-millisecond sequence (4096 ids per millisecond per node).
+ * <p>
+ * The last issued (millisecond, sequence) pair lives in one {@link AtomicLong} and every id is a single
+ * compare-and-set on it, so ids from one generator are strictly increasing. If the wall clock moves back,
+ * or a millisecond's sequence runs out, the generator keeps counting on its own logical clock just ahead
+ * of the last id and falls back in step once the wall clock catches up. Ids are unique per node as long
+ * as the clock does not move back across a restart.
+ */
+public final class SnowflakeIdGenerator {
+
+    /** 2024-01-01T00:00:00Z; leaves roughly 69 years of 41-bit timestamps. */
+    public static final long EPOCH_MILLIS = 1_704_067_200_000L;
+
+    public static final int NODE_BITS = 10;
+    public static final int SEQUENCE_BITS = 12;
+    public static final long MAX_NODE_ID = (1L << NODE_BITS) - 1;
+
+    private static final long SEQUENCE_MASK = (1L << SEQUENCE_BITS) - 1;
+
+    private final long node;
+    private final LongSupplier clock;
+    private final AtomicLong last = new AtomicLong();
+
+    public SnowflakeIdGenerator(long nodeId) {
+        this(nodeId, System::currentTimeMillis);
+    }
+
+    SnowflakeIdGenerator(long nodeId, LongSupplier clock) {
+        if (nodeId < 0 || nodeId > MAX_NODE_ID) {
+            throw new IllegalArgumentException("Node id must be between 0 and " + MAX_NODE_ID + ": " + nodeId);
+        }
+        this.node = nodeId;
+        this.clock = clock;
+    }
+
+    public long nextId() {
+        while (true) {
+            long previous = last.get();
+            long previousMillis = previous >>> SEQUENCE_BITS;
+            long now = clock.getAsLong() - EPOCH_MILLIS;
+            long next;
+            if (now > previousMillis) {
+                next = now << SEQUENCE_BITS;
+            } else if ((previous & SEQUENCE_MASK) < SEQUENCE_MASK) {
+                // Same millisecond, or the clock moved back: stay on the logical clock.
+                next = previous + 1;
+            } else {
+                // Sequence exhausted: borrow the next millisecond.
+                next = (previousMillis + 1) << SEQUENCE_BITS;
+            }
+            if (last.compareAndSet(previous, next)) {
+                long millis = next >>> SEQUENCE_BITS;
+                return (millis << (NODE_BITS + SEQUENCE_BITS)) | (node << SEQUENCE_BITS) | (next & SEQUENCE_MASK);
+            }
+        }
+    }
+
+    public static long timestampMillis(long id) {
+        return (id >>> (NODE_BITS + SEQUENCE_BITS)) + EPOCH_MILLIS;
+    }
+
+    public static long nodeId(long id) {
+        return (id >>> SEQUENCE_BITS) & MAX_NODE_ID;
+    }
+}
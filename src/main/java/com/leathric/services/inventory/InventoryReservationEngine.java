@@ -0,0 +1,377 @@
+package com.leathric.services.inventory;
+
+import com.leathric.config.InventoryReservationProperties;
+import com.leathric.exception.BadRequestException;
+import com.leathric.exception.InsufficientStockException;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+
+/**
+ * In-memory stock gate for checkout. Each product's takeable units live in a {@link ShardedCounter} seeded
+ * from {@code products.stock_quantity}; starting checkout takes units into a {@link Reservation} with a TTL,
+ * so during a drop every buyer beyond the available units is turned away without a database round trip.
+ * <p>
+ * Holds are converted when the order is placed, and orders placed without a hold claim their units from
+ * the same counters, so they can never take units someone else is holding. That transaction still takes
+ * the stock with the conditional update, which stays the guarantee against overselling across restarts and instances;
+ * the engine only learns about it after commit. Expired or released holds return their units.
+ * <p>
+ * Stock changes this instance commits (orders, cancellations) are applied to the counters after commit.
+ * Anything else (admin edits, other instances) is folded in by a periodic batched reconciliation that
+ * re-bases each loaded product on its current row, skipping products with local changes in flight.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class InventoryReservationEngine {
+
+    private static final String STOCK_SQL = "SELECT id, stock_quantity FROM products WHERE id IN (%s)";
+
+    private final DataSource dataSource;
+    private final InventoryReservationProperties properties;
+
+    private final Map<Long, ProductStock> products = new ConcurrentHashMap<>();
+    private final Map<String, Reservation> reservations = new ConcurrentHashMap<>();
+    private final Map<Long, String> reservationByUser = new ConcurrentHashMap<>();
+    private final AtomicBoolean reconciling = new AtomicBoolean();
+
+    public boolean isEnabled() {
+        return properties.isEnabled();
+    }
+
+    /**
+     * Holds the given quantities for the user, replacing any hold the user already has.
+     *
+     * @throws InsufficientStockException if any product is short; nothing is held then
+     */
+    public Reservation reserve(long userId, Map<Long, Integer> quantities) {
+        String previous = reservationByUser.get(userId);
+        if (previous != null) {
+            release(previous, userId);
+        }
+        Map<Long, Integer> sorted = new TreeMap<>(quantities);
+        take(sorted);
+        Reservation reservation = new Reservation(UUID.randomUUID().toString(), userId, sorted,
+                Instant.now().plus(properties.getTtl()));
+        reservations.put(reservation.getId(), reservation);
+        reservationByUser.put(userId, reservation.getId());
+        return reservation;
+    }
+
+    /**
+     * Returns a held reservation's units early.
+     *
+     * @return {@code false} if the reservation is unknown, not the user's, or already settled
+     */
+    public boolean release(String reservationId, long userId) {
+        Reservation reservation = reservations.get(reservationId);
+        if (reservation == null || reservation.getUserId() != userId
+                || !reservation.transition(Reservation.State.HELD, Reservation.State.RELEASED)) {
+            return false;
+        }
+        returnUnits(reservation);
+        return true;
+    }
+
+    /**
+     * Claims a hold for the order being placed in the current transaction. After commit the ordered units
+     * count as sold and any surplus is returned; after rollback the hold is usable again until it expires.
+     *
+     * @param ordered quantities being ordered; each must be covered by the hold
+     */
+    public void convert(String reservationId, long userId, Map<Long, Integer> ordered) {
+        Reservation reservation = reservations.get(reservationId);
+        if (reservation == null || reservation.getUserId() != userId || reservation.isExpired(Instant.now())) {
+            throw new BadRequestException("Reservation not found or expired");
+        }
+        ordered.forEach((productId, quantity) -> {
+            if (quantity > reservation.getQuantities().getOrDefault(productId, 0)) {
+                throw new BadRequestException("Reservation does not cover the cart; start checkout again");
+            }
+        });
+        if (!reservation.transition(Reservation.State.HELD, Reservation.State.CONVERTING)) {
+            throw new BadRequestException("Reservation not found or expired");
+        }
+        Map<Long, Integer> soldDelta = new HashMap<>();
+        Map<Long, Integer> surplus = new HashMap<>();
+        reservation.getQuantities().forEach((productId, held) -> {
+            int quantity = ordered.getOrDefault(productId, 0);
+            soldDelta.put(productId, -quantity);
+            surplus.put(productId, held - quantity);
+        });
+        afterCompletion(soldDelta, surplus, committed -> {
+            if (committed) {
+                reservation.transition(Reservation.State.CONVERTING, Reservation.State.CONVERTED);
+                forget(reservation);
+            } else {
+                reservation.transition(Reservation.State.CONVERTING, Reservation.State.HELD);
+            }
+        });
+    }
+
+    /**
+     * Takes units for an order placed without a reservation in the current transaction, out of the same
+     * counters holds come from. After commit they count as sold; after rollback they go back on sale.
+     *
+     * @throws InsufficientStockException if any product is short once held units are set aside; nothing is
+     *                                    taken then
+     */
+    public void claim(Map<Long, Integer> quantities) {
+        Map<Long, Integer> sorted = new TreeMap<>(quantities);
+        take(sorted);
+        Map<Long, Integer> soldDelta = new HashMap<>();
+        sorted.forEach((productId, quantity) -> soldDelta.put(productId, -quantity));
+        afterCompletion(soldDelta, Map.of(), committed -> {
+            if (!committed) {
+                sorted.forEach((productId, quantity) -> products.get(productId).available.adjust(quantity));
+            }
+        });
+    }
+
+    /**
+     * Applies a stock change made outside a reservation (a cancellation, a refund) once the current
+     * transaction commits.
+     *
+     * @param deltas change in {@code stock_quantity} per product
+     */
+    public void recordStockChange(Map<Long, Integer> deltas) {
+        afterCompletion(deltas, deltas, committed -> { });
+    }
+
+    @Scheduled(fixedDelayString = "${app.inventory.reservations.expiry-interval-ms:1000}")
+    public void expireHolds() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        Instant now = Instant.now();
+        for (Reservation reservation : reservations.values()) {
+            if (reservation.isExpired(now) && reservation.transition(Reservation.State.HELD, Reservation.State.RELEASED)) {
+                returnUnits(reservation);
+            }
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.inventory.reservations.reconcile-interval-ms:30000}",
+            initialDelayString = "${app.inventory.reservations.reconcile-interval-ms:30000}")
+    public void reconcile() {
+        if (!properties.isEnabled() || !reconciling.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            List<Long> ids = new ArrayList<>(products.keySet());
+            int batchSize = properties.getReconcileBatchSize();
+            int rebased = 0;
+            for (int from = 0; from < ids.size(); from += batchSize) {
+                rebased += reconcileBatch(ids.subList(from, Math.min(ids.size(), from + batchSize)));
+            }
+            if (rebased > 0) {
+                log.info("Inventory reconciliation re-based {} of {} products", rebased, ids.size());
+            }
+        } catch (RuntimeException e) {
+            log.warn("Inventory reconciliation failed; retrying next run", e);
+        } finally {
+            reconciling.set(false);
+        }
+    }
+
+    /**
+     * Takeable units for a loaded product, or {@code -1} if it has not been loaded.
+     */
+    public long available(long productId) {
+        ProductStock stock = products.get(productId);
+        return stock == null ? -1 : stock.available.available();
+    }
+
+    int activeReservations() {
+        return reservations.size();
+    }
+
+    /**
+     * Seeds a product directly, bypassing the database (tests and warm-up).
+     */
+    void load(long productId, long stockQuantity) {
+        products.putIfAbsent(productId, new ProductStock(shards(), stockQuantity));
+    }
+
+    private int reconcileBatch(List<Long> ids) {
+        Map<Long, Long> changesSeen = new HashMap<>();
+        for (Long id : ids) {
+            ProductStock stock = products.get(id);
+            synchronized (stock) {
+                if (stock.inFlight == 0) {
+                    changesSeen.put(id, stock.changes);
+                }
+            }
+        }
+        if (changesSeen.isEmpty()) {
+            return 0;
+        }
+        Map<Long, Long> current = readStock(changesSeen.keySet());
+        int rebased = 0;
+        for (Map.Entry<Long, Long> seen : changesSeen.entrySet()) {
+            ProductStock stock = products.get(seen.getKey());
+            long stockQuantity = current.getOrDefault(seen.getKey(), 0L);
+            synchronized (stock) {
+                // A local change committed or started since the snapshot may or may not be in what was read.
+                if (stock.inFlight == 0 && stock.changes == seen.getValue() && stock.baseline != stockQuantity) {
+                    stock.available.adjust(stockQuantity - stock.baseline);
+                    stock.baseline = stockQuantity;
+                    rebased++;
+                }
+            }
+        }
+        return rebased;
+    }
+
+    /**
+     * Runs {@code dbDelta}/{@code availableDelta} bookkeeping for products this instance has loaded once the
+     * surrounding transaction commits, marking them in flight from just before commit so reconciliation
+     * cannot read a half-applied state. Without a transaction the change applies immediately.
+     */
+    private void afterCompletion(Map<Long, Integer> dbDelta, Map<Long, Integer> availableDelta,
+                                 Consumer<Boolean> settle) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            apply(dbDelta, availableDelta);
+            settle.accept(true);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            private boolean marked;
+
+            @Override
+            public void beforeCommit(boolean readOnly) {
+                dbDelta.keySet().forEach(productId -> {
+                    ProductStock stock = products.get(productId);
+                    if (stock != null) {
+                        synchronized (stock) {
+                            stock.inFlight++;
+                        }
+                    }
+                });
+                marked = true;
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                boolean committed = status == STATUS_COMMITTED;
+                if (marked) {
+                    dbDelta.keySet().forEach(productId -> {
+                        ProductStock stock = products.get(productId);
+                        if (stock != null) {
+                            synchronized (stock) {
+                                stock.inFlight--;
+                            }
+                        }
+                    });
+                }
+                if (committed) {
+                    apply(dbDelta, availableDelta);
+                }
+                settle.accept(committed);
+            }
+        });
+    }
+
+    private void apply(Map<Long, Integer> dbDelta, Map<Long, Integer> availableDelta) {
+        dbDelta.forEach((productId, delta) -> {
+            ProductStock stock = products.get(productId);
+            if (stock == null) {
+                return;
+            }
+            synchronized (stock) {
+                stock.baseline += delta;
+                stock.changes++;
+                int units = availableDelta.getOrDefault(productId, 0);
+                if (units != 0) {
+                    stock.available.adjust(units);
+                }
+            }
+        });
+    }
+
+    private void take(Map<Long, Integer> sorted) {
+        loadMissing(sorted.keySet());
+        List<Map.Entry<Long, Integer>> taken = new ArrayList<>(sorted.size());
+        for (Map.Entry<Long, Integer> line : sorted.entrySet()) {
+            if (!products.get(line.getKey()).available.tryTake(line.getValue())) {
+                taken.forEach(done -> products.get(done.getKey()).available.adjust(done.getValue()));
+                throw new InsufficientStockException(line.getKey(), "Insufficient stock for product " + line.getKey());
+            }
+            taken.add(line);
+        }
+    }
+
+    private void returnUnits(Reservation reservation) {
+        reservation.getQuantities().forEach((productId, quantity) -> products.get(productId).available.adjust(quantity));
+        forget(reservation);
+    }
+
+    private void forget(Reservation reservation) {
+        reservations.remove(reservation.getId(), reservation);
+        reservationByUser.remove(reservation.getUserId(), reservation.getId());
+    }
+
+    private void loadMissing(Iterable<Long> productIds) {
+        List<Long> missing = new ArrayList<>();
+        productIds.forEach(id -> {
+            if (!products.containsKey(id)) {
+                missing.add(id);
+            }
+        });
+        if (missing.isEmpty()) {
+            return;
+        }
+        Map<Long, Long> stock = readStock(missing);
+        missing.forEach(id -> load(id, stock.getOrDefault(id, 0L)));
+    }
+
+    private Map<Long, Long> readStock(Collection<Long> ids) {
+        Map<Long, Long> stock = new HashMap<>();
+        new JdbcTemplate(dataSource).query(String.format(STOCK_SQL, String.join(",", Collections.nCopies(ids.size(), "?"))),
+                rs -> {
+                    stock.put(rs.getLong("id"), rs.getLong("stock_quantity"));
+                }, ids.toArray());
+        return stock;
+    }
+
+    private int shards() {
+        return Integer.highestOneBit(properties.getShards() * 2 - 1);
+    }
+
+    /**
+     * Counter plus the bookkeeping reconciliation needs; fields other than the counter are guarded by the instance.
+     */
+    private static final class ProductStock {
+        final ShardedCounter available;
+        /** {@code stock_quantity} as last applied to the counter. */
+        long baseline;
+        /** Bumped by every locally committed change. */
+        long changes;
+        /** Local transactions between before-commit and completion. */
+        int inFlight;
+
+        ProductStock(int shards, long stockQuantity) {
+            this.available = new ShardedCounter(shards, stockQuantity);
+            this.baseline = stockQuantity;
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package com.leathric.services.inventory;
+
+import java.time.Instant;
+import java.util.Collections;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Units held for one user's checkout until {@link #getExpiresAt()}. The state only moves forward through
+ * compare-and-set, so expiry, release and conversion racing on the same hold settle it exactly once.
+ */
+public final class Reservation {
+
+    public enum State {
+        HELD,
+        /** An order transaction is using the hold; expiry leaves it alone. */
+        CONVERTING,
+        CONVERTED,
+        RELEASED
+    }
+
+    private final String id;
+    private final long userId;
+    private final Map<Long, Integer> quantities;
+    private final Instant expiresAt;
+    private final AtomicReference<State> state = new AtomicReference<>(State.HELD);
+
+    Reservation(String id, long userId, Map<Long, Integer> quantities, Instant expiresAt) {
+        this.id = id;
+        this.userId = userId;
+        this.quantities = Collections.unmodifiableMap(new TreeMap<>(quantities));
+        this.expiresAt = expiresAt;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public long getUserId() {
+        return userId;
+    }
+
+    public Map<Long, Integer> getQuantities() {
+        return quantities;
+    }
+
+    public Instant getExpiresAt() {
+        return expiresAt;
+    }
+
+    public State getState() {
+        return state.get();
+    }
+
+    boolean isExpired(Instant now) {
+        return !now.isBefore(expiresAt);
+    }
+
+    boolean transition(State from, State to) {
+        return state.compareAndSet(from, to);
+    }
+}
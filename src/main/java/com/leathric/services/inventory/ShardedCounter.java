@@ -0,0 +1,111 @@
+package com.leathric.services.inventory;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Non-negative unit counter split across cache-line-padded shards, so concurrent takes on a hot product
+ * mostly CAS different memory. A take first tries the caller's home shard and only then gathers from the
+ * others; units are never taken from a shard that does not hold them, so the counter cannot go below zero.
+ * <p>
+ * Negative adjustments larger than what is left are recorded as debt and paid off by later additions
+ * before any unit becomes takeable again. Adjustments are rare (releases, reconciliation) and serialized;
+ * takes are lock-free. Units a failed take is putting back while a removal drains the shards can escape
+ * that removal, so the counter is an admission gate, not the stock of record.
+ */
+final class ShardedCounter {
+
+    /** Longs per shard: one 64-byte cache line. */
+    private static final int STRIDE = 8;
+
+    private final AtomicLongArray cells;
+    private final int mask;
+    private long debt;
+
+    /**
+     * @param shards power of two
+     */
+    ShardedCounter(int shards, long initial) {
+        if (Integer.bitCount(shards) != 1) {
+            throw new IllegalArgumentException("shards must be a power of two: " + shards);
+        }
+        this.cells = new AtomicLongArray(shards * STRIDE);
+        this.mask = shards - 1;
+        adjust(initial);
+    }
+
+    /**
+     * Takes {@code units} atomically as a whole or not at all.
+     */
+    boolean tryTake(int units) {
+        int home = homeShard();
+        if (takeUpTo(home, units, true) == units) {
+            return true;
+        }
+        long taken = 0;
+        for (int i = 0; i <= mask && taken < units; i++) {
+            taken += takeUpTo((home + i) & mask, units - taken, false);
+        }
+        if (taken == units) {
+            return true;
+        }
+        // Not enough in total; put back what was gathered.
+        cells.addAndGet(home * STRIDE, taken);
+        return false;
+    }
+
+    /**
+     * Adds (or, if negative, removes) units; removals beyond what is left become debt.
+     */
+    synchronized void adjust(long units) {
+        if (units >= 0) {
+            long repaid = Math.min(debt, units);
+            debt -= repaid;
+            if (units > repaid) {
+                cells.addAndGet(homeShard() * STRIDE, units - repaid);
+            }
+            return;
+        }
+        long remaining = -units;
+        for (int shard = 0; shard <= mask && remaining > 0; shard++) {
+            remaining -= takeUpTo(shard, remaining, false);
+        }
+        debt += remaining;
+    }
+
+    /**
+     * Units currently takeable, net of debt; a snapshot that may be stale under concurrent takes.
+     */
+    synchronized long available() {
+        long sum = 0;
+        for (int shard = 0; shard <= mask; shard++) {
+            sum += cells.get(shard * STRIDE);
+        }
+        return sum - debt;
+    }
+
+    /**
+     * CASes up to {@code wanted} units out of one shard.
+     *
+     * @param allOrNothing take nothing unless the whole amount is there
+     * @return units taken
+     */
+    private long takeUpTo(int shard, long wanted, boolean allOrNothing) {
+        int index = shard * STRIDE;
+        while (true) {
+            long current = cells.get(index);
+            if (current <= 0 || (allOrNothing && current < wanted)) {
+                return 0;
+            }
+            long take = Math.min(current, wanted);
+            if (cells.compareAndSet(index, current, current - take)) {
+                return take;
+            }
+        }
+    }
+
+    private int homeShard() {
+        long id = Thread.currentThread().getId();
+        int hash = (int) (id ^ (id >>> 32)) * 0x9E3779B9;
+        return (hash >>> 16) & mask;
+    }
+}
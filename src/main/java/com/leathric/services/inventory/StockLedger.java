@@ -0,0 +1,402 @@
+package com.leathric.services.inventory;
+
+import com.leathric.config.StockLedgerProperties;
+import com.leathric.dto.InventoryDtos;
+import com.leathric.entity.StockMovementReason;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Append-only record of every change to {@code products.stock_quantity}.
+ * <p>
+ * Each stock update writes a signed {@code stock_movements} row in the same transaction, so the ledger and the
+ * stock column commit or roll back together. Products that had stock before the ledger existed get an
+ * {@code IMPORT} opening balance taken under their row lock. A periodic job folds committed movements into
+ * per-product {@code stock_snapshots} and stamps them with its run, so a product's ledger total is its snapshot
+ * plus its unfolded movements, and reconciliation compares that total with the stock column across product id
+ * ranges in parallel.
+ */
+@Slf4j
+@Component
+public class StockLedger {
+
+    static final String SNAPSHOT_CHECKPOINT = "stock-snapshots";
+
+    private static final String INSERT_SQL =
+            "INSERT INTO stock_movements (product_id, order_id, quantity, reason, note, created_at) VALUES (?, ?, ?, ?, ?, ?)";
+    private static final String INSERT_ORDER_LINES_SQL =
+            "INSERT INTO stock_movements (product_id, order_id, quantity, reason, note, created_at) "
+                    + "SELECT product_id, order_id, SUM(quantity), ?, ?, ? FROM order_items WHERE order_id IN (%s) "
+                    + "GROUP BY order_id, product_id";
+
+    private static final String UNOPENED_SQL =
+            "SELECT p.id FROM products p WHERE p.id > ? "
+                    + "AND NOT EXISTS (SELECT 1 FROM stock_snapshots s WHERE s.product_id = p.id) "
+                    + "AND NOT EXISTS (SELECT 1 FROM stock_movements m WHERE m.product_id = p.id AND m.reason = 'IMPORT') "
+                    + "ORDER BY p.id LIMIT ?";
+    private static final String LOCK_STOCK_SQL =
+            "SELECT id, stock_quantity FROM products WHERE id IN (%s) ORDER BY id FOR UPDATE";
+    private static final String OPENED_SQL =
+            "SELECT DISTINCT product_id FROM stock_movements WHERE product_id IN (%s) AND reason = 'IMPORT'";
+    private static final String MOVEMENT_TOTALS_SQL =
+            "SELECT product_id, SUM(quantity) AS total FROM stock_movements WHERE product_id IN (%s) GROUP BY product_id";
+
+    private static final String LOCK_CHECKPOINT_SQL = "SELECT position FROM job_checkpoints WHERE name = ? FOR UPDATE";
+    private static final String INSERT_CHECKPOINT_SQL =
+            "INSERT INTO job_checkpoints (name, position, updated_at) VALUES (?, 0, ?)";
+    private static final String UPDATE_CHECKPOINT_SQL =
+            "UPDATE job_checkpoints SET position = ?, updated_at = ? WHERE name = ?";
+    private static final String MAX_MOVEMENT_SQL = "SELECT MAX(id) FROM stock_movements";
+    private static final String UNFOLDED_SQL =
+            "SELECT id FROM stock_movements WHERE fold_run IS NULL AND id <= ? ORDER BY id LIMIT ?";
+    private static final String FOLD_SQL = "UPDATE stock_movements SET fold_run = ? WHERE id IN (%s) AND fold_run IS NULL";
+    private static final String FOLDED_DELTAS_SQL =
+            "SELECT product_id, SUM(quantity) AS delta, MAX(id) AS last_id FROM stock_movements WHERE fold_run = ? "
+                    + "GROUP BY product_id ORDER BY product_id";
+    private static final String UPDATE_SNAPSHOT_SQL =
+            "UPDATE stock_snapshots SET quantity = quantity + ?, last_movement_id = GREATEST(last_movement_id, ?), "
+                    + "taken_at = ? WHERE product_id = ?";
+    private static final String INSERT_SNAPSHOT_SQL =
+            "INSERT INTO stock_snapshots (product_id, quantity, last_movement_id, taken_at) VALUES (?, ?, ?, ?)";
+
+    private static final String PRODUCT_ID_RANGE_SQL = "SELECT MIN(id) AS low, MAX(id) AS high FROM products";
+    private static final String LEDGER_SQL =
+            "SELECT p.id, p.stock_quantity, COALESCE(s.quantity, 0) AS snapshot_quantity, "
+                    + "COALESCE(s.last_movement_id, 0) AS snapshot_movement_id, "
+                    + "COALESCE(s.quantity, 0) + COALESCE((SELECT SUM(m.quantity) FROM stock_movements m "
+                    + "WHERE m.product_id = p.id AND m.fold_run IS NULL), 0) AS ledger_quantity "
+                    + "FROM products p LEFT JOIN stock_snapshots s ON s.product_id = p.id ";
+    private static final String RECONCILE_SQL = LEDGER_SQL
+            + "WHERE p.id BETWEEN ? AND ? AND (s.product_id IS NOT NULL "
+            + "OR EXISTS (SELECT 1 FROM stock_movements i WHERE i.product_id = p.id AND i.reason = 'IMPORT')) ORDER BY p.id";
+    private static final String PRODUCT_LEDGER_SQL = LEDGER_SQL + "WHERE p.id = ?";
+    private static final String RECENT_MOVEMENTS_SQL =
+            "SELECT id, order_id, quantity, reason, note, created_at FROM stock_movements WHERE product_id = ? "
+                    + "ORDER BY id DESC LIMIT ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final TransactionTemplate foldTemplate;
+    private final StockLedgerProperties properties;
+    private final AtomicBoolean running = new AtomicBoolean();
+    private volatile InventoryDtos.ReconciliationReport lastReport;
+
+    public StockLedger(DataSource dataSource, PlatformTransactionManager transactionManager,
+                       StockLedgerProperties properties) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        // Read committed: stamping takes row locks on the listed ids only, never gap locks checkouts would queue on.
+        this.foldTemplate = new TransactionTemplate(transactionManager);
+        this.foldTemplate.setIsolationLevel(TransactionDefinition.ISOLATION_READ_COMMITTED);
+        this.properties = properties;
+    }
+
+    /**
+     * Records signed stock changes made by the surrounding transaction, one movement per product.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void record(StockMovementReason reason, Long orderId, Map<Long, Integer> deltasByProductId, String note) {
+        if (!properties.isEnabled() || deltasByProductId.isEmpty()) {
+            return;
+        }
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<Object[]> rows = new ArrayList<>(deltasByProductId.size());
+        new TreeMap<>(deltasByProductId).forEach((productId, delta) -> {
+            if (delta != 0) {
+                rows.add(new Object[]{productId, orderId, delta, reason.name(), note, now});
+            }
+        });
+        jdbcTemplate.batchUpdate(INSERT_SQL, rows);
+    }
+
+    /**
+     * Records the lines of {@code orderIds} going back into stock, one movement per order and product, straight
+     * from {@code order_items}.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordReturnedLines(StockMovementReason reason, Collection<Long> orderIds, String note) {
+        if (!properties.isEnabled() || orderIds.isEmpty()) {
+            return;
+        }
+        List<Object> args = new ArrayList<>(orderIds.size() + 3);
+        args.add(reason.name());
+        args.add(note);
+        args.add(Timestamp.valueOf(LocalDateTime.now()));
+        args.addAll(orderIds);
+        jdbcTemplate.update(String.format(INSERT_ORDER_LINES_SQL, placeholders(orderIds.size())), args.toArray());
+    }
+
+    @Scheduled(cron = "${app.inventory.ledger.cron:0 15 * * * *}")
+    public void scheduledMaintenance() {
+        if (!properties.isEnabled() || !running.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            openBalances();
+            snapshot();
+            runReconciliation();
+        } catch (RuntimeException e) {
+            log.error("Stock ledger maintenance failed", e);
+        } finally {
+            running.set(false);
+        }
+    }
+
+    /**
+     * Takes opening balances, refreshes snapshots and compares every opened product's ledger total with its stock.
+     *
+     * @return the report, or {@code null} if ledger maintenance was already running on this node
+     */
+    public InventoryDtos.ReconciliationReport reconcile() {
+        if (!running.compareAndSet(false, true)) {
+            log.info("Stock ledger maintenance already in progress, skipping");
+            return null;
+        }
+        try {
+            openBalances();
+            snapshot();
+            return runReconciliation();
+        } finally {
+            running.set(false);
+        }
+    }
+
+    public InventoryDtos.ReconciliationReport lastReport() {
+        return lastReport;
+    }
+
+    /**
+     * Current stock, ledger total and most recent movements of one product; empty if the product does not exist.
+     */
+    public Optional<InventoryDtos.ProductLedger> productLedger(Long productId, int recentMovements) {
+        List<InventoryDtos.StockMovementItem> movements = jdbcTemplate.query(RECENT_MOVEMENTS_SQL, (rs, row) ->
+                InventoryDtos.StockMovementItem.builder()
+                        .movementId(rs.getLong("id"))
+                        .orderId(rs.getObject("order_id", Long.class))
+                        .quantity(rs.getInt("quantity"))
+                        .reason(StockMovementReason.valueOf(rs.getString("reason")))
+                        .note(rs.getString("note"))
+                        .createdAt(rs.getTimestamp("created_at").toLocalDateTime())
+                        .build(), productId, recentMovements);
+        return jdbcTemplate.query(PRODUCT_LEDGER_SQL, (rs, row) -> InventoryDtos.ProductLedger.builder()
+                .productId(rs.getLong("id"))
+                .stockQuantity(rs.getInt("stock_quantity"))
+                .ledgerQuantity(rs.getLong("ledger_quantity"))
+                .snapshotQuantity(rs.getLong("snapshot_quantity"))
+                .snapshotMovementId(rs.getLong("snapshot_movement_id"))
+                .recentMovements(movements)
+                .build(), productId).stream().findFirst();
+    }
+
+    /**
+     * Gives every product without ledger history an {@code IMPORT} movement equal to its current stock minus any
+     * movements it already has, in batches that each hold the products' row locks while reading their stock.
+     *
+     * @return products opened
+     */
+    int openBalances() {
+        int batchSize = properties.getReconcileBatchSize();
+        long after = 0;
+        int opened = 0;
+        while (true) {
+            List<Long> productIds = jdbcTemplate.queryForList(UNOPENED_SQL, Long.class, after, batchSize);
+            if (productIds.isEmpty()) {
+                break;
+            }
+            opened += transactionTemplate.execute(status -> openBatch(productIds));
+            after = productIds.get(productIds.size() - 1);
+            if (productIds.size() < batchSize) {
+                break;
+            }
+        }
+        if (opened > 0) {
+            log.info("Recorded opening stock balances for {} products", opened);
+        }
+        return opened;
+    }
+
+    private int openBatch(List<Long> productIds) {
+        String in = placeholders(productIds.size());
+        Object[] args = productIds.toArray();
+        Map<Long, Integer> stock = new TreeMap<>();
+        jdbcTemplate.query(String.format(LOCK_STOCK_SQL, in), rs -> {
+            stock.put(rs.getLong("id"), rs.getInt("stock_quantity"));
+        }, args);
+        // Rechecked under the lock: a product created meanwhile committed its own IMPORT with its first stock.
+        jdbcTemplate.queryForList(String.format(OPENED_SQL, in), Long.class, args).forEach(stock::remove);
+        if (stock.isEmpty()) {
+            return 0;
+        }
+        Map<Long, Long> moved = new HashMap<>();
+        jdbcTemplate.query(String.format(MOVEMENT_TOTALS_SQL, placeholders(stock.size())), rs -> {
+            moved.put(rs.getLong("product_id"), rs.getLong("total"));
+        }, stock.keySet().toArray());
+
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<Object[]> rows = new ArrayList<>(stock.size());
+        stock.forEach((productId, quantity) -> rows.add(new Object[]{productId, null,
+                quantity - moved.getOrDefault(productId, 0L), StockMovementReason.IMPORT.name(), "Opening balance", now}));
+        jdbcTemplate.batchUpdate(INSERT_SQL, rows);
+        return rows.size();
+    }
+
+    /**
+     * Folds every committed, unfolded movement into the snapshots. Identity values are handed out before commit,
+     * so ids say nothing about which movements are visible yet; instead each run lists unfolded movements it can
+     * already see, stamps exactly those by id with its run number and sums them, and a movement that commits
+     * later, whatever its id, stays in the ledger tail until a later run. Runs are bounded batches committed one
+     * by one, each holding the checkpoint row (the last run) so two nodes never fold concurrently, and never wait
+     * on an in-flight checkout's movement or block the next one.
+     *
+     * @return snapshot rows written, summed over the batches
+     */
+    int snapshot() {
+        Long upTo = jdbcTemplate.queryForObject(MAX_MOVEMENT_SQL, Long.class);
+        if (upTo == null) {
+            return 0;
+        }
+        int changed = 0;
+        while (true) {
+            int[] batch = foldTemplate.execute(status -> foldBatch(upTo));
+            changed += batch[1];
+            if (batch[0] < properties.getFoldBatchSize()) {
+                return changed;
+            }
+        }
+    }
+
+    // Returns movements stamped and snapshot rows written.
+    private int[] foldBatch(long upTo) {
+        Timestamp takenAt = Timestamp.valueOf(LocalDateTime.now());
+        List<Long> positions = jdbcTemplate.queryForList(LOCK_CHECKPOINT_SQL, Long.class, SNAPSHOT_CHECKPOINT);
+        if (positions.isEmpty()) {
+            jdbcTemplate.update(INSERT_CHECKPOINT_SQL, SNAPSHOT_CHECKPOINT, takenAt);
+        }
+        long run = (positions.isEmpty() ? 0 : positions.get(0)) + 1;
+        List<Long> movementIds = jdbcTemplate.queryForList(UNFOLDED_SQL, Long.class, upTo, properties.getFoldBatchSize());
+        if (movementIds.isEmpty()) {
+            return new int[]{0, 0};
+        }
+        List<Object> args = new ArrayList<>(movementIds.size() + 1);
+        args.add(run);
+        args.addAll(movementIds);
+        jdbcTemplate.update(String.format(FOLD_SQL, placeholders(movementIds.size())), args.toArray());
+
+        List<Object[]> updates = new ArrayList<>();
+        jdbcTemplate.query(FOLDED_DELTAS_SQL, rs -> {
+            updates.add(new Object[]{rs.getLong("delta"), rs.getLong("last_id"), takenAt, rs.getLong("product_id")});
+        }, run);
+        int[] updated = jdbcTemplate.batchUpdate(UPDATE_SNAPSHOT_SQL, updates);
+        List<Object[]> inserts = new ArrayList<>();
+        for (int i = 0; i < updated.length; i++) {
+            if (updated[i] == 0) {
+                Object[] update = updates.get(i);
+                inserts.add(new Object[]{update[3], update[0], update[1], takenAt});
+            }
+        }
+        jdbcTemplate.batchUpdate(INSERT_SNAPSHOT_SQL, inserts);
+
+        jdbcTemplate.update(UPDATE_CHECKPOINT_SQL, run, takenAt, SNAPSHOT_CHECKPOINT);
+        return new int[]{movementIds.size(), updates.size()};
+    }
+
+    private InventoryDtos.ReconciliationReport runReconciliation() {
+        LocalDateTime startedAt = LocalDateTime.now();
+        long started = System.currentTimeMillis();
+        long[] bounds = jdbcTemplate.queryForObject(PRODUCT_ID_RANGE_SQL,
+                (rs, row) -> new long[]{rs.getLong("low"), rs.getLong("high")});
+        List<InventoryDtos.StockDrift> drifts = new ArrayList<>();
+        long checked = 0;
+        if (bounds != null && bounds[1] > 0) {
+            ExecutorService pool = Executors.newFixedThreadPool(properties.getReconcileParallelism());
+            try {
+                List<Future<RangeResult>> ranges = new ArrayList<>();
+                for (long low = bounds[0]; low <= bounds[1]; low += properties.getReconcileBatchSize()) {
+                    long from = low;
+                    long to = Math.min(low + properties.getReconcileBatchSize() - 1, bounds[1]);
+                    ranges.add(pool.submit(() -> reconcileRange(from, to)));
+                }
+                for (Future<RangeResult> range : ranges) {
+                    RangeResult result = range.get();
+                    checked += result.checked;
+                    drifts.addAll(result.drifts);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Stock reconciliation interrupted", e);
+            } catch (ExecutionException e) {
+                throw new IllegalStateException("Stock reconciliation failed", e.getCause());
+            } finally {
+                pool.shutdownNow();
+            }
+        }
+        if (!drifts.isEmpty()) {
+            log.warn("Stock ledger drift on {} of {} products: {}", drifts.size(), checked,
+                    drifts.stream().limit(properties.getMaxReportedDrifts())
+                            .map(drift -> drift.getProductId() + "=" + drift.getDrift()).toList());
+        }
+        InventoryDtos.ReconciliationReport report = InventoryDtos.ReconciliationReport.builder()
+                .startedAt(startedAt)
+                .elapsedMs(System.currentTimeMillis() - started)
+                .productsChecked(checked)
+                .productsDrifted(drifts.size())
+                .drifts(drifts.stream().limit(properties.getMaxReportedDrifts()).toList())
+                .build();
+        lastReport = report;
+        log.info("Reconciled stock ledger for {} products in {} ms, {} drifted",
+                checked, report.getElapsedMs(), drifts.size());
+        return report;
+    }
+
+    // One statement per range, so stock and ledger are read from the same consistent view.
+    private RangeResult reconcileRange(long from, long to) {
+        RangeResult result = new RangeResult();
+        jdbcTemplate.query(RECONCILE_SQL, rs -> {
+            result.checked++;
+            int stock = rs.getInt("stock_quantity");
+            long ledger = rs.getLong("ledger_quantity");
+            if (stock != ledger) {
+                result.drifts.add(InventoryDtos.StockDrift.builder()
+                        .productId(rs.getLong("id"))
+                        .stockQuantity(stock)
+                        .ledgerQuantity(ledger)
+                        .drift(stock - ledger)
+                        .build());
+            }
+        }, from, to);
+        return result;
+    }
+
+    private static String placeholders(int count) {
+        return String.join(",", Collections.nCopies(count, "?"));
+    }
+
+    private static final class RangeResult {
+        private long checked;
+        private final List<InventoryDtos.StockDrift> drifts = new ArrayList<>();
+    }
+}
@@ -0,0 +1,234 @@
+package com.leathric.services.orders;
+
+import com.leathric.config.OrderEventStreamProperties;
+import com.leathric.dto.OrderDtos;
+import com.leathric.entity.OrderStatus;
+import com.leathric.entity.PaymentStatus;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * In-process registry of order tracking streams.
+ * <p>
+ * Streams are async servlet responses, so an open connection holds no thread. Events go into a bounded
+ * per-connection buffer and a small shared executor writes them out; a client that falls a full buffer
+ * behind is disconnected and picks up a fresh snapshot when it reconnects. Local status changes are pushed
+ * when their transaction commits. The heartbeat tick also reads the current status of every subscribed
+ * order in one query, which picks up changes committed on other instances.
+ */
+@Slf4j
+@Component
+public class OrderEventStream {
+
+    private static final int STATUS_CHUNK_SIZE = 500;
+    private static final String STATUS_SQL = "SELECT id, status, payment_status FROM orders WHERE id IN (%s)";
+
+    private final OrderEventStreamProperties properties;
+    private final ThreadPoolTaskExecutor orderEventStreamExecutor;
+    private final JdbcTemplate jdbcTemplate;
+
+    private final Map<Long, Topic> topics = new ConcurrentHashMap<>();
+    private final AtomicInteger subscriptions = new AtomicInteger();
+
+    public OrderEventStream(OrderEventStreamProperties properties, ThreadPoolTaskExecutor orderEventStreamExecutor,
+                            DataSource dataSource) {
+        this.properties = properties;
+        this.orderEventStreamExecutor = orderEventStreamExecutor;
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+    }
+
+    public boolean isEnabled() {
+        return properties.isEnabled();
+    }
+
+    /**
+     * Opens a stream for an order the caller may see, starting with its current tracking state.
+     */
+    public SseEmitter subscribe(OrderDtos.OrderTrackingResponse snapshot) {
+        if (subscriptions.incrementAndGet() > properties.getMaxSubscriptions()) {
+            subscriptions.decrementAndGet();
+            throw new TaskRejectedException("Too many open order event streams");
+        }
+        Long orderId = snapshot.getOrderId();
+        Subscription subscription = new Subscription(orderId, new SseEmitter(properties.getTimeout().toMillis()));
+        SseEmitter emitter = subscription.emitter;
+        emitter.onCompletion(() -> remove(subscription));
+        emitter.onTimeout(() -> remove(subscription));
+        emitter.onError(error -> remove(subscription));
+
+        topics.compute(orderId, (id, topic) -> {
+            Topic target = topic != null ? topic : new Topic(snapshot.getCurrentStatus(), snapshot.getPaymentStatus());
+            target.subscriptions.add(subscription);
+            return target;
+        });
+        offer(subscription, SseEmitter.event().name("tracking").data(snapshot));
+        return emitter;
+    }
+
+    /**
+     * Pushes status changes to their subscribers once the surrounding transaction commits.
+     */
+    public void publishAfterCommit(Collection<OrderDtos.OrderStatusEvent> events) {
+        if (!properties.isEnabled() || events.stream().noneMatch(event -> topics.containsKey(event.getOrderId()))) {
+            return;
+        }
+        List<OrderDtos.OrderStatusEvent> committed = List.copyOf(events);
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            committed.forEach(this::publish);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                committed.forEach(OrderEventStream.this::publish);
+            }
+        });
+    }
+
+    @Scheduled(fixedDelayString = "${app.orders.event-stream.heartbeat-interval-ms:15000}",
+            initialDelayString = "${app.orders.event-stream.heartbeat-interval-ms:15000}")
+    public void heartbeat() {
+        if (topics.isEmpty()) {
+            return;
+        }
+        try {
+            publishRemoteChanges();
+        } catch (RuntimeException e) {
+            log.warn("Could not check subscribed orders for changes", e);
+        }
+        topics.values().forEach(topic -> topic.subscriptions.forEach(subscription ->
+                offer(subscription, SseEmitter.event().comment("heartbeat"))));
+    }
+
+    public int openSubscriptions() {
+        return subscriptions.get();
+    }
+
+    private void publish(OrderDtos.OrderStatusEvent event) {
+        Topic topic = topics.get(event.getOrderId());
+        if (topic == null) {
+            return;
+        }
+        topic.status = event.getStatus();
+        topic.paymentStatus = event.getPaymentStatus();
+        topic.subscriptions.forEach(subscription -> offer(subscription, SseEmitter.event().name("status").data(event)));
+    }
+
+    private void publishRemoteChanges() {
+        List<Long> orderIds = new ArrayList<>(topics.keySet());
+        for (int from = 0; from < orderIds.size(); from += STATUS_CHUNK_SIZE) {
+            List<Long> chunk = orderIds.subList(from, Math.min(from + STATUS_CHUNK_SIZE, orderIds.size()));
+            String sql = String.format(STATUS_SQL, String.join(",", Collections.nCopies(chunk.size(), "?")));
+            jdbcTemplate.query(sql, rs -> {
+                long orderId = rs.getLong("id");
+                OrderStatus status = OrderStatus.valueOf(rs.getString("status"));
+                PaymentStatus paymentStatus = PaymentStatus.valueOf(rs.getString("payment_status"));
+                Topic topic = topics.get(orderId);
+                if (topic != null && (topic.status != status || topic.paymentStatus != paymentStatus)) {
+                    publish(new OrderDtos.OrderStatusEvent(orderId, status, paymentStatus, null, LocalDateTime.now()));
+                }
+            }, chunk.toArray());
+        }
+    }
+
+    private void offer(Subscription subscription, SseEmitter.SseEventBuilder event) {
+        if (subscription.closed.get()) {
+            return;
+        }
+        if (!subscription.buffer.offer(event)) {
+            log.debug("Closing order {} event stream: client is {} events behind", subscription.orderId, properties.getBufferSize());
+            close(subscription);
+            return;
+        }
+        drain(subscription);
+    }
+
+    private void drain(Subscription subscription) {
+        if (!subscription.draining.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            orderEventStreamExecutor.execute(() -> {
+                try {
+                    SseEmitter.SseEventBuilder event;
+                    while (!subscription.closed.get() && (event = subscription.buffer.poll()) != null) {
+                        subscription.emitter.send(event);
+                    }
+                } catch (IOException | IllegalStateException e) {
+                    close(subscription);
+                } finally {
+                    subscription.draining.set(false);
+                }
+                if (!subscription.buffer.isEmpty()) {
+                    drain(subscription);
+                }
+            });
+        } catch (TaskRejectedException e) {
+            subscription.draining.set(false);
+            close(subscription);
+        }
+    }
+
+    private void close(Subscription subscription) {
+        remove(subscription);
+        subscription.emitter.complete();
+    }
+
+    private void remove(Subscription subscription) {
+        if (!subscription.closed.compareAndSet(false, true)) {
+            return;
+        }
+        subscription.buffer.clear();
+        subscriptions.decrementAndGet();
+        topics.computeIfPresent(subscription.orderId, (id, topic) -> {
+            topic.subscriptions.remove(subscription);
+            return topic.subscriptions.isEmpty() ? null : topic;
+        });
+    }
+
+    private static final class Topic {
+        private final Set<Subscription> subscriptions = ConcurrentHashMap.newKeySet();
+        private volatile OrderStatus status;
+        private volatile PaymentStatus paymentStatus;
+
+        private Topic(OrderStatus status, PaymentStatus paymentStatus) {
+            this.status = status;
+            this.paymentStatus = paymentStatus;
+        }
+    }
+
+    private final class Subscription {
+        private final Long orderId;
+        private final SseEmitter emitter;
+        private final ArrayBlockingQueue<SseEmitter.SseEventBuilder> buffer;
+        private final AtomicBoolean draining = new AtomicBoolean();
+        private final AtomicBoolean closed = new AtomicBoolean();
+
+        private Subscription(Long orderId, SseEmitter emitter) {
+            this.orderId = orderId;
+            this.emitter = emitter;
+            this.buffer = new ArrayBlockingQueue<>(properties.getBufferSize());
+        }
+    }
+}
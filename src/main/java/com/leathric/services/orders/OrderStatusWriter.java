@@ -0,0 +1,104 @@
+package com.leathric.services.orders;
+
+import com.leathric.dto.OrderDtos;
+import com.leathric.entity.OrderStatus;
+import com.leathric.entity.StockMovementReason;
+import com.leathric.repository.OrderRepository;
+import com.leathric.repository.OrderStatusBulkRepository.OrderStatusRow;
+import com.leathric.repository.ProductRepository;
+import com.leathric.service.CatalogSyncService;
+import com.leathric.services.inventory.InventoryReservationEngine;
+import com.leathric.services.inventory.StockLedger;
+import com.leathric.services.outbox.OrderEventOutbox;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Side effects shared by every order status change that bypasses entities: the status UPDATE and history
+ * rows, the order read model, stock given back by cancellations and refunds, outbox events, tracking cache
+ * invalidation, pushes to open tracking streams and catalog changes for products back in stock.
+ */
+@Component
+@RequiredArgsConstructor
+public class OrderStatusWriter {
+
+    private final OrderRepository orderRepository;
+    private final ProductRepository productRepository;
+    private final InventoryReservationEngine reservationEngine;
+    private final OrderEventOutbox orderEventOutbox;
+    private final OrderTrackingCache orderTrackingCache;
+    private final OrderEventStream orderEventStream;
+    private final OrderViewStore orderViewStore;
+    private final StockLedger stockLedger;
+    private final CatalogSyncService catalogSyncService;
+
+    /**
+     * Cancelled and refunded orders give their units back.
+     */
+    public static boolean restoresStock(OrderStatus status) {
+        return status == OrderStatus.CANCELLED || status == OrderStatus.REFUNDED;
+    }
+
+    /**
+     * Moves orders the caller has locked and validated to {@code newStatus} with set-based statements.
+     *
+     * @return units given back to stock
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public int applyBulk(List<OrderStatusRow> rows, OrderStatus newStatus, String note) {
+        if (rows.isEmpty()) {
+            return 0;
+        }
+        List<Long> orderIds = rows.stream().map(OrderStatusRow::id).toList();
+        LocalDateTime now = LocalDateTime.now();
+        orderRepository.applyStatusChange(orderIds, newStatus, note, now);
+        orderViewStore.applyStatusChange(orderIds, newStatus, null, note, now);
+        int restored = 0;
+        if (restoresStock(newStatus)) {
+            restored = giveBack(orderRepository.sumItemQuantitiesByProduct(orderIds));
+            stockLedger.recordReturnedLines(StockMovementReason.restoredBy(newStatus), orderIds, note);
+        }
+        orderEventOutbox.recordAll(newStatus == OrderStatus.CANCELLED ? OrderEventOutbox.ORDER_CANCELLED
+                        : OrderEventOutbox.ORDER_STATUS_CHANGED,
+                rows.stream().map(row -> new OrderEventOutbox.Payload(row.id(), row.orderNumber(), row.userId(),
+                        newStatus, row.paymentStatus(), row.totalAmount(), note)).toList());
+        orderTrackingCache.invalidateAfterCommit(orderIds);
+        orderEventStream.publishAfterCommit(rows.stream().map(row -> new OrderDtos.OrderStatusEvent(row.id(), newStatus,
+                row.paymentStatus(), note, now)).toList());
+        return restored;
+    }
+
+    /**
+     * Adds units back with additive updates in product id order instead of writing entity state, so the
+     * statement count does not grow with the order and concurrent checkouts are not overwritten. The units are
+     * recorded in the stock ledger against the order.
+     *
+     * @return units given back
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public int restoreStock(Long orderId, OrderStatus newStatus, Map<Long, Integer> quantities) {
+        int restored = giveBack(quantities);
+        stockLedger.record(StockMovementReason.restoredBy(newStatus), orderId, quantities, null);
+        return restored;
+    }
+
+    private int giveBack(Map<Long, Integer> quantities) {
+        productRepository.incrementStock(quantities);
+        if (reservationEngine.isEnabled()) {
+            reservationEngine.recordStockChange(quantities);
+        }
+        // Stock equal to what was just added was zero before: the product is back in stock.
+        productRepository.findStockQuantities(quantities.keySet()).forEach((productId, stock) -> {
+            if (stock.equals(quantities.get(productId))) {
+                catalogSyncService.recordProductUpsert(productId);
+            }
+        });
+        return quantities.values().stream().mapToInt(Integer::intValue).sum();
+    }
+}
@@ -0,0 +1,110 @@
+package com.leathric.services.orders;
+
+import com.leathric.config.OrderTrackingProperties;
+import com.leathric.dto.OrderDtos;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Short-lived cache of tracking responses keyed by order id, together with the owner's email for the
+ * access check.
+ * <p>
+ * Status changes invalidate their orders once the transaction commits. A load that overlaps any
+ * invalidation is returned but not cached, so a read that started before a commit can never put the old
+ * timeline back. Entries expire after the TTL, which bounds staleness for changes made by other instances.
+ */
+@Component
+@RequiredArgsConstructor
+public class OrderTrackingCache {
+
+    private final OrderTrackingProperties properties;
+
+    private final Map<Long, Entry> entries = new ConcurrentHashMap<>();
+    private final AtomicLong invalidations = new AtomicLong();
+
+    public Entry get(Long orderId, Supplier<Entry> loader) {
+        if (!properties.isEnabled()) {
+            return loader.get();
+        }
+        long now = System.nanoTime();
+        Entry cached = entries.get(orderId);
+        if (cached != null && cached.expiresAt - now > 0) {
+            return cached;
+        }
+        long stamp = invalidations.get();
+        Entry loaded = loader.get();
+        if (invalidations.get() == stamp && hasRoom(now)) {
+            entries.put(orderId, loaded.expiringAt(now + properties.getTtl().toNanos()));
+        }
+        return loaded;
+    }
+
+    /**
+     * Drops the orders now and again once the surrounding transaction completes.
+     */
+    public void invalidateAfterCommit(Collection<Long> orderIds) {
+        if (!properties.isEnabled() || orderIds.isEmpty()) {
+            return;
+        }
+        invalidate(orderIds);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            List<Long> ids = List.copyOf(orderIds);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    invalidate(ids);
+                }
+            });
+        }
+    }
+
+    private void invalidate(Collection<Long> orderIds) {
+        invalidations.incrementAndGet();
+        orderIds.forEach(entries::remove);
+    }
+
+    private boolean hasRoom(long now) {
+        if (entries.size() < properties.getMaxEntries()) {
+            return true;
+        }
+        entries.values().removeIf(entry -> entry.expiresAt - now <= 0);
+        return entries.size() < properties.getMaxEntries();
+    }
+
+    public static final class Entry {
+        private final String ownerEmail;
+        private final OrderDtos.OrderTrackingResponse response;
+        private final long expiresAt;
+
+        public Entry(String ownerEmail, OrderDtos.OrderTrackingResponse response) {
+            this(ownerEmail, response, 0);
+        }
+
+        private Entry(String ownerEmail, OrderDtos.OrderTrackingResponse response, long expiresAt) {
+            this.ownerEmail = ownerEmail;
+            this.response = response;
+            this.expiresAt = expiresAt;
+        }
+
+        public String getOwnerEmail() {
+            return ownerEmail;
+        }
+
+        public OrderDtos.OrderTrackingResponse getResponse() {
+            return response;
+        }
+
+        private Entry expiringAt(long expiresAt) {
+            return new Entry(ownerEmail, response, expiresAt);
+        }
+    }
+}
@@ -0,0 +1,359 @@
+package com.leathric.services.orders;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.leathric.config.OrderViewProperties;
+import com.leathric.dto.OrderDtos;
+import com.leathric.entity.JobCheckpoint;
+import com.leathric.entity.OrderStatus;
+import com.leathric.entity.OrderView;
+import com.leathric.entity.PaymentStatus;
+import com.leathric.exception.BadRequestException;
+import com.leathric.repository.JobCheckpointRepository;
+import com.leathric.repository.OrderViewRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Maintains {@code order_views}, one row per order with everything order reads render, so a detail or
+ * tracking read is one primary-key lookup and a history page is one {@code user_id} index range.
+ * <p>
+ * Placement inserts the row and status changes rewrite its status columns and timeline, always inside the
+ * transaction that changes the order, so the view commits or rolls back with it. {@link #rebuild(boolean)}
+ * regenerates rows from the order tables in checkpointed batches, locking each batch of orders so it cannot
+ * interleave with a status change.
+ */
+@Slf4j
+@Component
+public class OrderViewStore {
+
+    static final String CHECKPOINT = "order-views-rebuild";
+
+    private static final TypeReference<List<OrderDtos.OrderItemResponse>> ITEMS = new TypeReference<>() {
+    };
+    private static final TypeReference<List<OrderDtos.StatusHistoryItem>> TIMELINE = new TypeReference<>() {
+    };
+
+    /** Order properties a history page may sort by, mapped to the view column holding the same value. */
+    private static final Map<String, String> SORT_PROPERTIES = Map.of(
+            "id", "orderId",
+            "orderNumber", "orderNumber",
+            "status", "status",
+            "paymentStatus", "paymentStatus",
+            "totalAmount", "totalAmount",
+            "note", "note",
+            "createdAt", "createdAt",
+            "updatedAt", "updatedAt");
+
+    private static final String INSERT_SQL =
+            "INSERT INTO order_views (order_id, user_id, owner_email, order_number, status, payment_status, "
+                    + "total_amount, note, item_count, created_at, updated_at, items, timeline) "
+                    + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+    private static final String TIMELINES_SQL = "SELECT order_id, timeline FROM order_views WHERE order_id IN (%s)";
+    private static final String STATUS_SQL =
+            "UPDATE order_views SET status = ?, payment_status = COALESCE(?, payment_status), updated_at = ?, timeline = ? "
+                    + "WHERE order_id = ?";
+    private static final String DELETE_SQL = "DELETE FROM order_views WHERE order_id IN (%s)";
+    private static final String REBUILD_ORDERS_SQL =
+            "SELECT id, user_id, order_number, status, payment_status, total_amount, note, created_at, updated_at "
+                    + "FROM orders WHERE id > ? ORDER BY id LIMIT ? FOR UPDATE";
+    private static final String USERS_SQL = "SELECT id, email FROM users WHERE id IN (%s)";
+    private static final String ITEMS_SQL =
+            "SELECT i.order_id, i.product_id, p.name, i.quantity, i.price FROM order_items i "
+                    + "JOIN products p ON p.id = i.product_id WHERE i.order_id IN (%s) ORDER BY i.order_id, i.id";
+    private static final String HISTORY_SQL =
+            "SELECT order_id, status, timestamp, note FROM order_status_history WHERE order_id IN (%s) "
+                    + "ORDER BY order_id, timestamp, id";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final OrderViewRepository orderViewRepository;
+    private final JobCheckpointRepository checkpointRepository;
+    private final ObjectMapper objectMapper;
+    private final OrderViewProperties properties;
+    private final AtomicBoolean rebuilding = new AtomicBoolean();
+
+    public OrderViewStore(DataSource dataSource, PlatformTransactionManager transactionManager,
+                          OrderViewRepository orderViewRepository, JobCheckpointRepository checkpointRepository,
+                          ObjectMapper objectMapper, OrderViewProperties properties) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.orderViewRepository = orderViewRepository;
+        this.checkpointRepository = checkpointRepository;
+        this.objectMapper = objectMapper;
+        this.properties = properties;
+    }
+
+    public boolean servesReads() {
+        return properties.isServeReads();
+    }
+
+    // ==================== Writes ====================
+
+    /**
+     * Adds the view of a newly placed order.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void record(Long userId, String ownerEmail, OrderDtos.OrderResponse order, List<OrderDtos.StatusHistoryItem> timeline) {
+        jdbcTemplate.update(INSERT_SQL, insertArgs(userId, ownerEmail, order, timeline));
+    }
+
+    /**
+     * Applies a status change to the views of orders the caller has locked. Orders without a view yet are
+     * left to the next rebuild.
+     *
+     * @param paymentStatus new payment status, or {@code null} to keep each order's current one
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void applyStatusChange(Collection<Long> orderIds, OrderStatus status, PaymentStatus paymentStatus,
+                                  String note, LocalDateTime at) {
+        if (orderIds.isEmpty()) {
+            return;
+        }
+        Map<Long, String> timelines = new HashMap<>();
+        jdbcTemplate.query(String.format(TIMELINES_SQL, placeholders(orderIds.size())),
+                rs -> {
+                    timelines.put(rs.getLong("order_id"), rs.getString("timeline"));
+                }, orderIds.toArray());
+
+        OrderDtos.StatusHistoryItem change = new OrderDtos.StatusHistoryItem(status, at, note);
+        List<Object[]> updates = new ArrayList<>(timelines.size());
+        timelines.forEach((orderId, json) -> {
+            List<OrderDtos.StatusHistoryItem> timeline = new ArrayList<>(read(json, TIMELINE));
+            timeline.add(change);
+            updates.add(new Object[]{status.name(), paymentStatus != null ? paymentStatus.name() : null,
+                    Timestamp.valueOf(at), write(timeline), orderId});
+        });
+        jdbcTemplate.batchUpdate(STATUS_SQL, updates);
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void delete(Collection<Long> orderIds) {
+        if (!orderIds.isEmpty()) {
+            jdbcTemplate.update(String.format(DELETE_SQL, placeholders(orderIds.size())), orderIds.toArray());
+        }
+    }
+
+    // ==================== Reads ====================
+
+    public Optional<OrderView> find(Long orderId) {
+        return orderViewRepository.findById(orderId);
+    }
+
+    public Page<OrderDtos.OrderResponse> findByUser(Long userId, Pageable pageable, boolean includeItems) {
+        Pageable viewPageable = pageable.isPaged()
+                ? PageRequest.of(pageable.getPageNumber(), pageable.getPageSize(), toViewSort(pageable.getSort()))
+                : pageable;
+        Page<OrderView> views = orderViewRepository.findByUserId(userId, viewPageable);
+        return new PageImpl<>(views.getContent().stream().map(view -> toOrderResponse(view, includeItems)).toList(),
+                pageable, views.getTotalElements());
+    }
+
+    /**
+     * Translates a sort over {@code Order} properties into the same sort over {@code OrderView}, so history
+     * pages accept one set of sorts whichever side serves them.
+     *
+     * @throws BadRequestException if a property is not one a history page can be sorted by
+     */
+    public static Sort toViewSort(Sort sort) {
+        List<Sort.Order> orders = new ArrayList<>();
+        for (Sort.Order order : sort) {
+            String property = SORT_PROPERTIES.get(order.getProperty());
+            if (property == null) {
+                throw new BadRequestException("Unsupported sort property: " + order.getProperty());
+            }
+            orders.add(order.withProperty(property));
+        }
+        return Sort.by(orders);
+    }
+
+    public List<OrderDtos.OrderResponse> findByUserBefore(Long userId, Long before, int limit, boolean includeItems) {
+        return orderViewRepository.findByUserIdAndOrderIdLessThanOrderByOrderIdDesc(userId, before, Limit.of(limit))
+                .stream().map(view -> toOrderResponse(view, includeItems)).toList();
+    }
+
+    public OrderDtos.OrderResponse toOrderResponse(OrderView view, boolean includeItems) {
+        return OrderDtos.OrderResponse.builder()
+                .orderId(view.getOrderId())
+                .orderNumber(view.getOrderNumber())
+                .status(view.getStatus())
+                .paymentStatus(view.getPaymentStatus())
+                .totalAmount(view.getTotalAmount())
+                .note(view.getNote())
+                .createdAt(view.getCreatedAt())
+                .updatedAt(view.getUpdatedAt())
+                .items(includeItems ? read(view.getItems(), ITEMS) : null)
+                .build();
+    }
+
+    public OrderDtos.OrderTrackingResponse toTrackingResponse(OrderView view) {
+        return OrderDtos.OrderTrackingResponse.builder()
+                .orderId(view.getOrderId())
+                .orderNumber(view.getOrderNumber())
+                .currentStatus(view.getStatus())
+                .paymentStatus(view.getPaymentStatus())
+                .totalAmount(view.getTotalAmount())
+                .createdAt(view.getCreatedAt())
+                .timeline(read(view.getTimeline(), TIMELINE))
+                .build();
+    }
+
+    // ==================== Rebuild ====================
+
+    /**
+     * Regenerates every order's view in id order, resuming after the last committed batch of an interrupted run.
+     *
+     * @param reset start again from the first order instead of the checkpoint
+     * @return orders rebuilt, or {@code -1} if a rebuild was already running on this node
+     */
+    public long rebuild(boolean reset) {
+        if (!rebuilding.compareAndSet(false, true)) {
+            log.info("Order view rebuild already in progress, skipping");
+            return -1;
+        }
+        long started = System.currentTimeMillis();
+        try {
+            if (reset) {
+                transactionTemplate.executeWithoutResult(status -> saveCheckpoint(0));
+            }
+            long rebuilt = 0;
+            int batch;
+            do {
+                batch = transactionTemplate.execute(status -> rebuildBatch());
+                rebuilt += batch;
+            } while (batch == properties.getRebuildBatchSize());
+            log.info("Rebuilt {} order views in {} ms", rebuilt, System.currentTimeMillis() - started);
+            return rebuilt;
+        } finally {
+            rebuilding.set(false);
+        }
+    }
+
+    private int rebuildBatch() {
+        long after = checkpointRepository.findById(CHECKPOINT).map(JobCheckpoint::getPosition).orElse(0L);
+        Map<Long, Long> owners = new HashMap<>();
+        Map<Long, OrderDtos.OrderResponse> orders = new LinkedHashMap<>();
+        jdbcTemplate.query(REBUILD_ORDERS_SQL, rs -> {
+            long orderId = rs.getLong("id");
+            owners.put(orderId, rs.getLong("user_id"));
+            orders.put(orderId, OrderDtos.OrderResponse.builder()
+                    .orderId(orderId)
+                    .orderNumber(rs.getString("order_number"))
+                    .status(OrderStatus.valueOf(rs.getString("status")))
+                    .paymentStatus(PaymentStatus.valueOf(rs.getString("payment_status")))
+                    .totalAmount(rs.getBigDecimal("total_amount"))
+                    .note(rs.getString("note"))
+                    .createdAt(toLocalDateTime(rs.getTimestamp("created_at")))
+                    .updatedAt(toLocalDateTime(rs.getTimestamp("updated_at")))
+                    .items(new ArrayList<>())
+                    .build());
+        }, after, properties.getRebuildBatchSize());
+        if (orders.isEmpty()) {
+            // Pass complete: the next rebuild starts from the first order.
+            saveCheckpoint(0);
+            return 0;
+        }
+
+        List<Long> ids = new ArrayList<>(orders.keySet());
+        Object[] args = ids.toArray();
+        String in = placeholders(ids.size());
+        Map<Long, String> emails = new HashMap<>();
+        List<Long> userIds = owners.values().stream().distinct().toList();
+        jdbcTemplate.query(String.format(USERS_SQL, placeholders(userIds.size())), rs -> {
+            emails.put(rs.getLong("id"), rs.getString("email"));
+        }, userIds.toArray());
+        jdbcTemplate.query(String.format(ITEMS_SQL, in), rs -> {
+            BigDecimal price = rs.getBigDecimal("price");
+            int quantity = rs.getInt("quantity");
+            orders.get(rs.getLong("order_id")).getItems().add(OrderDtos.OrderItemResponse.builder()
+                    .productId(rs.getLong("product_id"))
+                    .productName(rs.getString("name"))
+                    .quantity(quantity)
+                    .price(price)
+                    .lineTotal(price.multiply(BigDecimal.valueOf(quantity)))
+                    .build());
+        }, args);
+        Map<Long, List<OrderDtos.StatusHistoryItem>> timelines = new HashMap<>();
+        jdbcTemplate.query(String.format(HISTORY_SQL, in), rs -> {
+            timelines.computeIfAbsent(rs.getLong("order_id"), id -> new ArrayList<>()).add(new OrderDtos.StatusHistoryItem(
+                    OrderStatus.valueOf(rs.getString("status")),
+                    toLocalDateTime(rs.getTimestamp("timestamp")),
+                    rs.getString("note")));
+        }, args);
+
+        List<Object[]> rows = new ArrayList<>(ids.size());
+        orders.forEach((orderId, order) -> rows.add(insertArgs(owners.get(orderId), emails.get(owners.get(orderId)),
+                order, timelines.getOrDefault(orderId, List.of()))));
+        jdbcTemplate.update(String.format(DELETE_SQL, in), args);
+        jdbcTemplate.batchUpdate(INSERT_SQL, rows);
+        // A short batch ends the pass.
+        saveCheckpoint(ids.size() < properties.getRebuildBatchSize() ? 0 : ids.get(ids.size() - 1));
+        return ids.size();
+    }
+
+    private void saveCheckpoint(long position) {
+        checkpointRepository.save(JobCheckpoint.builder()
+                .name(CHECKPOINT).position(position).updatedAt(LocalDateTime.now()).build());
+    }
+
+    private Object[] insertArgs(Long userId, String ownerEmail, OrderDtos.OrderResponse order,
+                                List<OrderDtos.StatusHistoryItem> timeline) {
+        List<OrderDtos.OrderItemResponse> items = order.getItems() != null ? order.getItems() : List.of();
+        return new Object[]{order.getOrderId(), userId, ownerEmail, order.getOrderNumber(), order.getStatus().name(),
+                order.getPaymentStatus().name(), order.getTotalAmount(), order.getNote(),
+                items.stream().mapToInt(OrderDtos.OrderItemResponse::getQuantity).sum(),
+                Timestamp.valueOf(order.getCreatedAt()),
+                order.getUpdatedAt() != null ? Timestamp.valueOf(order.getUpdatedAt()) : null,
+                write(items), write(timeline)};
+    }
+
+    private <T> T read(String json, TypeReference<T> type) {
+        try {
+            return objectMapper.readValue(json, type);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Unreadable order view document", e);
+        }
+    }
+
+    private String write(Object value) {
+        try {
+            return objectMapper.writeValueAsString(value);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not write order view document", e);
+        }
+    }
+
+    private static LocalDateTime toLocalDateTime(Timestamp timestamp) {
+        return timestamp != null ? timestamp.toLocalDateTime() : null;
+    }
+
+    private static String placeholders(int count) {
+        return String.join(",", Collections.nCopies(count, "?"));
+    }
+}
@@ -0,0 +1,105 @@
+package com.leathric.services.orders;
+
+import com.leathric.config.OrderExpiryProperties;
+import com.leathric.dto.OrderDtos;
+import com.leathric.entity.OrderStatus;
+import com.leathric.repository.OrderRepository;
+import com.leathric.repository.OrderStatusBulkRepository.OrderStatusRow;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Cancels orders that stayed unpaid past the TTL and returns their stock.
+ * <p>
+ * Each batch is claimed with {@code FOR UPDATE SKIP LOCKED} and cancelled in the same short transaction with
+ * set-based statements, so every node can run the sweep without coordination, and an order a customer is
+ * paying for right now (its row locked by {@code confirmPayment}) is skipped rather than waited on.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class UnpaidOrderSweeper {
+
+    private final OrderRepository orderRepository;
+    private final OrderStatusWriter orderStatusWriter;
+    private final PlatformTransactionManager transactionManager;
+    private final OrderExpiryProperties properties;
+
+    private final AtomicBoolean running = new AtomicBoolean();
+    private final AtomicLong runs = new AtomicLong();
+    private final AtomicLong expiredTotal = new AtomicLong();
+    private final AtomicLong unitsRestoredTotal = new AtomicLong();
+    private volatile LocalDateTime lastRunAt;
+    private volatile int lastRunExpired;
+    private volatile long lastRunMillis;
+
+    @Scheduled(fixedDelayString = "${app.orders.expiry.interval-ms:60000}",
+            initialDelayString = "${app.orders.expiry.interval-ms:60000}")
+    public void scheduledSweep() {
+        if (properties.isEnabled()) {
+            sweep();
+        }
+    }
+
+    /**
+     * Cancels every unpaid order older than the TTL, batch by batch.
+     *
+     * @return orders cancelled, or {@code -1} if a sweep was already running on this node
+     */
+    public int sweep() {
+        if (!running.compareAndSet(false, true)) {
+            return -1;
+        }
+        long started = System.currentTimeMillis();
+        try {
+            LocalDateTime cutoff = LocalDateTime.now().minus(properties.getTtl());
+            String note = "Cancelled automatically: payment not received within " + properties.getTtl().toMinutes() + " minutes";
+            TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+            int expired = 0;
+            int claimed;
+            do {
+                int[] batch = transaction.execute(status -> {
+                    List<OrderStatusRow> rows = orderRepository.claimUnpaidCreatedBefore(cutoff, properties.getBatchSize());
+                    return new int[]{rows.size(), orderStatusWriter.applyBulk(rows, OrderStatus.CANCELLED, note)};
+                });
+                claimed = batch[0];
+                expired += claimed;
+                expiredTotal.addAndGet(claimed);
+                unitsRestoredTotal.addAndGet(batch[1]);
+            } while (claimed == properties.getBatchSize());
+
+            lastRunExpired = expired;
+            if (expired > 0) {
+                log.info("Expired {} unpaid orders placed before {}", expired, cutoff);
+            }
+            return expired;
+        } finally {
+            runs.incrementAndGet();
+            lastRunAt = LocalDateTime.now();
+            lastRunMillis = System.currentTimeMillis() - started;
+            running.set(false);
+        }
+    }
+
+    public OrderDtos.OrderExpiryStats stats() {
+        return OrderDtos.OrderExpiryStats.builder()
+                .enabled(properties.isEnabled())
+                .ttlMinutes(properties.getTtl().toMinutes())
+                .runs(runs.get())
+                .expiredTotal(expiredTotal.get())
+                .unitsRestoredTotal(unitsRestoredTotal.get())
+                .lastRunAt(lastRunAt)
+                .lastRunExpired(lastRunExpired)
+                .lastRunMillis(lastRunMillis)
+                .build();
+    }
+}
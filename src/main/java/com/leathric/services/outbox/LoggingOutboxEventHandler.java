@@ -0,0 +1,25 @@
+package com.leathric.services.outbox;
+
+import com.leathric.entity.OutboxEvent;
+import com.leathric.interfaces.OutboxEventHandler;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+/**
+ * Audit trail of delivered order events; replace or complement with real consumers.
+ */
+@Slf4j
+@Component
+public class LoggingOutboxEventHandler implements OutboxEventHandler {
+
+    @Override
+    public boolean supports(String eventType) {
+        return true;
+    }
+
+    @Override
+    public void handle(OutboxEvent event) {
+        log.info("Order event {} #{} for order {}: {}", event.getEventType(), event.getId(),
+                event.getAggregateId(), event.getPayload());
+    }
+}
@@ -0,0 +1,111 @@
+package com.leathric.services.outbox;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.leathric.entity.Order;
+import com.leathric.entity.OrderStatus;
+import com.leathric.entity.OutboxEvent;
+import com.leathric.entity.OutboxStatus;
+import com.leathric.entity.PaymentStatus;
+import com.leathric.repository.OutboxEventRepository;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Records order domain events in the caller's transaction, so an event exists exactly when the order
+ * change it describes was committed.
+ */
+@Component
+public class OrderEventOutbox {
+
+    public static final String ORDER_PLACED = "ORDER_PLACED";
+    public static final String PAYMENT_CONFIRMED = "PAYMENT_CONFIRMED";
+    public static final String ORDER_STATUS_CHANGED = "ORDER_STATUS_CHANGED";
+    public static final String ORDER_CANCELLED = "ORDER_CANCELLED";
+
+    private static final String INSERT_SQL = "INSERT INTO outbox_events "
+            + "(aggregate_id, event_type, payload, status, attempts, next_attempt_at, created_at, updated_at) VALUES %s";
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final ObjectMapper objectMapper;
+    private final JdbcTemplate jdbcTemplate;
+
+    public OrderEventOutbox(OutboxEventRepository outboxEventRepository, ObjectMapper objectMapper, DataSource dataSource) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.objectMapper = objectMapper;
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void record(String eventType, Order order, String note) {
+        Payload payload = new Payload(order.getId(), order.getOrderNumber(), order.getUser().getId(),
+                order.getStatus(), order.getPaymentStatus(), order.getTotalAmount(), note);
+        outboxEventRepository.save(OutboxEvent.builder()
+                .aggregateId(order.getId())
+                .eventType(eventType)
+                .payload(toJson(eventType, payload))
+                .nextAttemptAt(LocalDateTime.now())
+                .build());
+    }
+
+    /**
+     * Records one event per payload with a single multi-row INSERT, for bulk changes made without entities.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordAll(String eventType, List<Payload> payloads) {
+        if (payloads.isEmpty()) {
+            return;
+        }
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<Object> args = new ArrayList<>(payloads.size() * 8);
+        for (Payload payload : payloads) {
+            args.add(payload.getOrderId());
+            args.add(eventType);
+            args.add(toJson(eventType, payload));
+            args.add(OutboxStatus.PENDING.name());
+            args.add(0);
+            args.add(now);
+            args.add(now);
+            args.add(now);
+        }
+        jdbcTemplate.update(String.format(INSERT_SQL,
+                String.join(",", Collections.nCopies(payloads.size(), "(?, ?, ?, ?, ?, ?, ?, ?)"))), args.toArray());
+    }
+
+    private String toJson(String eventType, Payload payload) {
+        try {
+            return objectMapper.writeValueAsString(payload);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize " + eventType + " event for order " + payload.getOrderId(), e);
+        }
+    }
+
+    /**
+     * JSON body of every order event; handlers read it with {@link ObjectMapper#readValue(String, Class)}.
+     */
+    @Getter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Payload {
+        private Long orderId;
+        private String orderNumber;
+        private Long userId;
+        private OrderStatus status;
+        private PaymentStatus paymentStatus;
+        private BigDecimal totalAmount;
+        private String note;
+    }
+}
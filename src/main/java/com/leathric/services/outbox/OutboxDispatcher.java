@@ -0,0 +1,154 @@
+package com.leathric.services.outbox;
+
+import com.leathric.config.OutboxProperties;
+import com.leathric.entity.OutboxEvent;
+import com.leathric.entity.OutboxStatus;
+import com.leathric.interfaces.OutboxEventHandler;
+import com.leathric.repository.OutboxEventRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Delivers pending outbox events to the registered {@link OutboxEventHandler}s.
+ * <p>
+ * Each round claims a batch with {@code FOR UPDATE SKIP LOCKED}, so several instances can poll the same
+ * table without delivering an event twice concurrently, and records the outcome in the same transaction.
+ * Handlers run in their own transaction so a failing handler cannot roll back the rest of the batch.
+ * Failures are retried with exponential backoff; after {@code maxAttempts} the event is parked as
+ * {@code FAILED} and later events of the same order proceed.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class OutboxDispatcher {
+
+    private static final int MAX_ERROR_LENGTH = 1000;
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final PlatformTransactionManager transactionManager;
+    private final OutboxProperties properties;
+    private final List<OutboxEventHandler> handlers;
+
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    @Scheduled(fixedDelayString = "${app.outbox.poll-interval-ms:500}")
+    public void poll() {
+        if (properties.isEnabled()) {
+            dispatchPending();
+        }
+    }
+
+    /**
+     * Runs claim rounds until nothing is due.
+     *
+     * @return events handled (delivered or failed), or {@code -1} if a dispatch was already running
+     */
+    public int dispatchPending() {
+        if (!running.compareAndSet(false, true)) {
+            return -1;
+        }
+        try {
+            int total = 0;
+            int handled;
+            do {
+                handled = dispatchBatch();
+                total += handled;
+            } while (handled > 0);
+            return total;
+        } finally {
+            running.set(false);
+        }
+    }
+
+    @Scheduled(cron = "${app.outbox.cleanup-cron:0 0 4 * * *}")
+    public void purgeDelivered() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        LocalDateTime cutoff = LocalDateTime.now().minus(properties.getRetention());
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        int limit = properties.getCleanupBatchSize();
+        long purged = 0;
+        int deleted;
+        do {
+            deleted = transaction.execute(status -> outboxEventRepository.deleteDeliveredBefore(cutoff, limit));
+            purged += deleted;
+        } while (deleted == limit);
+        if (purged > 0) {
+            log.info("Purged {} delivered outbox events older than {}", purged, cutoff);
+        }
+    }
+
+    private int dispatchBatch() {
+        TransactionTemplate claim = new TransactionTemplate(transactionManager);
+        TransactionTemplate delivery = new TransactionTemplate(transactionManager);
+        delivery.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+
+        return claim.execute(status -> {
+            List<OutboxEvent> batch = outboxEventRepository.claimDue(LocalDateTime.now(), properties.getBatchSize());
+            for (OutboxEvent event : batch) {
+                Exception failure = delivery.execute(handlerStatus -> {
+                    try {
+                        deliver(event);
+                        return null;
+                    } catch (Exception e) {
+                        handlerStatus.setRollbackOnly();
+                        return e;
+                    }
+                });
+                if (failure == null) {
+                    event.setStatus(OutboxStatus.DELIVERED);
+                    event.setDeliveredAt(LocalDateTime.now());
+                    event.setLastError(null);
+                } else {
+                    recordFailure(event, failure);
+                }
+                event.setAttempts(event.getAttempts() + 1);
+            }
+            return batch.size();
+        });
+    }
+
+    private void deliver(OutboxEvent event) throws Exception {
+        for (OutboxEventHandler handler : handlers) {
+            if (handler.supports(event.getEventType())) {
+                handler.handle(event);
+            }
+        }
+    }
+
+    private void recordFailure(OutboxEvent event, Exception failure) {
+        int attempts = event.getAttempts() + 1;
+        String message = failure.getClass().getSimpleName() + ": " + failure.getMessage();
+        event.setLastError(message.length() > MAX_ERROR_LENGTH ? message.substring(0, MAX_ERROR_LENGTH) : message);
+        if (attempts >= properties.getMaxAttempts()) {
+            event.setStatus(OutboxStatus.FAILED);
+            log.error("Outbox event {} ({} for order {}) failed after {} attempts",
+                    event.getId(), event.getEventType(), event.getAggregateId(), attempts, failure);
+            return;
+        }
+        Duration backoff = backoff(attempts);
+        event.setNextAttemptAt(LocalDateTime.now().plus(backoff));
+        log.warn("Outbox event {} ({} for order {}) failed, retrying in {}: {}",
+                event.getId(), event.getEventType(), event.getAggregateId(), backoff, message);
+    }
+
+    private Duration backoff(int attempts) {
+        Duration max = properties.getMaxBackoff();
+        Duration delay = properties.getInitialBackoff();
+        for (int i = 1; i < attempts && delay.compareTo(max) < 0; i++) {
+            delay = delay.multipliedBy(2);
+        }
+        return delay.compareTo(max) > 0 ? max : delay;
+    }
+}
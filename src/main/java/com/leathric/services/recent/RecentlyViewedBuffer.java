@@ -0,0 +1,181 @@
+package com.leathric.services.recent;
+
+import java.util.function.BooleanSupplier;
+
+/**
+ * Fixed-size ring of one user's most recently viewed product ids, newest first and without duplicates.
+ * Re-viewing a product moves it to the front, so the products viewed since the last flush always form
+ * its front. All access is synchronized on the buffer; operations are O(capacity) on a few dozen longs.
+ */
+final class RecentlyViewedBuffer {
+
+    private final long[] ring;
+    private int head = -1;
+    private int size;
+    private int pending;
+    private boolean loaded;
+    private boolean evicted;
+    private volatile long lastAccess;
+
+    RecentlyViewedBuffer(int capacity) {
+        this.ring = new long[capacity];
+        touch();
+    }
+
+    /**
+     * @return {@code false} if the buffer was evicted and the caller must use a fresh one
+     */
+    synchronized boolean record(long productId, Runnable markDirty) {
+        if (evicted) {
+            return false;
+        }
+        touch();
+        if (pending > 0 && at(0) == productId) {
+            return true;
+        }
+        int existing = indexOf(productId);
+        if (existing >= 0) {
+            // Close the gap by shifting the newer entries one step older, then reuse the head slot.
+            for (int i = existing; i > 0; i--) {
+                set(i, at(i - 1));
+            }
+            set(0, productId);
+            if (existing >= pending) {
+                pending++;
+            }
+        } else {
+            head = (head + 1) % ring.length;
+            ring[head] = productId;
+            size = Math.min(size + 1, ring.length);
+            pending = Math.min(pending + 1, size);
+        }
+        markDirty.run();
+        return true;
+    }
+
+    /**
+     * Appends persisted history behind the views recorded since this buffer was created.
+     */
+    synchronized void mergeOlder(long[] stored) {
+        for (long productId : stored) {
+            if (size == ring.length) {
+                break;
+            }
+            if (productId != 0L && indexOf(productId) < 0) {
+                // The oldest logical slot is just behind the tail of the ring.
+                int slot = Math.floorMod(head - size, ring.length);
+                ring[slot] = productId;
+                if (size == 0) {
+                    head = slot;
+                }
+                size++;
+            }
+        }
+        loaded = true;
+    }
+
+    /**
+     * Products viewed since the last drain, newest first; they stop counting as pending.
+     */
+    synchronized long[] drainPending() {
+        long[] ids = new long[pending];
+        for (int i = 0; i < pending; i++) {
+            ids[i] = at(i);
+        }
+        pending = 0;
+        return ids;
+    }
+
+    /**
+     * Counts drained products as pending again after a failed write. Views recorded since the drain sit in
+     * front of them, so they are the run of drained ids right behind the current pending ones.
+     */
+    synchronized void restorePending(long[] drained) {
+        while (pending < size && contains(drained, drained.length, at(pending))) {
+            pending++;
+        }
+    }
+
+    /**
+     * Replaces everything but the pending views with {@code stored}, the history as last written, newest first.
+     */
+    synchronized void rebase(long[] stored) {
+        long[] ids = new long[ring.length];
+        int count = 0;
+        for (; count < pending; count++) {
+            ids[count] = at(count);
+        }
+        for (long productId : stored) {
+            if (count == ids.length) {
+                break;
+            }
+            if (productId != 0L && !contains(ids, count, productId)) {
+                ids[count++] = productId;
+            }
+        }
+        for (int i = 0; i < count; i++) {
+            ring[count - 1 - i] = ids[i];
+        }
+        head = count - 1;
+        size = count;
+        loaded = true;
+    }
+
+    synchronized long[] snapshot() {
+        touch();
+        long[] ids = new long[size];
+        for (int i = 0; i < size; i++) {
+            ids[i] = at(i);
+        }
+        return ids;
+    }
+
+    synchronized boolean isLoaded() {
+        return loaded;
+    }
+
+    /**
+     * Marks the buffer evicted if {@code clean} holds; checked under the same lock that records views,
+     * so a view cannot land in a buffer that is being dropped.
+     */
+    synchronized boolean evictIf(BooleanSupplier clean) {
+        if (!evicted && clean.getAsBoolean()) {
+            evicted = true;
+        }
+        return evicted;
+    }
+
+    long lastAccess() {
+        return lastAccess;
+    }
+
+    private void touch() {
+        lastAccess = System.currentTimeMillis();
+    }
+
+    private long at(int index) {
+        return ring[Math.floorMod(head - index, ring.length)];
+    }
+
+    private void set(int index, long productId) {
+        ring[Math.floorMod(head - index, ring.length)] = productId;
+    }
+
+    private static boolean contains(long[] ids, int count, long productId) {
+        for (int i = 0; i < count; i++) {
+            if (ids[i] == productId) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private int indexOf(long productId) {
+        for (int i = 0; i < size; i++) {
+            if (at(i) == productId) {
+                return i;
+            }
+        }
+        return -1;
+    }
+}
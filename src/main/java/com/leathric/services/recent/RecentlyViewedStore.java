@@ -0,0 +1,274 @@
+package com.leathric.services.recent;
+
+import com.leathric.config.RecentlyViewedProperties;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.nio.ByteBuffer;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Per-user recently viewed products held in bounded in-memory ring buffers keyed by account email.
+ * <p>
+ * Recording a view only touches the user's buffer and marks it dirty; a scheduled flush drains dirty
+ * buffers and upserts them into {@code recently_viewed} in batches, so many views by one user between
+ * flushes cost a single row write. Several instances write the same rows, so a flush never writes its
+ * buffer as it stands: it locks the batch's rows, puts the views recorded since the previous flush in front
+ * of what is stored and writes that, then adopts the written list as the buffer's history. Persisted history
+ * is otherwise loaded lazily on the user's first read. Idle or surplus buffers are dropped once flushed and
+ * reload from the table on next access.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class RecentlyViewedStore {
+
+    private static final String LOAD_BY_EMAIL_SQL =
+            "SELECT rv.product_ids FROM recently_viewed rv JOIN users u ON u.id = rv.user_id WHERE u.email = ?";
+    private static final String USER_IDS_SQL = "SELECT id, email FROM users WHERE email IN (%s)";
+    private static final String LOCK_BY_USER_IDS_SQL =
+            "SELECT user_id, product_ids FROM recently_viewed WHERE user_id IN (%s) FOR UPDATE";
+    private static final String UPSERT_SQL = "INSERT INTO recently_viewed (user_id, product_ids, updated_at) "
+            + "VALUES (?, ?, ?) ON DUPLICATE KEY UPDATE product_ids = VALUES(product_ids), updated_at = VALUES(updated_at)";
+
+    private final DataSource dataSource;
+    private final PlatformTransactionManager transactionManager;
+    private final RecentlyViewedProperties properties;
+
+    private final Map<String, RecentlyViewedBuffer> buffers = new ConcurrentHashMap<>();
+    private final Set<String> dirty = ConcurrentHashMap.newKeySet();
+    private final AtomicBoolean flushing = new AtomicBoolean();
+
+    /**
+     * Records a product view; never touches the database.
+     */
+    public void record(String email, long productId) {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        while (true) {
+            RecentlyViewedBuffer buffer = buffers.computeIfAbsent(email, key -> new RecentlyViewedBuffer(properties.getCapacity()));
+            if (buffer.record(productId, () -> dirty.add(email))) {
+                return;
+            }
+            // Lost a race with eviction; start a fresh buffer that will reload history when read or flushed.
+            buffers.remove(email, buffer);
+        }
+    }
+
+    /**
+     * Recently viewed product ids, newest first, loading persisted history on first access.
+     */
+    public long[] recent(String email) {
+        if (!properties.isEnabled()) {
+            return new long[0];
+        }
+        RecentlyViewedBuffer buffer = buffers.computeIfAbsent(email, key -> new RecentlyViewedBuffer(properties.getCapacity()));
+        if (!buffer.isLoaded()) {
+            try {
+                List<byte[]> stored = jdbcTemplate().query(LOAD_BY_EMAIL_SQL, (rs, row) -> rs.getBytes(1), email);
+                buffer.mergeOlder(stored.isEmpty() ? new long[0] : decode(stored.get(0)));
+            } catch (RuntimeException e) {
+                // Serve what is in memory; the next read retries the load.
+                log.warn("Could not load recently viewed products for {}", email, e);
+            }
+        }
+        return buffer.snapshot();
+    }
+
+    @Scheduled(fixedDelayString = "${app.recently-viewed.flush-interval-ms:5000}",
+            initialDelayString = "${app.recently-viewed.flush-interval-ms:5000}")
+    public void scheduledFlush() {
+        if (!properties.isEnabled() || !flushing.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            flush();
+            evictIdle();
+        } finally {
+            flushing.set(false);
+        }
+    }
+
+    @PreDestroy
+    public void onShutdown() {
+        if (properties.isEnabled()) {
+            flush();
+        }
+    }
+
+    /**
+     * Writes every dirty buffer; batches that fail are marked dirty again for the next run.
+     *
+     * @return rows written
+     */
+    int flush() {
+        int written = 0;
+        List<String> batch = new ArrayList<>(properties.getFlushBatchSize());
+        Iterator<String> pending = dirty.iterator();
+        while (pending.hasNext()) {
+            batch.add(pending.next());
+            // Removed before the buffer is read, so a view recorded meanwhile marks it dirty again.
+            pending.remove();
+            if (batch.size() == properties.getFlushBatchSize() || !pending.hasNext()) {
+                written += writeBatch(batch);
+                batch = new ArrayList<>(properties.getFlushBatchSize());
+            }
+        }
+        return written;
+    }
+
+    private int writeBatch(List<String> emails) {
+        Map<Long, RecentlyViewedBuffer> owners = new HashMap<>();
+        Map<Long, long[]> drained = new TreeMap<>();
+        try {
+            JdbcTemplate jdbcTemplate = jdbcTemplate();
+            Map<String, Long> userIds = new HashMap<>();
+            jdbcTemplate.query(String.format(USER_IDS_SQL, placeholders(emails.size())),
+                    rs -> {
+                        userIds.put(rs.getString("email"), rs.getLong("id"));
+                    }, emails.toArray());
+
+            for (String email : emails) {
+                RecentlyViewedBuffer buffer = buffers.get(email);
+                Long userId = userIds.get(email);
+                if (buffer != null && userId != null) {
+                    owners.put(userId, buffer);
+                    drained.put(userId, buffer.drainPending());
+                }
+            }
+            if (drained.isEmpty()) {
+                return 0;
+            }
+
+            // Locked so another instance's flush of the same users waits and then merges on top of this one.
+            Map<Long, long[]> written = new TransactionTemplate(transactionManager).execute(status -> {
+                Map<Long, long[]> stored = new HashMap<>();
+                jdbcTemplate.query(String.format(LOCK_BY_USER_IDS_SQL, placeholders(drained.size())), rs -> {
+                    stored.put(rs.getLong("user_id"), decode(rs.getBytes("product_ids")));
+                }, drained.keySet().toArray());
+
+                Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+                Map<Long, long[]> merged = new HashMap<>();
+                List<Object[]> rows = new ArrayList<>(drained.size());
+                drained.forEach((userId, views) -> {
+                    long[] history = merge(views, stored.getOrDefault(userId, new long[0]), properties.getCapacity());
+                    merged.put(userId, history);
+                    rows.add(new Object[]{userId, encode(history), now});
+                });
+                jdbcTemplate.batchUpdate(UPSERT_SQL, rows);
+                return merged;
+            });
+            written.forEach((userId, history) -> owners.get(userId).rebase(history));
+            return written.size();
+        } catch (RuntimeException e) {
+            drained.forEach((userId, views) -> owners.get(userId).restorePending(views));
+            dirty.addAll(emails);
+            log.warn("Could not flush recently viewed products for {} users; retrying next run", emails.size(), e);
+            return 0;
+        }
+    }
+
+    /**
+     * {@code newer} followed by the entries of {@code older} it does not already hold, up to {@code capacity}.
+     */
+    static long[] merge(long[] newer, long[] older, int capacity) {
+        Set<Long> seen = new LinkedHashSet<>();
+        for (long productId : newer) {
+            seen.add(productId);
+        }
+        for (long productId : older) {
+            if (seen.size() == capacity) {
+                break;
+            }
+            if (productId != 0L) {
+                seen.add(productId);
+            }
+        }
+        return seen.stream().limit(capacity).mapToLong(Long::longValue).toArray();
+    }
+
+    /**
+     * Drops flushed buffers idle past the TTL, then the least recently used flushed buffers over the cap.
+     */
+    void evictIdle() {
+        long idleBefore = System.currentTimeMillis() - properties.getIdleTtl().toMillis();
+        buffers.forEach((email, buffer) -> {
+            if (buffer.lastAccess() < idleBefore) {
+                evict(email, buffer);
+            }
+        });
+        int surplus = buffers.size() - properties.getMaxUsers();
+        if (surplus > 0) {
+            List<Map.Entry<String, RecentlyViewedBuffer>> oldestFirst = new ArrayList<>(buffers.entrySet());
+            oldestFirst.sort(Comparator.comparingLong(entry -> entry.getValue().lastAccess()));
+            for (Map.Entry<String, RecentlyViewedBuffer> entry : oldestFirst) {
+                if (surplus == 0) {
+                    break;
+                }
+                if (evict(entry.getKey(), entry.getValue())) {
+                    surplus--;
+                }
+            }
+        }
+    }
+
+    int size() {
+        return buffers.size();
+    }
+
+    private boolean evict(String email, RecentlyViewedBuffer buffer) {
+        if (buffer.evictIf(() -> !dirty.contains(email))) {
+            return buffers.remove(email, buffer);
+        }
+        return false;
+    }
+
+    private JdbcTemplate jdbcTemplate() {
+        return new JdbcTemplate(dataSource);
+    }
+
+    private static String placeholders(int count) {
+        return String.join(",", Collections.nCopies(count, "?"));
+    }
+
+    static byte[] encode(long[] productIds) {
+        ByteBuffer bytes = ByteBuffer.allocate(productIds.length * Long.BYTES);
+        for (long productId : productIds) {
+            bytes.putLong(productId);
+        }
+        return bytes.array();
+    }
+
+    static long[] decode(byte[] packed) {
+        if (packed == null) {
+            return new long[0];
+        }
+        ByteBuffer bytes = ByteBuffer.wrap(packed);
+        long[] productIds = new long[packed.length / Long.BYTES];
+        for (int i = 0; i < productIds.length; i++) {
+            productIds[i] = bytes.getLong();
+        }
+        return productIds;
+    }
+}
@@ -0,0 +1,212 @@
+package com.leathric.services.recommendation;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.function.LongConsumer;
+
+/**
+ * Sparse, symmetric item-item co-occurrence counts with a bounded top list per product.
+ * <p>
+ * Pair counts only ever grow, so each product's top list can be maintained exactly by re-offering the one
+ * neighbour whose count just changed: O(N) per pair instead of re-ranking the whole row. A neighbour is
+ * listed once its pair count reaches the minimum support. Not thread-safe; callers serialize writes.
+ */
+public final class CoPurchaseMatrix {
+
+    private final int topN;
+    private final int minSupport;
+    private final LongObjectHashMap<Row> rows = new LongObjectHashMap<>();
+    private long baskets;
+
+    public CoPurchaseMatrix(int topN, int minSupport) {
+        this.topN = topN;
+        this.minSupport = minSupport;
+    }
+
+    public int products() {
+        return rows.size();
+    }
+
+    public long baskets() {
+        return baskets;
+    }
+
+    /**
+     * Counts every pair of a basket once.
+     *
+     * @param products distinct product ids of one order
+     * @param changed  receives each product whose top list changed
+     */
+    public void addBasket(long[] products, LongConsumer changed) {
+        baskets++;
+        Row[] basketRows = new Row[products.length];
+        for (int i = 0; i < products.length; i++) {
+            basketRows[i] = rows.computeIfAbsent(products[i], id -> new Row(topN));
+            basketRows[i].orders++;
+        }
+        boolean[] touched = new boolean[products.length];
+        for (int i = 0; i < products.length; i++) {
+            for (int j = i + 1; j < products.length; j++) {
+                int count = basketRows[i].counts.addTo(products[j], 1);
+                basketRows[j].counts.addTo(products[i], 1);
+                touched[i] |= basketRows[i].offer(products[j], count, minSupport);
+                touched[j] |= basketRows[j].offer(products[i], count, minSupport);
+            }
+        }
+        for (int i = 0; i < products.length; i++) {
+            if (touched[i]) {
+                changed.accept(products[i]);
+            }
+        }
+    }
+
+    public TopList topList(long productId) {
+        Row row = rows.get(productId);
+        return row != null ? row.snapshot() : TopList.EMPTY;
+    }
+
+    /**
+     * Visits every product that currently has a non-empty top list.
+     */
+    public void forEachTopList(TopListVisitor visitor) {
+        rows.forEach((productId, row) -> {
+            if (row.topSize > 0) {
+                visitor.accept(productId, row.snapshot());
+            }
+        });
+    }
+
+    @FunctionalInterface
+    public interface TopListVisitor {
+        void accept(long productId, TopList topList);
+    }
+
+    public void clear() {
+        rows.clear();
+        baskets = 0;
+    }
+
+    /**
+     * Writes the raw counts; top lists are derived again on {@link #read}.
+     */
+    public void write(DataOutput out) throws IOException {
+        out.writeLong(baskets);
+        out.writeInt(rows.size());
+        IOException[] failure = new IOException[1];
+        rows.forEach((productId, row) -> {
+            if (failure[0] != null) {
+                return;
+            }
+            try {
+                out.writeLong(productId);
+                out.writeInt(row.orders);
+                out.writeInt(row.counts.size());
+                row.counts.forEach((neighbour, count) -> {
+                    try {
+                        out.writeLong(neighbour);
+                        out.writeInt(count);
+                    } catch (IOException e) {
+                        failure[0] = e;
+                    }
+                });
+            } catch (IOException e) {
+                failure[0] = e;
+            }
+        });
+        if (failure[0] != null) {
+            throw failure[0];
+        }
+    }
+
+    public static CoPurchaseMatrix read(DataInput in, int topN, int minSupport) throws IOException {
+        CoPurchaseMatrix matrix = new CoPurchaseMatrix(topN, minSupport);
+        matrix.baskets = in.readLong();
+        int products = in.readInt();
+        for (int p = 0; p < products; p++) {
+            long productId = in.readLong();
+            Row row = matrix.rows.computeIfAbsent(productId, id -> new Row(topN));
+            row.orders = in.readInt();
+            int entries = in.readInt();
+            for (int e = 0; e < entries; e++) {
+                long neighbour = in.readLong();
+                int count = in.readInt();
+                row.counts.put(neighbour, count);
+                row.offer(neighbour, count, minSupport);
+            }
+        }
+        return matrix;
+    }
+
+    private static final class Row {
+        private final LongIntHashMap counts = new LongIntHashMap();
+        private final long[] topIds;
+        private final int[] topCounts;
+        private int topSize;
+        private int orders;
+        private TopList snapshot;
+
+        Row(int topN) {
+            this.topIds = new long[topN];
+            this.topCounts = new int[topN];
+        }
+
+        /**
+         * Re-offers a neighbour whose count grew (or was loaded).
+         *
+         * @return whether the top list changed
+         */
+        boolean offer(long neighbour, int count, int minSupport) {
+            if (count < minSupport || topIds.length == 0) {
+                return false;
+            }
+            int index = -1;
+            for (int i = 0; i < topSize; i++) {
+                if (topIds[i] == neighbour) {
+                    index = i;
+                    break;
+                }
+            }
+            if (index < 0) {
+                if (topSize < topIds.length) {
+                    index = topSize++;
+                } else if (ranksAbove(count, neighbour, topCounts[topSize - 1], topIds[topSize - 1])) {
+                    index = topSize - 1;
+                } else {
+                    return false;
+                }
+                topIds[index] = neighbour;
+            }
+            topCounts[index] = count;
+            while (index > 0 && ranksAbove(topCounts[index], topIds[index], topCounts[index - 1], topIds[index - 1])) {
+                swap(index, index - 1);
+                index--;
+            }
+            snapshot = null;
+            return true;
+        }
+
+        TopList snapshot() {
+            TopList current = snapshot;
+            if (current == null) {
+                current = new TopList(Arrays.copyOf(topIds, topSize), Arrays.copyOf(topCounts, topSize));
+                snapshot = current;
+            }
+            return current;
+        }
+
+        private static boolean ranksAbove(int count, long id, int otherCount, long otherId) {
+            return count > otherCount || (count == otherCount && id < otherId);
+        }
+
+        private void swap(int a, int b) {
+            long id = topIds[a];
+            topIds[a] = topIds[b];
+            topIds[b] = id;
+            int count = topCounts[a];
+            topCounts[a] = topCounts[b];
+            topCounts[b] = count;
+        }
+    }
+}
@@ -0,0 +1,375 @@
+package com.leathric.services.recommendation;
+
+import com.leathric.config.CoPurchaseProperties;
+import com.leathric.dto.OrderDtos;
+import com.leathric.event.OrderPlacedEvent;
+import com.leathric.services.archive.OrderArchive;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import javax.sql.DataSource;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * "Customers also bought" from an in-memory co-occurrence matrix of order baskets.
+ * <p>
+ * Committed orders are counted as they are placed; a keyset backfill over {@code orders}/{@code order_items}
+ * covers history, including orders already moved to the archive, and anything placed while the application
+ * was down. Orders above the backfill high-water
+ * mark that were already counted live are remembered so the two paths never count an order twice; the
+ * snapshot timer runs an incremental backfill first, so the mark follows settled orders and that set only
+ * covers the recent tail. The
+ * matrix is snapshotted to disk periodically and on shutdown, so a restart only replays orders placed since.
+ * <p>
+ * Readers never touch the matrix or the database: every product's top list is published as an immutable
+ * {@link TopList} that is swapped whenever it changes.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class CoPurchaseRecommender {
+
+    private static final int SNAPSHOT_MAGIC = 0x43504D31;
+    private static final int SNAPSHOT_VERSION = 1;
+
+    private static final String ORDER_PAGE_SQL =
+            "SELECT id FROM orders WHERE id > ? AND created_at < ? ORDER BY id LIMIT ?";
+    private static final String ARCHIVED_PAGE_SQL =
+            "SELECT order_id FROM archived_orders WHERE order_id > ? AND created_at < ? ORDER BY order_id LIMIT ?";
+    private static final String ORDER_ITEMS_SQL =
+            "SELECT order_id, product_id FROM order_items WHERE order_id IN (%s)";
+
+    private final DataSource dataSource;
+    private final CoPurchaseProperties properties;
+    private final OrderArchive orderArchive;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Map<Long, TopList> published = new ConcurrentHashMap<>();
+    private final AtomicBoolean backfilling = new AtomicBoolean();
+    private volatile boolean dirty;
+
+    // Guarded by lock.
+    private CoPurchaseMatrix matrix;
+    private long highWaterOrderId;
+    private LongIntHashMap countedAboveHighWater = new LongIntHashMap();
+
+    /**
+     * Products most often bought together with {@code productId}, best first.
+     */
+    public TopList alsoBought(long productId) {
+        return published.getOrDefault(productId, TopList.EMPTY);
+    }
+
+    /**
+     * Merges the top lists of a basket's products, summing pair counts and leaving out the basket itself.
+     * Costs O(basket size x N) regardless of catalog or order volume.
+     */
+    public long[] forBasket(Collection<Long> basket, int limit) {
+        Set<Long> inBasket = basket instanceof Set<Long> set ? set : new HashSet<>(basket);
+        LongIntHashMap scores = new LongIntHashMap(basket.size() * properties.getTopN());
+        for (Long productId : inBasket) {
+            TopList list = alsoBought(productId);
+            for (int i = 0; i < list.size(); i++) {
+                if (!inBasket.contains(list.id(i))) {
+                    scores.addTo(list.id(i), list.count(i));
+                }
+            }
+        }
+        int size = Math.min(Math.max(limit, 0), scores.size());
+        long[] ids = new long[size];
+        int[] counts = new int[size];
+        int[] filled = {0};
+        scores.forEach((id, count) -> {
+            int position = filled[0] < size ? filled[0]++ : size;
+            while (position > 0 && (counts[position - 1] < count || (counts[position - 1] == count && ids[position - 1] > id))) {
+                if (position < size) {
+                    ids[position] = ids[position - 1];
+                    counts[position] = counts[position - 1];
+                }
+                position--;
+            }
+            if (position < size) {
+                ids[position] = id;
+                counts[position] = count;
+            }
+        });
+        return ids;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onStartup() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        loadSnapshot();
+        backfill(false);
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onOrderPlaced(OrderPlacedEvent event) {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        try {
+            lock.lock();
+            try {
+                long orderId = event.getOrderId();
+                if (orderId <= highWaterOrderId || countedAboveHighWater.containsKey(orderId)) {
+                    return;
+                }
+                countBasket(event.getProductIds());
+                countedAboveHighWater.put(orderId, 1);
+            } finally {
+                lock.unlock();
+            }
+        } catch (RuntimeException e) {
+            // The order is already committed; the next backfill picks it up.
+            log.warn("Could not count order {} for co-purchase recommendations", event.getOrderId(), e);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.recommendations.co-purchase.snapshot-interval-ms:300000}",
+            initialDelayString = "${app.recommendations.co-purchase.snapshot-interval-ms:300000}")
+    public void scheduledSnapshot() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        try {
+            backfill(false);
+        } catch (RuntimeException e) {
+            log.warn("Could not catch up co-purchase counts with settled orders", e);
+        }
+        if (dirty) {
+            writeSnapshot();
+        }
+    }
+
+    @PreDestroy
+    public void onShutdown() {
+        if (properties.isEnabled() && dirty) {
+            writeSnapshot();
+        }
+    }
+
+    /**
+     * Counts settled orders above the high-water mark in keyset batches.
+     *
+     * @param reset start again from the first order with an empty matrix
+     * @return orders counted, or {@code -1} if a backfill was already running
+     */
+    public long backfill(boolean reset) {
+        if (!backfilling.compareAndSet(false, true)) {
+            log.info("Co-purchase backfill already in progress, skipping");
+            return -1;
+        }
+        long started = System.currentTimeMillis();
+        try {
+            if (reset) {
+                lock.lock();
+                try {
+                    matrix().clear();
+                    published.clear();
+                    highWaterOrderId = 0;
+                    countedAboveHighWater = new LongIntHashMap();
+                } finally {
+                    lock.unlock();
+                }
+            }
+            JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+            Timestamp settledBefore = Timestamp.valueOf(LocalDateTime.now().minusSeconds(properties.getBackfillSettleSeconds()));
+            int batchSize = properties.getBackfillBatchSize();
+            long counted = 0;
+            while (true) {
+                long after = currentHighWater();
+                List<Long> orderIds = nextPage(jdbcTemplate, after, settledBefore, batchSize);
+                if (orderIds.isEmpty()) {
+                    break;
+                }
+                Map<Long, List<Long>> baskets = loadBaskets(jdbcTemplate, orderIds);
+                lock.lock();
+                try {
+                    for (Long orderId : orderIds) {
+                        List<Long> products = baskets.get(orderId);
+                        if (products != null && !countedAboveHighWater.containsKey(orderId)) {
+                            countBasket(products);
+                            counted++;
+                        }
+                    }
+                    advanceHighWater(orderIds.get(orderIds.size() - 1));
+                } finally {
+                    lock.unlock();
+                }
+                if (orderIds.size() < batchSize) {
+                    break;
+                }
+            }
+            if (reset || counted > 0) {
+                log.info("Co-purchase backfill counted {} orders in {} ms (high-water order {})",
+                        counted, System.currentTimeMillis() - started, currentHighWater());
+            }
+            return counted;
+        } finally {
+            backfilling.set(false);
+        }
+    }
+
+    /**
+     * Next ids above {@code after} across live and archived orders; an order is in exactly one of the two.
+     */
+    private List<Long> nextPage(JdbcTemplate jdbcTemplate, long after, Timestamp settledBefore, int batchSize) {
+        TreeSet<Long> ids = new TreeSet<>(jdbcTemplate.queryForList(ORDER_PAGE_SQL, Long.class, after, settledBefore, batchSize));
+        ids.addAll(jdbcTemplate.queryForList(ARCHIVED_PAGE_SQL, Long.class, after, settledBefore, batchSize));
+        return ids.stream().limit(batchSize).toList();
+    }
+
+    private Map<Long, List<Long>> loadBaskets(JdbcTemplate jdbcTemplate, List<Long> orderIds) {
+        Map<Long, List<Long>> baskets = new LinkedHashMap<>();
+        String sql = String.format(ORDER_ITEMS_SQL, String.join(",", Collections.nCopies(orderIds.size(), "?")));
+        jdbcTemplate.query(sql, rs -> {
+            baskets.computeIfAbsent(rs.getLong("order_id"), id -> new ArrayList<>()).add(rs.getLong("product_id"));
+        }, orderIds.toArray());
+        // Read after the live lines, so an order archived in between is found here.
+        List<Long> archived = orderIds.stream().filter(id -> !baskets.containsKey(id)).toList();
+        if (!archived.isEmpty()) {
+            orderArchive.findAll(archived).forEach(document -> baskets.put(document.getOrder().getOrderId(),
+                    document.getOrder().getItems().stream().map(OrderDtos.OrderItemResponse::getProductId).toList()));
+        }
+        return baskets;
+    }
+
+    // Caller holds the lock.
+    private void countBasket(List<Long> productIds) {
+        long[] products = productIds.stream().mapToLong(Long::longValue).distinct()
+                .limit(properties.getMaxBasketSize()).toArray();
+        CoPurchaseMatrix current = matrix();
+        current.addBasket(products, productId -> published.put(productId, current.topList(productId)));
+        dirty = true;
+    }
+
+    // Caller holds the lock.
+    private void advanceHighWater(long orderId) {
+        highWaterOrderId = orderId;
+        LongIntHashMap remaining = new LongIntHashMap();
+        countedAboveHighWater.forEach((id, flag) -> {
+            if (id > orderId) {
+                remaining.put(id, flag);
+            }
+        });
+        countedAboveHighWater = remaining;
+    }
+
+    private long currentHighWater() {
+        lock.lock();
+        try {
+            return highWaterOrderId;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private CoPurchaseMatrix matrix() {
+        if (matrix == null) {
+            matrix = new CoPurchaseMatrix(properties.getTopN(), properties.getMinSupport());
+        }
+        return matrix;
+    }
+
+    private void writeSnapshot() {
+        Path target = Paths.get(properties.getSnapshotPath()).toAbsolutePath().normalize();
+        long started = System.currentTimeMillis();
+        lock.lock();
+        try {
+            Files.createDirectories(target.getParent());
+            Path temp = target.resolveSibling(target.getFileName() + ".tmp");
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp), 1 << 16))) {
+                out.writeInt(SNAPSHOT_MAGIC);
+                out.writeInt(SNAPSHOT_VERSION);
+                out.writeLong(highWaterOrderId);
+                out.writeInt(countedAboveHighWater.size());
+                IOException[] failure = new IOException[1];
+                countedAboveHighWater.forEach((id, flag) -> {
+                    try {
+                        out.writeLong(id);
+                    } catch (IOException e) {
+                        failure[0] = e;
+                    }
+                });
+                if (failure[0] != null) {
+                    throw failure[0];
+                }
+                matrix().write(out);
+            }
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            dirty = false;
+            log.info("Co-purchase snapshot written: {} products, {} orders in {} ms",
+                    matrix().products(), matrix().baskets(), System.currentTimeMillis() - started);
+        } catch (IOException e) {
+            log.error("Could not write co-purchase snapshot to {}", target, e);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void loadSnapshot() {
+        Path source = Paths.get(properties.getSnapshotPath()).toAbsolutePath().normalize();
+        if (!Files.isRegularFile(source)) {
+            return;
+        }
+        lock.lock();
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(source), 1 << 16))) {
+            if (in.readInt() != SNAPSHOT_MAGIC || in.readInt() != SNAPSHOT_VERSION) {
+                log.warn("Ignoring co-purchase snapshot {} with unknown format", source);
+                return;
+            }
+            long highWater = in.readLong();
+            int countedAbove = in.readInt();
+            LongIntHashMap counted = new LongIntHashMap(countedAbove);
+            for (int i = 0; i < countedAbove; i++) {
+                counted.put(in.readLong(), 1);
+            }
+            CoPurchaseMatrix loaded = CoPurchaseMatrix.read(in, properties.getTopN(), properties.getMinSupport());
+
+            matrix = loaded;
+            highWaterOrderId = highWater;
+            countedAboveHighWater = counted;
+            published.clear();
+            loaded.forEachTopList(published::put);
+            log.info("Co-purchase snapshot loaded: {} products, {} orders, high-water order {}",
+                    loaded.products(), loaded.baskets(), highWater);
+        } catch (IOException e) {
+            log.warn("Could not read co-purchase snapshot {}; rebuilding from orders", source, e);
+        } finally {
+            lock.unlock();
+        }
+    }
+}
@@ -0,0 +1,134 @@
+package com.leathric.services.recommendation;
+
+import java.util.Arrays;
+
+/**
+ * Open-addressing {@code long -> int} map with linear probing and no boxing. Key {@code 0} is reserved
+ * as the empty marker, which is safe for database identities. Not thread-safe.
+ */
+public final class LongIntHashMap {
+
+    private static final float LOAD_FACTOR = 0.6f;
+
+    private long[] keys;
+    private int[] values;
+    private int size;
+    private int resizeAt;
+
+    public LongIntHashMap() {
+        this(8);
+    }
+
+    public LongIntHashMap(int expected) {
+        int capacity = Integer.highestOneBit(Math.max(4, (int) (expected / LOAD_FACTOR)) - 1) << 1;
+        allocate(capacity);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return the value, or {@code 0} when absent
+     */
+    public int get(long key) {
+        int slot = find(key);
+        return slot >= 0 ? values[slot] : 0;
+    }
+
+    public boolean containsKey(long key) {
+        return find(key) >= 0;
+    }
+
+    public void put(long key, int value) {
+        int slot = slotFor(key);
+        if (keys[slot] == 0L) {
+            keys[slot] = key;
+            values[slot] = value;
+            grow();
+        } else {
+            values[slot] = value;
+        }
+    }
+
+    /**
+     * Adds {@code delta} to the value for {@code key} (absent counts as {@code 0}).
+     *
+     * @return the new value
+     */
+    public int addTo(long key, int delta) {
+        int slot = slotFor(key);
+        if (keys[slot] == 0L) {
+            keys[slot] = key;
+            values[slot] = delta;
+            grow();
+            return delta;
+        }
+        return values[slot] += delta;
+    }
+
+    public void clear() {
+        Arrays.fill(keys, 0L);
+        size = 0;
+    }
+
+    /**
+     * Visits every entry; the map must not be modified during iteration.
+     */
+    public void forEach(Visitor visitor) {
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] != 0L) {
+                visitor.accept(keys[i], values[i]);
+            }
+        }
+    }
+
+    @FunctionalInterface
+    public interface Visitor {
+        void accept(long key, int value);
+    }
+
+    private int find(long key) {
+        int slot = slotFor(key);
+        return keys[slot] == key ? slot : -1;
+    }
+
+    private int slotFor(long key) {
+        if (key == 0L) {
+            throw new IllegalArgumentException("Key 0 is reserved");
+        }
+        int mask = keys.length - 1;
+        int slot = mix(key) & mask;
+        while (keys[slot] != 0L && keys[slot] != key) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    private void grow() {
+        if (++size < resizeAt) {
+            return;
+        }
+        long[] oldKeys = keys;
+        int[] oldValues = values;
+        allocate(oldKeys.length * 2);
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != 0L) {
+                int slot = slotFor(oldKeys[i]);
+                keys[slot] = oldKeys[i];
+                values[slot] = oldValues[i];
+            }
+        }
+    }
+
+    private void allocate(int capacity) {
+        keys = new long[capacity];
+        values = new int[capacity];
+        resizeAt = (int) (capacity * LOAD_FACTOR);
+    }
+
+    private static int mix(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+}
@@ -0,0 +1,29 @@
+package com.leathric.services.recommendation;
+
+/**
+ * Immutable co-purchase list of one product: neighbour ids best first with their pair counts.
+ */
+public final class TopList {
+
+    public static final TopList EMPTY = new TopList(new long[0], new int[0]);
+
+    private final long[] ids;
+    private final int[] counts;
+
+    TopList(long[] ids, int[] counts) {
+        this.ids = ids;
+        this.counts = counts;
+    }
+
+    public int size() {
+        return ids.length;
+    }
+
+    public long id(int index) {
+        return ids[index];
+    }
+
+    public int count(int index) {
+        return counts[index];
+    }
+}
@@ -0,0 +1,35 @@
+package com.leathric.services.sales;
+
+import com.leathric.config.SalesRollupProperties;
+import com.leathric.entity.OutboxEvent;
+import com.leathric.interfaces.OutboxEventHandler;
+import com.leathric.services.outbox.OrderEventOutbox;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.Set;
+
+/**
+ * Keeps the sales rollups current from delivered order events, off the checkout and admin transactions.
+ * The event only says which order changed; the store re-reads its status, so stale or repeated events are harmless.
+ */
+@Component
+@RequiredArgsConstructor
+public class SalesRollupEventHandler implements OutboxEventHandler {
+
+    private static final Set<String> EVENT_TYPES = Set.of(OrderEventOutbox.PAYMENT_CONFIRMED,
+            OrderEventOutbox.ORDER_STATUS_CHANGED, OrderEventOutbox.ORDER_CANCELLED);
+
+    private final SalesRollupStore salesRollupStore;
+    private final SalesRollupProperties properties;
+
+    @Override
+    public boolean supports(String eventType) {
+        return properties.isEnabled() && EVENT_TYPES.contains(eventType);
+    }
+
+    @Override
+    public void handle(OutboxEvent event) {
+        salesRollupStore.syncOrder(event.getAggregateId());
+    }
+}
@@ -0,0 +1,284 @@
+package com.leathric.services.sales;
+
+import com.leathric.config.OrderArchiveProperties;
+import com.leathric.config.SalesRollupProperties;
+import com.leathric.dto.SalesDtos;
+import com.leathric.entity.OrderStatus;
+import com.leathric.entity.PaymentStatus;
+import com.leathric.exception.BadRequestException;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+
+/**
+ * Daily sales rollups by product, category and store total, keyed by order date.
+ * <p>
+ * {@link #syncOrder(long)} moves one order in or out of the rollups with additive upserts when it starts or
+ * stops counting as a sale (paid and neither cancelled nor refunded). A per-order marker row, locked for the duration, makes it idempotent,
+ * so it can run for every delivered order event in any number. {@link #rebuild(LocalDate, LocalDate)}
+ * recomputes whole days from {@code orders}/{@code order_items}, one transaction per day, several days at once.
+ * Archived orders are gone from those tables, so days that have or may get archived orders keep their
+ * incrementally maintained rollups and cannot be rebuilt.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class SalesRollupStore {
+
+    private static final String COUNTED_STATUSES = Arrays.stream(OrderStatus.values())
+            .filter(status -> status.countsAsSale(PaymentStatus.COMPLETED))
+            .map(status -> "'" + status.name() + "'")
+            .collect(Collectors.joining(", ", "(", ")"));
+
+    private static final String CREATED_AT_SQL = "SELECT created_at FROM orders WHERE id = ?";
+    private static final String STATUS_SQL = "SELECT status, payment_status FROM orders WHERE id = ?";
+    private static final String MARKER_INSERT_SQL =
+            "INSERT IGNORE INTO sales_rollup_orders (order_id, sale_date, counted) VALUES (?, ?, FALSE)";
+    private static final String MARKER_LOCK_SQL =
+            "SELECT counted FROM sales_rollup_orders WHERE order_id = ? FOR UPDATE";
+    private static final String MARKER_UPDATE_SQL = "UPDATE sales_rollup_orders SET counted = ? WHERE order_id = ?";
+    private static final String ORDER_LINES_SQL =
+            "SELECT oi.product_id, p.category_id, SUM(oi.quantity) AS units, SUM(oi.quantity * oi.price) AS revenue "
+                    + "FROM order_items oi JOIN products p ON p.id = oi.product_id WHERE oi.order_id = ? "
+                    + "GROUP BY oi.product_id, p.category_id";
+
+    private static final String PRODUCT_UPSERT_SQL =
+            "INSERT INTO sales_daily_product (sale_date, product_id, order_count, units, revenue) VALUES (?, ?, ?, ?, ?) "
+                    + "ON DUPLICATE KEY UPDATE order_count = order_count + VALUES(order_count), "
+                    + "units = units + VALUES(units), revenue = revenue + VALUES(revenue)";
+    private static final String CATEGORY_UPSERT_SQL =
+            "INSERT INTO sales_daily_category (sale_date, category_id, order_count, units, revenue) VALUES (?, ?, ?, ?, ?) "
+                    + "ON DUPLICATE KEY UPDATE order_count = order_count + VALUES(order_count), "
+                    + "units = units + VALUES(units), revenue = revenue + VALUES(revenue)";
+    private static final String TOTAL_UPSERT_SQL =
+            "INSERT INTO sales_daily_totals (sale_date, order_count, units, revenue) VALUES (?, ?, ?, ?) "
+                    + "ON DUPLICATE KEY UPDATE order_count = order_count + VALUES(order_count), "
+                    + "units = units + VALUES(units), revenue = revenue + VALUES(revenue)";
+
+    private static final String DAY_FILTER = "FROM orders o JOIN order_items oi ON oi.order_id = o.id "
+            + "WHERE o.created_at >= ? AND o.created_at < ? AND o.payment_status = 'COMPLETED' "
+            + "AND o.status IN " + COUNTED_STATUSES;
+    private static final String REBUILD_PRODUCT_SQL =
+            "INSERT INTO sales_daily_product (sale_date, product_id, order_count, units, revenue) "
+                    + "SELECT ?, oi.product_id, COUNT(DISTINCT o.id), SUM(oi.quantity), SUM(oi.quantity * oi.price) "
+                    + DAY_FILTER + " GROUP BY oi.product_id";
+    private static final String REBUILD_CATEGORY_SQL =
+            "INSERT INTO sales_daily_category (sale_date, category_id, order_count, units, revenue) "
+                    + "SELECT ?, p.category_id, COUNT(DISTINCT o.id), SUM(oi.quantity), SUM(oi.quantity * oi.price) "
+                    + DAY_FILTER.replace("WHERE", "JOIN products p ON p.id = oi.product_id WHERE")
+                    + " GROUP BY p.category_id";
+    private static final String REBUILD_TOTAL_SQL =
+            "INSERT INTO sales_daily_totals (sale_date, order_count, units, revenue) "
+                    + "SELECT ?, COUNT(DISTINCT o.id), SUM(oi.quantity), SUM(oi.quantity * oi.price) "
+                    + DAY_FILTER + " HAVING COUNT(*) > 0";
+    private static final String REBUILD_MARKERS_SQL =
+            "INSERT INTO sales_rollup_orders (order_id, sale_date, counted) SELECT o.id, ?, TRUE FROM orders o "
+                    + "WHERE o.created_at >= ? AND o.created_at < ? AND o.payment_status = 'COMPLETED' "
+                    + "AND o.status IN " + COUNTED_STATUSES;
+
+    private static final String LATEST_ARCHIVED_SQL = "SELECT MAX(created_at) FROM archived_orders";
+
+    private static final String DAILY_SQL =
+            "SELECT sale_date, order_count, units, revenue FROM sales_daily_totals "
+                    + "WHERE sale_date BETWEEN ? AND ? ORDER BY sale_date";
+    private static final String TOP_PRODUCTS_SQL =
+            "SELECT s.product_id, p.name, SUM(s.order_count) AS order_count, SUM(s.units) AS units, SUM(s.revenue) AS revenue "
+                    + "FROM sales_daily_product s LEFT JOIN products p ON p.id = s.product_id "
+                    + "WHERE s.sale_date BETWEEN ? AND ? GROUP BY s.product_id, p.name "
+                    + "HAVING SUM(s.units) > 0 ORDER BY revenue DESC, s.product_id LIMIT ?";
+    private static final String CATEGORIES_SQL =
+            "SELECT s.category_id, c.name, SUM(s.order_count) AS order_count, SUM(s.units) AS units, SUM(s.revenue) AS revenue "
+                    + "FROM sales_daily_category s LEFT JOIN categories c ON c.id = s.category_id "
+                    + "WHERE s.sale_date BETWEEN ? AND ? GROUP BY s.category_id, c.name "
+                    + "HAVING SUM(s.units) > 0 ORDER BY revenue DESC, s.category_id";
+
+    /** Markers first: a concurrent {@link #syncOrder(long)} for the day blocks on them until the day is rebuilt. */
+    private static final List<String> ROLLUP_TABLES =
+            List.of("sales_rollup_orders", "sales_daily_product", "sales_daily_category", "sales_daily_totals");
+
+    private final DataSource dataSource;
+    private final PlatformTransactionManager transactionManager;
+    private final SalesRollupProperties properties;
+    private final OrderArchiveProperties archiveProperties;
+
+    private final AtomicBoolean rebuilding = new AtomicBoolean();
+
+    /**
+     * Brings one order's contribution in line with its current status. Must run inside a transaction.
+     *
+     * @return {@code true} if the rollups changed
+     */
+    public boolean syncOrder(long orderId) {
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        List<Timestamp> createdAt = jdbcTemplate.query(CREATED_AT_SQL, (rs, row) -> rs.getTimestamp("created_at"), orderId);
+        if (createdAt.isEmpty()) {
+            return false;
+        }
+        LocalDate saleDate = createdAt.get(0).toLocalDateTime().toLocalDate();
+        jdbcTemplate.update(MARKER_INSERT_SQL, orderId, Date.valueOf(saleDate));
+        boolean counted = Boolean.TRUE.equals(jdbcTemplate.queryForObject(MARKER_LOCK_SQL, Boolean.class, orderId));
+        // Read after taking the marker lock so concurrent syncs of this order see each other's outcome.
+        boolean countsAsSale = Boolean.TRUE.equals(jdbcTemplate.queryForObject(STATUS_SQL, (rs, row) ->
+                OrderStatus.valueOf(rs.getString("status")).countsAsSale(PaymentStatus.valueOf(rs.getString("payment_status"))),
+                orderId));
+        if (countsAsSale == counted) {
+            return false;
+        }
+
+        int sign = counted ? -1 : 1;
+        Map<Long, long[]> productUnits = new TreeMap<>();
+        Map<Long, BigDecimal> productRevenue = new TreeMap<>();
+        Map<Long, long[]> categoryUnits = new TreeMap<>();
+        Map<Long, BigDecimal> categoryRevenue = new TreeMap<>();
+        jdbcTemplate.query(ORDER_LINES_SQL, rs -> {
+            long productId = rs.getLong("product_id");
+            long categoryId = rs.getLong("category_id");
+            long units = rs.getLong("units");
+            BigDecimal revenue = rs.getBigDecimal("revenue");
+            productUnits.computeIfAbsent(productId, id -> new long[1])[0] += units;
+            productRevenue.merge(productId, revenue, BigDecimal::add);
+            categoryUnits.computeIfAbsent(categoryId, id -> new long[1])[0] += units;
+            categoryRevenue.merge(categoryId, revenue, BigDecimal::add);
+        }, orderId);
+
+        Date day = Date.valueOf(saleDate);
+        List<Object[]> productRows = new ArrayList<>(productUnits.size());
+        productUnits.forEach((productId, units) -> productRows.add(new Object[]{
+                day, productId, sign, sign * units[0], productRevenue.get(productId).multiply(BigDecimal.valueOf(sign))}));
+        List<Object[]> categoryRows = new ArrayList<>(categoryUnits.size());
+        categoryUnits.forEach((categoryId, units) -> categoryRows.add(new Object[]{
+                day, categoryId, sign, sign * units[0], categoryRevenue.get(categoryId).multiply(BigDecimal.valueOf(sign))}));
+        long totalUnits = productUnits.values().stream().mapToLong(units -> units[0]).sum();
+        BigDecimal totalRevenue = productRevenue.values().stream().reduce(BigDecimal.ZERO, BigDecimal::add);
+
+        // Fixed table and key order keeps concurrent syncs from deadlocking on the shared daily rows.
+        jdbcTemplate.batchUpdate(PRODUCT_UPSERT_SQL, productRows);
+        jdbcTemplate.batchUpdate(CATEGORY_UPSERT_SQL, categoryRows);
+        jdbcTemplate.update(TOTAL_UPSERT_SQL, day, sign, sign * totalUnits, totalRevenue.multiply(BigDecimal.valueOf(sign)));
+        jdbcTemplate.update(MARKER_UPDATE_SQL, !counted, orderId);
+        return true;
+    }
+
+    /**
+     * Earliest day with all of its orders still in the live tables for good: after the newest archived order,
+     * and, while archiving runs, after the retention cutoff.
+     */
+    public LocalDate firstRebuildableDay() {
+        LocalDate first = LocalDate.MIN;
+        Timestamp latestArchived = new JdbcTemplate(dataSource).queryForObject(LATEST_ARCHIVED_SQL, Timestamp.class);
+        if (latestArchived != null) {
+            first = latestArchived.toLocalDateTime().toLocalDate().plusDays(1);
+        }
+        if (archiveProperties.isEnabled()) {
+            LocalDate cutoff = LocalDate.now().minusDays(archiveProperties.getRetentionDays()).plusDays(1);
+            first = cutoff.isAfter(first) ? cutoff : first;
+        }
+        return first;
+    }
+
+    /**
+     * Recomputes every day in {@code [from, to]} from the order tables.
+     *
+     * @return days rebuilt, or {@code -1} if a rebuild was already running
+     * @throws BadRequestException if the range reaches days with archived orders
+     */
+    public int rebuild(LocalDate from, LocalDate to) {
+        LocalDate firstRebuildable = firstRebuildableDay();
+        if (from.isBefore(firstRebuildable)) {
+            throw new BadRequestException("Sales before " + firstRebuildable
+                    + " include archived orders and cannot be rebuilt from the order tables");
+        }
+        if (!rebuilding.compareAndSet(false, true)) {
+            log.info("Sales rollup rebuild already in progress, skipping");
+            return -1;
+        }
+        long started = System.currentTimeMillis();
+        ExecutorService pool = Executors.newFixedThreadPool(properties.getRebuildParallelism());
+        try {
+            List<Future<?>> days = new ArrayList<>();
+            for (LocalDate day = from; !day.isAfter(to); day = day.plusDays(1)) {
+                LocalDate current = day;
+                days.add(pool.submit(() -> rebuildDay(current)));
+            }
+            for (Future<?> day : days) {
+                day.get();
+            }
+            log.info("Rebuilt sales rollups for {} days ({} to {}) in {} ms",
+                    days.size(), from, to, System.currentTimeMillis() - started);
+            return days.size();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Sales rollup rebuild interrupted", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Sales rollup rebuild failed", e.getCause());
+        } finally {
+            pool.shutdownNow();
+            rebuilding.set(false);
+        }
+    }
+
+    public List<SalesDtos.DailySales> daily(LocalDate from, LocalDate to) {
+        return new JdbcTemplate(dataSource).query(DAILY_SQL, (rs, row) -> SalesDtos.DailySales.builder()
+                .date(rs.getDate("sale_date").toLocalDate())
+                .orderCount(rs.getLong("order_count"))
+                .units(rs.getLong("units"))
+                .revenue(rs.getBigDecimal("revenue"))
+                .build(), Date.valueOf(from), Date.valueOf(to));
+    }
+
+    public List<SalesDtos.ProductSales> topProducts(LocalDate from, LocalDate to, int limit) {
+        return new JdbcTemplate(dataSource).query(TOP_PRODUCTS_SQL, (rs, row) -> SalesDtos.ProductSales.builder()
+                .productId(rs.getLong("product_id"))
+                .productName(rs.getString("name"))
+                .orderCount(rs.getLong("order_count"))
+                .units(rs.getLong("units"))
+                .revenue(rs.getBigDecimal("revenue"))
+                .build(), Date.valueOf(from), Date.valueOf(to), limit);
+    }
+
+    public List<SalesDtos.CategorySales> categories(LocalDate from, LocalDate to) {
+        return new JdbcTemplate(dataSource).query(CATEGORIES_SQL, (rs, row) -> SalesDtos.CategorySales.builder()
+                .categoryId(rs.getLong("category_id"))
+                .categoryName(rs.getString("name"))
+                .orderCount(rs.getLong("order_count"))
+                .units(rs.getLong("units"))
+                .revenue(rs.getBigDecimal("revenue"))
+                .build(), Date.valueOf(from), Date.valueOf(to));
+    }
+
+    private void rebuildDay(LocalDate day) {
+        Date saleDate = Date.valueOf(day);
+        Timestamp start = Timestamp.valueOf(day.atStartOfDay());
+        Timestamp end = Timestamp.valueOf(day.plusDays(1).atStartOfDay());
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+            for (String table : ROLLUP_TABLES) {
+                jdbcTemplate.update("DELETE FROM " + table + " WHERE sale_date = ?", saleDate);
+            }
+            jdbcTemplate.update(REBUILD_MARKERS_SQL, saleDate, start, end);
+            jdbcTemplate.update(REBUILD_PRODUCT_SQL, saleDate, start, end);
+            jdbcTemplate.update(REBUILD_CATEGORY_SQL, saleDate, start, end);
+            jdbcTemplate.update(REBUILD_TOTAL_SQL, saleDate, start, end);
+        });
+    }
+}
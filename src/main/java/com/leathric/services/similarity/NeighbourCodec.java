@@ -0,0 +1,35 @@
+package com.leathric.services.similarity;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Packs neighbour lists as consecutive (8-byte product id, 4-byte float score) big-endian pairs.
+ */
+final class NeighbourCodec {
+
+    static final int ENTRY_BYTES = Long.BYTES + Float.BYTES;
+
+    private NeighbourCodec() {}
+
+    static byte[] encode(long[] ids, float[] scores, int offset, int count) {
+        ByteBuffer buffer = ByteBuffer.allocate(count * ENTRY_BYTES);
+        for (int i = offset; i < offset + count; i++) {
+            buffer.putLong(ids[i]).putFloat(scores != null ? scores[i] : 0f);
+        }
+        return buffer.array();
+    }
+
+    /**
+     * Decodes up to {@code limit} neighbour ids into {@code out} at {@code offset}.
+     *
+     * @return number of ids written
+     */
+    static int decodeIds(byte[] encoded, long[] out, int offset, int limit) {
+        ByteBuffer buffer = ByteBuffer.wrap(encoded);
+        int count = Math.min(limit, encoded.length / ENTRY_BYTES);
+        for (int i = 0; i < count; i++) {
+            out[offset + i] = buffer.getLong(i * ENTRY_BYTES);
+        }
+        return count;
+    }
+}
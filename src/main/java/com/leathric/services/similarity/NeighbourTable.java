@@ -0,0 +1,80 @@
+package com.leathric.services.similarity;
+
+import java.util.Arrays;
+
+/**
+ * Fixed-width neighbour lists keyed by ascending product id: row {@code i} holds the neighbours of
+ * {@code productIds[i]}, best first, padded with id {@code 0}. Scores are kept only until the lists are
+ * persisted; the lookup cache uses {@link #withoutScores()}.
+ */
+public final class NeighbourTable {
+
+    private static final long[] NONE = new long[0];
+
+    private final long[] productIds;
+    private final int width;
+    private final long[] neighbourIds;
+    private final float[] scores;
+
+    public NeighbourTable(long[] productIds, int width, long[] neighbourIds, float[] scores) {
+        this.productIds = productIds;
+        this.width = width;
+        this.neighbourIds = neighbourIds;
+        this.scores = scores;
+    }
+
+    public static NeighbourTable empty(int width) {
+        return new NeighbourTable(NONE, width, NONE, null);
+    }
+
+    public int size() {
+        return productIds.length;
+    }
+
+    public int width() {
+        return width;
+    }
+
+    public long productId(int row) {
+        return productIds[row];
+    }
+
+    /**
+     * Neighbour ids of a product, best first; empty when the product has none or is unknown.
+     */
+    public long[] neighbours(long productId) {
+        int row = Arrays.binarySearch(productIds, productId);
+        return row >= 0 ? neighboursAt(row) : NONE;
+    }
+
+    public long[] neighboursAt(int row) {
+        int from = row * width;
+        int count = count(row);
+        return count == 0 ? NONE : Arrays.copyOfRange(neighbourIds, from, from + count);
+    }
+
+    public boolean hasNeighbours(int row) {
+        return width > 0 && neighbourIds[row * width] != 0L;
+    }
+
+    /**
+     * Row encoded for the {@code product_similarities} table, or {@code null} when it has no neighbours.
+     */
+    public byte[] encodeRow(int row) {
+        int count = count(row);
+        return count == 0 ? null : NeighbourCodec.encode(neighbourIds, scores, row * width, count);
+    }
+
+    public NeighbourTable withoutScores() {
+        return new NeighbourTable(productIds, width, neighbourIds, null);
+    }
+
+    private int count(int row) {
+        int from = row * width;
+        int count = 0;
+        while (count < width && neighbourIds[from + count] != 0L) {
+            count++;
+        }
+        return count;
+    }
+}
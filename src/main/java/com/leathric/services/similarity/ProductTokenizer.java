@@ -0,0 +1,52 @@
+package com.leathric.services.similarity;
+
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Splits product text into lower-cased alphanumeric terms with field-weighted raw frequencies.
+ * Name terms count double so a short title outweighs boilerplate in long descriptions.
+ */
+final class ProductTokenizer {
+
+    static final float NAME_WEIGHT = 2f;
+    static final float DESCRIPTION_WEIGHT = 1f;
+
+    private static final Set<String> STOP_WORDS = Set.of(
+            "a", "an", "and", "are", "as", "at", "be", "by", "for", "from", "has", "in", "into", "is", "it",
+            "its", "of", "on", "or", "our", "that", "the", "this", "to", "with", "you", "your");
+
+    private ProductTokenizer() {}
+
+    static Map<String, Float> termFrequencies(String name, String description) {
+        Map<String, Float> frequencies = new HashMap<>();
+        add(frequencies, name, NAME_WEIGHT);
+        add(frequencies, description, DESCRIPTION_WEIGHT);
+        return frequencies;
+    }
+
+    private static void add(Map<String, Float> frequencies, String text, float weight) {
+        if (text == null) {
+            return;
+        }
+        int length = text.length();
+        int start = -1;
+        for (int i = 0; i <= length; i++) {
+            if (i < length && Character.isLetterOrDigit(text.charAt(i))) {
+                if (start < 0) {
+                    start = i;
+                }
+            } else if (start >= 0) {
+                if (i - start >= 2) {
+                    String term = text.substring(start, i).toLowerCase(Locale.ROOT);
+                    if (!STOP_WORDS.contains(term)) {
+                        frequencies.merge(term, weight, Float::sum);
+                    }
+                }
+                start = -1;
+            }
+        }
+    }
+}
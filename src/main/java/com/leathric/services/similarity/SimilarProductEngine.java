@@ -0,0 +1,322 @@
+package com.leathric.services.similarity;
+
+import com.leathric.config.SimilarityProperties;
+import com.leathric.dto.CatalogSyncDtos;
+import com.leathric.dto.ProductResponseDto;
+import com.leathric.repository.CatalogChangeRepository;
+import com.leathric.service.CatalogSyncService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Precomputes "more like this" neighbours and serves them from memory.
+ * <p>
+ * A full batch scans the catalog twice (document frequencies, then vectors), computes every product's
+ * top neighbours on a dedicated fork/join pool, upserts them into {@code product_similarities} and swaps
+ * the in-memory table. Between batches, products reported by the catalog change feed are re-scored
+ * against the last index and their lists kept in an overlay; their new text becomes findable from other
+ * products at the next full batch. On startup the stored lists are loaded immediately and the index is
+ * rebuilt on the first incremental tick.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class SimilarProductEngine {
+
+    private static final String TEXT_SCAN_SQL = "SELECT name, description FROM products";
+
+    private static final String PRODUCT_SCAN_SQL =
+            "SELECT p.id, p.name, p.description, c.name AS category_name " +
+            "FROM products p LEFT JOIN categories c ON c.id = p.category_id ORDER BY p.id";
+
+    private static final String PRODUCTS_BY_ID_SQL =
+            "SELECT p.id, p.name, p.description, c.name AS category_name " +
+            "FROM products p LEFT JOIN categories c ON c.id = p.category_id WHERE p.id IN (%s)";
+
+    private static final String LOAD_SQL = "SELECT product_id, neighbours FROM product_similarities ORDER BY product_id";
+
+    private static final String UPSERT_SQL =
+            "INSERT INTO product_similarities (product_id, neighbours, computed_at) VALUES (?, ?, ?) " +
+            "ON DUPLICATE KEY UPDATE neighbours = VALUES(neighbours), computed_at = VALUES(computed_at)";
+
+    private static final String DELETE_STALE_SQL = "DELETE FROM product_similarities WHERE computed_at < ?";
+    private static final String DELETE_SQL = "DELETE FROM product_similarities WHERE product_id = ?";
+
+    private static final int CHANGE_PAGE_SIZE = 5000;
+    private static final int LOOKUP_CHUNK_SIZE = 500;
+    private static final long[] NONE = new long[0];
+
+    private final DataSource dataSource;
+    private final CatalogSyncService catalogSyncService;
+    private final CatalogChangeRepository catalogChangeRepository;
+    private final SimilarityProperties properties;
+
+    private final AtomicBoolean running = new AtomicBoolean();
+    private final Map<Long, long[]> overlay = new ConcurrentHashMap<>();
+    private volatile NeighbourTable table;
+    private volatile SimilarityIndex index;
+    private volatile long cursor;
+
+    /**
+     * Neighbour ids of a product, best first. Pure in-memory lookup; empty when nothing is known yet.
+     */
+    public long[] neighbours(long productId) {
+        long[] updated = overlay.get(productId);
+        if (updated != null) {
+            return updated;
+        }
+        NeighbourTable current = table;
+        return current != null ? current.neighbours(productId) : NONE;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onStartup() {
+        if (properties.isEnabled()) {
+            loadStored();
+        }
+    }
+
+    @Scheduled(cron = "${app.catalog.similarity.rebuild-cron:0 30 3 * * *}")
+    public void scheduledRebuild() {
+        if (properties.isEnabled()) {
+            rebuild();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.catalog.similarity.incremental-interval-ms:60000}",
+            initialDelayString = "${app.catalog.similarity.incremental-interval-ms:60000}")
+    public void scheduledIncremental() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        if (index == null) {
+            rebuild();
+        } else {
+            applyChanges();
+        }
+    }
+
+    /**
+     * Full batch; concurrent invocations (including incremental runs) are skipped rather than queued.
+     *
+     * @return number of products indexed, or {@code -1} if another run was in progress
+     */
+    public int rebuild() {
+        if (!running.compareAndSet(false, true)) {
+            log.info("Similarity batch already in progress, skipping");
+            return -1;
+        }
+        long started = System.currentTimeMillis();
+        try {
+            LocalDateTime computedAt = LocalDateTime.now();
+            long sequence = catalogChangeRepository.findLatestSequence().orElse(0L);
+
+            SimilarityIndex.Builder builder = SimilarityIndex.builder(properties);
+            streamingTemplate().query(TEXT_SCAN_SQL, rs -> {
+                builder.countTerms(rs.getString("name"), rs.getString("description"));
+            });
+            streamingTemplate().query(PRODUCT_SCAN_SQL, rs -> {
+                builder.addProduct(rs.getLong("id"), rs.getString("name"), rs.getString("description"),
+                        rs.getString("category_name"));
+            });
+            SimilarityIndex built = builder.build();
+            long indexed = System.currentTimeMillis();
+
+            ForkJoinPool pool = new ForkJoinPool(parallelism());
+            NeighbourTable computed;
+            try {
+                computed = built.computeAll(properties.getNeighbours(), pool);
+            } finally {
+                pool.shutdown();
+            }
+            long scored = System.currentTimeMillis();
+
+            persist(computed, computedAt);
+            new JdbcTemplate(dataSource).update(DELETE_STALE_SQL, Timestamp.valueOf(computedAt));
+
+            index = built;
+            table = computed.withoutScores();
+            overlay.clear();
+            cursor = sequence;
+            log.info("Similarity batch: {} products indexed in {} ms, scored in {} ms, stored in {} ms",
+                    built.size(), indexed - started, scored - indexed, System.currentTimeMillis() - scored);
+            return built.size();
+        } finally {
+            running.set(false);
+        }
+    }
+
+    /**
+     * Re-scores products changed since the last run against the current index.
+     *
+     * @return number of products updated or removed, or {@code -1} if skipped
+     */
+    public int applyChanges() {
+        SimilarityIndex current = index;
+        if (current == null || !running.compareAndSet(false, true)) {
+            return -1;
+        }
+        try {
+            Set<Long> upserts = new LinkedHashSet<>();
+            Set<Long> deletes = new LinkedHashSet<>();
+            long next = cursor;
+            CatalogSyncDtos.ChangesResponse page;
+            do {
+                page = catalogSyncService.getChanges(next, CHANGE_PAGE_SIZE);
+                for (ProductResponseDto product : page.getUpserts()) {
+                    upserts.add(product.getId());
+                }
+                deletes.addAll(page.getDeletedProductIds());
+                next = page.getCursor();
+            } while (page.isHasMore());
+            upserts.removeAll(deletes);
+
+            JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+            List<Object[]> deleted = new ArrayList<>();
+            for (Long productId : deletes) {
+                current.markRemoved(productId);
+                overlay.put(productId, NONE);
+                deleted.add(new Object[]{productId});
+            }
+            if (!deleted.isEmpty()) {
+                jdbcTemplate.batchUpdate(DELETE_SQL, deleted);
+            }
+            if (!upserts.isEmpty()) {
+                rescore(current, new ArrayList<>(upserts), jdbcTemplate);
+            }
+            cursor = next;
+            if (!upserts.isEmpty() || !deletes.isEmpty()) {
+                log.info("Similarity incremental update: {} products re-scored, {} removed", upserts.size(), deletes.size());
+            }
+            return upserts.size() + deletes.size();
+        } finally {
+            running.set(false);
+        }
+    }
+
+    private void rescore(SimilarityIndex current, List<Long> productIds, JdbcTemplate jdbcTemplate) {
+        int width = properties.getNeighbours();
+        SimilarityIndex.Scratch scratch = current.newScratch(width);
+        SimilarityIndex.Neighbours neighbours = new SimilarityIndex.Neighbours(width);
+        Timestamp computedAt = Timestamp.valueOf(LocalDateTime.now());
+        for (int from = 0; from < productIds.size(); from += LOOKUP_CHUNK_SIZE) {
+            List<Long> chunk = productIds.subList(from, Math.min(productIds.size(), from + LOOKUP_CHUNK_SIZE));
+            String sql = String.format(PRODUCTS_BY_ID_SQL, String.join(",", Collections.nCopies(chunk.size(), "?")));
+            List<Object[]> rows = new ArrayList<>();
+            List<Object[]> empty = new ArrayList<>();
+            jdbcTemplate.query(sql, rs -> {
+                long productId = rs.getLong("id");
+                current.neighboursOf(productId, rs.getString("name"), rs.getString("description"),
+                        rs.getString("category_name"), scratch, neighbours);
+                long[] ids = neighbours.ids();
+                int count = 0;
+                while (count < ids.length && ids[count] != 0L) {
+                    count++;
+                }
+                overlay.put(productId, Arrays.copyOf(ids, count));
+                if (count > 0) {
+                    rows.add(new Object[]{productId, NeighbourCodec.encode(ids, neighbours.scores(), 0, count), computedAt});
+                } else {
+                    empty.add(new Object[]{productId});
+                }
+            }, chunk.toArray());
+            if (!rows.isEmpty()) {
+                jdbcTemplate.batchUpdate(UPSERT_SQL, rows);
+            }
+            if (!empty.isEmpty()) {
+                jdbcTemplate.batchUpdate(DELETE_SQL, empty);
+            }
+        }
+    }
+
+    private void persist(NeighbourTable computed, LocalDateTime computedAt) {
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        Timestamp timestamp = Timestamp.valueOf(computedAt);
+        int batchSize = properties.getWriteBatchSize();
+        int[] rows = new int[batchSize];
+        int pending = 0;
+        for (int row = 0; row < computed.size(); row++) {
+            if (!computed.hasNeighbours(row)) {
+                continue;
+            }
+            rows[pending++] = row;
+            if (pending == batchSize) {
+                writeBatch(jdbcTemplate, computed, rows, pending, timestamp);
+                pending = 0;
+            }
+        }
+        if (pending > 0) {
+            writeBatch(jdbcTemplate, computed, rows, pending, timestamp);
+        }
+    }
+
+    private void writeBatch(JdbcTemplate jdbcTemplate, NeighbourTable computed, int[] rows, int count, Timestamp computedAt) {
+        jdbcTemplate.batchUpdate(UPSERT_SQL, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                int row = rows[i];
+                ps.setLong(1, computed.productId(row));
+                ps.setBytes(2, computed.encodeRow(row));
+                ps.setTimestamp(3, computedAt);
+            }
+
+            @Override
+            public int getBatchSize() {
+                return count;
+            }
+        });
+    }
+
+    private void loadStored() {
+        int width = properties.getNeighbours();
+        long[][] ids = {new long[1024]};
+        long[][] neighbourIds = {new long[1024 * width]};
+        int[] rows = {0};
+        streamingTemplate().query(LOAD_SQL, rs -> {
+            int row = rows[0]++;
+            if (row == ids[0].length) {
+                ids[0] = Arrays.copyOf(ids[0], row * 2);
+                neighbourIds[0] = Arrays.copyOf(neighbourIds[0], row * 2 * width);
+            }
+            ids[0][row] = rs.getLong("product_id");
+            NeighbourCodec.decodeIds(rs.getBytes("neighbours"), neighbourIds[0], row * width, width);
+        });
+        if (table == null) {
+            table = new NeighbourTable(Arrays.copyOf(ids[0], rows[0]), width,
+                    Arrays.copyOf(neighbourIds[0], rows[0] * width), null);
+            log.info("Loaded stored similar-product lists for {} products", rows[0]);
+        }
+    }
+
+    private int parallelism() {
+        return properties.getParallelism() > 0 ? properties.getParallelism() : Runtime.getRuntime().availableProcessors();
+    }
+
+    private JdbcTemplate streamingTemplate() {
+        JdbcTemplate template = new JdbcTemplate(dataSource);
+        template.setFetchSize(Integer.MIN_VALUE);
+        return template;
+    }
+}
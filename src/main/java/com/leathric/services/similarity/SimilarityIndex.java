@@ -0,0 +1,511 @@
+package com.leathric.services.similarity;
+
+import com.leathric.config.SimilarityProperties;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Sparse TF-IDF vectors for the catalog plus an inverted index over them.
+ * <p>
+ * Vectors are L2-normalised over every term of a product but only keep its highest-weighted
+ * <em>searchable</em> terms, i.e. terms shared by at least two and at most {@code maxPostings} products.
+ * Everything is held in flat primitive arrays (CSR layout) so a million products fit in a few hundred MB.
+ * Neighbours are found by accumulating dot products over the postings of a product's top query terms,
+ * which touches only candidates sharing a reasonably rare term instead of scoring every pair.
+ * <p>
+ * An index is immutable apart from {@link #markRemoved(long)}, which the single incremental updater uses
+ * to keep deleted products out of later results.
+ */
+public final class SimilarityIndex {
+
+    private final Map<String, Integer> termIds;
+    private final float[] idf;
+    private final boolean[] searchable;
+    private final float unseenIdf;
+    private final Map<String, Integer> categoryIds;
+
+    private final long[] productIds;
+    private final int[] categories;
+    private final int[] vectorOffsets;
+    private final int[] vectorTerms;
+    private final float[] vectorWeights;
+
+    private final int[] postingOffsets;
+    private final int[] postingDocs;
+    private final float[] postingWeights;
+
+    private final boolean[] removed;
+    private final int termsPerProduct;
+    private final int maxQueryTerms;
+    private final float categoryBoost;
+
+    private SimilarityIndex(Builder builder) {
+        this.termIds = builder.termIds;
+        this.idf = builder.idf;
+        this.searchable = builder.searchable;
+        this.unseenIdf = builder.unseenIdf;
+        this.categoryIds = builder.categoryIds;
+        this.productIds = Arrays.copyOf(builder.productIds, builder.documents);
+        this.categories = Arrays.copyOf(builder.categories, builder.documents);
+        this.vectorOffsets = Arrays.copyOf(builder.vectorOffsets, builder.documents + 1);
+        this.vectorTerms = Arrays.copyOf(builder.vectorTerms, builder.entries);
+        this.vectorWeights = Arrays.copyOf(builder.vectorWeights, builder.entries);
+        this.removed = new boolean[builder.documents];
+        this.termsPerProduct = builder.properties.getTermsPerProduct();
+        this.maxQueryTerms = builder.properties.getMaxQueryTerms();
+        this.categoryBoost = builder.properties.getCategoryBoost();
+
+        // Invert the vectors: count postings per term, prefix-sum into offsets, then fill.
+        int terms = idf.length;
+        postingOffsets = new int[terms + 1];
+        for (int i = 0; i < vectorTerms.length; i++) {
+            postingOffsets[vectorTerms[i] + 1]++;
+        }
+        for (int t = 0; t < terms; t++) {
+            postingOffsets[t + 1] += postingOffsets[t];
+        }
+        postingDocs = new int[vectorTerms.length];
+        postingWeights = new float[vectorTerms.length];
+        int[] fill = Arrays.copyOf(postingOffsets, terms);
+        for (int doc = 0; doc < productIds.length; doc++) {
+            for (int i = vectorOffsets[doc]; i < vectorOffsets[doc + 1]; i++) {
+                int slot = fill[vectorTerms[i]]++;
+                postingDocs[slot] = doc;
+                postingWeights[slot] = vectorWeights[i];
+            }
+        }
+    }
+
+    public static Builder builder(SimilarityProperties properties) {
+        return new Builder(properties);
+    }
+
+    public int size() {
+        return productIds.length;
+    }
+
+    /**
+     * Computes the top {@code neighbours} for every product in parallel.
+     */
+    public NeighbourTable computeAll(int neighbours, ForkJoinPool pool) {
+        int documents = productIds.length;
+        long[] neighbourIds = new long[documents * neighbours];
+        float[] scores = new float[documents * neighbours];
+        ThreadLocal<Scratch> scratch = ThreadLocal.withInitial(() -> newScratch(neighbours));
+        pool.invoke(new NeighbourTask(0, documents, neighbours, neighbourIds, scores, scratch));
+        return new NeighbourTable(productIds, neighbours, neighbourIds, scores);
+    }
+
+    /**
+     * Scores a product's current text against the index, e.g. after it was edited.
+     * Terms unknown to this index only contribute to vector length.
+     *
+     * @param out receives up to {@code out.ids().length} neighbours, best first
+     */
+    public void neighboursOf(long productId, String name, String description, String categoryName,
+                             Scratch scratch, Neighbours out) {
+        int count = vector(ProductTokenizer.termFrequencies(name, description), scratch.queryTerms, scratch.queryWeights);
+        Integer category = categoryName != null ? categoryIds.get(categoryName) : null;
+        int self = Arrays.binarySearch(productIds, productId);
+        collect(scratch.queryTerms, scratch.queryWeights, 0, count, category != null ? category : -1,
+                self, scratch, out.ids, out.scores, 0, out.ids.length);
+    }
+
+    /**
+     * Excludes a deleted product from every later neighbour computation on this index.
+     */
+    public void markRemoved(long productId) {
+        int doc = Arrays.binarySearch(productIds, productId);
+        if (doc >= 0) {
+            removed[doc] = true;
+        }
+    }
+
+    public Scratch newScratch(int neighbours) {
+        return new Scratch(productIds.length, neighbours, termsPerProduct);
+    }
+
+    private void collectFor(int doc, Scratch scratch, long[] outIds, float[] outScores, int outOffset, int width) {
+        int from = vectorOffsets[doc];
+        collect(vectorTerms, vectorWeights, from, vectorOffsets[doc + 1] - from, categories[doc], doc,
+                scratch, outIds, outScores, outOffset, width);
+    }
+
+    private void collect(int[] terms, float[] weights, int from, int count, int category, int self,
+                         Scratch scratch, long[] outIds, float[] outScores, int outOffset, int width) {
+        float[] accumulated = scratch.scores;
+        int[] touched = scratch.touched;
+        int touchedCount = 0;
+
+        // Vector terms are stored heaviest first, so the first maxQueryTerms are the most selective ones.
+        int queryTerms = Math.min(count, maxQueryTerms);
+        for (int q = 0; q < queryTerms; q++) {
+            int term = terms[from + q];
+            float queryWeight = weights[from + q];
+            for (int p = postingOffsets[term]; p < postingOffsets[term + 1]; p++) {
+                int doc = postingDocs[p];
+                if (doc == self || removed[doc]) {
+                    continue;
+                }
+                if (accumulated[doc] == 0f) {
+                    touched[touchedCount++] = doc;
+                }
+                accumulated[doc] += queryWeight * postingWeights[p];
+            }
+        }
+
+        TopN top = scratch.top.reset(width);
+        for (int i = 0; i < touchedCount; i++) {
+            int doc = touched[i];
+            float score = accumulated[doc];
+            accumulated[doc] = 0f;
+            if (category >= 0 && categories[doc] == category) {
+                score += categoryBoost;
+            }
+            top.offer(doc, score);
+        }
+        top.drainDescending(productIds, outIds, outScores, outOffset);
+    }
+
+    /**
+     * Builds the normalised, pruned vector for raw term frequencies.
+     *
+     * @return number of entries written, heaviest first
+     */
+    private int vector(Map<String, Float> frequencies, int[] outTerms, float[] outWeights) {
+        return vector(frequencies, termIds, idf, searchable, unseenIdf, termsPerProduct, outTerms, outWeights);
+    }
+
+    private static int vector(Map<String, Float> frequencies, Map<String, Integer> termIds, float[] idf,
+                              boolean[] searchable, float unseenIdf, int limit, int[] outTerms, float[] outWeights) {
+        double norm = 0;
+        int count = 0;
+        for (Map.Entry<String, Float> entry : frequencies.entrySet()) {
+            Integer term = termIds.get(entry.getKey());
+            float weight = (float) ((1 + Math.log(entry.getValue())) * (term != null ? idf[term] : unseenIdf));
+            norm += (double) weight * weight;
+            if (term == null || !searchable[term]) {
+                continue;
+            }
+            // Bounded insertion sort keeps the heaviest `limit` searchable terms in descending order.
+            int position = count < limit ? count++ : limit;
+            while (position > 0 && outWeights[position - 1] < weight) {
+                if (position < limit) {
+                    outTerms[position] = outTerms[position - 1];
+                    outWeights[position] = outWeights[position - 1];
+                }
+                position--;
+            }
+            if (position < limit) {
+                outTerms[position] = term;
+                outWeights[position] = weight;
+            }
+        }
+        if (norm > 0) {
+            float scale = (float) (1 / Math.sqrt(norm));
+            for (int i = 0; i < count; i++) {
+                outWeights[i] *= scale;
+            }
+        }
+        return count;
+    }
+
+    private final class NeighbourTask extends RecursiveAction {
+
+        private static final int LEAF_SIZE = 512;
+
+        private final int from;
+        private final int to;
+        private final int width;
+        private final long[] neighbourIds;
+        private final float[] scores;
+        private final ThreadLocal<Scratch> scratch;
+
+        NeighbourTask(int from, int to, int width, long[] neighbourIds, float[] scores, ThreadLocal<Scratch> scratch) {
+            this.from = from;
+            this.to = to;
+            this.width = width;
+            this.neighbourIds = neighbourIds;
+            this.scores = scores;
+            this.scratch = scratch;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= LEAF_SIZE) {
+                Scratch local = scratch.get();
+                for (int doc = from; doc < to; doc++) {
+                    collectFor(doc, local, neighbourIds, scores, doc * width, width);
+                }
+                return;
+            }
+            int middle = (from + to) >>> 1;
+            invokeAll(new NeighbourTask(from, middle, width, neighbourIds, scores, scratch),
+                    new NeighbourTask(middle, to, width, neighbourIds, scores, scratch));
+        }
+    }
+
+    /**
+     * Per-thread working memory: a dense accumulator sized to the catalog plus the list of touched slots,
+     * so resetting after each product costs only what was touched.
+     */
+    public static final class Scratch {
+        private final float[] scores;
+        private final int[] touched;
+        private final TopN top;
+        private final int[] queryTerms;
+        private final float[] queryWeights;
+
+        private Scratch(int documents, int neighbours, int termsPerProduct) {
+            this.scores = new float[documents];
+            this.touched = new int[documents];
+            this.top = new TopN(neighbours);
+            this.queryTerms = new int[termsPerProduct];
+            this.queryWeights = new float[termsPerProduct];
+        }
+    }
+
+    /**
+     * Result holder for {@link #neighboursOf}; unused slots have id {@code 0}.
+     */
+    public static final class Neighbours {
+        private final long[] ids;
+        private final float[] scores;
+
+        public Neighbours(int width) {
+            this.ids = new long[width];
+            this.scores = new float[width];
+        }
+
+        public long[] ids() {
+            return ids;
+        }
+
+        public float[] scores() {
+            return scores;
+        }
+    }
+
+    /**
+     * Fixed-capacity min-heap on (score, then lower product id wins ties).
+     */
+    private static final class TopN {
+        private final int[] docs;
+        private final float[] scores;
+        private int capacity;
+        private int size;
+
+        TopN(int capacity) {
+            this.docs = new int[capacity];
+            this.scores = new float[capacity];
+        }
+
+        TopN reset(int capacity) {
+            this.capacity = Math.min(capacity, docs.length);
+            this.size = 0;
+            return this;
+        }
+
+        void offer(int doc, float score) {
+            if (size < capacity) {
+                docs[size] = doc;
+                scores[size] = score;
+                siftUp(size++);
+            } else if (capacity > 0 && better(score, doc, scores[0], docs[0])) {
+                docs[0] = doc;
+                scores[0] = score;
+                siftDown(0);
+            }
+        }
+
+        void drainDescending(long[] productIds, long[] outIds, float[] outScores, int outOffset) {
+            int filled = size;
+            for (int i = filled - 1; i >= 0; i--) {
+                outIds[outOffset + i] = productIds[docs[0]];
+                outScores[outOffset + i] = scores[0];
+                size--;
+                docs[0] = docs[size];
+                scores[0] = scores[size];
+                siftDown(0);
+            }
+            for (int i = filled; i < capacity; i++) {
+                outIds[outOffset + i] = 0L;
+                outScores[outOffset + i] = 0f;
+            }
+        }
+
+        // Product ids come from an id-ordered scan, so comparing doc indexes compares product ids.
+        private static boolean better(float score, int doc, float otherScore, int otherDoc) {
+            return score > otherScore || (score == otherScore && doc < otherDoc);
+        }
+
+        private void siftUp(int index) {
+            while (index > 0) {
+                int parent = (index - 1) >>> 1;
+                if (!better(scores[parent], docs[parent], scores[index], docs[index])) {
+                    break;
+                }
+                swap(index, parent);
+                index = parent;
+            }
+        }
+
+        private void siftDown(int index) {
+            while (true) {
+                int left = 2 * index + 1;
+                if (left >= size) {
+                    return;
+                }
+                int smallest = left;
+                int right = left + 1;
+                if (right < size && better(scores[left], docs[left], scores[right], docs[right])) {
+                    smallest = right;
+                }
+                if (!better(scores[index], docs[index], scores[smallest], docs[smallest])) {
+                    return;
+                }
+                swap(index, smallest);
+                index = smallest;
+            }
+        }
+
+        private void swap(int a, int b) {
+            int doc = docs[a];
+            docs[a] = docs[b];
+            docs[b] = doc;
+            float score = scores[a];
+            scores[a] = scores[b];
+            scores[b] = score;
+        }
+    }
+
+    /**
+     * Two-pass builder: {@link #countTerms} for every product, then {@link #addProduct} for every product
+     * in ascending id order. The vocabulary and IDF weights are frozen by the first {@code addProduct}.
+     */
+    public static final class Builder {
+
+        private final SimilarityProperties properties;
+        private Map<String, int[]> documentFrequencies = new HashMap<>();
+        private int counted;
+
+        private Map<String, Integer> termIds;
+        private float[] idf;
+        private boolean[] searchable;
+        private float unseenIdf;
+        private final Map<String, Integer> categoryIds = new HashMap<>();
+
+        private long[] productIds = new long[1024];
+        private int[] categories = new int[1024];
+        private int[] vectorOffsets = new int[1025];
+        private int[] vectorTerms = new int[16 * 1024];
+        private float[] vectorWeights = new float[16 * 1024];
+        private int documents;
+        private int entries;
+        private int[] termBuffer;
+        private float[] weightBuffer;
+        private long lastProductId = Long.MIN_VALUE;
+
+        private Builder(SimilarityProperties properties) {
+            this.properties = properties;
+        }
+
+        /**
+         * First pass: document frequencies.
+         */
+        public void countTerms(String name, String description) {
+            if (termIds != null) {
+                throw new IllegalStateException("Vocabulary already frozen");
+            }
+            counted++;
+            for (String term : ProductTokenizer.termFrequencies(name, description).keySet()) {
+                documentFrequencies.computeIfAbsent(term, k -> new int[1])[0]++;
+            }
+        }
+
+        /**
+         * Second pass: one vector per product, in ascending product id order.
+         */
+        public void addProduct(long productId, String name, String description, String categoryName) {
+            if (productId <= lastProductId) {
+                throw new IllegalArgumentException("Products must be added in ascending id order");
+            }
+            lastProductId = productId;
+            if (termIds == null) {
+                freezeVocabulary();
+            }
+            ensureDocumentCapacity();
+            int limit = properties.getTermsPerProduct();
+            ensureEntryCapacity(limit);
+            int count = vector(ProductTokenizer.termFrequencies(name, description), termIds, idf, searchable,
+                    unseenIdf, limit, termBuffer, weightBuffer);
+            System.arraycopy(termBuffer, 0, vectorTerms, entries, count);
+            System.arraycopy(weightBuffer, 0, vectorWeights, entries, count);
+            entries += count;
+            productIds[documents] = productId;
+            categories[documents] = categoryName != null
+                    ? categoryIds.computeIfAbsent(categoryName, k -> categoryIds.size()) : -1;
+            documents++;
+            vectorOffsets[documents] = entries;
+        }
+
+        public SimilarityIndex build() {
+            if (termIds == null) {
+                freezeVocabulary();
+            }
+            return new SimilarityIndex(this);
+        }
+
+        private void freezeVocabulary() {
+            // Terms seen once cannot link two products; they only need the shared "unseen" IDF for vector length.
+            termIds = new HashMap<>();
+            int size = 0;
+            for (int[] frequency : documentFrequencies.values()) {
+                if (frequency[0] >= 2) {
+                    size++;
+                }
+            }
+            idf = new float[size];
+            searchable = new boolean[size];
+            int maxPostings = properties.getMaxPostings();
+            for (Map.Entry<String, int[]> entry : documentFrequencies.entrySet()) {
+                int frequency = entry.getValue()[0];
+                if (frequency >= 2) {
+                    int id = termIds.size();
+                    termIds.put(entry.getKey(), id);
+                    idf[id] = smoothIdf(frequency);
+                    searchable[id] = frequency <= maxPostings;
+                }
+            }
+            unseenIdf = smoothIdf(1);
+            documentFrequencies = null;
+            termBuffer = new int[properties.getTermsPerProduct()];
+            weightBuffer = new float[properties.getTermsPerProduct()];
+        }
+
+        private float smoothIdf(int documentFrequency) {
+            return (float) (Math.log((1.0 + counted) / (1.0 + documentFrequency)) + 1.0);
+        }
+
+        private void ensureDocumentCapacity() {
+            if (documents == productIds.length) {
+                int capacity = productIds.length * 2;
+                productIds = Arrays.copyOf(productIds, capacity);
+                categories = Arrays.copyOf(categories, capacity);
+                vectorOffsets = Arrays.copyOf(vectorOffsets, capacity + 1);
+            }
+        }
+
+        private void ensureEntryCapacity(int additional) {
+            if (entries + additional > vectorTerms.length) {
+                int capacity = Math.max(vectorTerms.length * 2, entries + additional);
+                vectorTerms = Arrays.copyOf(vectorTerms, capacity);
+                vectorWeights = Arrays.copyOf(vectorWeights, capacity);
+            }
+        }
+    }
+}
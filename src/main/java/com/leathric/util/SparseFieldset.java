@@ -0,0 +1,129 @@
+package com.leathric.util;
+
+import com.fasterxml.jackson.databind.ser.FilterProvider;
+import com.fasterxml.jackson.databind.ser.impl.SimpleBeanPropertyFilter;
+import com.fasterxml.jackson.databind.ser.impl.SimpleFilterProvider;
+import org.springframework.http.converter.json.MappingJacksonValue;
+
+import java.util.*;
+
+/**
+ * Parsed {@code ?fields=} selection, e.g. {@code orderId,status,items.productId}.
+ * <p>
+ * A bare name selects the whole property (including everything nested under it); a dotted name selects
+ * the parent property and only the listed nested properties. An absent or blank parameter selects all.
+ * Services use {@link #includes(String)} to skip loading what will not be rendered, and controllers use
+ * {@link #toFilterProvider(String, Map)} to trim the serialized payload via {@code @JsonFilter}.
+ */
+public final class SparseFieldset {
+
+    public static final String PRODUCT = "productFields";
+    public static final String PRODUCT_IMAGE = "productImageFields";
+    public static final String ORDER = "orderFields";
+    public static final String ORDER_ITEM = "orderItemFields";
+    public static final String WISHLIST = "wishlistFields";
+    public static final String WISHLIST_ITEM = "wishlistItemFields";
+
+    public static final SparseFieldset ALL = new SparseFieldset(null);
+
+    /** Top-level property -> nested selection ({@code null} when the whole property is selected). */
+    private final Map<String, Set<String>> selection;
+
+    private SparseFieldset(Map<String, Set<String>> selection) {
+        this.selection = selection;
+    }
+
+    public static SparseFieldset parse(String fields) {
+        if (fields == null || fields.isBlank()) {
+            return ALL;
+        }
+        Map<String, Set<String>> selection = new LinkedHashMap<>();
+        for (String raw : fields.split(",")) {
+            String field = raw.trim();
+            if (field.isEmpty()) {
+                continue;
+            }
+            int dot = field.indexOf('.');
+            if (dot < 0) {
+                selection.put(field, null);
+            } else {
+                String parent = field.substring(0, dot);
+                String child = field.substring(dot + 1);
+                if (!selection.containsKey(parent)) {
+                    selection.put(parent, new LinkedHashSet<>());
+                }
+                Set<String> children = selection.get(parent);
+                if (children != null) {
+                    children.add(child);
+                }
+            }
+        }
+        return selection.isEmpty() ? ALL : new SparseFieldset(selection);
+    }
+
+    public boolean isAll() {
+        return selection == null;
+    }
+
+    /**
+     * Whether the property is rendered at all (fully or partially).
+     */
+    public boolean includes(String field) {
+        return selection == null || selection.containsKey(field);
+    }
+
+    /**
+     * Selection for the properties nested under {@code field}.
+     */
+    public SparseFieldset nested(String field) {
+        if (selection == null) {
+            return ALL;
+        }
+        Set<String> children = selection.get(field);
+        if (children == null) {
+            return selection.containsKey(field) ? ALL : new SparseFieldset(Map.of());
+        }
+        return parse(String.join(",", children));
+    }
+
+    /**
+     * Builds a Jackson filter provider restricting the root type and the given nested property types.
+     *
+     * @param rootFilterId     {@code @JsonFilter} id of the root response type
+     * @param nestedFilterIds  nested property name -> {@code @JsonFilter} id of its element type
+     */
+    public FilterProvider toFilterProvider(String rootFilterId, Map<String, String> nestedFilterIds) {
+        SimpleFilterProvider provider = defaultFilterProvider();
+        if (selection == null) {
+            return provider;
+        }
+        provider.addFilter(rootFilterId, SimpleBeanPropertyFilter.filterOutAllExcept(selection.keySet()));
+        nestedFilterIds.forEach((property, filterId) -> {
+            SparseFieldset nested = nested(property);
+            if (!nested.isAll()) {
+                provider.addFilter(filterId, SimpleBeanPropertyFilter.filterOutAllExcept(nested.selection.keySet()));
+            }
+        });
+        return provider;
+    }
+
+    /**
+     * Wraps a response body so the message converter applies this selection.
+     */
+    public MappingJacksonValue apply(Object body, String rootFilterId, Map<String, String> nestedFilterIds) {
+        MappingJacksonValue value = new MappingJacksonValue(body);
+        value.setFilters(toFilterProvider(rootFilterId, nestedFilterIds));
+        return value;
+    }
+
+    /**
+     * Provider that serializes every property; registered on the application {@code ObjectMapper} so
+     * {@code @JsonFilter} types render in full unless a request narrows them.
+     */
+    public static SimpleFilterProvider defaultFilterProvider() {
+        SimpleFilterProvider provider = new SimpleFilterProvider();
+        provider.setDefaultFilter(SimpleBeanPropertyFilter.serializeAll());
+        provider.setFailOnUnknownId(false);
+        return provider;
+    }
+}
@@ -0,0 +1,14 @@
+-- Composite indexes for admin order search: every filter combination is an equality prefix followed by
+-- created_at, and InnoDB appends the primary key, so (filters, created_at, id) keyset windows are index
+-- range scans in the requested order. idx_order_status is a prefix of idx_order_status_created_at.
+
+CREATE INDEX idx_order_status_created_at
+    ON orders(status, created_at);
+
+CREATE INDEX idx_order_payment_status_created_at
+    ON orders(payment_status, created_at);
+
+CREATE INDEX idx_order_status_payment_created_at
+    ON orders(status, payment_status, created_at);
+
+DROP INDEX idx_order_status ON orders;
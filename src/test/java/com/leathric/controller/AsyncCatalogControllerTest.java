@@ -0,0 +1,77 @@
+package com.leathric.controller;
+
+import com.leathric.config.AsyncCatalogProperties;
+import com.leathric.exception.GlobalExceptionHandler;
+import com.leathric.exception.ResourceNotFoundException;
+import com.leathric.services.catalog.CatalogJsonReader;
+import com.leathric.services.catalog.JsonByteWriter;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+class AsyncCatalogControllerTest {
+
+    private final CatalogJsonReader reader = mock(CatalogJsonReader.class);
+    private ThreadPoolTaskExecutor executor;
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(1);
+        executor.initialize();
+        mockMvc = MockMvcBuilders.standaloneSetup(new AsyncCatalogController(reader, executor, new AsyncCatalogProperties()))
+                .setControllerAdvice(new GlobalExceptionHandler())
+                .build();
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdown();
+    }
+
+    @Test
+    void getProduct_streamsEnvelopeFromExecutor() throws Exception {
+        doAnswer(invocation -> {
+            invocation.<JsonByteWriter>getArgument(0).writeAscii("{\"id\":7}");
+            return null;
+        }).when(reader).writeProduct(any(), eq(7L));
+
+        MvcResult result = mockMvc.perform(get("/api/catalog/async/products/7"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.success").value(true))
+                .andExpect(jsonPath("$.data.id").value(7));
+    }
+
+    @Test
+    void getProduct_missingProductIsStillA404() throws Exception {
+        doThrow(new ResourceNotFoundException("Product not found")).when(reader).writeProduct(any(), eq(9L));
+
+        MvcResult result = mockMvc.perform(get("/api/catalog/async/products/9"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isNotFound())
+                .andExpect(jsonPath("$.message").value("Product not found"));
+    }
+}
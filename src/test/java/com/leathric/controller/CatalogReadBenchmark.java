@@ -0,0 +1,117 @@
+package com.leathric.controller;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Closed-loop HTTP load against a running instance, comparing the blocking catalog endpoints with their
+ * {@code /api/catalog/async} counterparts. Not part of the test suite; run manually, e.g.
+ * <pre>
+ * mvn -q test-compile exec:java -Dexec.classpathScope=test \
+ *     -Dexec.mainClass=com.leathric.controller.CatalogReadBenchmark \
+ *     -Dexec.args="http://localhost:8080 2000 30 4"
+ * </pre>
+ * Arguments: base URL, concurrent clients, seconds per scenario, CPU cores given to the server (for the
+ * per-core figure). Run the server with its cores pinned (e.g. {@code taskset} or a container CPU limit)
+ * and the load generator elsewhere. To see the effect of a slow database, add latency to MySQL
+ * (e.g. {@code tc qdisc ... delay 50ms} on its port) and compare error rates as well as throughput.
+ * <p>
+ * Without MySQL, the server runs on the test classpath against in-memory H2 in MySQL mode, seeded with a
+ * {@code spring.sql.init.data-locations} script, with
+ * {@code --spring.datasource.url=jdbc:h2:mem:bench;MODE=MySQL;DB_CLOSE_DELAY=-1},
+ * {@code --spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect}, placeholder
+ * {@code app.aws.s3.*} values, and the feed, similarity and co-purchase jobs disabled (their scans use
+ * MySQL's streaming fetch size). H2 adds no query latency, so such a run measures CPU cost only.
+ */
+public final class CatalogReadBenchmark {
+
+    private static final String[][] SCENARIOS = {
+            {"blocking listing", "/api/products?page=0&size=20&sort=id,desc"},
+            {"async listing", "/api/catalog/async/products?page=0&size=20"},
+            {"blocking detail", "/api/products/%d"},
+            {"async detail", "/api/catalog/async/products/%d"},
+            {"blocking categories", "/api/categories?page=0&size=20"},
+            {"async categories", "/api/catalog/async/categories?page=0&size=20"},
+    };
+    private static final int DETAIL_IDS = 1000;
+
+    private CatalogReadBenchmark() {}
+
+    public static void main(String[] args) throws Exception {
+        String baseUrl = args.length > 0 ? args[0] : "http://localhost:8080";
+        int clients = args.length > 1 ? Integer.parseInt(args[1]) : 1000;
+        int seconds = args.length > 2 ? Integer.parseInt(args[2]) : 30;
+        int serverCores = args.length > 3 ? Integer.parseInt(args[3]) : 1;
+        HttpClient http = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(5)).build();
+        System.out.printf("clients=%d seconds=%d serverCores=%d%n", clients, seconds, serverCores);
+        System.out.printf("%-20s %10s %12s %8s %8s %8s%n", "scenario", "req/s", "req/s/core", "p50 ms", "p99 ms", "errors");
+        for (String[] scenario : SCENARIOS) {
+            // Short warm-up so JIT and connection pools settle before measuring.
+            run(http, baseUrl + scenario[1], Math.min(clients, 50), 5);
+            Result result = run(http, baseUrl + scenario[1], clients, seconds);
+            System.out.printf("%-20s %10.0f %12.0f %8.1f %8.1f %8d%n", scenario[0], result.throughput(),
+                    result.throughput() / serverCores, result.percentile(0.50), result.percentile(0.99), result.errors());
+        }
+    }
+
+    private static Result run(HttpClient http, String urlPattern, int clients, int seconds) throws InterruptedException {
+        long deadline = System.nanoTime() + Duration.ofSeconds(seconds).toNanos();
+        AtomicLong completed = new AtomicLong();
+        AtomicLong errors = new AtomicLong();
+        ConcurrentLinkedQueue<long[]> latencies = new ConcurrentLinkedQueue<>();
+        CountDownLatch done = new CountDownLatch(clients);
+        long started = System.nanoTime();
+        for (int client = 0; client < clients; client++) {
+            long[] samples = new long[4096];
+            latencies.add(samples);
+            next(http, urlPattern, client, deadline, samples, new int[1], completed, errors, done);
+        }
+        done.await();
+        double elapsedSeconds = (System.nanoTime() - started) / 1e9;
+        long[] all = latencies.stream().flatMapToLong(samples -> Arrays.stream(samples).filter(sample -> sample > 0)).sorted().toArray();
+        return new Result(completed.get() / elapsedSeconds, all, errors.get());
+    }
+
+    /**
+     * One client's loop: each response triggers the next request, so {@code clients} requests are always in flight.
+     */
+    private static void next(HttpClient http, String urlPattern, int client, long deadline, long[] samples, int[] count,
+                             AtomicLong completed, AtomicLong errors, CountDownLatch done) {
+        if (System.nanoTime() >= deadline) {
+            done.countDown();
+            return;
+        }
+        String url = urlPattern.contains("%d") ? String.format(urlPattern, 1 + (client + count[0]) % DETAIL_IDS) : urlPattern;
+        HttpRequest request = HttpRequest.newBuilder(URI.create(url)).timeout(Duration.ofSeconds(30)).GET().build();
+        long sent = System.nanoTime();
+        http.sendAsync(request, HttpResponse.BodyHandlers.discarding()).whenComplete((response, failure) -> {
+            if (failure != null || response.statusCode() >= 500) {
+                errors.incrementAndGet();
+            } else {
+                completed.incrementAndGet();
+                if (count[0] < samples.length) {
+                    samples[count[0]] = System.nanoTime() - sent;
+                }
+            }
+            count[0]++;
+            next(http, urlPattern, client, deadline, samples, count, completed, errors, done);
+        });
+    }
+
+    private record Result(double throughput, long[] sortedLatencies, long errors) {
+
+        double percentile(double p) {
+            if (sortedLatencies.length == 0) {
+                return 0;
+            }
+            return sortedLatencies[(int) Math.min(sortedLatencies.length - 1, p * sortedLatencies.length)] / 1e6;
+        }
+    }
+}
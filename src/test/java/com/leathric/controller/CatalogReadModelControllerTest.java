@@ -0,0 +1,125 @@
+package com.leathric.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.leathric.config.CatalogReadModelProperties;
+import com.leathric.config.JpaConfig;
+import com.leathric.entity.Category;
+import com.leathric.entity.ImageType;
+import com.leathric.entity.Product;
+import com.leathric.entity.ProductImage;
+import com.leathric.exception.GlobalExceptionHandler;
+import com.leathric.repository.CatalogChangeRepository;
+import com.leathric.services.catalog.CatalogReadModel;
+import com.leathric.services.catalog.ReadModelFile;
+import com.leathric.services.catalog.ReadModelFileWriter;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.spy;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect")
+@Import(JpaConfig.class)
+class CatalogReadModelControllerTest {
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private CatalogChangeRepository catalogChangeRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @TempDir
+    private Path directory;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private Category category;
+    private Product tote;
+    private Product wallet;
+    private ReadModelFile model;
+    private CatalogReadModel catalogReadModel;
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        category = entityManager.persist(Category.builder().name("Bags").build());
+        tote = entityManager.persist(Product.builder().name("Tote \"Classic\"").description("Full-grain tote")
+                .price(new BigDecimal("149.50")).stockQuantity(3).category(category).build());
+        wallet = entityManager.persist(Product.builder().name("Wallet").description("Bifold")
+                .price(new BigDecimal("39.00")).stockQuantity(0).category(category).build());
+        entityManager.persist(ProductImage.builder().product(tote).objectKey("a").imageUrl("/uploads/a.jpg")
+                .imageType(ImageType.FRONT).displayOrder(0).primary(true).active(true).build());
+        entityManager.flush();
+
+        // Written from the same rows a rebuild would scan; the scan itself streams with MySQL-only fetch settings.
+        Path file = directory.resolve("catalog-1.bin");
+        try (ReadModelFileWriter writer = new ReadModelFileWriter(file, 1L, 0L)) {
+            writer.append(tote.getId(), tote.getName(), tote.getPrice(), "/uploads/a.jpg", "Bags", true);
+            writer.append(wallet.getId(), wallet.getName(), wallet.getPrice(), null, "Bags", false);
+            writer.finish();
+        }
+        model = ReadModelFile.open(file);
+        catalogReadModel = spy(new CatalogReadModel(dataSource, catalogChangeRepository, new CatalogReadModelProperties()));
+        doReturn(model).when(catalogReadModel).current();
+        mockMvc = MockMvcBuilders.standaloneSetup(new CatalogReadModelController(catalogReadModel))
+                .setControllerAdvice(new GlobalExceptionHandler())
+                .build();
+    }
+
+    @Test
+    void listingHasTheSameShapeFromTheModelAndTheDatabase() throws Exception {
+        ObjectNode mapped = (ObjectNode) read("/api/catalog/products?size=10").get("data");
+        doReturn(null).when(catalogReadModel).current();
+        ObjectNode fallback = (ObjectNode) read("/api/catalog/products?size=10").get("data");
+
+        assertThat(mapped.get("generation").isNumber()).isTrue();
+        assertThat(fallback.get("generation").isNull()).isTrue();
+        mapped.remove("generation");
+        fallback.remove("generation");
+        assertThat(fallback).isEqualTo(mapped);
+        assertThat(mapped.get("content").get(1).get("imageUrl").asText()).isEqualTo("/uploads/a.jpg");
+    }
+
+    @Test
+    void detailHasTheSameShapeForProductsOutsideTheModel() throws Exception {
+        JsonNode mapped = read("/api/catalog/products/" + tote.getId());
+        doReturn(null).when(catalogReadModel).current();
+        JsonNode fallback = read("/api/catalog/products/" + tote.getId());
+        assertThat(fallback).isEqualTo(mapped);
+        assertThat(mapped.get("data").get("name").asText()).isEqualTo("Tote \"Classic\"");
+
+        // Created after the generation was built, so served from the database while the model is on.
+        doReturn(model).when(catalogReadModel).current();
+        Product belt = entityManager.persistAndFlush(Product.builder().name("Belt").description("Strap")
+                .price(new BigDecimal("25.00")).stockQuantity(1).category(category).build());
+        JsonNode newer = read("/api/catalog/products/" + belt.getId()).get("data");
+        assertThat(newer.fieldNames()).toIterable().containsExactlyElementsOf(() -> mapped.get("data").fieldNames());
+        assertThat(newer.get("inStock").asBoolean()).isTrue();
+
+        mockMvc.perform(get("/api/catalog/products/-1")).andExpect(status().isNotFound());
+    }
+
+    private JsonNode read(String path) throws Exception {
+        return objectMapper.readTree(mockMvc.perform(get(path)).andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString());
+    }
+}
@@ -0,0 +1,261 @@
+package com.leathric.repository;
+
+import com.leathric.config.JpaConfig;
+import com.leathric.dto.OrderDtos;
+import com.leathric.entity.Category;
+import com.leathric.entity.Order;
+import com.leathric.entity.OrderItem;
+import com.leathric.entity.OrderStatus;
+import com.leathric.entity.OrderStatusHistory;
+import com.leathric.entity.Product;
+import com.leathric.entity.User;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+@Import(JpaConfig.class)
+class OrderRepositoryTest {
+
+    private static final int PAGE_SIZE = 10;
+    private static final int ITEMS_PER_ORDER = 3;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private OrderStatusHistoryRepository statusHistoryRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private User user;
+    private List<Product> products;
+    private int ordersCreated;
+
+    @BeforeEach
+    void setUp() {
+        user = entityManager.persist(User.builder()
+                .email("repeat@example.com").fullName("Repeat Buyer").password("secret").build());
+        Category category = entityManager.persist(Category.builder().name("Leather").build());
+        products = new ArrayList<>();
+        for (int i = 0; i < ITEMS_PER_ORDER; i++) {
+            products.add(entityManager.persist(Product.builder().name("Product " + i)
+                    .price(new BigDecimal("20.00")).stockQuantity(100).category(category).build()));
+        }
+    }
+
+    @Test
+    void twoPhasePaging_queryAndRowCountsStayFlatAsHistoryGrows() {
+        addOrders(30);
+        long[] small = loadFirstPage();
+
+        addOrders(300);
+        long[] large = loadFirstPage();
+
+        // ids page + count + one fetch of the page's orders, items and products
+        assertEquals(3, small[0]);
+        assertArrayEquals(small, large);
+        assertEquals(PAGE_SIZE * ITEMS_PER_ORDER, large[1]);
+    }
+
+    @Test
+    void keysetPaging_walksHistoryNewestFirstWithoutGaps() {
+        addOrders(25);
+        List<Long> seen = new ArrayList<>();
+        Long before = Long.MAX_VALUE;
+        while (true) {
+            List<Long> ids = orderRepository.findIdsByUserIdBefore(user.getId(), before, Limit.of(PAGE_SIZE));
+            seen.addAll(ids);
+            if (ids.size() < PAGE_SIZE) {
+                break;
+            }
+            before = ids.get(ids.size() - 1);
+        }
+
+        assertEquals(25, seen.size());
+        for (int i = 1; i < seen.size(); i++) {
+            assertTrue(seen.get(i) < seen.get(i - 1));
+        }
+    }
+
+    @Test
+    void bulkStatusChange_updatesOrdersAndAppendsHistoryWithoutLoadingEntities() {
+        addOrders(3);
+        List<Long> ids = orderRepository.findIdsByStatusAfter(OrderStatus.CREATED, 0, 10);
+        assertEquals(3, ids.size());
+
+        List<OrderStatusBulkRepository.OrderStatusRow> rows = orderRepository.lockStatusRows(List.of(ids.get(0), ids.get(1), -1L));
+        assertEquals(List.of(ids.get(0), ids.get(1)), rows.stream().map(OrderStatusBulkRepository.OrderStatusRow::id).toList());
+        assertEquals(OrderStatus.CREATED, rows.get(0).status());
+
+        orderRepository.applyStatusChange(List.of(ids.get(0), ids.get(1)), OrderStatus.CONFIRMED, "bulk", LocalDateTime.now());
+        entityManager.clear();
+
+        assertEquals(List.of(ids.get(2)), orderRepository.findIdsByStatusAfter(OrderStatus.CREATED, 0, 10));
+        Order updated = orderRepository.findById(ids.get(0)).orElseThrow();
+        assertEquals(OrderStatus.CONFIRMED, updated.getStatus());
+        assertEquals(1L, updated.getVersion());
+        assertEquals(1, updated.getStatusHistory().size());
+        assertEquals("bulk", updated.getStatusHistory().get(0).getNote());
+    }
+
+    @Test
+    void claimUnpaid_locksOnlyCreatedOrdersPlacedBeforeTheCutoffOldestFirst() {
+        addOrders(4);
+        List<Long> ids = orderRepository.findIdsByStatusAfter(OrderStatus.CREATED, 0, 10);
+        orderRepository.applyStatusChange(List.of(ids.get(1)), OrderStatus.CONFIRMED, "paid", LocalDateTime.now());
+
+        assertTrue(orderRepository.claimUnpaidCreatedBefore(LocalDateTime.now().minusHours(1), 10).isEmpty());
+        List<OrderStatusBulkRepository.OrderStatusRow> claimed =
+                orderRepository.claimUnpaidCreatedBefore(LocalDateTime.now().plusMinutes(1), 2);
+        assertEquals(List.of(ids.get(0), ids.get(2)), claimed.stream().map(OrderStatusBulkRepository.OrderStatusRow::id).toList());
+    }
+
+    @Test
+    void trackingRead_isTwoNarrowQueriesWithoutItemsOrEntities() {
+        Order order = Order.builder().orderNumber("ORD-TRACK").user(user)
+                .status(OrderStatus.CREATED).totalAmount(new BigDecimal("200.00")).build();
+        for (int i = 0; i < 10; i++) {
+            Product product = products.get(i % products.size());
+            order.getItems().add(OrderItem.builder().order(order).product(product)
+                    .quantity(1).price(product.getPrice()).build());
+        }
+        LocalDateTime start = LocalDateTime.now();
+        for (int i = 0; i < 8; i++) {
+            order.getStatusHistory().add(OrderStatusHistory.builder().order(order)
+                    .status(OrderStatus.values()[i]).timestamp(start.plusMinutes(i)).note("step " + i).build());
+        }
+        entityManager.persist(order);
+        entityManager.flush();
+        entityManager.clear();
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        OrderRepository.TrackingHeader header = orderRepository.findTrackingHeaderById(order.getId()).orElseThrow();
+        List<OrderDtos.StatusHistoryItem> timeline = statusHistoryRepository.findTimelineByOrderId(order.getId());
+
+        assertEquals("repeat@example.com", header.ownerEmail());
+        assertEquals(8, timeline.size());
+        assertEquals("step 0", timeline.get(0).getNote());
+        assertEquals("step 7", timeline.get(7).getNote());
+        assertEquals(2, statistics.getPrepareStatementCount());
+        assertEquals(0, statistics.getEntityLoadCount());
+    }
+
+    @Test
+    void adminSearch_walksFilteredWindowsNewestFirst() {
+        addOrders(12);
+        List<Long> confirmed = orderRepository.findIdsByStatusAfter(OrderStatus.CREATED, 0, 7);
+        orderRepository.applyStatusChange(confirmed, OrderStatus.CONFIRMED, "paid", LocalDateTime.now());
+        entityManager.clear();
+
+        OrderSearchRepository.Filter filter = new OrderSearchRepository.Filter(OrderStatus.CONFIRMED, null,
+                LocalDateTime.now().minusDays(1), null, null);
+        List<Long> seen = new ArrayList<>();
+        OrderSearchRepository.Keyset after = null;
+        while (true) {
+            List<OrderDtos.AdminOrderSummary> window = orderRepository.searchOrders(filter, after, 3);
+            window.forEach(summary -> seen.add(summary.getOrderId()));
+            if (window.size() < 3) {
+                break;
+            }
+            OrderDtos.AdminOrderSummary last = window.get(window.size() - 1);
+            after = new OrderSearchRepository.Keyset(last.getCreatedAt(), last.getOrderId());
+        }
+
+        List<Long> newestFirst = new ArrayList<>(confirmed);
+        Collections.reverse(newestFirst);
+        assertEquals(newestFirst, seen);
+        assertEquals(List.of("repeat@example.com"), orderRepository.searchOrders(
+                new OrderSearchRepository.Filter(null, null, null, null, "ORD-TEST-3"), null, 10)
+                .stream().map(OrderDtos.AdminOrderSummary::getUserEmail).toList());
+    }
+
+    @Test
+    void lockWithDetails_usesTwoStatementsWhateverTheLineCount() {
+        assertEquals(2, statementsToLockAndRender(addOrderWithLines(2)));
+        assertEquals(2, statementsToLockAndRender(addOrderWithLines(12)));
+    }
+
+    private long statementsToLockAndRender(Long orderId) {
+        entityManager.clear();
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        Order order = orderRepository.findByIdForUpdateWithDetails(orderId).orElseThrow();
+        assertEquals("repeat@example.com", order.getUser().getEmail());
+        order.getItems().forEach(item -> item.getProduct().getName());
+        return statistics.getPrepareStatementCount();
+    }
+
+    private Long addOrderWithLines(int lines) {
+        Order order = Order.builder().orderNumber("ORD-LINES-" + lines).user(user)
+                .status(OrderStatus.CONFIRMED).totalAmount(new BigDecimal("20.00")).build();
+        for (int i = 0; i < lines; i++) {
+            Product product = products.get(i % products.size());
+            order.getItems().add(OrderItem.builder().order(order).product(product)
+                    .quantity(1).price(product.getPrice()).build());
+        }
+        entityManager.persist(order);
+        entityManager.flush();
+        return order.getId();
+    }
+
+    /**
+     * @return statements prepared and order items loaded for the newest page with items
+     */
+    private long[] loadFirstPage() {
+        entityManager.clear();
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        Page<Long> ids = orderRepository.findIdsByUserId(user.getId(),
+                PageRequest.of(0, PAGE_SIZE, Sort.by(Sort.Direction.DESC, "createdAt")));
+        List<Order> orders = orderRepository.findWithItemsInOrder(ids.getContent());
+        orders.forEach(order -> order.getItems().forEach(item -> item.getProduct().getName()));
+
+        assertEquals(PAGE_SIZE, orders.size());
+        assertEquals(ids.getContent(), orders.stream().map(Order::getId).toList());
+        return new long[]{statistics.getPrepareStatementCount(), statistics.getEntityLoadCount()
+                - statistics.getEntityStatistics(Order.class.getName()).getLoadCount()
+                - statistics.getEntityStatistics(Product.class.getName()).getLoadCount()};
+    }
+
+    private void addOrders(int count) {
+        for (int i = 0; i < count; i++) {
+            Order order = Order.builder().orderNumber("ORD-TEST-" + ordersCreated++).user(user)
+                    .status(OrderStatus.CREATED).totalAmount(new BigDecimal("60.00")).build();
+            for (Product product : products) {
+                order.getItems().add(OrderItem.builder().order(order).product(product)
+                        .quantity(1).price(product.getPrice()).build());
+            }
+            entityManager.persist(order);
+        }
+        entityManager.flush();
+    }
+}
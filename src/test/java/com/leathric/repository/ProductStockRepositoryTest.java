@@ -0,0 +1,146 @@
+package com.leathric.repository;
+
+import com.leathric.config.JpaConfig;
+import com.leathric.entity.Category;
+import com.leathric.entity.Product;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs real concurrent transactions against H2, so the test itself is not transactional.
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect")
+@Import(JpaConfig.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class ProductStockRepositoryTest {
+
+    private static final int STOCK = 200;
+    private static final int THREADS = 32;
+    private static final int ORDERS_PER_THREAD = 40;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private Category category;
+    private Long bagId;
+    private Long beltId;
+
+    @BeforeEach
+    void setUp() {
+        category = categoryRepository.save(Category.builder().name("Stock test").build());
+        bagId = productRepository.save(Product.builder().name("Bag").price(new BigDecimal("10.00"))
+                .stockQuantity(STOCK).category(category).build()).getId();
+        beltId = productRepository.save(Product.builder().name("Belt").price(new BigDecimal("5.00"))
+                .stockQuantity(STOCK).category(category).build()).getId();
+    }
+
+    @AfterEach
+    void tearDown() {
+        productRepository.deleteAllById(List.of(bagId, beltId));
+        categoryRepository.delete(category);
+    }
+
+    @Test
+    void decrementStock_neverOversellsUnderConcurrentMultiProductOrders() throws Exception {
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+        AtomicInteger bagsSold = new AtomicInteger();
+        AtomicInteger beltsSold = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        List<Future<?>> workers = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            workers.add(pool.submit(() -> {
+                start.await();
+                for (int i = 0; i < ORDERS_PER_THREAD; i++) {
+                    int bags = ThreadLocalRandom.current().nextInt(1, 4);
+                    int belts = ThreadLocalRandom.current().nextInt(1, 4);
+                    // Both products in one order: any deadlock would surface here as an exception.
+                    Boolean placed = tx.execute(status -> {
+                        if (!productRepository.decrementStock(Map.of(beltId, belts, bagId, bags)).isEmpty()) {
+                            status.setRollbackOnly();
+                            return false;
+                        }
+                        return true;
+                    });
+                    if (Boolean.TRUE.equals(placed)) {
+                        bagsSold.addAndGet(bags);
+                        beltsSold.addAndGet(belts);
+                    } else {
+                        rejected.incrementAndGet();
+                    }
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> worker : workers) {
+            worker.get(60, TimeUnit.SECONDS);
+        }
+        pool.shutdown();
+
+        int bagsLeft = productRepository.findStockQuantity(bagId).orElseThrow();
+        int beltsLeft = productRepository.findStockQuantity(beltId).orElseThrow();
+        assertTrue(rejected.get() > 0, "demand should exceed stock");
+        assertTrue(bagsLeft >= 0 && beltsLeft >= 0);
+        assertEquals(STOCK, bagsLeft + bagsSold.get());
+        assertEquals(STOCK, beltsLeft + beltsSold.get());
+    }
+
+    @Test
+    void decrementStock_reportsShortProductsAndLeavesThemUntouched() {
+        List<Long> insufficient = new TransactionTemplate(transactionManager).execute(status ->
+                productRepository.decrementStock(Map.of(bagId, 5, beltId, STOCK + 1)));
+
+        assertEquals(List.of(beltId), insufficient);
+        assertEquals(STOCK - 5, productRepository.findStockQuantity(bagId).orElseThrow());
+        assertEquals(STOCK, productRepository.findStockQuantity(beltId).orElseThrow());
+    }
+
+    @Test
+    void incrementStock_addsUnitsBackToEveryProduct() {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status ->
+                productRepository.incrementStock(Map.of(beltId, 3, bagId, 7)));
+
+        assertEquals(STOCK + 7, productRepository.findStockQuantity(bagId).orElseThrow());
+        assertEquals(STOCK + 3, productRepository.findStockQuantity(beltId).orElseThrow());
+    }
+
+    @Test
+    void findStockQuantities_seesSoldOutProductsInsideTheTransaction() {
+        Map<Long, Integer> stock = new TransactionTemplate(transactionManager).execute(status -> {
+            productRepository.decrementStock(Map.of(bagId, STOCK, beltId, 1));
+            return productRepository.findStockQuantities(List.of(bagId, beltId));
+        });
+
+        assertEquals(Map.of(bagId, 0, beltId, STOCK - 1), stock);
+    }
+}
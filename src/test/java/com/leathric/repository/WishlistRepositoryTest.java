@@ -0,0 +1,73 @@
+package com.leathric.repository;
+
+import com.leathric.config.JpaConfig;
+import com.leathric.dto.WishlistDtos;
+import com.leathric.entity.Category;
+import com.leathric.entity.Product;
+import com.leathric.entity.User;
+import com.leathric.entity.Wishlist;
+import com.leathric.entity.WishlistItem;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect")
+@Import(JpaConfig.class)
+class WishlistRepositoryTest {
+
+    @Autowired
+    private WishlistRepository wishlistRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    private Wishlist wishlist;
+
+    @BeforeEach
+    void setUp() {
+        User user = entityManager.persist(User.builder()
+                .email("buyer@example.com").fullName("Buyer").password("secret").build());
+        Category category = entityManager.persist(Category.builder().name("Bags").build());
+        Product inStock = entityManager.persist(Product.builder().name("Tote").description("Full-grain tote")
+                .price(new BigDecimal("149.00")).stockQuantity(3).category(category).build());
+        Product soldOut = entityManager.persist(Product.builder().name("Wallet").description("Bifold")
+                .price(new BigDecimal("39.50")).stockQuantity(0).category(category).build());
+
+        wishlist = entityManager.persist(Wishlist.builder().user(user).build());
+        entityManager.persist(WishlistItem.builder().wishlist(wishlist).product(inStock).build());
+        entityManager.persist(WishlistItem.builder().wishlist(wishlist).product(soldOut).build());
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void findItemResponses_projectsFullItems() {
+        List<WishlistDtos.WishlistItemResponse> items = wishlistRepository.findItemResponses(wishlist.getId());
+
+        assertEquals(2, items.size());
+        assertEquals("Tote", items.get(0).getProductName());
+        assertEquals("Full-grain tote", items.get(0).getProductDescription());
+        assertEquals("Bags", items.get(0).getCategoryName());
+        assertTrue(items.get(0).getInStock());
+        assertFalse(items.get(1).getInStock());
+    }
+
+    @Test
+    void findCompactItemResponses_skipsDescriptionAndCategory() {
+        List<WishlistDtos.WishlistItemResponse> items = wishlistRepository.findCompactItemResponses(wishlist.getId());
+
+        assertEquals(2, items.size());
+        assertEquals(new BigDecimal("39.50"), items.get(1).getPrice());
+        assertNull(items.get(0).getProductDescription());
+        assertNull(items.get(0).getCategoryName());
+        assertEquals(2, wishlistRepository.countItems(wishlist.getId()));
+    }
+}
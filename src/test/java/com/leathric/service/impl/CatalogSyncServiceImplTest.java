@@ -0,0 +1,160 @@
+package com.leathric.service.impl;
+
+import com.leathric.config.JpaConfig;
+import com.leathric.dto.CatalogSyncDtos;
+import com.leathric.dto.ProductResponseDto;
+import com.leathric.entity.CatalogChange;
+import com.leathric.entity.CatalogChangeType;
+import com.leathric.entity.CatalogEntityType;
+import com.leathric.entity.Category;
+import com.leathric.entity.Product;
+import com.leathric.repository.CatalogChangeRepository;
+import com.leathric.repository.CategoryRepository;
+import com.leathric.repository.ProductRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Each service call commits on its own, as it does behind the controller, so the test itself is not transactional.
+ */
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "app.catalog.sync.settle-millis=0"
+})
+@Import({JpaConfig.class, CatalogSyncServiceImpl.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class CatalogSyncServiceImplTest {
+
+    @Autowired
+    private CatalogSyncServiceImpl catalogSyncService;
+
+    @Autowired
+    private CatalogChangeRepository catalogChangeRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private Long bagId;
+    private Long beltId;
+
+    @BeforeEach
+    void setUp() {
+        Category category = categoryRepository.save(Category.builder().name("Sync test").build());
+        bagId = productRepository.save(Product.builder().name("Bag").price(new BigDecimal("10.00"))
+                .stockQuantity(1).category(category).build()).getId();
+        beltId = productRepository.save(Product.builder().name("Belt").price(new BigDecimal("5.00"))
+                .stockQuantity(1).category(category).build()).getId();
+    }
+
+    @AfterEach
+    void tearDown() {
+        catalogChangeRepository.deleteAll();
+        productRepository.deleteAll();
+        categoryRepository.deleteAll();
+    }
+
+    @Test
+    void changesAreServedInSequenceOrderAndCollapseToTombstones() {
+        catalogSyncService.recordProductUpsert(bagId);
+        catalogSyncService.recordProductUpsert(beltId);
+        productRepository.deleteById(bagId);
+        catalogSyncService.recordProductDelete(bagId);
+
+        CatalogSyncDtos.ChangesResponse first = catalogSyncService.getChanges(0L, 1);
+        assertTrue(first.isHasMore());
+        // The bag's row is already gone, so its upsert page turns into a tombstone.
+        assertEquals(List.of(bagId), first.getDeletedProductIds());
+        assertTrue(first.getUpserts().isEmpty());
+
+        CatalogSyncDtos.ChangesResponse rest = catalogSyncService.getChanges(first.getCursor(), 10);
+        assertFalse(rest.isHasMore());
+        assertEquals(List.of(beltId), rest.getUpserts().stream().map(ProductResponseDto::getId).toList());
+        assertEquals(List.of(bagId), rest.getDeletedProductIds());
+        assertTrue(rest.getCursor() > first.getCursor());
+
+        assertTrue(catalogSyncService.getChanges(rest.getCursor(), 10).getDeletedProductIds().isEmpty());
+    }
+
+    @Test
+    void unsettledChangesAreHeldBack() {
+        catalogChangeRepository.save(CatalogChange.builder().entityType(CatalogEntityType.PRODUCT).entityId(bagId)
+                .changeType(CatalogChangeType.UPSERT).changedAt(LocalDateTime.now().plusHours(1)).build());
+
+        CatalogSyncDtos.ChangesResponse held = catalogSyncService.getChanges(0L, 10);
+        assertEquals(0L, held.getCursor());
+        assertTrue(held.getUpserts().isEmpty());
+    }
+
+    @Test
+    void pagesStopBelowALowerSequenceThatHasNotSettled() {
+        CatalogChange lagging = catalogChangeRepository.save(CatalogChange.builder().entityType(CatalogEntityType.PRODUCT)
+                .entityId(bagId).changeType(CatalogChangeType.UPSERT).changedAt(LocalDateTime.now().plusHours(1)).build());
+        catalogChangeRepository.save(CatalogChange.builder().entityType(CatalogEntityType.PRODUCT).entityId(beltId)
+                .changeType(CatalogChangeType.UPSERT).changedAt(LocalDateTime.now().minusHours(1)).build());
+
+        CatalogSyncDtos.ChangesResponse held = catalogSyncService.getChanges(0L, 10);
+        assertEquals(0L, held.getCursor());
+        assertTrue(held.getUpserts().isEmpty());
+        assertEquals(lagging.getSequence() - 1, catalogSyncService.getSnapshot(null, 10).getCursor());
+
+        lagging.setChangedAt(LocalDateTime.now().minusHours(1));
+        catalogChangeRepository.save(lagging);
+        CatalogSyncDtos.ChangesResponse settled = catalogSyncService.getChanges(0L, 10);
+        assertEquals(List.of(bagId, beltId), settled.getUpserts().stream().map(ProductResponseDto::getId).sorted().toList());
+    }
+
+    @Test
+    void changesAreWrittenWhenTheirTransactionCommits() {
+        LocalDateTime started = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            catalogSyncService.recordProductUpsert(bagId);
+            assertEquals(0, catalogChangeRepository.count());
+        });
+
+        CatalogChange change = catalogChangeRepository.findAll().get(0);
+        assertEquals(bagId, change.getEntityId());
+        assertFalse(change.getChangedAt().isBefore(started));
+    }
+
+    @Test
+    void snapshotCursorIsPinnedAcrossPages() {
+        catalogSyncService.recordProductUpsert(bagId);
+        catalogSyncService.recordProductUpsert(beltId);
+
+        CatalogSyncDtos.SnapshotResponse first = catalogSyncService.getSnapshot(null, 1);
+        assertTrue(first.isHasMore());
+        assertEquals(List.of(bagId), first.getProducts().stream().map(ProductResponseDto::getId).toList());
+
+        // Changed after the client has read its page; must come back through the change feed.
+        catalogSyncService.recordProductUpsert(bagId);
+
+        CatalogSyncDtos.SnapshotResponse second = catalogSyncService.getSnapshot(first.getNextPageToken(), 1);
+        assertFalse(second.isHasMore());
+        assertNull(second.getNextPageToken());
+        assertEquals(List.of(beltId), second.getProducts().stream().map(ProductResponseDto::getId).toList());
+        assertEquals(first.getCursor(), second.getCursor());
+        assertEquals(List.of(bagId), catalogSyncService.getChanges(second.getCursor(), 10).getUpserts().stream()
+                .map(ProductResponseDto::getId).toList());
+    }
+}
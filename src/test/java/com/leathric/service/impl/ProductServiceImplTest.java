@@ -1,28 +1,46 @@
 package com.leathric.service.impl;
 
 import com.leathric.config.AwsS3Properties;
-import com.leathric.dto.ProductDto;
+import com.leathric.config.ReadCoalescingProperties;
+import com.leathric.dto.ProductResponseDto;
+import com.leathric.dto.request.ProductImageUploadRequest;
 import com.leathric.dto.response.StorageUploadResponse;
 import com.leathric.entity.Category;
+import com.leathric.entity.ImageType;
 import com.leathric.entity.Product;
+import com.leathric.entity.ProductImage;
 import com.leathric.interfaces.StorageService;
 import com.leathric.mapper.ProductMapper;
 import com.leathric.repository.CategoryRepository;
+import com.leathric.repository.ProductImageRepository;
 import com.leathric.repository.ProductRepository;
+import com.leathric.service.CatalogSyncService;
+import com.leathric.service.RecentlyViewedService;
+import com.leathric.services.cache.SingleFlight;
+import com.leathric.services.inventory.StockLedger;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.transaction.PlatformTransactionManager;
 
 import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -39,6 +57,20 @@ class ProductServiceImplTest {
     private StorageService storageService;
     @Mock
     private AwsS3Properties awsS3Properties;
+    @Mock
+    private ProductImageRepository productImageRepository;
+    @Mock
+    private CatalogSyncService catalogSyncService;
+    @Mock
+    private PlatformTransactionManager transactionManager;
+    @Mock
+    private RecentlyViewedService recentlyViewedService;
+    @Mock
+    private StockLedger stockLedger;
+    @Spy
+    private SingleFlight catalogReadFlight = new SingleFlight();
+    @Spy
+    private ReadCoalescingProperties coalescingProperties = new ReadCoalescingProperties();
 
     @InjectMocks
     private ProductServiceImpl productService;
@@ -66,9 +98,51 @@ class ProductServiceImplTest {
                 StorageUploadResponse.builder().key("products/1.jpg").fileUrl("https://cdn.example.com/products/1.jpg").build()
         );
 
-        var response = productService.uploadProductImage(1L, file);
+        when(productImageRepository.save(any(ProductImage.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        ProductImageUploadRequest request = new ProductImageUploadRequest();
+        request.setImageType(ImageType.FRONT);
+        request.setDisplayOrder(0);
+        request.setPrimary(true);
+
+        var response = productService.uploadProductImage(1L, file, request);
 
         assertThat(response.getImageUrl()).isEqualTo("https://cdn.example.com/products/1.jpg");
+        assertThat(product.getImageUrl()).isEqualTo("https://cdn.example.com/products/1.jpg");
         verify(storageService).upload(eq("products"), any());
+        verify(catalogSyncService).recordProductUpsert(1L);
+    }
+
+    @Test
+    void getById_concurrentRequestsForSameProductHitDatabaseOnce() throws Exception {
+        int callers = 50;
+        ProductResponseDto dto = new ProductResponseDto(1L, "Brown Bag", BigDecimal.valueOf(120), null, "Bags");
+        when(productRepository.findByIdWithCategory(1L)).thenAnswer(invocation -> {
+            // Hold the leader until every other caller has joined its flight.
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (catalogReadFlight.getCoalesced() < callers - 1 && System.nanoTime() < deadline) {
+                Thread.onSpinWait();
+            }
+            return Optional.of(product);
+        });
+        when(productImageRepository.findByProductIdAndActiveTrueOrderByDisplayOrderAscCreatedAtAsc(1L)).thenReturn(List.of());
+        when(productMapper.toResponseDto(product, List.of())).thenReturn(dto);
+
+        ExecutorService pool = Executors.newFixedThreadPool(callers);
+        try {
+            List<Future<ProductResponseDto>> results = new ArrayList<>();
+            for (int i = 0; i < callers; i++) {
+                results.add(pool.submit(() -> productService.getById(1L)));
+            }
+            for (Future<ProductResponseDto> result : results) {
+                assertThat(result.get(10, TimeUnit.SECONDS)).isSameAs(dto);
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+
+        verify(productRepository, times(1)).findByIdWithCategory(1L);
+        verify(productImageRepository, times(1)).findByProductIdAndActiveTrueOrderByDisplayOrderAscCreatedAtAsc(1L);
+        assertThat(catalogReadFlight.getCoalesced()).isEqualTo(callers - 1);
     }
 }
@@ -0,0 +1,151 @@
+package com.leathric.services.archive;
+
+import com.leathric.config.JacksonConfig;
+import com.leathric.config.JpaConfig;
+import com.leathric.config.OrderArchiveConfig;
+import com.leathric.config.OrderViewConfig;
+import com.leathric.entity.Category;
+import com.leathric.entity.JobCheckpoint;
+import com.leathric.entity.Order;
+import com.leathric.entity.OrderItem;
+import com.leathric.entity.OrderStatus;
+import com.leathric.entity.Product;
+import com.leathric.entity.User;
+import com.leathric.repository.CategoryRepository;
+import com.leathric.repository.JobCheckpointRepository;
+import com.leathric.repository.OrderRepository;
+import com.leathric.repository.ProductRepository;
+import com.leathric.repository.UserRepository;
+import com.leathric.services.orders.OrderViewStore;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs real transactions against H2, so the test itself is not transactional.
+ */
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "app.orders.archive.batch-size=1",
+        "app.orders.archive.pause-ms=0"
+})
+@ImportAutoConfiguration(JacksonAutoConfiguration.class)
+@Import({JpaConfig.class, JacksonConfig.class, OrderArchiveConfig.class, OrderViewConfig.class,
+        OrderArchive.class, OrderArchiver.class, OrderViewStore.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class OrderArchiverTest {
+
+    @Autowired
+    private OrderArchiver archiver;
+
+    @Autowired
+    private OrderArchive archive;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JobCheckpointRepository checkpointRepository;
+
+    @Autowired
+    private DataSource dataSource;
+
+    private User user;
+    private Product wallet;
+
+    @BeforeEach
+    void setUp() {
+        Category category = categoryRepository.save(Category.builder().name("Small leather goods").build());
+        wallet = productRepository.save(Product.builder().name("Wallet").price(new BigDecimal("40.00"))
+                .stockQuantity(10).category(category).build());
+        user = userRepository.save(User.builder().email("archive@example.com").fullName("Old Buyer").password("secret").build());
+    }
+
+    @AfterEach
+    void tearDown() {
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        List.of("archived_orders", "job_checkpoints").forEach(table -> jdbcTemplate.update("DELETE FROM " + table));
+        orderRepository.deleteAll();
+        productRepository.deleteAll();
+        categoryRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void movesOnlyOldClosedOrdersAndServesThemFromTheArchive() {
+        Long delivered = addOrder("ORD-OLD-DELIVERED", OrderStatus.DELIVERED, 400);
+        Long open = addOrder("ORD-OLD-SHIPPED", OrderStatus.SHIPPED, 400);
+        Long cancelled = addOrder("ORD-OLD-CANCELLED", OrderStatus.CANCELLED, 400);
+        Long recent = addOrder("ORD-RECENT-DELIVERED", OrderStatus.DELIVERED, 10);
+
+        assertEquals(2, archiver.archive());
+
+        assertEquals(List.of(open, recent), orderRepository.findAll().stream().map(Order::getId).sorted().toList());
+        OrderArchive.Document document = archive.find(delivered).orElseThrow();
+        assertEquals(user.getId(), document.getUserId());
+        assertEquals("ORD-OLD-DELIVERED", document.getOrder().getOrderNumber());
+        assertEquals(OrderStatus.DELIVERED, document.getOrder().getStatus());
+        assertEquals(2, document.getOrder().getItems().get(0).getQuantity());
+        assertEquals(new BigDecimal("80.00"), document.getOrder().getItems().get(0).getLineTotal());
+        assertEquals(List.of(OrderStatus.CREATED, OrderStatus.DELIVERED),
+                document.getTimeline().stream().map(item -> item.getStatus()).toList());
+        assertEquals(List.of(cancelled, delivered), archive.findByUserBefore(user.getId(), Long.MAX_VALUE, 10)
+                .stream().map(archived -> archived.getOrder().getOrderId()).toList());
+        assertEquals(0, checkpointRepository.findById(OrderArchiver.CHECKPOINT).orElseThrow().getPosition());
+    }
+
+    @Test
+    void resumesAfterTheCheckpointAndStartsOverOnTheNextPass() {
+        Long first = addOrder("ORD-OLD-1", OrderStatus.DELIVERED, 400);
+        Long second = addOrder("ORD-OLD-2", OrderStatus.REFUNDED, 400);
+        checkpointRepository.save(JobCheckpoint.builder().name(OrderArchiver.CHECKPOINT)
+                .position(first).updatedAt(LocalDateTime.now()).build());
+
+        assertEquals(1, archiver.archive());
+        assertTrue(archive.find(second).isPresent());
+        assertTrue(archive.find(first).isEmpty());
+
+        assertEquals(1, archiver.archive());
+        assertTrue(archive.find(first).isPresent());
+        assertEquals(0, orderRepository.count());
+    }
+
+    private Long addOrder(String orderNumber, OrderStatus status, int daysAgo) {
+        Order order = Order.builder().orderNumber(orderNumber).user(user).status(status)
+                .totalAmount(new BigDecimal("80.00")).build();
+        order.getItems().add(OrderItem.builder().order(order).product(wallet).quantity(2).price(wallet.getPrice()).build());
+        order.addStatusHistory(OrderStatus.CREATED, "placed");
+        order.addStatusHistory(status, "closed");
+        Long id = orderRepository.save(order).getId();
+        Timestamp then = Timestamp.valueOf(LocalDateTime.now().minusDays(daysAgo));
+        new JdbcTemplate(dataSource).update("UPDATE orders SET created_at = ?, updated_at = ? WHERE id = ?", then, then, id);
+        new JdbcTemplate(dataSource).update("UPDATE order_status_history SET timestamp = ? WHERE order_id = ? AND status = 'CREATED'",
+                Timestamp.valueOf(LocalDateTime.now().minusDays(daysAgo + 1)), id);
+        return id;
+    }
+}
@@ -0,0 +1,123 @@
+package com.leathric.services.cache;
+
+import com.leathric.exception.CoalescedReadTimeoutException;
+import com.leathric.exception.ResourceNotFoundException;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SingleFlightTest {
+
+    private static final Duration TIMEOUT = Duration.ofSeconds(5);
+
+    private final SingleFlight singleFlight = new SingleFlight();
+
+    @Test
+    void concurrentCallersShareOneExecution() throws Exception {
+        int callers = 32;
+        AtomicInteger loads = new AtomicInteger();
+        ExecutorService pool = Executors.newFixedThreadPool(callers);
+        try {
+            List<Future<String>> results = new ArrayList<>();
+            for (int i = 0; i < callers; i++) {
+                results.add(pool.submit(() -> singleFlight.execute("product:1", TIMEOUT, () -> {
+                    loads.incrementAndGet();
+                    awaitFollowers(callers - 1);
+                    return "value";
+                })));
+            }
+            for (Future<String> result : results) {
+                assertThat(result.get(10, TimeUnit.SECONDS)).isEqualTo("value");
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+        assertThat(loads.get()).isEqualTo(1);
+        assertThat(singleFlight.getCoalesced()).isEqualTo(callers - 1);
+        assertThat(singleFlight.inFlightCount()).isZero();
+    }
+
+    @Test
+    void leaderFailureIsRethrownToFollowers() throws Exception {
+        ResourceNotFoundException failure = new ResourceNotFoundException("Product not found for id: 9");
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService pool = Executors.newSingleThreadExecutor();
+        try {
+            Future<?> leader = pool.submit(() -> singleFlight.execute("product:9", TIMEOUT, () -> {
+                await(release);
+                throw failure;
+            }));
+            waitForFlight();
+            // Release the leader only once this thread has joined its flight.
+            new Thread(() -> {
+                awaitFollowers(1);
+                release.countDown();
+            }).start();
+
+            assertThatThrownBy(() -> singleFlight.execute("product:9", TIMEOUT, () -> "unused"))
+                    .satisfies(e -> assertSame(failure, e));
+            assertThatThrownBy(() -> leader.get(10, TimeUnit.SECONDS)).hasCause(failure);
+        } finally {
+            pool.shutdownNow();
+        }
+        // Failures are not cached: the next caller loads again.
+        assertThat(singleFlight.execute("product:9", TIMEOUT, () -> "recovered")).isEqualTo("recovered");
+    }
+
+    @Test
+    void followerTimesOutAndDropsStuckFlight() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService pool = Executors.newSingleThreadExecutor();
+        try {
+            pool.submit(() -> singleFlight.execute("products:page0", TIMEOUT, () -> {
+                await(release);
+                return "slow";
+            }));
+            waitForFlight();
+
+            assertThatThrownBy(() -> singleFlight.execute("products:page0", Duration.ofMillis(50), () -> "unused"))
+                    .isInstanceOf(CoalescedReadTimeoutException.class);
+            assertThat(singleFlight.getTimeouts()).isEqualTo(1);
+            assertThat(singleFlight.execute("products:page0", TIMEOUT, () -> "fresh")).isEqualTo("fresh");
+        } finally {
+            release.countDown();
+            pool.shutdownNow();
+        }
+    }
+
+    private void awaitFollowers(int expected) {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (singleFlight.getCoalesced() < expected && System.nanoTime() < deadline) {
+            Thread.onSpinWait();
+        }
+    }
+
+    private void waitForFlight() throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (singleFlight.inFlightCount() == 0 && System.nanoTime() < deadline) {
+            Thread.sleep(1);
+        }
+        assertTrue(singleFlight.inFlightCount() > 0);
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package com.leathric.services.catalog;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.leathric.config.JpaConfig;
+import com.leathric.entity.Category;
+import com.leathric.entity.ImageType;
+import com.leathric.entity.Product;
+import com.leathric.entity.ProductImage;
+import com.leathric.exception.ResourceNotFoundException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+
+import javax.sql.DataSource;
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect")
+@Import(JpaConfig.class)
+class CatalogJsonReaderTest {
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private Product tote;
+
+    @BeforeEach
+    void setUp() {
+        Category category = entityManager.persist(Category.builder().name("Bags").build());
+        tote = entityManager.persist(Product.builder().name("Tote \"Classic\"").description("Full-grain tote")
+                .price(new BigDecimal("149.50")).stockQuantity(3).category(category).build());
+        entityManager.persist(Product.builder().name("Wallet").description("Bifold")
+                .price(new BigDecimal("39.00")).stockQuantity(0).category(category).build());
+        entityManager.persist(ProductImage.builder().product(tote).objectKey("a").imageUrl("/uploads/a.jpg")
+                .imageType(ImageType.FRONT).displayOrder(0).primary(true).active(true).build());
+        entityManager.persist(ProductImage.builder().product(tote).objectKey("b").imageUrl("/uploads/b.jpg")
+                .imageType(ImageType.BACK).displayOrder(1).active(false).build());
+        entityManager.flush();
+    }
+
+    @Test
+    void writeProductPage_rendersListingFieldsNewestFirst() throws Exception {
+        JsonNode page = render(writer -> new CatalogJsonReader(dataSource).writeProductPage(writer, 0, 1, true));
+
+        assertThat(page.get("totalElements").asLong()).isEqualTo(2);
+        assertThat(page.get("totalPages").asLong()).isEqualTo(2);
+        assertThat(page.get("content")).hasSize(1);
+        assertThat(page.get("content").get(0).get("name").asText()).isEqualTo("Wallet");
+        assertThat(page.get("content").get(0).get("price").decimalValue()).isEqualByComparingTo("39.00");
+    }
+
+    @Test
+    void writeProduct_includesOnlyActiveImagesAndFailsBeforeWritingWhenMissing() throws Exception {
+        JsonNode product = render(writer -> new CatalogJsonReader(dataSource).writeProduct(writer, tote.getId()));
+
+        assertThat(product.get("name").asText()).isEqualTo("Tote \"Classic\"");
+        assertThat(product.get("categoryName").asText()).isEqualTo("Bags");
+        assertThat(product.get("images")).hasSize(1);
+        assertThat(product.get("images").get(0).get("imageType").asText()).isEqualTo("FRONT");
+        assertThat(product.get("images").get(0).get("primary").asBoolean()).isTrue();
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        JsonByteWriter writer = new JsonByteWriter(out, new byte[256]);
+        assertThatThrownBy(() -> new CatalogJsonReader(dataSource).writeProduct(writer, -1L))
+                .isInstanceOf(ResourceNotFoundException.class);
+        writer.flush();
+        assertThat(out.size()).isZero();
+    }
+
+    private JsonNode render(Body body) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        JsonByteWriter writer = new JsonByteWriter(out, new byte[64]);
+        body.write(writer);
+        writer.flush();
+        return objectMapper.readTree(out.toByteArray());
+    }
+
+    @FunctionalInterface
+    private interface Body {
+        void write(JsonByteWriter writer) throws Exception;
+    }
+}
@@ -0,0 +1,146 @@
+package com.leathric.services.catalog;
+
+import com.leathric.dto.ProductResponseDto;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+/**
+ * Heap and GC comparison between an on-heap {@link ProductResponseDto} cache and the mapped read model.
+ * Not part of the test suite; run manually, e.g.
+ * <pre>
+ * mvn -q test-compile exec:java -Dexec.classpathScope=test \
+ *     -Dexec.mainClass=com.leathric.services.catalog.CatalogReadModelBenchmark -Dexec.args="1000000 5000000"
+ * </pre>
+ * or from the IDE with {@code -Xmx2g -XX:+UseG1GC}. Each scenario renders the same listing fields to a
+ * discarding stream so the comparison covers lookup plus serialization.
+ */
+public final class CatalogReadModelBenchmark {
+
+    private static final OutputStream DISCARD = OutputStream.nullOutputStream();
+
+    private CatalogReadModelBenchmark() {}
+
+    public static void main(String[] args) throws Exception {
+        int products = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        int lookups = args.length > 1 ? Integer.parseInt(args[1]) : 5_000_000;
+
+        System.out.printf("products=%,d lookups=%,d%n", products, lookups);
+        runOnHeap(products, lookups);
+        runMapped(products, lookups);
+    }
+
+    private static void runOnHeap(int products, int lookups) throws IOException {
+        long baseline = settledHeap();
+        Map<Long, ProductResponseDto> cache = new HashMap<>(products * 2);
+        for (int i = 1; i <= products; i++) {
+            cache.put((long) i, new ProductResponseDto((long) i, name(i), price(i), imageUrl(i), category(i)));
+        }
+        long retained = settledHeap() - baseline;
+
+        Snapshot before = Snapshot.take();
+        JsonByteWriter writer = new JsonByteWriter(DISCARD, new byte[8192]);
+        SplittableRandom random = new SplittableRandom(7);
+        for (int i = 0; i < lookups; i++) {
+            ProductResponseDto dto = cache.get((long) random.nextInt(1, products + 1));
+            writer.writeAscii("{\"id\":").writeLong(dto.getId())
+                    .writeAscii(",\"name\":").writeString(dto.getName())
+                    .writeAscii(",\"price\":").writeAscii(dto.getPrice().toPlainString())
+                    .writeAscii(",\"imageUrl\":").writeString(dto.getImageUrl())
+                    .writeAscii(",\"categoryName\":").writeString(dto.getCategoryName())
+                    .write('}');
+        }
+        writer.flush();
+        report("on-heap DTO map", retained, before, Snapshot.take(), lookups);
+        cache.clear();
+    }
+
+    private static void runMapped(int products, int lookups) throws IOException {
+        Path directory = Files.createTempDirectory("catalog-bench");
+        Path file = directory.resolve("catalog-1.bin");
+        try (ReadModelFileWriter fileWriter = new ReadModelFileWriter(file, 1L, 0L)) {
+            for (int i = 1; i <= products; i++) {
+                fileWriter.append(i, name(i), price(i), imageUrl(i), category(i), i % 7 != 0);
+            }
+            fileWriter.finish();
+        }
+
+        long baseline = settledHeap();
+        ReadModelFile model = ReadModelFile.open(file);
+        long retained = settledHeap() - baseline;
+
+        Snapshot before = Snapshot.take();
+        JsonByteWriter writer = new JsonByteWriter(DISCARD, new byte[8192]);
+        ProductView view = new ProductView();
+        SplittableRandom random = new SplittableRandom(7);
+        for (int i = 0; i < lookups; i++) {
+            int position = model.indexOf(random.nextInt(1, products + 1));
+            model.view(position, view).writeJson(writer);
+        }
+        writer.flush();
+        report("mapped read model (" + Files.size(file) / (1024 * 1024) + " MiB off-heap)", retained, before, Snapshot.take(), lookups);
+
+        Files.deleteIfExists(file);
+        Files.deleteIfExists(directory);
+    }
+
+    private static void report(String scenario, long retainedHeap, Snapshot before, Snapshot after, int lookups) {
+        long elapsedNanos = after.nanos - before.nanos;
+        System.out.printf("%-45s retained heap=%,8d KiB  allocated=%,10d KiB  gc=%d (%d ms)  %,d ns/lookup%n",
+                scenario,
+                retainedHeap / 1024,
+                (after.allocatedBytes - before.allocatedBytes) / 1024,
+                after.gcCount - before.gcCount,
+                after.gcMillis - before.gcMillis,
+                elapsedNanos / lookups);
+    }
+
+    private static long settledHeap() {
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        Runtime runtime = Runtime.getRuntime();
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    private static String name(int i) {
+        return "Handcrafted leather item " + i;
+    }
+
+    private static BigDecimal price(int i) {
+        return BigDecimal.valueOf(1_000 + (i % 50_000), 2);
+    }
+
+    private static String imageUrl(int i) {
+        return "https://cdn.leathric.example/products/" + i + "/primary.webp";
+    }
+
+    private static String category(int i) {
+        return "Category " + (i % 40);
+    }
+
+    private record Snapshot(long nanos, long gcCount, long gcMillis, long allocatedBytes) {
+
+        static Snapshot take() {
+            long count = 0;
+            long millis = 0;
+            for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+                count += Math.max(gc.getCollectionCount(), 0);
+                millis += Math.max(gc.getCollectionTime(), 0);
+            }
+            long allocated = -1;
+            if (ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean threads) {
+                allocated = threads.getThreadAllocatedBytes(Thread.currentThread().getId());
+            }
+            return new Snapshot(System.nanoTime(), count, millis, allocated);
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package com.leathric.services.catalog;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class MerchantFeedWriterTest {
+
+    @TempDir
+    Path outputDir;
+
+    @Test
+    void commit_shouldPublishEscapedXmlAndTsvFeeds() throws IOException {
+        FeedRow row = new FeedRow();
+        row.setId(7L);
+        row.setName("Belt & Buckle <Brown>");
+        row.setDescription("Full grain\tleather\nbelt");
+        row.setPrice(new BigDecimal("34.99"));
+        row.setStockQuantity(0);
+        row.setCategoryName("Accessories");
+        row.setImageUrl("https://cdn.example.com/belt.jpg");
+
+        try (MerchantFeedWriter writer = new MerchantFeedWriter(outputDir, "https://shop.example.com/", "Leathric", "INR")) {
+            writer.write(row);
+            writer.commit();
+        }
+
+        String xml = gunzip(outputDir.resolve(MerchantFeedWriter.XML_FILE));
+        assertThat(xml).contains("<g:title>Belt &amp; Buckle &lt;Brown&gt;</g:title>");
+        assertThat(xml).contains("<g:link>https://shop.example.com/products/7</g:link>");
+        assertThat(xml).contains("<g:availability>out_of_stock</g:availability>");
+        assertThat(xml).contains("<g:price>34.99 INR</g:price>");
+        assertThat(xml).endsWith("</rss>\n");
+
+        String[] tsv = gunzip(outputDir.resolve(MerchantFeedWriter.TSV_FILE)).split("\n");
+        assertThat(tsv).hasSize(2);
+        assertThat(tsv[1].split("\t")).hasSize(10);
+        assertThat(tsv[1]).contains("Full grain leather belt");
+        assertThat(Files.list(outputDir).filter(p -> p.toString().endsWith(".tmp"))).isEmpty();
+    }
+
+    @Test
+    void uncommittedWriter_shouldLeavePublishedFeedUntouched() throws IOException {
+        Files.writeString(outputDir.resolve(MerchantFeedWriter.XML_FILE), "previous");
+
+        try (MerchantFeedWriter ignored = new MerchantFeedWriter(outputDir, "https://shop.example.com", "Leathric", "INR")) {
+            // simulated scan failure before commit
+        }
+
+        assertThat(Files.readString(outputDir.resolve(MerchantFeedWriter.XML_FILE))).isEqualTo("previous");
+        assertThat(Files.list(outputDir).filter(p -> p.toString().endsWith(".tmp"))).isEmpty();
+    }
+
+    @Test
+    void sitemap_shouldRotateChunksAndIndexThem() throws IOException {
+        try (SitemapWriter sitemap = new SitemapWriter(outputDir, "https://api.example.com", 2)) {
+            for (int i = 1; i <= 5; i++) {
+                sitemap.add("products", "https://shop.example.com/products/" + i, LocalDate.of(2026, 1, 1));
+            }
+            sitemap.add("categories", "https://shop.example.com/categories/1", null);
+            sitemap.commit();
+        }
+
+        String index = Files.readString(outputDir.resolve(SitemapWriter.INDEX_FILE));
+        assertThat(index).contains("https://api.example.com/feeds/sitemap-products-1.xml.gz",
+                "https://api.example.com/feeds/sitemap-products-3.xml.gz",
+                "https://api.example.com/feeds/sitemap-categories-1.xml.gz");
+        assertThat(gunzip(outputDir.resolve("sitemap-products-3.xml.gz")))
+                .contains("<loc>https://shop.example.com/products/5</loc><lastmod>2026-01-01</lastmod>");
+    }
+
+    private String gunzip(Path file) throws IOException {
+        try (InputStream in = new GZIPInputStream(Files.newInputStream(file))) {
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package com.leathric.services.catalog;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ReadModelFileTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void writtenGeneration_shouldSupportIdLookupAndJsonRendering() throws IOException {
+        Path file = directory.resolve("catalog-1.bin");
+        try (ReadModelFileWriter writer = new ReadModelFileWriter(file, 1L, 42L)) {
+            writer.append(3L, "Wallet", new BigDecimal("49.99"), null, "Accessories", true);
+            writer.append(10L, "Bag \"Tote\" \\ ü", new BigDecimal("180.00"), "https://cdn/bag.jpg", null, false);
+            writer.append(11L, "Strap", new BigDecimal("0.05"), "https://cdn/strap.jpg", "Accessories", true);
+            writer.finish();
+        }
+
+        ReadModelFile model = ReadModelFile.open(file);
+        assertThat(model.size()).isEqualTo(3);
+        assertThat(model.generation()).isEqualTo(1L);
+        assertThat(model.changeSequence()).isEqualTo(42L);
+        assertThat(model.indexOf(4L)).isEqualTo(-1);
+
+        ProductView view = model.view(model.indexOf(10L), new ProductView());
+        assertThat(view.id()).isEqualTo(10L);
+        assertThat(view.price()).isEqualByComparingTo("180");
+        assertThat(view.inStock()).isFalse();
+
+        JsonNode bag = render(view);
+        assertThat(bag.get("name").asText()).isEqualTo("Bag \"Tote\" \\ ü");
+        assertThat(bag.get("price").decimalValue()).isEqualByComparingTo("180");
+        assertThat(bag.get("categoryName").isNull()).isTrue();
+
+        JsonNode strap = render(model.view(model.indexOf(11L), view));
+        assertThat(strap.get("price").decimalValue()).isEqualByComparingTo("0.05");
+        assertThat(strap.get("imageUrl").asText()).isEqualTo("https://cdn/strap.jpg");
+        assertThat(render(model.view(0, view)).get("imageUrl").isNull()).isTrue();
+    }
+
+    @Test
+    void append_shouldRejectOutOfOrderIds() throws IOException {
+        try (ReadModelFileWriter writer = new ReadModelFileWriter(directory.resolve("catalog-2.bin"), 2L, 0L)) {
+            writer.append(5L, "A", BigDecimal.ONE, null, null, true);
+            assertThatThrownBy(() -> writer.append(5L, "B", BigDecimal.ONE, null, null, true))
+                    .isInstanceOf(IllegalArgumentException.class);
+        }
+    }
+
+    private JsonNode render(ProductView view) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        JsonByteWriter writer = new JsonByteWriter(out, new byte[16]);
+        view.writeJson(writer);
+        writer.flush();
+        return new ObjectMapper().readTree(out.toByteArray());
+    }
+}
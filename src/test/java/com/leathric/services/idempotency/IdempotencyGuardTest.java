@@ -0,0 +1,145 @@
+package com.leathric.services.idempotency;
+
+import com.leathric.config.IdempotencyConfig;
+import com.leathric.config.JacksonConfig;
+import com.leathric.config.JpaConfig;
+import com.leathric.dto.OrderDtos;
+import com.leathric.exception.BadRequestException;
+import com.leathric.exception.IdempotencyConflictException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs real transactions against H2, so the test itself is not transactional.
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect")
+@ImportAutoConfiguration(JacksonAutoConfiguration.class)
+@Import({JpaConfig.class, JacksonConfig.class, IdempotencyConfig.class, IdempotencyGuard.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class IdempotencyGuardTest {
+
+    private static final String USER = "retry@example.com";
+
+    @Autowired
+    private IdempotencyGuard guard;
+
+    @Autowired
+    private DataSource dataSource;
+
+    private final AtomicInteger executions = new AtomicInteger();
+
+    @BeforeEach
+    void setUp() {
+        authenticate();
+    }
+
+    @AfterEach
+    void tearDown() {
+        new JdbcTemplate(dataSource).update("DELETE FROM idempotency_keys");
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void retryReplaysFirstResponseAndRejectsDifferentRequest() {
+        OrderDtos.OrderResponse first = placeOrder("key-1", "gift wrap");
+        OrderDtos.OrderResponse retry = placeOrder("key-1", "gift wrap");
+
+        assertEquals(1, executions.get());
+        assertEquals(first.getOrderId(), retry.getOrderId());
+        assertEquals(first.getOrderNumber(), retry.getOrderNumber());
+        assertThrows(IdempotencyConflictException.class, () -> placeOrder("key-1", "no gift wrap"));
+        assertNotEquals(first.getOrderId(), placeOrder("key-2", "gift wrap").getOrderId());
+    }
+
+    @Test
+    void failedFirstAttemptStoresNothing() {
+        assertThrows(BadRequestException.class, () -> guard.execute("key-3", "place-order", "body",
+                OrderDtos.OrderResponse.class, () -> {
+                    throw new BadRequestException("Cart is empty");
+                }));
+
+        assertEquals(1, placeOrder("key-3", "body").getOrderId());
+    }
+
+    @Test
+    void concurrentDuplicatesWaitForTheInFlightRequest() throws Exception {
+        int callers = 8;
+        ExecutorService pool = Executors.newFixedThreadPool(callers);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<Long>> results = new ArrayList<>();
+            for (int i = 0; i < callers; i++) {
+                results.add(pool.submit(() -> {
+                    authenticate();
+                    start.await();
+                    return guard.execute("key-4", "place-order", "body", OrderDtos.OrderResponse.class, () -> {
+                        sleep(200);
+                        return response(executions.incrementAndGet());
+                    }).getOrderId();
+                }));
+            }
+            start.countDown();
+            Set<Long> orderIds = results.stream().map(IdempotencyGuardTest::join).collect(Collectors.toSet());
+
+            assertEquals(1, executions.get());
+            assertEquals(Set.of(1L), orderIds);
+        } finally {
+            pool.shutdownNow();
+            pool.awaitTermination(5, TimeUnit.SECONDS);
+        }
+    }
+
+    private OrderDtos.OrderResponse placeOrder(String key, String note) {
+        return guard.execute(key, "place-order", note, OrderDtos.OrderResponse.class,
+                () -> response(executions.incrementAndGet()));
+    }
+
+    private static OrderDtos.OrderResponse response(long orderId) {
+        return OrderDtos.OrderResponse.builder().orderId(orderId).orderNumber("ORD-" + orderId).build();
+    }
+
+    private static void authenticate() {
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(USER, null, List.of()));
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static Long join(Future<Long> future) {
+        try {
+            return future.get(10, TimeUnit.SECONDS);
+        } catch (Exception e) {
+            throw new AssertionError(e);
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package com.leathric.services.ids;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SnowflakeIdGeneratorTest {
+
+    private static final int THREADS = 8;
+    private static final int IDS_PER_THREAD = 500_000;
+
+    @Test
+    void nextId_isUniqueAndIncreasingPerThreadAcrossMillionsOfConcurrentCalls() throws Exception {
+        SnowflakeIdGenerator generator = new SnowflakeIdGenerator(42);
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        List<Future<long[]>> results = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            results.add(pool.submit(() -> {
+                long[] ids = new long[IDS_PER_THREAD];
+                start.await();
+                for (int i = 0; i < ids.length; i++) {
+                    ids[i] = generator.nextId();
+                }
+                return ids;
+            }));
+        }
+        start.countDown();
+        long[] all = new long[THREADS * IDS_PER_THREAD];
+        int filled = 0;
+        for (Future<long[]> result : results) {
+            long[] ids = result.get(60, TimeUnit.SECONDS);
+            for (int i = 1; i < ids.length; i++) {
+                assertThat(ids[i]).isGreaterThan(ids[i - 1]);
+            }
+            System.arraycopy(ids, 0, all, filled, ids.length);
+            filled += ids.length;
+        }
+        pool.shutdown();
+
+        Arrays.sort(all);
+        for (int i = 1; i < all.length; i++) {
+            if (all[i] == all[i - 1]) {
+                throw new AssertionError("Duplicate id " + all[i]);
+            }
+        }
+        assertThat(SnowflakeIdGenerator.nodeId(all[0])).isEqualTo(42);
+    }
+
+    @Test
+    void nextId_staysMonotonicWhenTheClockMovesBackOrTheSequenceRunsOut() {
+        long base = SnowflakeIdGenerator.EPOCH_MILLIS + 1_000_000;
+        AtomicLong clock = new AtomicLong(base);
+        SnowflakeIdGenerator generator = new SnowflakeIdGenerator(1, clock::get);
+
+        long beforeRegression = generator.nextId();
+        clock.set(base - 5_000);
+        long duringRegression = generator.nextId();
+        assertThat(duringRegression).isGreaterThan(beforeRegression);
+        assertThat(SnowflakeIdGenerator.timestampMillis(duringRegression)).isEqualTo(base);
+
+        long previous = duringRegression;
+        for (int i = 0; i < 5000; i++) {
+            long id = generator.nextId();
+            assertThat(id).isGreaterThan(previous);
+            previous = id;
+        }
+        // 4096 ids per millisecond: the logical clock has borrowed the next millisecond.
+        assertThat(SnowflakeIdGenerator.timestampMillis(previous)).isEqualTo(base + 1);
+
+        clock.set(base + 10);
+        assertThat(SnowflakeIdGenerator.timestampMillis(generator.nextId())).isEqualTo(base + 10);
+    }
+
+    @Test
+    void orderNumbers_areFixedWidthAndSortInIssueOrder() {
+        OrderNumberGenerator numbers = new OrderNumberGenerator(new SnowflakeIdGenerator(3));
+        String first = numbers.next();
+        String second = numbers.next();
+
+        assertThat(first).matches("ORD-[0-9A-HJKMNP-TV-Z]{13}");
+        assertThat(second).isGreaterThan(first);
+        assertThat(OrderNumberGenerator.format(0)).isEqualTo("ORD-0000000000000");
+        assertThatThrownBy(() -> new SnowflakeIdGenerator(1024)).isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,139 @@
+package com.leathric.services.inventory;
+
+import com.leathric.config.InventoryReservationProperties;
+import com.leathric.exception.BadRequestException;
+import com.leathric.exception.InsufficientStockException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+
+class InventoryReservationEngineTest {
+
+    private InventoryReservationProperties properties;
+    private InventoryReservationEngine engine;
+
+    @BeforeEach
+    void setUp() {
+        properties = new InventoryReservationProperties();
+        engine = new InventoryReservationEngine(mock(DataSource.class), properties);
+        engine.load(1L, 3);
+        engine.load(2L, 10);
+    }
+
+    @Test
+    void reserve_isAllOrNothingAndReplacesTheUsersPreviousHold() {
+        engine.reserve(100L, Map.of(1L, 2, 2L, 1));
+        assertThatThrownBy(() -> engine.reserve(200L, Map.of(2L, 50, 1L, 1)))
+                .isInstanceOf(InsufficientStockException.class);
+        assertThat(engine.available(1L)).isEqualTo(1);
+        assertThat(engine.available(2L)).isEqualTo(9);
+
+        engine.reserve(100L, Map.of(1L, 1));
+        assertThat(engine.available(1L)).isEqualTo(2);
+        assertThat(engine.available(2L)).isEqualTo(10);
+        assertThat(engine.activeReservations()).isEqualTo(1);
+    }
+
+    @Test
+    void expireHolds_returnsUnitsOfExpiredReservationsOnly() {
+        properties.setTtl(Duration.ZERO);
+        Reservation expired = engine.reserve(100L, Map.of(1L, 3));
+        properties.setTtl(Duration.ofMinutes(10));
+        engine.reserve(200L, Map.of(2L, 4));
+
+        engine.expireHolds();
+
+        assertThat(expired.getState()).isEqualTo(Reservation.State.RELEASED);
+        assertThat(engine.available(1L)).isEqualTo(3);
+        assertThat(engine.available(2L)).isEqualTo(6);
+        assertThatThrownBy(() -> engine.convert(expired.getId(), 100L, Map.of(1L, 3)))
+                .isInstanceOf(BadRequestException.class);
+    }
+
+    @Test
+    void convert_settlesWithTheTransaction() {
+        Reservation reservation = engine.reserve(100L, Map.of(1L, 2, 2L, 3));
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            engine.convert(reservation.getId(), 100L, Map.of(1L, 2, 2L, 1));
+            assertThat(reservation.getState()).isEqualTo(Reservation.State.CONVERTING);
+            engine.expireHolds();
+            complete(TransactionSynchronization.STATUS_ROLLED_BACK);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        assertThat(reservation.getState()).isEqualTo(Reservation.State.HELD);
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            engine.convert(reservation.getId(), 100L, Map.of(1L, 2, 2L, 1));
+            complete(TransactionSynchronization.STATUS_COMMITTED);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        assertThat(reservation.getState()).isEqualTo(Reservation.State.CONVERTED);
+        assertThat(engine.available(1L)).isEqualTo(1);
+        // Two of the three held units of product 2 were not ordered and go back on sale.
+        assertThat(engine.available(2L)).isEqualTo(9);
+        assertThat(engine.activeReservations()).isZero();
+    }
+
+    @Test
+    void claim_cannotTakeHeldUnitsAndLeavesTheHoldConvertible() {
+        Reservation hold = engine.reserve(100L, Map.of(1L, 2));
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            assertThatThrownBy(() -> engine.claim(Map.of(2L, 1, 1L, 2)))
+                    .isInstanceOf(InsufficientStockException.class);
+            engine.claim(Map.of(1L, 1));
+            complete(TransactionSynchronization.STATUS_COMMITTED);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        assertThat(engine.available(1L)).isZero();
+        assertThat(engine.available(2L)).isEqualTo(10);
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            engine.convert(hold.getId(), 100L, Map.of(1L, 2));
+            complete(TransactionSynchronization.STATUS_COMMITTED);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        assertThat(hold.getState()).isEqualTo(Reservation.State.CONVERTED);
+        assertThat(engine.available(1L)).isZero();
+    }
+
+    @Test
+    void claim_returnsUnitsWhenTheOrderRollsBack() {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            engine.claim(Map.of(1L, 3));
+            assertThat(engine.available(1L)).isZero();
+            complete(TransactionSynchronization.STATUS_ROLLED_BACK);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        assertThat(engine.available(1L)).isEqualTo(3);
+    }
+
+    private static void complete(int status) {
+        for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+            if (status == TransactionSynchronization.STATUS_COMMITTED) {
+                synchronization.beforeCommit(false);
+            }
+            synchronization.afterCompletion(status);
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package com.leathric.services.inventory;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ShardedCounterTest {
+
+    @Test
+    void tryTake_concurrentTakersNeverGetMoreThanTheCounterHeld() throws Exception {
+        ShardedCounter counter = new ShardedCounter(8, 1000);
+        AtomicLong taken = new AtomicLong();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(16);
+        List<Future<?>> workers = new ArrayList<>();
+        for (int t = 0; t < 16; t++) {
+            int units = 1 + t % 3;
+            workers.add(pool.submit(() -> {
+                start.await();
+                for (int i = 0; i < 200; i++) {
+                    if (counter.tryTake(units)) {
+                        taken.addAndGet(units);
+                    }
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> worker : workers) {
+            worker.get(30, TimeUnit.SECONDS);
+        }
+        pool.shutdown();
+
+        assertThat(taken.get() + counter.available()).isEqualTo(1000);
+        assertThat(counter.available()).isBetween(0L, 2L);
+    }
+
+    @Test
+    void tryTake_gathersAcrossShardsAllOrNothing() {
+        ShardedCounter counter = new ShardedCounter(4, 0);
+        for (int i = 0; i < 5; i++) {
+            counter.adjust(1);
+        }
+
+        assertThat(counter.tryTake(6)).isFalse();
+        assertThat(counter.available()).isEqualTo(5);
+        assertThat(counter.tryTake(5)).isTrue();
+        assertThat(counter.available()).isZero();
+    }
+
+    @Test
+    void adjust_removalsBeyondStockAreRepaidBeforeUnitsBecomeTakeable() {
+        ShardedCounter counter = new ShardedCounter(2, 3);
+
+        counter.adjust(-5);
+        assertThat(counter.available()).isEqualTo(-2);
+        assertThat(counter.tryTake(1)).isFalse();
+
+        counter.adjust(3);
+        assertThat(counter.available()).isEqualTo(1);
+        assertThat(counter.tryTake(1)).isTrue();
+        assertThat(counter.tryTake(1)).isFalse();
+    }
+}
@@ -0,0 +1,153 @@
+package com.leathric.services.inventory;
+
+import com.leathric.config.JpaConfig;
+import com.leathric.config.StockLedgerConfig;
+import com.leathric.dto.InventoryDtos;
+import com.leathric.entity.Category;
+import com.leathric.entity.Product;
+import com.leathric.entity.StockMovementReason;
+import com.leathric.repository.CategoryRepository;
+import com.leathric.repository.ProductRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs real transactions against H2, so the test itself is not transactional.
+ */
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "app.inventory.ledger.reconcile-batch-size=1",
+        "app.inventory.ledger.fold-batch-size=1"
+})
+@Import({JpaConfig.class, StockLedgerConfig.class, StockLedger.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class StockLedgerTest {
+
+    @Autowired
+    private StockLedger stockLedger;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private DataSource dataSource;
+
+    private Long bagId;
+    private Long beltId;
+
+    @BeforeEach
+    void setUp() {
+        Category category = categoryRepository.save(Category.builder().name("Ledger test").build());
+        bagId = productRepository.save(Product.builder().name("Bag").price(new BigDecimal("10.00"))
+                .stockQuantity(10).category(category).build()).getId();
+        beltId = productRepository.save(Product.builder().name("Belt").price(new BigDecimal("5.00"))
+                .stockQuantity(5).category(category).build()).getId();
+    }
+
+    @AfterEach
+    void tearDown() {
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        List.of("stock_movements", "stock_snapshots", "job_checkpoints")
+                .forEach(table -> jdbcTemplate.update("DELETE FROM " + table));
+        productRepository.deleteAll();
+        categoryRepository.deleteAll();
+    }
+
+    @Test
+    void snapshotsCommittedMovementsAndReportsUnrecordedStockChanges() {
+        InventoryDtos.ReconciliationReport opened = stockLedger.reconcile();
+        assertEquals(2, opened.getProductsChecked());
+        assertEquals(0, opened.getProductsDrifted());
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            productRepository.decrementStock(Map.of(bagId, 3));
+            stockLedger.record(StockMovementReason.ORDER, null, Map.of(bagId, -3), null);
+        });
+        assertEquals(0, stockLedger.reconcile().getProductsDrifted());
+        assertEquals(7L, snapshotQuantity(bagId));
+        assertEquals(5L, snapshotQuantity(beltId));
+
+        new JdbcTemplate(dataSource).update("UPDATE products SET stock_quantity = 20 WHERE id = ?", beltId);
+        InventoryDtos.ReconciliationReport drifted = stockLedger.reconcile();
+        assertEquals(1, drifted.getProductsDrifted());
+        InventoryDtos.StockDrift drift = drifted.getDrifts().get(0);
+        assertEquals(beltId, drift.getProductId());
+        assertEquals(5, drift.getLedgerQuantity());
+        assertEquals(15, drift.getDrift());
+        assertSame(drifted, stockLedger.lastReport());
+
+        InventoryDtos.ProductLedger ledger = stockLedger.productLedger(bagId, 10).orElseThrow();
+        assertEquals(7, ledger.getStockQuantity());
+        assertEquals(7, ledger.getLedgerQuantity());
+        assertEquals(List.of(StockMovementReason.ORDER, StockMovementReason.IMPORT),
+                ledger.getRecentMovements().stream().map(InventoryDtos.StockMovementItem::getReason).toList());
+    }
+
+    @Test
+    void openingBalanceAccountsForMovementsRecordedBeforeIt() {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            productRepository.decrementStock(Map.of(bagId, 2));
+            stockLedger.record(StockMovementReason.ORDER, null, Map.of(bagId, -2), null);
+        });
+
+        assertEquals(0, stockLedger.reconcile().getProductsDrifted());
+        InventoryDtos.ProductLedger ledger = stockLedger.productLedger(bagId, 10).orElseThrow();
+        assertEquals(8, ledger.getLedgerQuantity());
+        assertEquals(10, ledger.getRecentMovements().get(0).getQuantity());
+    }
+
+    @Test
+    void movementCommittingBelowFoldedIdsIsFoldedByTheNextPass() {
+        assertEquals(0, stockLedger.reconcile().getProductsDrifted());
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        long lateId = jdbcTemplate.queryForObject("SELECT MAX(id) FROM stock_movements", Long.class) + 10;
+
+        // A later id commits and is folded before a transaction holding an earlier id commits.
+        insertMovement(lateId + 1, bagId, -1);
+        assertEquals(1, stockLedger.snapshot());
+        assertEquals(9L, snapshotQuantity(bagId));
+        insertMovement(lateId, bagId, -2);
+
+        assertEquals(0, stockLedger.reconcile().getProductsDrifted());
+        assertEquals(7L, snapshotQuantity(bagId));
+        InventoryDtos.ProductLedger ledger = stockLedger.productLedger(bagId, 10).orElseThrow();
+        assertEquals(7, ledger.getLedgerQuantity());
+        assertEquals(lateId + 1, ledger.getSnapshotMovementId());
+    }
+
+    private void insertMovement(long id, Long productId, int quantity) {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+            jdbcTemplate.update("UPDATE products SET stock_quantity = stock_quantity + ? WHERE id = ?", quantity, productId);
+            jdbcTemplate.update("INSERT INTO stock_movements (id, product_id, quantity, reason, created_at) "
+                    + "VALUES (?, ?, ?, 'ORDER', CURRENT_TIMESTAMP)", id, productId, quantity);
+        });
+    }
+
+    private long snapshotQuantity(Long productId) {
+        return new JdbcTemplate(dataSource).queryForObject(
+                "SELECT quantity FROM stock_snapshots WHERE product_id = ?", Long.class, productId);
+    }
+}
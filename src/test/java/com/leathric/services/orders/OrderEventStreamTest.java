@@ -0,0 +1,90 @@
+package com.leathric.services.orders;
+
+import com.leathric.config.OrderEventStreamProperties;
+import com.leathric.dto.OrderDtos;
+import com.leathric.entity.OrderStatus;
+import com.leathric.entity.PaymentStatus;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import javax.sql.DataSource;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+class OrderEventStreamTest {
+
+    private final OrderEventStreamProperties properties = new OrderEventStreamProperties();
+    private final ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+    private final CountDownLatch senderBlocked = new CountDownLatch(1);
+    private OrderEventStream stream;
+
+    @BeforeEach
+    void setUp() {
+        properties.setBufferSize(3);
+        properties.setMaxSubscriptions(2);
+        executor.setCorePoolSize(1);
+        executor.setMaxPoolSize(1);
+        executor.initialize();
+        // Occupy the only sender thread so events stay buffered.
+        executor.execute(() -> {
+            try {
+                senderBlocked.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        stream = new OrderEventStream(properties, executor, mock(DataSource.class));
+    }
+
+    @AfterEach
+    void tearDown() {
+        senderBlocked.countDown();
+        executor.shutdown();
+    }
+
+    @Test
+    void clientThatFallsAFullBufferBehindIsDisconnected() {
+        stream.subscribe(snapshot(1L));
+        stream.subscribe(snapshot(2L));
+
+        // The snapshot already takes one slot; two more changes fill the buffer, the third overflows it.
+        publish(1L, OrderStatus.CONFIRMED);
+        publish(1L, OrderStatus.PACKED);
+        assertEquals(2, stream.openSubscriptions());
+        publish(1L, OrderStatus.SHIPPED);
+
+        assertEquals(1, stream.openSubscriptions());
+        publish(1L, OrderStatus.OUT_FOR_DELIVERY);
+        assertEquals(1, stream.openSubscriptions());
+    }
+
+    @Test
+    void rejectsStreamsBeyondTheLimitUntilOneCloses() {
+        stream.subscribe(snapshot(1L));
+        stream.subscribe(snapshot(1L));
+        assertThrows(TaskRejectedException.class, () -> stream.subscribe(snapshot(2L)));
+
+        for (OrderStatus status : List.of(OrderStatus.CONFIRMED, OrderStatus.PACKED, OrderStatus.SHIPPED)) {
+            publish(1L, status);
+        }
+        assertEquals(0, stream.openSubscriptions());
+        assertNotNull(stream.subscribe(snapshot(2L)));
+    }
+
+    private void publish(Long orderId, OrderStatus status) {
+        stream.publishAfterCommit(List.of(new OrderDtos.OrderStatusEvent(orderId, status, PaymentStatus.COMPLETED,
+                null, LocalDateTime.now())));
+    }
+
+    private OrderDtos.OrderTrackingResponse snapshot(Long orderId) {
+        return OrderDtos.OrderTrackingResponse.builder().orderId(orderId).orderNumber("ORD-" + orderId)
+                .currentStatus(OrderStatus.CREATED).paymentStatus(PaymentStatus.PENDING).timeline(List.of()).build();
+    }
+}
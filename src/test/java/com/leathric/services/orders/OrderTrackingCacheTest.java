@@ -0,0 +1,48 @@
+package com.leathric.services.orders;
+
+import com.leathric.config.OrderTrackingProperties;
+import com.leathric.dto.OrderDtos;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OrderTrackingCacheTest {
+
+    private final OrderTrackingCache cache = new OrderTrackingCache(new OrderTrackingProperties());
+
+    @Test
+    void servesCachedEntryUntilInvalidated() {
+        AtomicInteger loads = new AtomicInteger();
+
+        cache.get(1L, () -> entry(loads.incrementAndGet()));
+        cache.get(1L, () -> entry(loads.incrementAndGet()));
+        assertEquals(1, loads.get());
+
+        cache.invalidateAfterCommit(List.of(1L));
+        OrderTrackingCache.Entry reloaded = cache.get(1L, () -> entry(loads.incrementAndGet()));
+        assertEquals(2, loads.get());
+        assertEquals(2L, reloaded.getResponse().getOrderId());
+    }
+
+    @Test
+    void loadOverlappingAnInvalidationIsNotCached() {
+        AtomicInteger loads = new AtomicInteger();
+
+        OrderTrackingCache.Entry stale = cache.get(1L, () -> {
+            cache.invalidateAfterCommit(List.of(1L));
+            return entry(loads.incrementAndGet());
+        });
+        OrderTrackingCache.Entry fresh = cache.get(1L, () -> entry(loads.incrementAndGet()));
+
+        assertEquals(1L, stale.getResponse().getOrderId());
+        assertEquals(2L, fresh.getResponse().getOrderId());
+    }
+
+    private static OrderTrackingCache.Entry entry(long marker) {
+        return new OrderTrackingCache.Entry("owner@example.com",
+                OrderDtos.OrderTrackingResponse.builder().orderId(marker).timeline(List.of()).build());
+    }
+}
@@ -0,0 +1,165 @@
+package com.leathric.services.orders;
+
+import com.leathric.config.JacksonConfig;
+import com.leathric.config.JpaConfig;
+import com.leathric.config.OrderViewConfig;
+import com.leathric.dto.OrderDtos;
+import com.leathric.entity.Category;
+import com.leathric.entity.Order;
+import com.leathric.entity.OrderItem;
+import com.leathric.entity.OrderStatus;
+import com.leathric.entity.OrderView;
+import com.leathric.entity.PaymentStatus;
+import com.leathric.entity.Product;
+import com.leathric.entity.User;
+import com.leathric.exception.BadRequestException;
+import com.leathric.repository.CategoryRepository;
+import com.leathric.repository.JobCheckpointRepository;
+import com.leathric.repository.OrderRepository;
+import com.leathric.repository.ProductRepository;
+import com.leathric.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs real transactions against H2, so the test itself is not transactional.
+ */
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "app.orders.views.rebuild-batch-size=2"
+})
+@ImportAutoConfiguration(JacksonAutoConfiguration.class)
+@Import({JpaConfig.class, JacksonConfig.class, OrderViewConfig.class, OrderViewStore.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class OrderViewStoreTest {
+
+    @Autowired
+    private OrderViewStore store;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JobCheckpointRepository checkpointRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private DataSource dataSource;
+
+    private User user;
+    private Product satchel;
+
+    @BeforeEach
+    void setUp() {
+        Category category = categoryRepository.save(Category.builder().name("Bags").build());
+        satchel = productRepository.save(Product.builder().name("Satchel").price(new BigDecimal("120.00"))
+                .stockQuantity(10).category(category).build());
+        user = userRepository.save(User.builder().email("views@example.com").fullName("Reader").password("secret").build());
+    }
+
+    @AfterEach
+    void tearDown() {
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        List.of("order_views", "job_checkpoints").forEach(table -> jdbcTemplate.update("DELETE FROM " + table));
+        orderRepository.deleteAll();
+        productRepository.deleteAll();
+        categoryRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void rebuildRendersEveryOrderLikeTheOrderTables() {
+        addOrder("ORD-VIEW-1", 1);
+        Long second = addOrder("ORD-VIEW-2", 2);
+        Long third = addOrder("ORD-VIEW-3", 3);
+
+        assertEquals(3, store.rebuild(false));
+
+        OrderView view = store.find(third).orElseThrow();
+        assertEquals("views@example.com", view.getOwnerEmail());
+        assertEquals(3, view.getItemCount());
+        OrderDtos.OrderResponse response = store.toOrderResponse(view, true);
+        assertEquals("ORD-VIEW-3", response.getOrderNumber());
+        assertEquals(new BigDecimal("360.00"), response.getItems().get(0).getLineTotal());
+        assertEquals("Satchel", response.getItems().get(0).getProductName());
+        assertNull(store.toOrderResponse(view, false).getItems());
+        assertEquals(List.of(OrderStatus.CREATED), store.toTrackingResponse(view).getTimeline().stream()
+                .map(OrderDtos.StatusHistoryItem::getStatus).toList());
+        assertEquals(List.of(third, second), store.findByUserBefore(user.getId(), Long.MAX_VALUE, 2, false)
+                .stream().map(OrderDtos.OrderResponse::getOrderId).toList());
+        assertEquals(0, checkpointRepository.findById(OrderViewStore.CHECKPOINT).orElseThrow().getPosition());
+    }
+
+    @Test
+    void statusChangeRewritesStatusAndAppendsToTimeline() {
+        Long orderId = addOrder("ORD-VIEW-PAID", 1);
+        store.rebuild(false);
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+
+        transaction.executeWithoutResult(status -> store.applyStatusChange(List.of(orderId, -1L), OrderStatus.CONFIRMED,
+                PaymentStatus.COMPLETED, "paid", LocalDateTime.now()));
+        transaction.executeWithoutResult(status -> store.applyStatusChange(List.of(orderId), OrderStatus.PACKED,
+                null, "packed", LocalDateTime.now()));
+
+        OrderDtos.OrderTrackingResponse tracking = store.toTrackingResponse(store.find(orderId).orElseThrow());
+        assertEquals(OrderStatus.PACKED, tracking.getCurrentStatus());
+        assertEquals(PaymentStatus.COMPLETED, tracking.getPaymentStatus());
+        assertEquals(List.of("placed", "paid", "packed"), tracking.getTimeline().stream()
+                .map(OrderDtos.StatusHistoryItem::getNote).toList());
+    }
+
+    @Test
+    void findByUserAcceptsOrderSortProperties() {
+        Long first = addOrder("ORD-VIEW-SORT-1", 1);
+        Long second = addOrder("ORD-VIEW-SORT-2", 2);
+        store.rebuild(false);
+        PageRequest byIdDescending = PageRequest.of(0, 10, Sort.by("id").descending());
+
+        Page<OrderDtos.OrderResponse> page = store.findByUser(user.getId(), byIdDescending, false);
+
+        assertEquals(List.of(second, first), page.getContent().stream().map(OrderDtos.OrderResponse::getOrderId).toList());
+        assertEquals(byIdDescending, page.getPageable());
+        assertThrows(BadRequestException.class,
+                () -> store.findByUser(user.getId(), PageRequest.of(0, 10, Sort.by("timeline")), false));
+    }
+
+    private Long addOrder(String orderNumber, int quantity) {
+        Order order = Order.builder().orderNumber(orderNumber).user(user).status(OrderStatus.CREATED)
+                .totalAmount(satchel.getPrice().multiply(BigDecimal.valueOf(quantity))).build();
+        order.getItems().add(OrderItem.builder().order(order).product(satchel).quantity(quantity).price(satchel.getPrice()).build());
+        order.addStatusHistory(OrderStatus.CREATED, "placed");
+        return orderRepository.save(order).getId();
+    }
+}
@@ -0,0 +1,120 @@
+package com.leathric.services.outbox;
+
+import com.leathric.config.JpaConfig;
+import com.leathric.config.OutboxProperties;
+import com.leathric.entity.OutboxEvent;
+import com.leathric.entity.OutboxStatus;
+import com.leathric.interfaces.OutboxEventHandler;
+import com.leathric.repository.OutboxEventRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Dispatches against H2 with real claim and delivery transactions, so the test itself is not transactional.
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect")
+@Import(JpaConfig.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class OutboxDispatcherTest {
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @AfterEach
+    void tearDown() {
+        outboxEventRepository.deleteAll();
+    }
+
+    @Test
+    void deliversEventsOfOneOrderInOrderAndHoldsLaterOnesWhileRetrying() {
+        List<String> delivered = new ArrayList<>();
+        OutboxEventHandler handler = new OutboxEventHandler() {
+            private boolean failedOnce;
+
+            @Override
+            public boolean supports(String eventType) {
+                return true;
+            }
+
+            @Override
+            public void handle(OutboxEvent event) {
+                if (event.getAggregateId() == 1L && !failedOnce) {
+                    failedOnce = true;
+                    throw new IllegalStateException("downstream unavailable");
+                }
+                delivered.add(event.getAggregateId() + ":" + event.getEventType());
+            }
+        };
+        OutboxDispatcher dispatcher = new OutboxDispatcher(outboxEventRepository, transactionManager,
+                new OutboxProperties(), List.of(handler));
+
+        Long placed = save(1L, "ORDER_PLACED");
+        save(1L, "PAYMENT_CONFIRMED");
+        save(2L, "ORDER_PLACED");
+        save(2L, "ORDER_CANCELLED");
+
+        dispatcher.dispatchPending();
+
+        assertEquals(List.of("2:ORDER_PLACED", "2:ORDER_CANCELLED"), delivered);
+        OutboxEvent failed = outboxEventRepository.findById(placed).orElseThrow();
+        assertEquals(OutboxStatus.PENDING, failed.getStatus());
+        assertEquals(1, failed.getAttempts());
+        assertTrue(failed.getNextAttemptAt().isAfter(LocalDateTime.now()));
+        assertTrue(failed.getLastError().contains("downstream unavailable"));
+
+        failed.setNextAttemptAt(LocalDateTime.now().minusSeconds(1));
+        outboxEventRepository.save(failed);
+        dispatcher.dispatchPending();
+
+        assertEquals(List.of("2:ORDER_PLACED", "2:ORDER_CANCELLED", "1:ORDER_PLACED", "1:PAYMENT_CONFIRMED"), delivered);
+        assertTrue(outboxEventRepository.findAll().stream().allMatch(e -> e.getStatus() == OutboxStatus.DELIVERED));
+    }
+
+    @Test
+    void parksEventAsFailedAfterMaxAttempts() {
+        OutboxProperties properties = new OutboxProperties();
+        properties.setMaxAttempts(1);
+        OutboxEventHandler handler = new OutboxEventHandler() {
+            @Override
+            public boolean supports(String eventType) {
+                return true;
+            }
+
+            @Override
+            public void handle(OutboxEvent event) throws Exception {
+                throw new Exception("rejected");
+            }
+        };
+        Long id = save(3L, "ORDER_PLACED");
+
+        new OutboxDispatcher(outboxEventRepository, transactionManager, properties, List.of(handler)).dispatchPending();
+
+        OutboxEvent event = outboxEventRepository.findById(id).orElseThrow();
+        assertEquals(OutboxStatus.FAILED, event.getStatus());
+        assertEquals(1, event.getAttempts());
+    }
+
+    private Long save(Long orderId, String type) {
+        return outboxEventRepository.save(OutboxEvent.builder()
+                .aggregateId(orderId)
+                .eventType(type)
+                .payload("{}")
+                .nextAttemptAt(LocalDateTime.now().minusSeconds(1))
+                .build()).getId();
+    }
+}
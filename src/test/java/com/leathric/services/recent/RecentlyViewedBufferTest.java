@@ -0,0 +1,73 @@
+package com.leathric.services.recent;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RecentlyViewedBufferTest {
+
+    @Test
+    void record_keepsNewestFirstWithoutDuplicatesWithinCapacity() {
+        RecentlyViewedBuffer buffer = new RecentlyViewedBuffer(3);
+        AtomicInteger dirtied = new AtomicInteger();
+
+        for (long id : new long[]{1, 2, 3, 4}) {
+            buffer.record(id, dirtied::incrementAndGet);
+        }
+        assertThat(buffer.snapshot()).containsExactly(4, 3, 2);
+
+        buffer.record(2, dirtied::incrementAndGet);
+        assertThat(buffer.snapshot()).containsExactly(2, 4, 3);
+
+        buffer.record(2, dirtied::incrementAndGet);
+        assertThat(dirtied).hasValue(5);
+    }
+
+    @Test
+    void mergeOlder_appendsStoredHistoryBehindNewViews() {
+        RecentlyViewedBuffer buffer = new RecentlyViewedBuffer(4);
+        buffer.record(7, () -> { });
+        buffer.record(5, () -> { });
+
+        buffer.mergeOlder(new long[]{9, 7, 8, 6});
+
+        assertThat(buffer.isLoaded()).isTrue();
+        assertThat(buffer.snapshot()).containsExactly(5, 7, 9, 8);
+        buffer.record(1, () -> { });
+        assertThat(buffer.snapshot()).containsExactly(1, 5, 7, 9);
+    }
+
+    @Test
+    void drainPending_returnsViewsSinceLastDrainAndRestoresThemAfterAFailedWrite() {
+        RecentlyViewedBuffer buffer = new RecentlyViewedBuffer(4);
+        buffer.record(1, () -> { });
+        buffer.record(2, () -> { });
+        assertThat(buffer.drainPending()).containsExactly(2, 1);
+
+        buffer.rebase(new long[]{2, 9, 1});
+        buffer.record(1, () -> { });
+        long[] drained = buffer.drainPending();
+        assertThat(drained).containsExactly(1);
+
+        buffer.record(5, () -> { });
+        buffer.restorePending(drained);
+        assertThat(buffer.drainPending()).containsExactly(5, 1);
+
+        buffer.record(7, () -> { });
+        buffer.rebase(new long[]{3, 5, 1});
+        assertThat(buffer.isLoaded()).isTrue();
+        assertThat(buffer.snapshot()).containsExactly(7, 3, 5, 1);
+    }
+
+    @Test
+    void evictIf_rejectsFurtherViewsOnlyWhenClean() {
+        RecentlyViewedBuffer buffer = new RecentlyViewedBuffer(2);
+
+        assertThat(buffer.evictIf(() -> false)).isFalse();
+        assertThat(buffer.record(1, () -> { })).isTrue();
+        assertThat(buffer.evictIf(() -> true)).isTrue();
+        assertThat(buffer.record(2, () -> { })).isFalse();
+    }
+}
@@ -0,0 +1,87 @@
+package com.leathric.services.recent;
+
+import com.leathric.config.JpaConfig;
+import com.leathric.config.RecentlyViewedProperties;
+import com.leathric.entity.User;
+import com.leathric.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.sql.DataSource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Two stores over one H2 database in MySQL mode stand in for two instances; flushes commit for real, so the
+ * test itself is not transactional.
+ */
+@DataJpaTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:recent;MODE=MySQL;DB_CLOSE_DELAY=-1",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(JpaConfig.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class RecentlyViewedStoreTest {
+
+    private static final String EMAIL = "viewer@example.com";
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private RecentlyViewedStore first;
+    private RecentlyViewedStore second;
+
+    @BeforeEach
+    void setUp() {
+        userRepository.save(User.builder().email(EMAIL).fullName("Viewer").password("secret").build());
+        RecentlyViewedProperties properties = new RecentlyViewedProperties();
+        first = new RecentlyViewedStore(dataSource, transactionManager, properties);
+        second = new RecentlyViewedStore(dataSource, transactionManager, properties);
+    }
+
+    @AfterEach
+    void tearDown() {
+        new JdbcTemplate(dataSource).update("DELETE FROM recently_viewed");
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void flushMergesViewsFlushedByAnotherInstance() {
+        first.record(EMAIL, 1L);
+        first.record(EMAIL, 2L);
+        assertThat(first.flush()).isEqualTo(1);
+
+        second.record(EMAIL, 3L);
+        second.record(EMAIL, 1L);
+        assertThat(second.flush()).isEqualTo(1);
+
+        // The first instance last saw [2, 1]; its next flush must keep the second instance's views.
+        first.record(EMAIL, 4L);
+        assertThat(first.flush()).isEqualTo(1);
+
+        assertThat(stored()).containsExactly(4L, 1L, 3L, 2L);
+        assertThat(first.recent(EMAIL)).containsExactly(4L, 1L, 3L, 2L);
+        assertThat(first.flush()).isZero();
+    }
+
+    private long[] stored() {
+        return RecentlyViewedStore.decode(new JdbcTemplate(dataSource).queryForObject(
+                "SELECT product_ids FROM recently_viewed", byte[].class));
+    }
+}
@@ -0,0 +1,74 @@
+package com.leathric.services.recommendation;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CoPurchaseMatrixTest {
+
+    @Test
+    void addBasket_listsPairsOnceTheyReachMinimumSupport() {
+        CoPurchaseMatrix matrix = new CoPurchaseMatrix(3, 2);
+        Set<Long> changed = new HashSet<>();
+
+        matrix.addBasket(new long[]{1, 2, 3}, changed::add);
+        assertThat(changed).isEmpty();
+        assertThat(matrix.topList(1).size()).isZero();
+
+        matrix.addBasket(new long[]{1, 2}, changed::add);
+        assertThat(changed).containsExactlyInAnyOrder(1L, 2L);
+        assertThat(ids(matrix.topList(1))).containsExactly(2L);
+        assertThat(matrix.topList(1).count(0)).isEqualTo(2);
+    }
+
+    @Test
+    void topList_keepsHighestCountsAndReordersAsCountsGrow() {
+        CoPurchaseMatrix matrix = new CoPurchaseMatrix(2, 1);
+        matrix.addBasket(new long[]{1, 2}, id -> {});
+        matrix.addBasket(new long[]{1, 3}, id -> {});
+        matrix.addBasket(new long[]{1, 4}, id -> {});
+        // Ties rank the lower id first, so 4 is not listed yet.
+        assertThat(ids(matrix.topList(1))).containsExactly(2L, 3L);
+
+        matrix.addBasket(new long[]{1, 4}, id -> {});
+        matrix.addBasket(new long[]{1, 4}, id -> {});
+        matrix.addBasket(new long[]{1, 3}, id -> {});
+        assertThat(ids(matrix.topList(1))).containsExactly(4L, 3L);
+        assertThat(matrix.topList(1).count(0)).isEqualTo(3);
+    }
+
+    @Test
+    void snapshotRoundTripRestoresCountsAndTopLists() throws Exception {
+        CoPurchaseMatrix matrix = new CoPurchaseMatrix(5, 1);
+        for (long order = 0; order < 500; order++) {
+            matrix.addBasket(new long[]{order % 40 + 1, order % 7 + 100, 999}, id -> {});
+        }
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        matrix.write(new DataOutputStream(bytes));
+
+        CoPurchaseMatrix restored = CoPurchaseMatrix.read(new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())), 5, 1);
+
+        assertThat(restored.baskets()).isEqualTo(500);
+        assertThat(restored.products()).isEqualTo(matrix.products());
+        for (long productId : new long[]{1, 17, 100, 106, 999}) {
+            assertThat(ids(restored.topList(productId))).containsExactly(ids(matrix.topList(productId)));
+        }
+
+        assertThat(restored.topList(999).count(0)).isEqualTo(matrix.topList(999).count(0));
+    }
+
+    private static Long[] ids(TopList list) {
+        Long[] ids = new Long[list.size()];
+        for (int i = 0; i < list.size(); i++) {
+            ids[i] = list.id(i);
+        }
+        return ids;
+    }
+}
@@ -0,0 +1,204 @@
+package com.leathric.services.sales;
+
+import com.leathric.config.JpaConfig;
+import com.leathric.config.OrderArchiveConfig;
+import com.leathric.config.SalesRollupConfig;
+import com.leathric.dto.SalesDtos;
+import com.leathric.entity.Category;
+import com.leathric.entity.Order;
+import com.leathric.entity.OrderItem;
+import com.leathric.entity.OrderStatus;
+import com.leathric.entity.PaymentStatus;
+import com.leathric.entity.Product;
+import com.leathric.entity.User;
+import com.leathric.exception.BadRequestException;
+import com.leathric.repository.CategoryRepository;
+import com.leathric.repository.OrderRepository;
+import com.leathric.repository.ProductRepository;
+import com.leathric.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs the MySQL upserts against H2 in MySQL mode with real transactions, so the test itself is not transactional.
+ */
+@DataJpaTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:sales;MODE=MySQL;DB_CLOSE_DELAY=-1",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({JpaConfig.class, SalesRollupConfig.class, OrderArchiveConfig.class, SalesRollupStore.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class SalesRollupStoreTest {
+
+    @Autowired
+    private SalesRollupStore store;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private DataSource dataSource;
+
+    private TransactionTemplate transaction;
+    private User user;
+    private Product bag;
+    private Product belt;
+
+    @BeforeEach
+    void setUp() {
+        transaction = new TransactionTemplate(transactionManager);
+        Category category = categoryRepository.save(Category.builder().name("Leather goods").build());
+        bag = productRepository.save(Product.builder().name("Bag").price(new BigDecimal("100.00"))
+                .stockQuantity(10).category(category).build());
+        belt = productRepository.save(Product.builder().name("Belt").price(new BigDecimal("25.00"))
+                .stockQuantity(10).category(category).build());
+        user = userRepository.save(User.builder().email("sales@example.com").fullName("Buyer").password("secret").build());
+    }
+
+    @AfterEach
+    void tearDown() {
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        List.of("sales_daily_product", "sales_daily_category", "sales_daily_totals", "sales_rollup_orders", "archived_orders")
+                .forEach(table -> jdbcTemplate.update("DELETE FROM " + table));
+        orderRepository.deleteAll();
+        productRepository.deleteAll();
+        categoryRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void syncIsIdempotentAndFollowsStatus() {
+        Long first = placeOrder(OrderStatus.CONFIRMED, PaymentStatus.COMPLETED, 2, 1);
+        Long second = placeOrder(OrderStatus.CREATED, PaymentStatus.PENDING, 1, 0);
+
+        assertTrue(sync(first));
+        assertFalse(sync(first));
+        assertFalse(sync(second));
+        assertTotals(1, 3, "225.00");
+
+        // Confirmed by an admin without payment: still not a sale.
+        setStatus(second, OrderStatus.CONFIRMED);
+        assertFalse(sync(second));
+        assertTotals(1, 3, "225.00");
+
+        transaction.executeWithoutResult(tx -> orderRepository.findById(second).orElseThrow()
+                .setPaymentStatus(PaymentStatus.COMPLETED));
+        assertTrue(sync(second));
+        assertTotals(2, 4, "325.00");
+
+        setStatus(first, OrderStatus.CANCELLED);
+        assertTrue(sync(first));
+        assertFalse(sync(first));
+        assertTotals(1, 1, "100.00");
+
+        List<SalesDtos.ProductSales> products = store.topProducts(LocalDate.now(), LocalDate.now(), 10);
+        assertEquals(List.of("Bag"), products.stream().map(SalesDtos.ProductSales::getProductName).toList());
+    }
+
+    @Test
+    void rebuildMatchesIncrementalRollups() {
+        Long first = placeOrder(OrderStatus.SHIPPED, PaymentStatus.COMPLETED, 1, 2);
+        Long second = placeOrder(OrderStatus.DELIVERED, PaymentStatus.COMPLETED, 0, 4);
+        placeOrder(OrderStatus.CANCELLED, PaymentStatus.COMPLETED, 3, 0);
+        placeOrder(OrderStatus.CONFIRMED, PaymentStatus.PENDING, 5, 5);
+        sync(first);
+        sync(second);
+        List<SalesDtos.DailySales> incremental = store.daily(LocalDate.now(), LocalDate.now());
+
+        assertEquals(3, store.rebuild(LocalDate.now().minusDays(1), LocalDate.now().plusDays(1)));
+
+        List<SalesDtos.DailySales> rebuilt = store.daily(LocalDate.now(), LocalDate.now());
+        assertEquals(1, rebuilt.size());
+        assertEquals(incremental.get(0).getOrderCount(), rebuilt.get(0).getOrderCount());
+        assertEquals(incremental.get(0).getUnits(), rebuilt.get(0).getUnits());
+        assertEquals(0, incremental.get(0).getRevenue().compareTo(rebuilt.get(0).getRevenue()));
+        assertFalse(sync(first));
+        assertEquals(2, store.categories(LocalDate.now(), LocalDate.now()).get(0).getOrderCount());
+    }
+
+    @Test
+    void rebuildRefusesDaysWithArchivedOrders() {
+        LocalDate day = LocalDate.now().minusDays(3);
+        Long old = placeOrder(OrderStatus.DELIVERED, PaymentStatus.COMPLETED, 1, 0);
+        Timestamp createdAt = Timestamp.valueOf(day.atTime(12, 0));
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.update("UPDATE orders SET created_at = ? WHERE id = ?", createdAt, old);
+        assertTrue(sync(old));
+
+        // What the archiver does to the live tables, in one transaction.
+        transaction.executeWithoutResult(tx -> {
+            jdbcTemplate.update("INSERT INTO archived_orders (order_id, user_id, order_number, status, created_at, archived_at, payload) "
+                    + "VALUES (?, ?, ?, 'DELIVERED', ?, ?, ?)", old, user.getId(), "ORD-ARCHIVED", createdAt,
+                    Timestamp.valueOf(LocalDateTime.now()), new byte[0]);
+            jdbcTemplate.update("DELETE FROM order_items WHERE order_id = ?", old);
+            jdbcTemplate.update("DELETE FROM orders WHERE id = ?", old);
+        });
+
+        assertEquals(day.plusDays(1), store.firstRebuildableDay());
+        assertThrows(BadRequestException.class, () -> store.rebuild(day, LocalDate.now()));
+        assertEquals(1, store.daily(day, day).get(0).getOrderCount());
+        assertEquals(3, store.rebuild(day.plusDays(1), LocalDate.now()));
+        assertEquals(0, new BigDecimal("100.00").compareTo(store.daily(day, day).get(0).getRevenue()));
+    }
+
+    private Long placeOrder(OrderStatus status, PaymentStatus paymentStatus, int bags, int belts) {
+        return transaction.execute(tx -> {
+            Order order = Order.builder().orderNumber("ORD-SALES-" + System.nanoTime()).user(user).status(status)
+                    .paymentStatus(paymentStatus).totalAmount(BigDecimal.ZERO).build();
+            if (bags > 0) {
+                order.getItems().add(OrderItem.builder().order(order).product(bag).quantity(bags).price(bag.getPrice()).build());
+            }
+            if (belts > 0) {
+                order.getItems().add(OrderItem.builder().order(order).product(belt).quantity(belts).price(belt.getPrice()).build());
+            }
+            return orderRepository.save(order).getId();
+        });
+    }
+
+    private void setStatus(Long orderId, OrderStatus status) {
+        transaction.executeWithoutResult(tx -> orderRepository.findById(orderId).orElseThrow().setStatus(status));
+    }
+
+    private boolean sync(Long orderId) {
+        return Boolean.TRUE.equals(transaction.execute(tx -> store.syncOrder(orderId)));
+    }
+
+    private void assertTotals(long orders, long units, String revenue) {
+        SalesDtos.DailySales today = store.daily(LocalDate.now(), LocalDate.now()).get(0);
+        assertEquals(orders, today.getOrderCount());
+        assertEquals(units, today.getUnits());
+        assertEquals(0, new BigDecimal(revenue).compareTo(today.getRevenue()));
+    }
+}
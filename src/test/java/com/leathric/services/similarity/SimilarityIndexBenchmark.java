@@ -0,0 +1,69 @@
+package com.leathric.services.similarity;
+
+import com.leathric.config.SimilarityProperties;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Full-batch timing for the similarity index on a synthetic catalog with a skewed (roughly Zipfian)
+ * vocabulary. Not part of the test suite; run manually, e.g.
+ * <pre>
+ * mvn -q test-compile exec:java -Dexec.classpathScope=test \
+ *     -Dexec.mainClass=com.leathric.services.similarity.SimilarityIndexBenchmark -Dexec.args="1000000"
+ * </pre>
+ * or from the IDE with {@code -Xmx3g}. Text is regenerated from the product id for the second pass,
+ * mirroring the two catalog scans of the real batch.
+ */
+public final class SimilarityIndexBenchmark {
+
+    private static final int VOCABULARY = 50_000;
+    private static final int CATEGORIES = 200;
+    private static final int NAME_WORDS = 5;
+    private static final int DESCRIPTION_WORDS = 40;
+
+    private SimilarityIndexBenchmark() {}
+
+    public static void main(String[] args) {
+        int products = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        int parallelism = args.length > 1 ? Integer.parseInt(args[1]) : Runtime.getRuntime().availableProcessors();
+        SimilarityProperties properties = new SimilarityProperties();
+        System.out.printf("products=%,d parallelism=%d%n", products, parallelism);
+
+        long started = System.nanoTime();
+        SimilarityIndex.Builder builder = SimilarityIndex.builder(properties);
+        for (int id = 1; id <= products; id++) {
+            builder.countTerms(text(id, 0, NAME_WORDS), text(id, 1, DESCRIPTION_WORDS));
+        }
+        for (int id = 1; id <= products; id++) {
+            builder.addProduct(id, text(id, 0, NAME_WORDS), text(id, 1, DESCRIPTION_WORDS), "category-" + (id % CATEGORIES));
+        }
+        SimilarityIndex index = builder.build();
+        long built = System.nanoTime();
+        System.out.printf("index built in %,d ms%n", (built - started) / 1_000_000);
+
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        NeighbourTable table = index.computeAll(properties.getNeighbours(), pool);
+        pool.shutdown();
+        long scored = System.nanoTime();
+        System.out.printf("neighbours computed in %,d ms (%,d products, %d per product)%n",
+                (scored - built) / 1_000_000, table.size(), table.width());
+
+        Runtime runtime = Runtime.getRuntime();
+        System.gc();
+        System.out.printf("heap used after batch: %,d MiB%n", (runtime.totalMemory() - runtime.freeMemory()) >> 20);
+        System.out.println("sample: product 1 -> " + java.util.Arrays.toString(table.neighbours(1)));
+    }
+
+    private static String text(int id, int field, int words) {
+        SplittableRandom random = new SplittableRandom(id * 31L + field);
+        StringBuilder sb = new StringBuilder(words * 8);
+        for (int i = 0; i < words; i++) {
+            // Cubing a uniform draw skews towards low word numbers, giving a few very common terms.
+            double u = random.nextDouble();
+            int word = (int) (u * u * u * VOCABULARY);
+            sb.append('w').append(Integer.toString(word, 36)).append(' ');
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,72 @@
+package com.leathric.services.similarity;
+
+import com.leathric.config.SimilarityProperties;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ForkJoinPool;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SimilarityIndexTest {
+
+    private static final String[][] CATALOG = {
+            {"1", "Brown Leather Bifold Wallet", "Slim bifold wallet with six card slots", "Wallets"},
+            {"2", "Black Leather Bifold Wallet", "Bifold wallet with coin pocket and card slots", "Wallets"},
+            {"3", "Canvas Weekender Duffle", "Roomy duffle for weekend trips", "Bags"},
+            {"4", "Leather Weekender Duffle", "Full-grain duffle with shoe compartment", "Bags"},
+            {"5", "Card Holder", "Minimal card holder with two card slots", "Wallets"},
+            {"6", "Leather Belt", "Classic belt with brass buckle", "Belts"},
+    };
+
+    private SimilarityIndex index;
+
+    @BeforeEach
+    void setUp() {
+        SimilarityIndex.Builder builder = SimilarityIndex.builder(new SimilarityProperties());
+        for (String[] product : CATALOG) {
+            builder.countTerms(product[1], product[2]);
+        }
+        for (String[] product : CATALOG) {
+            builder.addProduct(Long.parseLong(product[0]), product[1], product[2], product[3]);
+        }
+        index = builder.build();
+    }
+
+    @Test
+    void computeAll_ranksProductsSharingRareTermsFirst() {
+        NeighbourTable table = index.computeAll(3, new ForkJoinPool(2));
+
+        assertThat(table.neighbours(1L)).startsWith(2L).contains(5L).doesNotContain(1L, 3L);
+        assertThat(table.neighbours(3L)).containsExactly(4L);
+        // Every other belt term is unique, so only products sharing "leather" can be candidates.
+        assertThat(table.neighbours(6L)).containsExactlyInAnyOrder(1L, 2L, 4L);
+        assertThat(table.neighbours(99L)).isEmpty();
+    }
+
+    @Test
+    void neighboursOf_scoresEditedTextAndSkipsRemovedProducts() {
+        SimilarityIndex.Neighbours out = new SimilarityIndex.Neighbours(3);
+
+        index.neighboursOf(5L, "Weekender Duffle Tag", "Luggage tag for your duffle", "Bags", index.newScratch(3), out);
+        assertThat(out.ids()[0]).isIn(3L, 4L);
+        assertThat(out.ids()[1]).isIn(3L, 4L);
+
+        index.markRemoved(4L);
+        index.neighboursOf(5L, "Weekender Duffle Tag", "Luggage tag for your duffle", "Bags", index.newScratch(3), out);
+        assertThat(out.ids()).containsExactly(3L, 0L, 0L);
+    }
+
+    @Test
+    void storedRowsRoundTripThroughCodec() {
+        NeighbourTable table = index.computeAll(3, new ForkJoinPool(1));
+        int row = 0;
+        byte[] encoded = table.encodeRow(row);
+        long[] decoded = new long[3];
+
+        int count = NeighbourCodec.decodeIds(encoded, decoded, 0, 3);
+
+        assertThat(count).isEqualTo(table.neighboursAt(row).length);
+        assertThat(decoded).startsWith(table.neighboursAt(row));
+    }
+}